@@ -0,0 +1,190 @@
+package io.github.morichan.retuss.batch;
+
+import io.github.morichan.retuss.language.cpp.Cpp;
+import io.github.morichan.retuss.language.java.Java;
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.listener.CppProjectImporter;
+import io.github.morichan.retuss.listener.JavaProjectImporter;
+import io.github.morichan.retuss.project.Project;
+import io.github.morichan.retuss.project.ProjectWriter;
+import io.github.morichan.retuss.translator.Language;
+import io.github.morichan.retuss.translator.UMLTranslator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * <p> ソースコードからUMLモデルを出力するコマンドラインクラス </p>
+ *
+ * <p>
+ * JavaFXを一切初期化せずに、ディレクトリ以下の全てのソースコードを構文解析し、{@link UMLTranslator}でクラス図に翻訳して{@link UmlModelWriter}の形式でファイルに出力します。
+ * 出力ファイルの拡張子が {@code .retuss} の場合は{@link ProjectWriter}のバイナリ形式で出力し、そのままGUIで開けます。
+ * GUIを持たないビルドエージェント上でも実行できます。
+ * </p>
+ *
+ * <pre>
+ * java -cp retuss.jar io.github.morichan.retuss.batch.UmlExport [--language java|cpp] [--workers N] &lt;source-dir&gt; &lt;output-file&gt;
+ * </pre>
+ *
+ * <p>
+ * 言語を指定しない場合は、ディレクトリ以下に多く含まれる方の言語とします。
+ * 並列数を指定しない場合は、利用できるプロセッサ数とします。
+ * </p>
+ */
+public class UmlExport {
+
+    static final String USAGE = "Usage: UmlExport [--language java|cpp] [--workers N] <source-dir> <output-file>";
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    /**
+     * <p> 標準出力と標準エラー出力を用いるコマンドを生成します。 </p>
+     */
+    public UmlExport() {
+        this(System.out, System.err);
+    }
+
+    /**
+     * <p> 出力先を指定してコマンドを生成します。 </p>
+     *
+     * <p>
+     * テストコードで主に用いる。
+     * </p>
+     *
+     * @param out 結果の出力先
+     * @param err エラーの出力先
+     */
+    UmlExport(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * <p> メインメソッド </p>
+     *
+     * @param args コマンドライン引数
+     */
+    public static void main(String[] args) {
+        int status = new UmlExport().run(args);
+        if (status != 0) System.exit(status);
+    }
+
+    /**
+     * <p> コマンドを実行します。 </p>
+     *
+     * @param args コマンドライン引数
+     * @return 終了コード <br> 成功した場合は0、引数が不正な場合は2、入出力に失敗した場合は1
+     */
+    public int run(String[] args) {
+        Language language = null;
+        int workers = Runtime.getRuntime().availableProcessors();
+        Path sourceDirectory = null;
+        Path outputFile = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--language")) {
+                    language = parseLanguage(args[++i]);
+                } else if (args[i].equals("--workers")) {
+                    workers = Integer.parseInt(args[++i]);
+                    if (workers <= 0) throw new IllegalArgumentException("workers must be positive: " + workers);
+                } else if (sourceDirectory == null) {
+                    sourceDirectory = Paths.get(args[i]);
+                } else if (outputFile == null) {
+                    outputFile = Paths.get(args[i]);
+                } else {
+                    throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+            }
+            if (sourceDirectory == null || outputFile == null) throw new IllegalArgumentException("Source directory and output file are required.");
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            if (e.getMessage() != null && !(e instanceof ArrayIndexOutOfBoundsException)) err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+
+        if (!Files.isDirectory(sourceDirectory)) {
+            err.println(sourceDirectory + " is not a directory.");
+            return 2;
+        }
+
+        long startTime = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            if (language == null) language = detectLanguage(sourceDirectory);
+
+            Package umlPackage;
+            List<Path> skippedFiles;
+            if (language == Language.Java) {
+                JavaProjectImporter importer = new JavaProjectImporter(pool);
+                Java java = importer.importProject(sourceDirectory);
+                umlPackage = new UMLTranslator(pool).translate(java);
+                skippedFiles = importer.getSkippedFiles();
+            } else {
+                CppProjectImporter importer = new CppProjectImporter(pool);
+                Cpp cpp = importer.importProject(sourceDirectory);
+                umlPackage = new UMLTranslator(pool).translate(cpp);
+                skippedFiles = importer.getSkippedFiles();
+            }
+
+            if (outputFile.toAbsolutePath().getParent() != null) Files.createDirectories(outputFile.toAbsolutePath().getParent());
+            if (outputFile.getFileName().toString().endsWith(Project.EXTENSION)) {
+                try (OutputStream outputStream = Files.newOutputStream(outputFile)) {
+                    new ProjectWriter().write(new Project(umlPackage), outputStream);
+                }
+            } else {
+                try (Writer writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8)) {
+                    new UmlModelWriter().write(umlPackage, writer);
+                }
+            }
+
+            for (Path skippedFile : skippedFiles) err.println("Skipped " + skippedFile);
+            out.println("Exported " + umlPackage.getClasses().size() + " classes (" + language + ", " + workers + " workers) to "
+                    + outputFile + " in " + (System.nanoTime() - startTime) / 1_000_000 + " ms.");
+            return 0;
+
+        } catch (IOException e) {
+            err.println("Export failed: " + e.getMessage());
+            return 1;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Language parseLanguage(String name) {
+        if (name.equalsIgnoreCase("java")) return Language.Java;
+        if (name.equalsIgnoreCase("cpp") || name.equalsIgnoreCase("c++")) return Language.Cpp;
+        throw new IllegalArgumentException("Unknown language: " + name);
+    }
+
+    /**
+     * <p> ディレクトリ以下に多く含まれる方の言語を判定します。 </p>
+     *
+     * @param sourceDirectory ソースコードのディレクトリ
+     * @return 言語 <br> 同数の場合は {@link Language#Java}
+     * @throws IOException ディレクトリを走査できなかった場合
+     */
+    Language detectLanguage(Path sourceDirectory) throws IOException {
+        long javaCount;
+        long cppCount;
+        try (Stream<Path> paths = Files.walk(sourceDirectory)) {
+            javaCount = paths.filter(path -> path.getFileName().toString().endsWith(".java")).count();
+        }
+        try (Stream<Path> paths = Files.walk(sourceDirectory)) {
+            cppCount = paths.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".h") || name.endsWith(".hpp") || name.endsWith(".cpp") || name.endsWith(".cxx"))
+                    .count();
+        }
+        return cppCount > javaCount ? Language.Cpp : Language.Java;
+    }
+}
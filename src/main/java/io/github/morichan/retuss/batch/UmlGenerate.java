@@ -0,0 +1,194 @@
+package io.github.morichan.retuss.batch;
+
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.project.Project;
+import io.github.morichan.retuss.project.ProjectReader;
+import io.github.morichan.retuss.translator.Translator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p> UMLモデルからソースコードを生成するコマンドラインクラス </p>
+ *
+ * <p>
+ * {@link UmlModelReader}でUMLモデルを読み込み（拡張子が {@code .retuss} の場合は{@link ProjectReader}でプロジェクトファイルを読み込み）、{@link Translator}でJavaとC++にクラスごとに並列に翻訳し、クラスごとのファイルを並列に出力します。
+ * 各クラスの文字列はクラスごとに{@link java.io.BufferedWriter}へ直接書き込み、全クラスを連結した文字列は作りません。
+ * {@link UmlExport}と同様にJavaFXを初期化しません。
+ * </p>
+ *
+ * <pre>
+ * java -cp retuss.jar io.github.morichan.retuss.batch.UmlGenerate [--language java|cpp|all] [--workers N] &lt;model-file&gt; &lt;output-dir&gt;
+ * </pre>
+ *
+ * <p>
+ * Javaは {@code output-dir/java/ClassName.java} に、C++は {@code output-dir/cpp/ClassName.h} に出力します。
+ * 同じクラス名を持つクラスが複数ある場合は最初のクラスのみ出力します。
+ * </p>
+ */
+public class UmlGenerate {
+
+    static final String USAGE = "Usage: UmlGenerate [--language java|cpp|all] [--workers N] <model-file> <output-dir>";
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    /**
+     * <p> 標準出力と標準エラー出力を用いるコマンドを生成します。 </p>
+     */
+    public UmlGenerate() {
+        this(System.out, System.err);
+    }
+
+    /**
+     * <p> 出力先を指定してコマンドを生成します。 </p>
+     *
+     * <p>
+     * テストコードで主に用いる。
+     * </p>
+     *
+     * @param out 結果の出力先
+     * @param err エラーの出力先
+     */
+    UmlGenerate(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * <p> メインメソッド </p>
+     *
+     * @param args コマンドライン引数
+     */
+    public static void main(String[] args) {
+        int status = new UmlGenerate().run(args);
+        if (status != 0) System.exit(status);
+    }
+
+    /**
+     * <p> コマンドを実行します。 </p>
+     *
+     * @param args コマンドライン引数
+     * @return 終了コード <br> 成功した場合は0、引数が不正な場合は2、入出力に失敗した場合は1
+     */
+    public int run(String[] args) {
+        boolean generatesJava = true;
+        boolean generatesCpp = true;
+        int workers = Runtime.getRuntime().availableProcessors();
+        Path modelFile = null;
+        Path outputDirectory = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--language")) {
+                    String language = args[++i];
+                    generatesJava = language.equalsIgnoreCase("java") || language.equalsIgnoreCase("all");
+                    generatesCpp = language.equalsIgnoreCase("cpp") || language.equalsIgnoreCase("c++") || language.equalsIgnoreCase("all");
+                    if (!generatesJava && !generatesCpp) throw new IllegalArgumentException("Unknown language: " + language);
+                } else if (args[i].equals("--workers")) {
+                    workers = Integer.parseInt(args[++i]);
+                    if (workers <= 0) throw new IllegalArgumentException("workers must be positive: " + workers);
+                } else if (modelFile == null) {
+                    modelFile = Paths.get(args[i]);
+                } else if (outputDirectory == null) {
+                    outputDirectory = Paths.get(args[i]);
+                } else {
+                    throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+            }
+            if (modelFile == null || outputDirectory == null) throw new IllegalArgumentException("Model file and output directory are required.");
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            if (e.getMessage() != null && !(e instanceof ArrayIndexOutOfBoundsException)) err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+
+        if (!Files.isRegularFile(modelFile)) {
+            err.println(modelFile + " is not a file.");
+            return 2;
+        }
+
+        long startTime = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            Package umlPackage;
+            if (modelFile.getFileName().toString().endsWith(Project.EXTENSION)) {
+                try (InputStream inputStream = Files.newInputStream(modelFile)) {
+                    umlPackage = new ProjectReader().read(inputStream).getPackage();
+                }
+            } else {
+                try (Reader reader = Files.newBufferedReader(modelFile, StandardCharsets.UTF_8)) {
+                    umlPackage = new UmlModelReader().read(reader);
+                }
+            }
+
+            Translator translator = new Translator(pool);
+            translator.translate(umlPackage);
+
+            List<Generation> generations = new ArrayList<>();
+            if (generatesJava) {
+                Path javaDirectory = Files.createDirectories(outputDirectory.resolve("java"));
+                Map<String, Object> classes = new LinkedHashMap<>();
+                for (io.github.morichan.retuss.language.java.Class javaClass : translator.getJava().getClasses()) classes.putIfAbsent(javaClass.getName(), javaClass);
+                classes.forEach((name, javaClass) -> generations.add(new Generation(javaDirectory.resolve(name + ".java"), javaClass)));
+            }
+            if (generatesCpp) {
+                Path cppDirectory = Files.createDirectories(outputDirectory.resolve("cpp"));
+                Map<String, Object> classes = new LinkedHashMap<>();
+                for (io.github.morichan.retuss.language.cpp.Class cppClass : translator.getCpp().getClasses()) classes.putIfAbsent(cppClass.getName(), cppClass);
+                classes.forEach((name, cppClass) -> generations.add(new Generation(cppDirectory.resolve(name + ".h"), cppClass)));
+            }
+
+            pool.submit(() -> generations.parallelStream().forEach(this::generate)).get();
+
+            out.println("Generated " + generations.size() + " files from " + umlPackage.getClasses().size() + " classes ("
+                    + workers + " workers) to " + outputDirectory + " in " + (System.nanoTime() - startTime) / 1_000_000 + " ms.");
+            return 0;
+
+        } catch (IOException e) {
+            err.println("Generation failed: " + e.getMessage());
+            return 1;
+        } catch (ExecutionException e) {
+            err.println("Generation failed: " + e.getCause().getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            err.println("Generation was interrupted.");
+            return 1;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void generate(Generation generation) {
+        try (Writer writer = Files.newBufferedWriter(generation.file, StandardCharsets.UTF_8)) {
+            writer.write(generation.sourceClass.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(generation.file + " could not be written.", e);
+        }
+    }
+
+    private static class Generation {
+        private final Path file;
+        private final Object sourceClass;
+
+        private Generation(Path file, Object sourceClass) {
+            this.file = file;
+            this.sourceClass = sourceClass;
+        }
+    }
+}
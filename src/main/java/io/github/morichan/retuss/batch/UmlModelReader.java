@@ -0,0 +1,100 @@
+package io.github.morichan.retuss.batch;
+
+import io.github.morichan.fescue.feature.Attribute;
+import io.github.morichan.fescue.feature.Operation;
+import io.github.morichan.fescue.sculptor.AttributeSculptor;
+import io.github.morichan.fescue.sculptor.OperationSculptor;
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.window.diagram.OperationGraphic;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p> UMLモデルのテキスト入力クラス </p>
+ *
+ * <p>
+ * {@link UmlModelWriter}で出力したテキストを1行ずつ読み込み、クラス図の{@link Package}を復元します。
+ * 汎化クラスは全てのクラスを読み込んだ後にクラス名で解決し、パッケージ内に存在しない場合は汎化クラス無しとします。
+ * 空行と {@code #} から始まる行は無視します。
+ * </p>
+ */
+public class UmlModelReader {
+
+    /**
+     * <p> パッケージを読み込みます。 </p>
+     *
+     * @param reader 入力元 <br> 閉じない
+     * @return パッケージ
+     * @throws IOException 入力できなかった場合、または解釈できない行を含む場合
+     */
+    public Package read(Reader reader) throws IOException {
+        BufferedReader bufferedReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+
+        Package umlPackage = new Package();
+        Map<Class, String> generalizationNames = new LinkedHashMap<>();
+        Class umlClass = null;
+
+        String line;
+        int lineNumber = 0;
+        while ((line = bufferedReader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty() || line.startsWith("#")) continue;
+
+            try {
+                if (line.startsWith(UmlModelWriter.PACKAGE)) {
+                    umlPackage.setName(line.substring(UmlModelWriter.PACKAGE.length()).trim());
+                } else if (line.startsWith(UmlModelWriter.CLASS)) {
+                    String declaration = line.substring(UmlModelWriter.CLASS.length());
+                    int extendsIndex = declaration.indexOf(UmlModelWriter.EXTENDS);
+                    if (extendsIndex < 0) {
+                        umlClass = new Class(declaration.trim());
+                    } else {
+                        umlClass = new Class(declaration.substring(0, extendsIndex).trim());
+                        generalizationNames.put(umlClass, declaration.substring(extendsIndex + UmlModelWriter.EXTENDS.length()).trim());
+                    }
+                    umlPackage.addClass(umlClass);
+                } else if (umlClass == null) {
+                    throw new IllegalArgumentException("no class is declared");
+                } else if (line.startsWith(UmlModelWriter.ATTRIBUTE)) {
+                    umlClass.addAttribute(carveAttribute(line.substring(UmlModelWriter.ATTRIBUTE.length())));
+                } else if (line.startsWith(UmlModelWriter.RELATION)) {
+                    umlClass.addRelation(carveAttribute(line.substring(UmlModelWriter.RELATION.length())));
+                } else if (line.startsWith(UmlModelWriter.OPERATION)) {
+                    umlClass.addOperation(new OperationGraphic(carveOperation(line.substring(UmlModelWriter.OPERATION.length()))), false);
+                } else if (line.startsWith(UmlModelWriter.ABSTRACT_OPERATION)) {
+                    umlClass.addOperation(new OperationGraphic(carveOperation(line.substring(UmlModelWriter.ABSTRACT_OPERATION.length()))), true);
+                } else {
+                    throw new IllegalArgumentException("unknown element");
+                }
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                throw new IOException("Line " + lineNumber + " could not be read: " + line, e);
+            }
+        }
+
+        Map<String, Class> classes = new HashMap<>();
+        for (Class oneClass : umlPackage.getClasses()) classes.putIfAbsent(oneClass.getName(), oneClass);
+        for (Map.Entry<Class, String> entry : generalizationNames.entrySet()) {
+            entry.getKey().setGeneralizationClass(classes.get(entry.getValue()));
+        }
+
+        return umlPackage;
+    }
+
+    private Attribute carveAttribute(String text) {
+        AttributeSculptor sculptor = new AttributeSculptor();
+        sculptor.parse(text);
+        return sculptor.carve();
+    }
+
+    private Operation carveOperation(String text) {
+        OperationSculptor sculptor = new OperationSculptor();
+        sculptor.parse(text);
+        return sculptor.carve();
+    }
+}
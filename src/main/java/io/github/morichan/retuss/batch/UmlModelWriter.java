@@ -0,0 +1,87 @@
+package io.github.morichan.retuss.batch;
+
+import io.github.morichan.fescue.feature.Attribute;
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.window.diagram.OperationGraphic;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <p> UMLモデルのテキスト出力クラス </p>
+ *
+ * <p>
+ * クラス図の{@link Package}を1行1要素のテキストとして出力します。
+ * 属性と操作はfescueの表記で出力するため、{@link io.github.morichan.fescue.sculptor.AttributeSculptor}や{@link io.github.morichan.fescue.sculptor.OperationSculptor}でそのまま読み戻せます。
+ * </p>
+ *
+ * <pre>
+ * # RETUSS UML model 1
+ * package main
+ *
+ * class Shape
+ * abstract operation + getArea() : double
+ *
+ * class Circle extends Shape
+ * attribute - radius : double
+ * relation - center : Point
+ * operation + getArea() : double
+ * </pre>
+ *
+ * <p>
+ * シーケンス図（操作ごとの{@link io.github.morichan.retuss.window.diagram.sequence.Interaction}）は出力しません。
+ * </p>
+ */
+public class UmlModelWriter {
+
+    /**
+     * <p> 出力形式のバージョン </p>
+     */
+    public static final int VERSION = 1;
+
+    static final String HEADER = "# RETUSS UML model ";
+    static final String PACKAGE = "package ";
+    static final String CLASS = "class ";
+    static final String EXTENDS = " extends ";
+    static final String ATTRIBUTE = "attribute ";
+    static final String RELATION = "relation ";
+    static final String OPERATION = "operation ";
+    static final String ABSTRACT_OPERATION = "abstract operation ";
+
+    /**
+     * <p> パッケージを出力します。 </p>
+     *
+     * <p>
+     * 出力先はバッファリングしません。
+     * 必要に応じて{@link java.io.BufferedWriter}を渡してください。
+     * </p>
+     *
+     * @param umlPackage 出力したいパッケージ
+     * @param writer 出力先 <br> 閉じない
+     * @throws IOException 出力できなかった場合
+     */
+    public void write(Package umlPackage, Writer writer) throws IOException {
+        writer.write(HEADER + VERSION + "\n");
+        writer.write(PACKAGE + umlPackage.getName() + "\n");
+
+        for (Class umlClass : umlPackage.getClasses()) {
+            writer.write("\n");
+            writeClass(umlClass, writer);
+        }
+
+        writer.flush();
+    }
+
+    private void writeClass(Class umlClass, Writer writer) throws IOException {
+        writer.write(CLASS + umlClass.getName());
+        if (umlClass.getGeneralizationClass() != null) writer.write(EXTENDS + umlClass.getGeneralizationClass().getName());
+        writer.write("\n");
+
+        for (Attribute attribute : umlClass.extractAttributes()) writer.write(ATTRIBUTE + attribute + "\n");
+        for (Attribute relation : umlClass.extractRelations()) writer.write(RELATION + relation + "\n");
+        for (OperationGraphic operationGraphic : umlClass.getOperationGraphics()) {
+            writer.write((operationGraphic.isAbstract() ? ABSTRACT_OPERATION : OPERATION) + operationGraphic.getOperation() + "\n");
+        }
+    }
+}
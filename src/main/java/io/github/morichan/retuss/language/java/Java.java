@@ -1,7 +1,10 @@
 package io.github.morichan.retuss.language.java;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * <p> Javaクラス </p>
@@ -9,6 +12,7 @@ import java.util.List;
 public class Java {
 
     private List<Class> classes = new ArrayList<>();
+    private Map<String, Class> classIndex = new HashMap<>();
 
     /**
      * <p> クラスのリストにクラスを追加します </p>
@@ -20,7 +24,10 @@ public class Java {
      * @param javaClass クラス <br> {@code null} 無視
      */
     public void addClass(Class javaClass) {
-        if (javaClass != null) classes.add(javaClass);
+        if (javaClass != null) {
+            classes.add(javaClass);
+            classIndex.putIfAbsent(javaClass.getName(), javaClass);
+        }
     }
 
     /**
@@ -35,7 +42,10 @@ public class Java {
      */
     public void setClasses(List<Class> classes) {
         if (classes != null) for (Class javaClass : classes) addClass(javaClass);
-        else this.classes.clear();
+        else {
+            this.classes.clear();
+            classIndex.clear();
+        }
     }
 
     /**
@@ -57,4 +67,25 @@ public class Java {
     public void emptyClasses() {
         setClasses(null);
     }
+
+    /**
+     * <p> クラス名からクラスを探索します </p>
+     *
+     * <p>
+     * クラス名をキーとした索引から探索するため、クラスの数に関わらず一定の時間で探索できます。
+     * 同じ名前のクラスが複数ある場合は、最初に追加したクラスを返します。
+     * 索引に登録したクラスの名前を後から変更していた場合や索引に存在しない場合は、クラスのリストを先頭から探索します。
+     * そのため、追加した後に名前を変更したクラスも変更後の名前で探索できます。
+     * 探索では索引を書き換えないため、クラスを追加しない間は複数のスレッドから同時に探索できます。
+     * </p>
+     *
+     * @param name クラス名
+     * @return クラス <br> 存在しない場合は {@code null}
+     */
+    public Class findClass(String name) {
+        Class indexed = classIndex.get(name);
+        if (indexed != null && Objects.equals(indexed.getName(), name)) return indexed;
+        for (Class javaClass : classes) if (Objects.equals(javaClass.getName(), name)) return javaClass;
+        return null;
+    }
 }
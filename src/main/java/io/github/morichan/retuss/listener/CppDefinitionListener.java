@@ -0,0 +1,126 @@
+package io.github.morichan.retuss.listener;
+
+import io.github.morichan.retuss.parser.cpp.CPP14BaseListener;
+import io.github.morichan.retuss.parser.cpp.CPP14Parser;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p> クラス外で定義したメンバ関数を抽出するリスナークラス </p>
+ *
+ * <p>
+ * {@code void ClassName::function(int x) {}} のように、クラス指定子の外で修飾名を用いて定義したメンバ関数を抽出します。
+ * ヘッダファイルのクラス宣言と組み合わせるために、クラス名、関数名、引数の数および関数の実装を保持します。
+ * </p>
+ */
+public class CppDefinitionListener extends CPP14BaseListener {
+
+    private List<Definition> definitions = new ArrayList<>();
+    private int classspecifierDepth = 0;
+
+    @Override
+    public void enterClassspecifier(CPP14Parser.ClassspecifierContext ctx) {
+        classspecifierDepth++;
+    }
+
+    @Override
+    public void exitClassspecifier(CPP14Parser.ClassspecifierContext ctx) {
+        classspecifierDepth--;
+    }
+
+    @Override
+    public void enterFunctiondefinition(CPP14Parser.FunctiondefinitionContext ctx) {
+        if (classspecifierDepth > 0) return;
+
+        CPP14Parser.QualifiedidContext qualifiedid = findFirst(ctx.declarator(), CPP14Parser.QualifiedidContext.class);
+        if (qualifiedid == null || qualifiedid.nestednamespecifier() == null || qualifiedid.unqualifiedid() == null) return;
+
+        String className = extractClassName(qualifiedid.nestednamespecifier().getText());
+        if (className.isEmpty()) return;
+
+        CPP14Parser.ParametersandqualifiersContext parameters = findFirst(ctx.declarator(), CPP14Parser.ParametersandqualifiersContext.class);
+
+        definitions.add(new Definition(className, qualifiedid.unqualifiedid().getText(), countParameters(parameters), ctx.functionbody().getText()));
+    }
+
+    public List<Definition> getDefinitions() {
+        return definitions;
+    }
+
+    /**
+     * <p> 入れ子名前指定子から最も内側のクラス名を抽出します。 </p>
+     *
+     * @param nestedNameSpecifier {@code ns::ClassName::} のような入れ子名前指定子の文字列
+     * @return クラス名 <br> 見つからない場合は空文字
+     */
+    private String extractClassName(String nestedNameSpecifier) {
+        String[] names = nestedNameSpecifier.split("::");
+        for (int i = names.length - 1; i >= 0; i--) {
+            if (!names[i].isEmpty()) return names[i];
+        }
+        return "";
+    }
+
+    private int countParameters(CPP14Parser.ParametersandqualifiersContext ctx) {
+        if (ctx == null || ctx.parameterdeclarationclause() == null) return 0;
+
+        int count = 0;
+        CPP14Parser.ParameterdeclarationlistContext list = ctx.parameterdeclarationclause().parameterdeclarationlist();
+        while (list != null) {
+            count++;
+            list = list.parameterdeclarationlist();
+        }
+        return count;
+    }
+
+    private <T extends ParseTree> T findFirst(ParseTree tree, java.lang.Class<T> type) {
+        if (tree == null) return null;
+        if (type.isInstance(tree)) return type.cast(tree);
+
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            T found = findFirst(tree.getChild(i), type);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    /**
+     * <p> クラス外で定義したメンバ関数クラス </p>
+     */
+    public static class Definition {
+        private final String className;
+        private final String functionName;
+        private final int argumentCount;
+        private final String functionbody;
+
+        Definition(String className, String functionName, int argumentCount, String functionbody) {
+            this.className = className;
+            this.functionName = functionName;
+            this.argumentCount = argumentCount;
+            this.functionbody = functionbody;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getFunctionName() {
+            return functionName;
+        }
+
+        public int getArgumentCount() {
+            return argumentCount;
+        }
+
+        public String getFunctionbody() {
+            return functionbody;
+        }
+
+        @Override
+        public String toString() {
+            return className + "::" + functionName;
+        }
+    }
+}
@@ -281,6 +281,7 @@ if(!(isEqualZero == true && isVirtual == false)) {
     @Override
     public void enterFunctionbody(CPP14Parser.FunctionbodyContext ctx) {
         //  MemberFunction memberFunction = new MemberFunction();
+        if (!classspecifierFlag) return;        //クラス外で定義したメンバ関数はCppDefinitionListenerで扱う
         String functionbody;
         functionbody = "defo\n";
         functionbody = ctx.getText();
@@ -1,32 +1,66 @@
 package io.github.morichan.retuss.listener;
 
 import io.github.morichan.retuss.language.cpp.Cpp;
+import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import io.github.morichan.retuss.parser.cpp.CPP14Lexer;
 import io.github.morichan.retuss.parser.cpp.CPP14Parser;
 
 public class CppLanguage {
+    private static final ParserPool<CPP14Lexer, CPP14Parser> parserPool = new ParserPool<>(CPP14Lexer::new, CPP14Parser::new, CPP14Parser::translationunit);
+
     private CppEvalListener cppEvalListener = new CppEvalListener();
 
     private Cpp cpp;
+    private PredictionMode lastPredictionMode;
 
     public Cpp getCpp() {
         return cpp;
     }
 
     public void parseForClassDiagram(String code) {
+        parseForClassDiagram(CharStreams.fromString(code));
+    }
+
+    /**
+     * <p> 文字ストリームを構文解析します。 </p>
+     *
+     * <p>
+     * {@link SourceFileLoader}で読み込んだファイルを、文字列を経由せずに構文解析する場合に用います。
+     * </p>
+     *
+     * @param code 構文解析したいコードの文字ストリーム
+     */
+    public void parseForClassDiagram(CharStream code) {
         walk(code);
         cpp = cppEvalListener.getCpp();
     }
 
-    private void walk(String code) {
-        CPP14Lexer lexer = new CPP14Lexer(CharStreams.fromString(code));
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        CPP14Parser parser = new CPP14Parser(tokens);
-        ParseTree tree = parser.translationunit();
+    /**
+     * <p> 直前の構文解析を完了した予測モードを取得します。 </p>
+     *
+     * @return {@link PredictionMode#SLL}または{@link PredictionMode#LL} <br> 構文解析していない場合は {@code null}
+     */
+    public PredictionMode getLastPredictionMode() {
+        return lastPredictionMode;
+    }
+
+    /**
+     * <p> 全インスタンスで共有しているレキサとパーサのプールを取得します。 </p>
+     *
+     * @return プール
+     */
+    public static ParserPool<CPP14Lexer, CPP14Parser> getParserPool() {
+        return parserPool;
+    }
+
+    private void walk(CharStream code) {
+        ParserPool.Result result = parserPool.parse(code);
+        lastPredictionMode = result.getPredictionMode();
+        ParseTree tree = result.getTree();
       //  ParseTree tree = parser.classspecifier();
         ParseTreeWalker walker = new ParseTreeWalker();
         cppEvalListener = new CppEvalListener();
@@ -0,0 +1,219 @@
+package io.github.morichan.retuss.listener;
+
+import io.github.morichan.retuss.language.cpp.Class;
+import io.github.morichan.retuss.language.cpp.Cpp;
+import io.github.morichan.retuss.language.cpp.MemberFunction;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p> C++プロジェクトのインポートクラス </p>
+ *
+ * <p>
+ * ディレクトリ以下の全てのヘッダファイル（.h, .hpp）とソースファイル（.cpp, .cxx）を{@link ForkJoinPool}上で並列に構文解析し、1つの{@link Cpp}にまとめます。
+ * クラス宣言は{@link CppEvalListener}で、クラス外で定義したメンバ関数は{@link CppDefinitionListener}で抽出します。
+ * その後、クラス外で定義したメンバ関数をクラス名、関数名および引数の数が一致する宣言と組み合わせ、実装を設定します。
+ * </p>
+ *
+ * <p>
+ * 構文解析にかかった時間はファイルごとに{@link #getParseMillis()}で取得できます。
+ * 構文解析できなかったファイルや読み込めなかったファイルは無視し、{@link #getSkippedFiles()}で取得できます。
+ * </p>
+ */
+public class CppProjectImporter {
+
+    static final List<String> extensions = Arrays.asList(".h", ".hpp", ".cpp", ".cxx");
+
+    private final ForkJoinPool pool;
+    private final List<Path> skippedFiles = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Path, Long> parseMillis = new LinkedHashMap<>();
+    private final List<CppDefinitionListener.Definition> unpairedDefinitions = new ArrayList<>();
+
+    /**
+     * <p> 共通の{@link ForkJoinPool}を用いるインポータを生成します。 </p>
+     */
+    public CppProjectImporter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * <p> 構文解析に用いる{@link ForkJoinPool}を指定してインポータを生成します。 </p>
+     *
+     * @param pool 構文解析に用いるプール
+     */
+    public CppProjectImporter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * <p> ディレクトリ以下の全てのC++ファイルを構文解析します。 </p>
+     *
+     * @param root プロジェクトのルートディレクトリ
+     * @return 全てのクラスを持つCpp
+     * @throws IOException ディレクトリを走査できなかった場合
+     */
+    public Cpp importProject(Path root) throws IOException {
+        skippedFiles.clear();
+        parseMillis.clear();
+        unpairedDefinitions.clear();
+
+        List<Path> files = findSourceFiles(root);
+
+        List<ParsedFile> parsedFiles;
+        try {
+            parsedFiles = pool.submit(() -> files.parallelStream()
+                    .map(this::parse)
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("C++ project import was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("C++ project import failed.", e.getCause());
+        }
+
+        Cpp cpp = new Cpp();
+        Map<String, Class> classes = new HashMap<>();
+        for (ParsedFile parsedFile : parsedFiles) {
+            parseMillis.put(parsedFile.file, parsedFile.millis);
+            for (Class cppClass : parsedFile.classes) {
+                cpp.addClass(cppClass);
+                classes.putIfAbsent(cppClass.getName(), cppClass);
+            }
+        }
+
+        for (ParsedFile parsedFile : parsedFiles) {
+            for (CppDefinitionListener.Definition definition : parsedFile.definitions) {
+                if (!pair(classes.get(definition.getClassName()), definition)) unpairedDefinitions.add(definition);
+            }
+        }
+
+        return cpp;
+    }
+
+    /**
+     * <p> 直前のインポートでファイルごとに構文解析にかかった時間を取得します。 </p>
+     *
+     * @return ファイルパス順のファイルと時間（ミリ秒）のマップ
+     */
+    public Map<Path, Long> getParseMillis() {
+        return new LinkedHashMap<>(parseMillis);
+    }
+
+    /**
+     * <p> 直前のインポートで無視したファイルのリストを取得します。 </p>
+     *
+     * @return ファイルのリスト <br> 要素数0の可能性あり
+     */
+    public List<Path> getSkippedFiles() {
+        synchronized (skippedFiles) {
+            return new ArrayList<>(skippedFiles);
+        }
+    }
+
+    /**
+     * <p> 直前のインポートで宣言と組み合わせられなかったクラス外のメンバ関数定義のリストを取得します。 </p>
+     *
+     * @return 定義のリスト <br> 要素数0の可能性あり
+     */
+    public List<CppDefinitionListener.Definition> getUnpairedDefinitions() {
+        return new ArrayList<>(unpairedDefinitions);
+    }
+
+    private List<Path> findSourceFiles(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> extensions.stream().anyMatch(extension -> path.getFileName().toString().endsWith(extension)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private ParsedFile parse(Path file) {
+        long startTime = System.nanoTime();
+        ParsedFile parsedFile = new ParsedFile(file);
+
+        try {
+            ParseTree tree = CppLanguage.getParserPool().parse(new SourceFileLoader().load(file)).getTree();
+            ParseTreeWalker walker = new ParseTreeWalker();
+
+            CppDefinitionListener cppDefinitionListener = new CppDefinitionListener();
+            walker.walk(cppDefinitionListener, tree);
+            parsedFile.definitions = cppDefinitionListener.getDefinitions();
+
+            CppEvalListener cppEvalListener = new CppEvalListener();
+            walker.walk(cppEvalListener, tree);
+            parsedFile.classes = cppEvalListener.getCpp().getClasses();
+
+        } catch (IOException e) {
+            System.out.println("This is Read Error because " + file + " could not be read, so skipped.");
+            skippedFiles.add(file);
+        } catch (NullPointerException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            System.out.println("This is Parse Error because CppEvalListener could not parse " + file + ", so skipped.");
+            skippedFiles.add(file);
+        }
+
+        parsedFile.millis = (System.nanoTime() - startTime) / 1_000_000;
+        return parsedFile;
+    }
+
+    /**
+     * <p> クラス外で定義したメンバ関数を宣言と組み合わせます。 </p>
+     *
+     * <p>
+     * 関数名と引数の数が一致し、まだ実装を持たない宣言を優先します。
+     * 見つからなかった場合は関数名のみが一致する宣言と組み合わせます。
+     * </p>
+     *
+     * @param cppClass 宣言を持つクラス
+     * @param definition クラス外で定義したメンバ関数
+     * @return 組み合わせた場合は {@code true}
+     */
+    private boolean pair(Class cppClass, CppDefinitionListener.Definition definition) {
+        if (cppClass == null) return false;
+
+        MemberFunction nameMatched = null;
+        for (MemberFunction memberFunction : cppClass.getMemberFunctions()) {
+            if (!definition.getFunctionName().equals(memberFunction.getName()) || memberFunction.getFlagImplementation()) continue;
+            if (memberFunction.getArguments().size() == definition.getArgumentCount()) {
+                implement(memberFunction, definition);
+                return true;
+            }
+            if (nameMatched == null) nameMatched = memberFunction;
+        }
+
+        if (nameMatched == null) return false;
+        implement(nameMatched, definition);
+        return true;
+    }
+
+    private void implement(MemberFunction memberFunction, CppDefinitionListener.Definition definition) {
+        memberFunction.setFunctionbody(definition.getFunctionbody());
+        memberFunction.setFlagImplementation(true);
+    }
+
+    private static class ParsedFile {
+        private final Path file;
+        private List<Class> classes = Collections.emptyList();
+        private List<CppDefinitionListener.Definition> definitions = Collections.emptyList();
+        private long millis;
+
+        private ParsedFile(Path file) {
+            this.file = file;
+        }
+    }
+}
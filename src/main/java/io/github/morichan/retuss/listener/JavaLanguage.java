@@ -1,19 +1,36 @@
 package io.github.morichan.retuss.listener;
 
 import io.github.morichan.retuss.language.java.Java;
+import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import io.github.morichan.retuss.parser.java.JavaLexer;
 import io.github.morichan.retuss.parser.java.JavaParser;
 
 public class JavaLanguage {
+    private static final ParserPool<JavaLexer, JavaParser> parserPool = new ParserPool<>(JavaLexer::new, JavaParser::new, JavaParser::compilationUnit);
+
     private JavaEvalListener javaEvalListener = new JavaEvalListener();
 
     private Java java;
+    private PredictionMode lastPredictionMode;
 
     public void parseForClassDiagram(String code) {
+        parseForClassDiagram(CharStreams.fromString(code));
+    }
+
+    /**
+     * <p> 文字ストリームを構文解析します。 </p>
+     *
+     * <p>
+     * {@link SourceFileLoader}で読み込んだファイルを、文字列を経由せずに構文解析する場合に用います。
+     * </p>
+     *
+     * @param code 構文解析したいコードの文字ストリーム
+     */
+    public void parseForClassDiagram(CharStream code) {
         walk(code);
         java = javaEvalListener.getJava();
     }
@@ -22,21 +39,39 @@ public class JavaLanguage {
         return java;
     }
 
+    /**
+     * <p> 直前の構文解析を完了した予測モードを取得します。 </p>
+     *
+     * @return {@link PredictionMode#SLL}または{@link PredictionMode#LL} <br> 構文解析していない場合は {@code null}
+     */
+    public PredictionMode getLastPredictionMode() {
+        return lastPredictionMode;
+    }
+
+    /**
+     * <p> 全インスタンスで共有しているレキサとパーサのプールを取得します。 </p>
+     *
+     * @return プール
+     */
+    public static ParserPool<JavaLexer, JavaParser> getParserPool() {
+        return parserPool;
+    }
+
     /**
      * <p> コードを走査する。 </p>
      *
      * <p>
      * 引数として受け取った文字列をレキサ、パーサにかける。
+     * レキサとパーサは{@link ParserPool}から借りて再利用し、まずSLLで構文解析して失敗した場合のみLLで構文解析し直す。
      * もし正しいコードでなかった場合は標準出力にその旨を表示するが、エラーとして出力するわけではないことに注意する必要がある。
      * </p>
      *
-     * @param code 構文解析したいコードの文字列
+     * @param code 構文解析したいコードの文字ストリーム
      */
-    private void walk(String code) {
-        JavaLexer lexer = new JavaLexer(CharStreams.fromString(code));
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        JavaParser parser = new JavaParser(tokens);
-        ParseTree tree = parser.compilationUnit();
+    private void walk(CharStream code) {
+        ParserPool.Result result = parserPool.parse(code);
+        lastPredictionMode = result.getPredictionMode();
+        ParseTree tree = result.getTree();
         ParseTreeWalker walker = new ParseTreeWalker();
         javaEvalListener = new JavaEvalListener();
         walker.walk(javaEvalListener, tree);
@@ -0,0 +1,116 @@
+package io.github.morichan.retuss.listener;
+
+import io.github.morichan.retuss.language.java.Class;
+import io.github.morichan.retuss.language.java.Java;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p> Javaプロジェクトのインポートクラス </p>
+ *
+ * <p>
+ * ディレクトリ以下の全ての.javaファイルを{@link ForkJoinPool}上で並列に構文解析し、1つの{@link Java}にまとめます。
+ * 各ファイルの構文解析はそれぞれ別の{@link JavaLanguage}（すなわち別の{@link JavaEvalListener}）で行います。
+ * 結果のクラスの順番はファイルパスの辞書順であり、並列度に関わらず同じになります。
+ * </p>
+ *
+ * <p>
+ * 構文解析できなかったファイルや読み込めなかったファイルは無視し、{@link #getSkippedFiles()}で取得できます。
+ * </p>
+ */
+public class JavaProjectImporter {
+
+    private final ForkJoinPool pool;
+    private final List<Path> skippedFiles = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * <p> 共通の{@link ForkJoinPool}を用いるインポータを生成します。 </p>
+     */
+    public JavaProjectImporter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * <p> 構文解析に用いる{@link ForkJoinPool}を指定してインポータを生成します。 </p>
+     *
+     * @param pool 構文解析に用いるプール
+     */
+    public JavaProjectImporter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * <p> ディレクトリ以下の全ての.javaファイルを構文解析します。 </p>
+     *
+     * @param root プロジェクトのルートディレクトリ
+     * @return 全てのクラスを持つJava
+     * @throws IOException ディレクトリを走査できなかった場合
+     */
+    public Java importProject(Path root) throws IOException {
+        skippedFiles.clear();
+
+        List<Path> files = findSourceFiles(root);
+
+        List<List<Class>> classesPerFile;
+        try {
+            classesPerFile = pool.submit(() -> files.parallelStream()
+                    .map(this::parse)
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Java project import was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Java project import failed.", e.getCause());
+        }
+
+        Java java = new Java();
+        for (List<Class> classes : classesPerFile) {
+            for (Class javaClass : classes) java.addClass(javaClass);
+        }
+
+        return java;
+    }
+
+    /**
+     * <p> 直前のインポートで無視したファイルのリストを取得します。 </p>
+     *
+     * @return ファイルのリスト <br> 要素数0の可能性あり
+     */
+    public List<Path> getSkippedFiles() {
+        synchronized (skippedFiles) {
+            return new ArrayList<>(skippedFiles);
+        }
+    }
+
+    private List<Path> findSourceFiles(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().endsWith(".java"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private List<Class> parse(Path file) {
+        try {
+            JavaLanguage javaLanguage = new JavaLanguage();
+            javaLanguage.parseForClassDiagram(new SourceFileLoader().load(file));
+            return new ArrayList<>(javaLanguage.getJava().getClasses());
+        } catch (IOException e) {
+            System.out.println("This is Read Error because " + file + " could not be read, so skipped.");
+        } catch (NullPointerException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            System.out.println("This is Parse Error because JavaEvalListener could not parse " + file + ", so skipped.");
+        }
+        skippedFiles.add(file);
+        return Collections.emptyList();
+    }
+}
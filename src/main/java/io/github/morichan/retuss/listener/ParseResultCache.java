@@ -0,0 +1,95 @@
+package io.github.morichan.retuss.listener;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * <p> 構文解析結果のキャッシュクラス </p>
+ *
+ * <p>
+ * タブなどの編集単位を表すキーとコードの内容を組にして、構文解析結果のクラスを保持します。
+ * キーは同一性で比較し、キーが不要になった場合はガベージコレクションによってエントリも破棄されます。
+ * コードはハッシュ値で比較した後に内容でも比較するため、ハッシュ値が衝突しても誤った結果を返すことはありません。
+ * </p>
+ *
+ * @param <T> 構文解析結果のクラスの型
+ */
+public class ParseResultCache<T> {
+
+    private final Map<Object, Entry<T>> entries = new WeakHashMap<>();
+
+    /**
+     * <p> キャッシュ済みの構文解析結果を取得します。 </p>
+     *
+     * @param key 編集単位を表すキー
+     * @param code 構文解析したいコードの文字列
+     * @return 構文解析結果 <br> キーに対応するエントリがない場合やコードが変更されていた場合は {@code null}
+     */
+    public synchronized T get(Object key, String code) {
+        if (key == null || code == null) return null;
+
+        Entry<T> entry = entries.get(key);
+        if (entry == null || !entry.matches(code)) return null;
+
+        return entry.result;
+    }
+
+    /**
+     * <p> 構文解析結果を登録します。 </p>
+     *
+     * <p>
+     * 同じキーのエントリが既にあった場合は置き換えます。
+     * いずれかの引数が {@code null} の場合は登録しません。
+     * </p>
+     *
+     * @param key 編集単位を表すキー
+     * @param code 構文解析したコードの文字列
+     * @param result 構文解析結果
+     */
+    public synchronized void put(Object key, String code, T result) {
+        if (key == null || code == null || result == null) return;
+
+        entries.put(key, new Entry<>(code, result));
+    }
+
+    /**
+     * <p> キーに対応するエントリを破棄します。 </p>
+     *
+     * @param key 編集単位を表すキー
+     */
+    public synchronized void remove(Object key) {
+        if (key != null) entries.remove(key);
+    }
+
+    /**
+     * <p> 全てのエントリを破棄します。 </p>
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * <p> エントリ数を取得します。 </p>
+     *
+     * @return エントリ数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry<T> {
+        private final int hash;
+        private final String code;
+        private final T result;
+
+        private Entry(String code, T result) {
+            this.hash = code.hashCode();
+            this.code = code;
+            this.result = result;
+        }
+
+        private boolean matches(String otherCode) {
+            return hash == otherCode.hashCode() && code.equals(otherCode);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.morichan.retuss.listener;
+
+import io.github.morichan.retuss.parser.cpp.CPP14Lexer;
+import io.github.morichan.retuss.parser.cpp.CPP14Parser;
+import io.github.morichan.retuss.parser.java.JavaLexer;
+import io.github.morichan.retuss.parser.java.JavaParser;
+import io.github.morichan.retuss.parser.java9.Java9Lexer;
+import io.github.morichan.retuss.parser.java9.Java9Parser;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.dfa.DFA;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * <p> 生成したレキサとパーサが共有するDFAキャッシュの管理クラス </p>
+ *
+ * <p>
+ * ANTLRが生成したレキサとパーサは、予測結果のDFAを文法ごとに静的なキャッシュとして全インスタンスで共有しています。
+ * このキャッシュは起動直後は空であり、構文解析するたびに成長します。
+ * そのため、起動直後の構文解析は遅く、またメモリ使用量も徐々に増加します。
+ * 本クラスではキャッシュの状態数の取得と破棄を行います。
+ * </p>
+ *
+ * <p>
+ * キャッシュの破棄は構文解析中に行わないでください。
+ * </p>
+ */
+public class ParserDfaCache {
+
+    /**
+     * <p> DFAキャッシュを持つ文法の列挙型 </p>
+     */
+    public enum Grammar {
+        Java,
+        Cpp,
+        Java9,
+    }
+
+    /**
+     * <p> 文法のDFAキャッシュの状態数を取得します。 </p>
+     *
+     * <p>
+     * レキサとパーサの状態数の合計です。
+     * </p>
+     *
+     * @param grammar 文法
+     * @return 状態数
+     */
+    public static int getStateCount(Grammar grammar) {
+        Lexer lexer = createLexer(grammar);
+        Parser parser = createParser(grammar);
+
+        return countStates(lexer.getInterpreter().decisionToDFA) + countStates(parser.getInterpreter().decisionToDFA);
+    }
+
+    /**
+     * <p> 全ての文法のDFAキャッシュの状態数を取得します。 </p>
+     *
+     * @return 文法ごとの状態数
+     */
+    public static Map<Grammar, Integer> snapshot() {
+        Map<Grammar, Integer> stateCounts = new EnumMap<>(Grammar.class);
+
+        for (Grammar grammar : Grammar.values()) {
+            stateCounts.put(grammar, getStateCount(grammar));
+        }
+
+        return stateCounts;
+    }
+
+    /**
+     * <p> 文法のDFAキャッシュを破棄します。 </p>
+     *
+     * @param grammar 文法
+     */
+    public static void clear(Grammar grammar) {
+        createLexer(grammar).getInterpreter().clearDFA();
+        createParser(grammar).getInterpreter().clearDFA();
+    }
+
+    /**
+     * <p> 全ての文法のDFAキャッシュを破棄します。 </p>
+     */
+    public static void clearAll() {
+        for (Grammar grammar : Grammar.values()) {
+            clear(grammar);
+        }
+    }
+
+    private static int countStates(DFA[] decisionToDFA) {
+        int count = 0;
+
+        for (DFA dfa : decisionToDFA) {
+            count += dfa.states.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * <p> 静的なキャッシュを参照するためだけのレキサを生成します。 </p>
+     *
+     * @param grammar 文法
+     * @return 入力を持たないレキサ
+     */
+    private static Lexer createLexer(Grammar grammar) {
+        if (grammar == Grammar.Java) {
+            return new JavaLexer(null);
+        } else if (grammar == Grammar.Cpp) {
+            return new CPP14Lexer(null);
+        } else { // if (grammar == Grammar.Java9) {
+            return new Java9Lexer(null);
+        }
+    }
+
+    /**
+     * <p> 静的なキャッシュを参照するためだけのパーサを生成します。 </p>
+     *
+     * @param grammar 文法
+     * @return 入力を持たないパーサ
+     */
+    private static Parser createParser(Grammar grammar) {
+        if (grammar == Grammar.Java) {
+            return new JavaParser(null);
+        } else if (grammar == Grammar.Cpp) {
+            return new CPP14Parser(null);
+        } else { // if (grammar == Grammar.Java9) {
+            return new Java9Parser(null);
+        }
+    }
+}
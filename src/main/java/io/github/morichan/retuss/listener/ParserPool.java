@@ -0,0 +1,205 @@
+package io.github.morichan.retuss.listener;
+
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * <p> レキサとパーサの再利用プールクラス </p>
+ *
+ * <p>
+ * 構文解析のたびにレキサとパーサを生成せず、{@link Lexer#setInputStream(CharStream)}と{@link Parser#setInputStream(TokenStream)}によって再利用します。
+ * 構文解析は2段階で行います。
+ * まず{@link PredictionMode#SLL}と{@link BailErrorStrategy}で高速に構文解析し、失敗した場合のみ{@link PredictionMode#LL}と{@link DefaultErrorStrategy}で構文解析し直します。
+ * 正しいコードであればほとんどの場合1段階目で構文解析が完了します。
+ * </p>
+ *
+ * <p>
+ * 複数のスレッドから同時に利用できます。
+ * 貸し出せるレキサとパーサがない場合は新たに生成し、返却時にプールの上限を超える場合は破棄します。
+ * </p>
+ *
+ * @param <L> レキサの型
+ * @param <P> パーサの型
+ */
+public class ParserPool<L extends Lexer, P extends Parser> {
+
+    private final Function<CharStream, L> lexerFactory;
+    private final Function<TokenStream, P> parserFactory;
+    private final Function<P, ParseTree> startRule;
+    private final int maxIdleCount;
+    private final Deque<Entry<L, P>> idleEntries = new ArrayDeque<>();
+
+    private final AtomicLong sllCount = new AtomicLong();
+    private final AtomicLong llCount = new AtomicLong();
+
+    /**
+     * <p> プールを生成します。 </p>
+     *
+     * <p>
+     * プールに保持するレキサとパーサの上限は利用可能なプロセッサ数とします。
+     * </p>
+     *
+     * @param lexerFactory レキサを生成する関数
+     * @param parserFactory パーサを生成する関数
+     * @param startRule 構文解析の開始規則を呼び出す関数
+     */
+    public ParserPool(Function<CharStream, L> lexerFactory, Function<TokenStream, P> parserFactory, Function<P, ParseTree> startRule) {
+        this(lexerFactory, parserFactory, startRule, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * <p> プールに保持するレキサとパーサの上限を指定してプールを生成します。 </p>
+     *
+     * @param lexerFactory レキサを生成する関数
+     * @param parserFactory パーサを生成する関数
+     * @param startRule 構文解析の開始規則を呼び出す関数
+     * @param maxIdleCount プールに保持するレキサとパーサの上限 <br> 1未満の場合は1
+     */
+    public ParserPool(Function<CharStream, L> lexerFactory, Function<TokenStream, P> parserFactory, Function<P, ParseTree> startRule, int maxIdleCount) {
+        this.lexerFactory = lexerFactory;
+        this.parserFactory = parserFactory;
+        this.startRule = startRule;
+        this.maxIdleCount = Math.max(1, maxIdleCount);
+    }
+
+    /**
+     * <p> 文字ストリームを構文解析します。 </p>
+     *
+     * <p>
+     * もし正しいコードでなかった場合は2段階目の構文解析で標準エラー出力にその旨を表示するが、エラーとして出力するわけではないことに注意する必要がある。
+     * </p>
+     *
+     * @param input 構文解析したい文字ストリーム
+     * @return 構文解析結果
+     */
+    public Result parse(CharStream input) {
+        Entry<L, P> entry = borrow();
+
+        try {
+            entry.lexer.setInputStream(input);
+            entry.tokens.setTokenSource(entry.lexer);
+            entry.parser.setInputStream(entry.tokens);
+
+            try {
+                entry.parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+                entry.parser.removeErrorListeners();
+                entry.parser.setErrorHandler(new BailErrorStrategy());
+                ParseTree tree = startRule.apply(entry.parser);
+                sllCount.incrementAndGet();
+                return new Result(tree, PredictionMode.SLL);
+
+            } catch (ParseCancellationException e) {
+                entry.tokens.seek(0);
+                entry.parser.reset();
+                entry.parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+                entry.parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+                entry.parser.setErrorHandler(new DefaultErrorStrategy());
+                ParseTree tree = startRule.apply(entry.parser);
+                llCount.incrementAndGet();
+                return new Result(tree, PredictionMode.LL);
+            }
+
+        } finally {
+            release(entry);
+        }
+    }
+
+    /**
+     * <p> 1段階目の{@link PredictionMode#SLL}で構文解析が完了した回数を取得します。 </p>
+     *
+     * @return 回数
+     */
+    public long getSllCount() {
+        return sllCount.get();
+    }
+
+    /**
+     * <p> 2段階目の{@link PredictionMode#LL}で構文解析し直した回数を取得します。 </p>
+     *
+     * @return 回数
+     */
+    public long getLlCount() {
+        return llCount.get();
+    }
+
+    /**
+     * <p> プールに保持しているレキサとパーサの数を取得します。 </p>
+     *
+     * @return 数
+     */
+    public synchronized int getIdleCount() {
+        return idleEntries.size();
+    }
+
+    private synchronized Entry<L, P> borrow() {
+        Entry<L, P> entry = idleEntries.pollFirst();
+        if (entry != null) return entry;
+
+        L lexer = lexerFactory.apply(CharStreams.fromString(""));
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        P parser = parserFactory.apply(tokens);
+        return new Entry<>(lexer, tokens, parser);
+    }
+
+    private synchronized void release(Entry<L, P> entry) {
+        if (idleEntries.size() < maxIdleCount) idleEntries.addFirst(entry);
+    }
+
+    /**
+     * <p> 構文解析結果クラス </p>
+     */
+    public static class Result {
+        private final ParseTree tree;
+        private final PredictionMode predictionMode;
+
+        private Result(ParseTree tree, PredictionMode predictionMode) {
+            this.tree = tree;
+            this.predictionMode = predictionMode;
+        }
+
+        /**
+         * <p> 構文木を取得します。 </p>
+         *
+         * @return 構文木
+         */
+        public ParseTree getTree() {
+            return tree;
+        }
+
+        /**
+         * <p> 構文解析を完了した予測モードを取得します。 </p>
+         *
+         * @return {@link PredictionMode#SLL}または{@link PredictionMode#LL}
+         */
+        public PredictionMode getPredictionMode() {
+            return predictionMode;
+        }
+    }
+
+    private static class Entry<L extends Lexer, P extends Parser> {
+        private final L lexer;
+        private final CommonTokenStream tokens;
+        private final P parser;
+
+        private Entry(L lexer, CommonTokenStream tokens, P parser) {
+            this.lexer = lexer;
+            this.tokens = tokens;
+            this.parser = parser;
+        }
+    }
+}
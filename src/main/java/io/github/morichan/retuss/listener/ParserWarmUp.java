@@ -0,0 +1,105 @@
+package io.github.morichan.retuss.listener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * <p> 構文解析の準備運動クラス </p>
+ *
+ * <p>
+ * 同梱した代表的なJavaとC++のクラスを構文解析し、{@link ParserDfaCache}で管理しているDFAキャッシュと{@link ParserPool}を事前に満たします。
+ * これにより、起動直後のインポートでも構文解析にかかる時間が安定します。
+ * </p>
+ */
+public class ParserWarmUp implements Runnable {
+
+    static final List<String> javaCorpus = Arrays.asList("/warmup/Shape.java", "/warmup/Circle.java", "/warmup/Account.java");
+    static final List<String> cppCorpus = Arrays.asList("/warmup/Shape.cpp", "/warmup/Circle.cpp", "/warmup/Account.cpp");
+
+    private volatile boolean finished = false;
+    private volatile long elapsedMillis = -1;
+
+    /**
+     * <p> 準備運動を専用のデーモンスレッドで開始します。 </p>
+     *
+     * @return 開始したスレッド
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "retuss-parser-warm-up");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * <p> 同梱したクラスを全て構文解析します。 </p>
+     */
+    @Override
+    public void run() {
+        long startTime = System.nanoTime();
+        JavaLanguage javaLanguage = new JavaLanguage();
+        CppLanguage cppLanguage = new CppLanguage();
+
+        for (String resource : javaCorpus) {
+            String code = read(resource);
+            if (code == null) continue;
+            try {
+                javaLanguage.parseForClassDiagram(code);
+            } catch (NullPointerException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                System.out.println("This is Parse Error in warm-up corpus " + resource + ", but no problem.");
+            }
+        }
+        for (String resource : cppCorpus) {
+            String code = read(resource);
+            if (code == null) continue;
+            try {
+                cppLanguage.parseForClassDiagram(code);
+            } catch (NullPointerException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                System.out.println("This is Parse Error in warm-up corpus " + resource + ", but no problem.");
+            }
+        }
+
+        elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        finished = true;
+    }
+
+    /**
+     * <p> 準備運動が完了したかどうかを取得します。 </p>
+     *
+     * @return 完了した場合は {@code true}
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * <p> 準備運動にかかった時間を取得します。 </p>
+     *
+     * @return 時間（ミリ秒） <br> 完了していない場合は {@code -1}
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    private String read(String resource) {
+        InputStream stream = getClass().getResourceAsStream(resource);
+        if (stream == null) {
+            System.out.println("This is warm-up corpus " + resource + " was not found, but no problem.");
+            return null;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.joining("\n"));
+        } catch (IOException e) {
+            System.out.println("This is warm-up corpus " + resource + " could not be read, but no problem.");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.morichan.retuss.listener;
+
+import org.antlr.v4.runtime.CodePointBuffer;
+import org.antlr.v4.runtime.CodePointCharStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p> ソースファイルの読込みクラス </p>
+ *
+ * <p>
+ * ファイルをNIOでまとめて読み込み（大きなファイルはメモリマップし）、中間の{@link String}を作らずに{@link CodePointCharStream}へ直接デコードします。
+ * 得られた文字ストリームはそのまま{@link JavaLanguage}や{@link CppLanguage}の構文解析に渡せます。
+ * </p>
+ *
+ * <p>
+ * 文字コードは次の順で判定します。
+ * </p>
+ *
+ * <ol>
+ *     <li> UTF-8、UTF-16BE、UTF-16LEのBOMがあればその文字コード（BOMは読み飛ばす） </li>
+ *     <li> BOMがなければUTF-8として厳密にデコードを試みる </li>
+ *     <li> UTF-8として不正な場合はShift_JIS（Windows-31J）とする </li>
+ * </ol>
+ *
+ * <p>
+ * Windowsではメモリマップしたファイルはガベージコレクションされるまで削除できないことに注意してください。
+ * </p>
+ */
+public class SourceFileLoader {
+
+    /**
+     * <p> メモリマップする最小のファイルサイズ（バイト） </p>
+     *
+     * <p>
+     * これより小さいファイルはメモリマップの準備にかかる時間の方が大きいため、ヒープにまとめて読み込みます。
+     * </p>
+     */
+    public static final long MAPPING_THRESHOLD = 256 * 1024;
+
+    private static final int DECODE_CHUNK_SIZE = 8192;
+
+    private Charset lastCharset;
+
+    /**
+     * <p> ファイルを読み込み、文字ストリームを生成します。 </p>
+     *
+     * @param file 読み込みたいファイル
+     * @return 文字ストリーム <br> ソース名はファイルパス
+     * @throws IOException ファイルを読み込めなかった場合、またはどの文字コードでもデコードできなかった場合
+     */
+    public CodePointCharStream load(Path file) throws IOException {
+        ByteBuffer bytes = read(file);
+
+        int bomLength = 0;
+        Charset charset = detectBom(bytes);
+        if (charset != null) {
+            bomLength = charset.equals(StandardCharsets.UTF_8) ? 3 : 2;
+        }
+
+        CodePointBuffer codePointBuffer;
+        if (charset != null) {
+            codePointBuffer = decode(skip(bytes, bomLength), charset);
+        } else {
+            try {
+                charset = StandardCharsets.UTF_8;
+                codePointBuffer = decode(bytes.duplicate(), charset);
+            } catch (CharacterCodingException e) {
+                charset = fallbackCharset();
+                if (charset == null) throw e;
+                codePointBuffer = decode(bytes.duplicate(), charset);
+            }
+        }
+
+        lastCharset = charset;
+        return CodePointCharStream.fromBuffer(codePointBuffer, file.toString());
+    }
+
+    /**
+     * <p> 直前に読み込んだファイルの文字コードを取得します。 </p>
+     *
+     * @return 文字コード <br> 読み込んでいない場合は {@code null}
+     */
+    public Charset getLastCharset() {
+        return lastCharset;
+    }
+
+    /**
+     * <p> BOMから文字コードを判定します。 </p>
+     *
+     * <p>
+     * テストコードで主に用いる。
+     * </p>
+     *
+     * @param bytes ファイルの先頭を指すバイトバッファ <br> 位置は変更しない
+     * @return 文字コード <br> BOMがない場合は {@code null}
+     */
+    static Charset detectBom(ByteBuffer bytes) {
+        int position = bytes.position();
+        int remaining = bytes.remaining();
+
+        if (remaining >= 3
+                && (bytes.get(position) & 0xFF) == 0xEF
+                && (bytes.get(position + 1) & 0xFF) == 0xBB
+                && (bytes.get(position + 2) & 0xFF) == 0xBF) return StandardCharsets.UTF_8;
+        if (remaining >= 2
+                && (bytes.get(position) & 0xFF) == 0xFE
+                && (bytes.get(position + 1) & 0xFF) == 0xFF) return StandardCharsets.UTF_16BE;
+        if (remaining >= 2
+                && (bytes.get(position) & 0xFF) == 0xFF
+                && (bytes.get(position + 1) & 0xFF) == 0xFE) return StandardCharsets.UTF_16LE;
+
+        return null;
+    }
+
+    private ByteBuffer read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException(file + " is too large to load.");
+
+            if (size >= MAPPING_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+
+            ByteBuffer bytes = ByteBuffer.allocate((int) size);
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes) < 0) break;
+            }
+            bytes.flip();
+            return bytes;
+        }
+    }
+
+    private ByteBuffer skip(ByteBuffer bytes, int length) {
+        ByteBuffer skipped = bytes.duplicate();
+        skipped.position(skipped.position() + length);
+        return skipped;
+    }
+
+    private CodePointBuffer decode(ByteBuffer bytes, Charset charset) throws CharacterCodingException {
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        CodePointBuffer.Builder builder = CodePointBuffer.builder(bytes.remaining());
+        CharBuffer chars = CharBuffer.allocate(DECODE_CHUNK_SIZE);
+
+        while (true) {
+            CoderResult result = decoder.decode(bytes, chars, true);
+            if (result.isError()) result.throwException();
+            chars.flip();
+            builder.append(chars);
+            chars.clear();
+            if (result.isUnderflow()) break;
+        }
+
+        while (true) {
+            CoderResult result = decoder.flush(chars);
+            chars.flip();
+            builder.append(chars);
+            chars.clear();
+            if (result.isUnderflow()) break;
+        }
+
+        return builder.build();
+    }
+
+    private Charset fallbackCharset() {
+        if (Charset.isSupported("Windows-31J")) return Charset.forName("Windows-31J");
+        if (Charset.isSupported("Shift_JIS")) return Charset.forName("Shift_JIS");
+        return null;
+    }
+}
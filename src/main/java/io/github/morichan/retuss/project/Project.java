@@ -0,0 +1,175 @@
+package io.github.morichan.retuss.project;
+
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.window.diagram.ContentType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p> RETUSSプロジェクトクラス </p>
+ *
+ * <p>
+ * 保存や読込みの単位として、クラス図の{@link Package}（操作ごとのシーケンス図を含む）と、クラス図キャンバス上のノードの座標およびエッジをまとめて保持します。
+ * ノードとエッジはJavaFXに依存しない値として保持するため、GUIを起動せずに扱えます。
+ * </p>
+ */
+public class Project {
+
+    /**
+     * <p> プロジェクトファイルの拡張子 </p>
+     */
+    public static final String EXTENSION = ".retuss";
+
+    private Package umlPackage;
+    private List<Node> nodes = new ArrayList<>();
+    private List<Edge> edges = new ArrayList<>();
+
+    /**
+     * <p> 空のパッケージを持つプロジェクトを生成します。 </p>
+     */
+    public Project() {
+        this(new Package());
+    }
+
+    /**
+     * <p> パッケージを持つプロジェクトを生成します。 </p>
+     *
+     * @param umlPackage クラス図のパッケージ <br> {@code null} 不可
+     */
+    public Project(Package umlPackage) {
+        setPackage(umlPackage);
+    }
+
+    /**
+     * <p> パッケージを設定します。 </p>
+     *
+     * @param umlPackage クラス図のパッケージ <br> {@code null} の場合は {@link IllegalArgumentException} を投げます
+     */
+    public void setPackage(Package umlPackage) {
+        if (umlPackage == null) throw new IllegalArgumentException();
+        this.umlPackage = umlPackage;
+    }
+
+    public Package getPackage() {
+        return umlPackage;
+    }
+
+    /**
+     * <p> ノードを追加します。 </p>
+     *
+     * @param node ノード <br> {@code null} 無視
+     */
+    public void addNode(Node node) {
+        if (node != null) nodes.add(node);
+    }
+
+    /**
+     * <p> ノードのリストを取得します。 </p>
+     *
+     * @return キャンバスに追加した順のノードのリスト <br> 要素数0の可能性あり
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * <p> エッジを追加します。 </p>
+     *
+     * @param edge エッジ <br> {@code null} 無視
+     */
+    public void addEdge(Edge edge) {
+        if (edge != null) edges.add(edge);
+    }
+
+    /**
+     * <p> エッジのリストを取得します。 </p>
+     *
+     * @return エッジのリスト <br> 要素数0の可能性あり
+     */
+    public List<Edge> getEdges() {
+        return edges;
+    }
+
+    /**
+     * <p> クラス図キャンバス上のノードクラス </p>
+     */
+    public static class Node {
+        private final ContentType type;
+        private final String text;
+        private final double x;
+        private final double y;
+
+        /**
+         * <p> ノードを生成します。 </p>
+         *
+         * @param type ノードの種類 <br> {@link ContentType#Class} または {@link ContentType#Note}
+         * @param text ノード名
+         * @param x ノードの中心点のX軸
+         * @param y ノードの中心点のY軸
+         */
+        public Node(ContentType type, String text, double x, double y) {
+            this.type = type;
+            this.text = text;
+            this.x = x;
+            this.y = y;
+        }
+
+        public ContentType getType() {
+            return type;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+    }
+
+    /**
+     * <p> クラス図キャンバス上のエッジクラス </p>
+     */
+    public static class Edge {
+        private final ContentType type;
+        private final String name;
+        private final int sourceIndex;
+        private final int targetIndex;
+
+        /**
+         * <p> エッジを生成します。 </p>
+         *
+         * @param type エッジの種類 <br> {@link ContentType#Composition} または {@link ContentType#Generalization}
+         * @param name エッジ名 <br> 汎化の場合は空文字
+         * @param sourceIndex 関係元のノードの番号
+         * @param targetIndex 関係先のノードの番号
+         */
+        public Edge(ContentType type, String name, int sourceIndex, int targetIndex) {
+            this.type = type;
+            this.name = name;
+            this.sourceIndex = sourceIndex;
+            this.targetIndex = targetIndex;
+        }
+
+        public ContentType getType() {
+            return type;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSourceIndex() {
+            return sourceIndex;
+        }
+
+        public int getTargetIndex() {
+            return targetIndex;
+        }
+    }
+}
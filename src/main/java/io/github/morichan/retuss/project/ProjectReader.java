@@ -0,0 +1,202 @@
+package io.github.morichan.retuss.project;
+
+import io.github.morichan.fescue.feature.Attribute;
+import io.github.morichan.fescue.feature.Operation;
+import io.github.morichan.fescue.sculptor.AttributeSculptor;
+import io.github.morichan.fescue.sculptor.OperationSculptor;
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.window.diagram.AttributeGraphic;
+import io.github.morichan.retuss.window.diagram.ContentType;
+import io.github.morichan.retuss.window.diagram.OperationGraphic;
+import io.github.morichan.retuss.window.diagram.sequence.Interaction;
+import io.github.morichan.retuss.window.diagram.sequence.Lifeline;
+import io.github.morichan.retuss.window.diagram.sequence.MessageOccurrenceSpecification;
+import io.github.morichan.retuss.window.diagram.sequence.MessageType;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p> プロジェクトのバイナリ入力クラス </p>
+ *
+ * <p>
+ * {@link ProjectWriter}で出力したバイナリ形式を逐次読み込み、{@link Project}を復元します。
+ * 属性と操作は文字列表のテキストを要素ごとにfescueで解析するため、同じテキストを持つ要素同士でもインスタンスは共有しません。
+ * 形式が異なるファイルや、新しいバージョンで出力したファイルは {@link IOException} を投げます。
+ * </p>
+ */
+public class ProjectReader {
+
+    private String[] strings;
+    private List<Class> classes;
+    private List<Lifeline> lifelines = new ArrayList<>();
+    private List<MessageOccurrenceSpecification> messages = new ArrayList<>();
+
+    /**
+     * <p> プロジェクトを読み込みます。 </p>
+     *
+     * @param inputStream 入力元 <br> 閉じない
+     * @return プロジェクト
+     * @throws IOException 入力できなかった場合、または形式が異なる場合
+     */
+    public Project read(InputStream inputStream) throws IOException {
+        lifelines.clear();
+        messages.clear();
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+
+        byte[] magic = new byte[ProjectWriter.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, ProjectWriter.MAGIC)) throw new IOException("This is not a RETUSS project file.");
+        int version = readVarInt(in);
+        if (version > ProjectWriter.VERSION) throw new IOException("Project file version " + version + " is not supported.");
+
+        try {
+            strings = new String[readVarInt(in)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[readVarInt(in)];
+                in.readFully(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            Package umlPackage = new Package(readString(in));
+            int classCount = readVarInt(in);
+            classes = new ArrayList<>(classCount);
+            for (int i = 0; i < classCount; i++) {
+                Class umlClass = new Class(readString(in));
+                classes.add(umlClass);
+                umlPackage.addClass(umlClass);
+            }
+            for (Class umlClass : classes) readClass(in, umlClass);
+
+            Project project = new Project(umlPackage);
+
+            int nodeCount = readVarInt(in);
+            for (int i = 0; i < nodeCount; i++) {
+                ContentType type = readContentType(in);
+                String text = readString(in);
+                project.addNode(new Project.Node(type, text, in.readDouble(), in.readDouble()));
+            }
+
+            int edgeCount = readVarInt(in);
+            for (int i = 0; i < edgeCount; i++) {
+                ContentType type = readContentType(in);
+                String name = readString(in);
+                project.addEdge(new Project.Edge(type, name, readVarInt(in), readVarInt(in)));
+            }
+
+            return project;
+
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | IllegalStateException e) {
+            throw new IOException("Project file is broken.", e);
+        }
+    }
+
+    private void readClass(DataInputStream in, Class umlClass) throws IOException {
+        umlClass.setGeneralizationClass(readClassReference(in));
+
+        int attributeCount = readVarInt(in);
+        for (int i = 0; i < attributeCount; i++) {
+            umlClass.addAttribute(carveAttribute(readString(in)));
+            int flags = readVarInt(in);
+            umlClass.getAttributeGraphics().get(umlClass.getAttributeGraphics().size() - 1).setIndication((flags & ProjectWriter.HIDDEN_FLAG) == 0);
+        }
+
+        int relationCount = readVarInt(in);
+        for (int i = 0; i < relationCount; i++) {
+            umlClass.addRelation(carveAttribute(readString(in)));
+            int flags = readVarInt(in);
+            umlClass.getRelationGraphics().get(umlClass.getRelationGraphics().size() - 1).setIndication((flags & ProjectWriter.HIDDEN_FLAG) == 0);
+        }
+
+        int operationCount = readVarInt(in);
+        for (int i = 0; i < operationCount; i++) {
+            OperationGraphic operationGraphic = new OperationGraphic(carveOperation(readString(in)));
+            int flags = readVarInt(in);
+            operationGraphic.setIndication((flags & ProjectWriter.HIDDEN_FLAG) == 0);
+            if ((flags & ProjectWriter.INTERACTION_FLAG) != 0) operationGraphic.setInteraction(new Interaction(readMessage(in)));
+            umlClass.addOperation(operationGraphic, (flags & ProjectWriter.ABSTRACT_FLAG) != 0);
+        }
+    }
+
+    private MessageOccurrenceSpecification readMessage(DataInputStream in) throws IOException {
+        int reference = readVarInt(in);
+        if (reference > 0) return messages.get(reference - 1);
+
+        MessageOccurrenceSpecification message = new MessageOccurrenceSpecification();
+        messages.add(message);
+
+        message.setMessageType(MessageType.values()[readVarInt(in)]);
+        message.setType(readClassReference(in));
+        message.setName(readString(in));
+        message.setValue(readString(in));
+        message.setLifeline(readLifeline(in));
+
+        int instanceCount = readVarInt(in);
+        for (int i = 0; i < instanceCount; i++) {
+            int key = readVarInt(in);
+            message.putInstance(key, readString(in));
+        }
+
+        int childCount = readVarInt(in);
+        for (int i = 0; i < childCount; i++) message.addMessage(readMessage(in));
+
+        return message;
+    }
+
+    private Lifeline readLifeline(DataInputStream in) throws IOException {
+        int reference = readVarInt(in);
+        if (reference == 0) return null;
+        if (reference <= lifelines.size()) return lifelines.get(reference - 1);
+
+        Lifeline lifeline = new Lifeline(readClassReference(in));
+        lifelines.add(lifeline);
+        lifeline.setInstance(readString(in));
+        return lifeline;
+    }
+
+    private Class readClassReference(DataInputStream in) throws IOException {
+        int reference = readVarInt(in);
+        if (reference == 0) return null;
+        if (reference <= classes.size()) return classes.get(reference - 1);
+        return new Class(readString(in));
+    }
+
+    private ContentType readContentType(DataInputStream in) throws IOException {
+        return ContentType.values()[readVarInt(in)];
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        int index = readVarInt(in);
+        return index == 0 ? null : strings[index - 1];
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Project file has a malformed integer.");
+    }
+
+    private Attribute carveAttribute(String text) {
+        AttributeSculptor sculptor = new AttributeSculptor();
+        sculptor.parse(text);
+        return sculptor.carve();
+    }
+
+    private Operation carveOperation(String text) {
+        OperationSculptor sculptor = new OperationSculptor();
+        sculptor.parse(text);
+        return sculptor.carve();
+    }
+}
@@ -0,0 +1,280 @@
+package io.github.morichan.retuss.project;
+
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.window.diagram.AttributeGraphic;
+import io.github.morichan.retuss.window.diagram.OperationGraphic;
+import io.github.morichan.retuss.window.diagram.sequence.Lifeline;
+import io.github.morichan.retuss.window.diagram.sequence.MessageOccurrenceSpecification;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p> プロジェクトのバイナリ出力クラス </p>
+ *
+ * <p>
+ * {@link Project}を次の順でバイナリ形式に出力します。
+ * 整数は全て可変長（7ビットずつ下位から、最上位ビットが継続を表す）で出力します。
+ * </p>
+ *
+ * <ol>
+ *     <li> ヘッダ：マジックナンバー {@code RTSP} と形式のバージョン </li>
+ *     <li> 文字列表：名前、型、属性や操作のテキストなど、全ての文字列を重複なく1回だけ出力する（以降は番号で参照する） </li>
+ *     <li> パッケージ名と全てのクラス名 </li>
+ *     <li> クラスごとの汎化クラス、属性、関係属性、操作およびシーケンス図 </li>
+ *     <li> ノードの種類、名前および座標 </li>
+ *     <li> エッジの種類、名前、関係元および関係先のノードの番号 </li>
+ * </ol>
+ *
+ * <p>
+ * シーケンス図のメッセージやライフラインは複数の操作から共有される（再帰呼出しでは循環する）ため、2回目以降に出現した場合は番号で参照します。
+ * 出力はバッファリングしながら逐次行い、プロジェクト全体をバイト列として保持することはありません。
+ * </p>
+ */
+public class ProjectWriter {
+
+    static final byte[] MAGIC = {'R', 'T', 'S', 'P'};
+
+    /**
+     * <p> 出力形式のバージョン </p>
+     */
+    public static final int VERSION = 1;
+
+    static final int ABSTRACT_FLAG = 1;
+    static final int INTERACTION_FLAG = 1 << 1;
+    static final int HIDDEN_FLAG = 1 << 2;
+
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    private final Map<Class, Integer> classIndices = new IdentityHashMap<>();
+    private final Map<Lifeline, Integer> lifelineIndices = new IdentityHashMap<>();
+    private final Map<MessageOccurrenceSpecification, Integer> messageIndices = new IdentityHashMap<>();
+    private int classCount = 0;
+
+    /**
+     * <p> プロジェクトを出力します。 </p>
+     *
+     * @param project 出力したいプロジェクト
+     * @param outputStream 出力先 <br> 閉じない
+     * @throws IOException 出力できなかった場合
+     */
+    public void write(Project project, OutputStream outputStream) throws IOException {
+        strings.clear();
+        classIndices.clear();
+        lifelineIndices.clear();
+        messageIndices.clear();
+
+        List<Class> classes = project.getPackage().getClasses();
+        classCount = classes.size();
+        for (int i = 0; i < classes.size(); i++) classIndices.putIfAbsent(classes.get(i), i);
+        collectStrings(project);
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.write(MAGIC);
+        writeVarInt(out, VERSION);
+
+        writeVarInt(out, strings.size());
+        for (String string : strings.keySet()) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        writeString(out, project.getPackage().getName());
+        writeVarInt(out, classes.size());
+        for (Class umlClass : classes) writeString(out, umlClass.getName());
+        for (Class umlClass : classes) writeClass(out, umlClass);
+
+        writeVarInt(out, project.getNodes().size());
+        for (Project.Node node : project.getNodes()) {
+            writeVarInt(out, node.getType().ordinal());
+            writeString(out, node.getText());
+            out.writeDouble(node.getX());
+            out.writeDouble(node.getY());
+        }
+
+        writeVarInt(out, project.getEdges().size());
+        for (Project.Edge edge : project.getEdges()) {
+            writeVarInt(out, edge.getType().ordinal());
+            writeString(out, edge.getName());
+            writeVarInt(out, edge.getSourceIndex());
+            writeVarInt(out, edge.getTargetIndex());
+        }
+
+        out.flush();
+    }
+
+    private void writeClass(DataOutputStream out, Class umlClass) throws IOException {
+        writeClassReference(out, umlClass.getGeneralizationClass());
+
+        writeVarInt(out, umlClass.getAttributeGraphics().size());
+        for (AttributeGraphic attributeGraphic : umlClass.getAttributeGraphics()) {
+            writeString(out, attributeGraphic.getAttribute().toString());
+            writeVarInt(out, attributeGraphic.isIndicate() ? 0 : HIDDEN_FLAG);
+        }
+
+        writeVarInt(out, umlClass.getRelationGraphics().size());
+        for (AttributeGraphic relationGraphic : umlClass.getRelationGraphics()) {
+            writeString(out, relationGraphic.getAttribute().toString());
+            writeVarInt(out, relationGraphic.isIndicate() ? 0 : HIDDEN_FLAG);
+        }
+
+        writeVarInt(out, umlClass.getOperationGraphics().size());
+        for (OperationGraphic operationGraphic : umlClass.getOperationGraphics()) {
+            boolean hasInteraction = operationGraphic.getInteraction() != null && operationGraphic.getInteraction().getMessage() != null;
+            int flags = 0;
+            if (operationGraphic.isAbstract()) flags |= ABSTRACT_FLAG;
+            if (hasInteraction) flags |= INTERACTION_FLAG;
+            if (!operationGraphic.isIndicate()) flags |= HIDDEN_FLAG;
+
+            writeString(out, operationGraphic.getOperation().toString());
+            writeVarInt(out, flags);
+            if (hasInteraction) writeMessage(out, operationGraphic.getInteraction().getMessage());
+        }
+    }
+
+    /**
+     * <p> メッセージを出力します。 </p>
+     *
+     * <p>
+     * 既に出力したメッセージは {@code 番号 + 1} のみを、初めて出力するメッセージは {@code 0} の後に内容を出力します。
+     * 子メッセージより先に番号を割り当てるため、循環していても停止します。
+     * </p>
+     */
+    private void writeMessage(DataOutputStream out, MessageOccurrenceSpecification message) throws IOException {
+        Integer index = messageIndices.get(message);
+        if (index != null) {
+            writeVarInt(out, index + 1);
+            return;
+        }
+        messageIndices.put(message, messageIndices.size());
+        writeVarInt(out, 0);
+
+        writeVarInt(out, message.getMessageType().ordinal());
+        writeClassReference(out, message.getType());
+        writeString(out, message.getName());
+        writeString(out, message.getValue());
+        writeLifeline(out, message.getLifeline());
+
+        Map<Integer, String> instances = message.getInstances();
+        writeVarInt(out, instances.size());
+        for (Map.Entry<Integer, String> instance : instances.entrySet()) {
+            writeVarInt(out, instance.getKey());
+            writeString(out, instance.getValue());
+        }
+
+        writeVarInt(out, message.getMessages().size());
+        for (MessageOccurrenceSpecification child : message.getMessages()) writeMessage(out, child);
+    }
+
+    /**
+     * <p> ライフラインを出力します。 </p>
+     *
+     * <p>
+     * {@code null} は {@code 0} 、既に出力したライフラインは {@code 番号 + 1} 、初めて出力するライフラインは {@code 出力済みの数 + 1} の後に内容を出力します。
+     * </p>
+     */
+    private void writeLifeline(DataOutputStream out, Lifeline lifeline) throws IOException {
+        if (lifeline == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        Integer index = lifelineIndices.get(lifeline);
+        if (index != null) {
+            writeVarInt(out, index + 1);
+            return;
+        }
+        writeVarInt(out, lifelineIndices.size() + 1);
+        lifelineIndices.put(lifeline, lifelineIndices.size());
+
+        writeClassReference(out, lifeline.getUmlClass());
+        writeString(out, lifeline.getInstance());
+    }
+
+    /**
+     * <p> クラスへの参照を出力します。 </p>
+     *
+     * <p>
+     * {@code null} は {@code 0} 、パッケージ内のクラスは {@code 番号 + 1} 、パッケージ外のクラス（型名のみを表すクラス）は {@code クラス数 + 1} の後にクラス名を出力します。
+     * </p>
+     */
+    private void writeClassReference(DataOutputStream out, Class umlClass) throws IOException {
+        if (umlClass == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        Integer index = classIndices.get(umlClass);
+        if (index != null) {
+            writeVarInt(out, index + 1);
+        } else {
+            writeVarInt(out, classCount + 1);
+            writeString(out, umlClass.getName());
+        }
+    }
+
+    private void writeString(DataOutputStream out, String string) throws IOException {
+        writeVarInt(out, string == null ? 0 : strings.get(string) + 1);
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private void collectStrings(Project project) {
+        intern(project.getPackage().getName());
+
+        Set<MessageOccurrenceSpecification> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Class umlClass : project.getPackage().getClasses()) {
+            intern(umlClass.getName());
+            if (umlClass.getGeneralizationClass() != null) intern(umlClass.getGeneralizationClass().getName());
+            for (AttributeGraphic attributeGraphic : umlClass.getAttributeGraphics()) intern(attributeGraphic.getAttribute().toString());
+            for (AttributeGraphic relationGraphic : umlClass.getRelationGraphics()) intern(relationGraphic.getAttribute().toString());
+            for (OperationGraphic operationGraphic : umlClass.getOperationGraphics()) {
+                intern(operationGraphic.getOperation().toString());
+                if (operationGraphic.getInteraction() != null && operationGraphic.getInteraction().getMessage() != null) {
+                    collectStrings(operationGraphic.getInteraction().getMessage(), visited);
+                }
+            }
+        }
+
+        for (Project.Node node : project.getNodes()) intern(node.getText());
+        for (Project.Edge edge : project.getEdges()) intern(edge.getName());
+    }
+
+    private void collectStrings(MessageOccurrenceSpecification root, Set<MessageOccurrenceSpecification> visited) {
+        // 深い呼出し階層でもスタックを使い切らないように、再帰ではなく明示的なスタックで辿る
+        List<MessageOccurrenceSpecification> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            MessageOccurrenceSpecification message = stack.remove(stack.size() - 1);
+            if (!visited.add(message)) continue;
+
+            if (message.getType() != null) intern(message.getType().getName());
+            intern(message.getName());
+            intern(message.getValue());
+            if (message.getLifeline() != null) {
+                if (message.getLifeline().getUmlClass() != null) intern(message.getLifeline().getUmlClass().getName());
+                intern(message.getLifeline().getInstance());
+            }
+            for (String instance : message.getInstances().values()) intern(instance);
+            stack.addAll(message.getMessages());
+        }
+    }
+
+    private void intern(String string) {
+        if (string != null) strings.putIfAbsent(string, strings.size());
+    }
+}
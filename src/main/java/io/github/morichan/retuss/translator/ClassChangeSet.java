@@ -0,0 +1,165 @@
+package io.github.morichan.retuss.translator;
+
+import io.github.morichan.fescue.feature.Attribute;
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.window.diagram.OperationGraphic;
+import io.github.morichan.retuss.window.diagram.sequence.MessageOccurrenceSpecification;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p> 前回の翻訳以降にクラス図で変更したクラスの集合クラス </p>
+ *
+ * <p>
+ * クラス図の編集ごとに、追加したクラス、削除したクラス、名前を変更したクラス、内容（属性、操作、関係）を変更したクラスのクラス名を記録します。
+ * {@link Translator#translate(io.github.morichan.retuss.language.uml.Package, ClassChangeSet)} に渡すと、記録したクラスのみを翻訳し直します。
+ * </p>
+ *
+ * <p>
+ * どのクラスを変更したか特定できない編集の場合は {@link #markAllChanged()} で全てのクラスを変更したものとして扱います。
+ * 新しく生成した直後の集合は何も変更していない状態です。
+ * </p>
+ */
+public class ClassChangeSet {
+
+    private final Set<String> changedClassNames = new HashSet<>();
+    private final Set<String> removedClassNames = new HashSet<>();
+    private boolean isAllChanged = false;
+
+    /**
+     * <p> 全てのクラスを変更したものとして扱う集合を生成します </p>
+     *
+     * @return 全てのクラスを変更した集合
+     */
+    public static ClassChangeSet all() {
+        ClassChangeSet changeSet = new ClassChangeSet();
+        changeSet.markAllChanged();
+        return changeSet;
+    }
+
+    /**
+     * <p> クラスを追加したことを記録します </p>
+     *
+     * @param className 追加したクラス名 <br> {@code null} 無視
+     */
+    public void addClass(String className) {
+        if (className != null) changedClassNames.add(className);
+    }
+
+    /**
+     * <p> クラスの内容を変更したことを記録します </p>
+     *
+     * @param className 変更したクラス名 <br> {@code null} 無視
+     */
+    public void editClass(String className) {
+        if (className != null) changedClassNames.add(className);
+    }
+
+    /**
+     * <p> クラスを削除したことを記録します </p>
+     *
+     * @param className 削除したクラス名 <br> {@code null} 無視
+     */
+    public void removeClass(String className) {
+        if (className != null) removedClassNames.add(className);
+    }
+
+    /**
+     * <p> クラス名を変更したことを記録します </p>
+     *
+     * <p>
+     * 変更前のクラス名のクラスを削除し、変更後のクラス名のクラスを追加したものとして扱います。
+     * </p>
+     *
+     * @param beforeClassName 変更前のクラス名
+     * @param afterClassName  変更後のクラス名
+     */
+    public void renameClass(String beforeClassName, String afterClassName) {
+        removeClass(beforeClassName);
+        addClass(afterClassName);
+    }
+
+    /**
+     * <p> 全てのクラスを変更したものとして扱います </p>
+     */
+    public void markAllChanged() {
+        isAllChanged = true;
+    }
+
+    /**
+     * <p> 全てのクラスを変更したものとして扱うか否かを取得します </p>
+     *
+     * @return 全てのクラスを変更したものとして扱う場合は {@code true}
+     */
+    public boolean isAllChanged() {
+        return isAllChanged;
+    }
+
+    /**
+     * <p> 何も変更していないか否かを取得します </p>
+     *
+     * @return 何も記録していない場合は {@code true}
+     */
+    public boolean isEmpty() {
+        return !isAllChanged && changedClassNames.isEmpty() && removedClassNames.isEmpty();
+    }
+
+    /**
+     * <p> 追加もしくは内容を変更したクラス名の集合を取得します </p>
+     *
+     * @return クラス名の集合 <br> 変更不可
+     */
+    public Set<String> getChangedClassNames() {
+        return Collections.unmodifiableSet(changedClassNames);
+    }
+
+    /**
+     * <p> 削除したクラス名の集合を取得します </p>
+     *
+     * @return クラス名の集合 <br> 変更不可
+     */
+    public Set<String> getRemovedClassNames() {
+        return Collections.unmodifiableSet(removedClassNames);
+    }
+
+    /**
+     * <p> クラス図のクラスを翻訳し直す必要があるか否かを判定します </p>
+     *
+     * <p>
+     * クラス自身を追加もしくは変更していた場合に加えて、クラスが参照しているクラスを追加、変更、削除、名前の変更をしていた場合も翻訳し直す必要があると判定します。
+     * 参照しているクラスとは、汎化関係にあるクラス、属性と関係の型のクラス、操作のメッセージの型のクラスです。
+     * 継承クラス名や型名はそのクラスのコードにも現れ、他クラスの操作を呼び出すメッセージは呼び出し先の操作のメッセージ（型は呼び出し先のクラス）に置き換えているためです。
+     * </p>
+     *
+     * @param umlClass クラス図のクラス
+     * @return 翻訳し直す必要がある場合は {@code true}
+     */
+    boolean isAffected(Class umlClass) {
+        if (isAllChanged || changedClassNames.contains(umlClass.getName())) return true;
+
+        if (umlClass.getGeneralizationClass() != null && isTouched(umlClass.getGeneralizationClass().getName())) return true;
+        for (Attribute attribute : umlClass.extractAttributes()) if (isTouched(attribute)) return true;
+        for (Attribute relation : umlClass.extractRelations()) if (isTouched(relation)) return true;
+        for (OperationGraphic operationGraphic : umlClass.getOperationGraphics()) {
+            if (operationGraphic.getInteraction() == null || operationGraphic.getInteraction().getMessage() == null) continue;
+            for (MessageOccurrenceSpecification message : operationGraphic.getInteraction().getMessage().getMessages()) {
+                if (message.getType() != null && isTouched(message.getType().getName())) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isTouched(Attribute attribute) {
+        try {
+            return isTouched(attribute.getType().getName().getNameText());
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private boolean isTouched(String className) {
+        return changedClassNames.contains(className) || removedClassNames.contains(className);
+    }
+}
@@ -9,8 +9,15 @@ import io.github.morichan.retuss.language.cpp.Class;
 import io.github.morichan.retuss.language.uml.Package;
 import io.github.morichan.retuss.window.diagram.OperationGraphic;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * <p> Cpp翻訳者クラス </p>
@@ -18,6 +25,37 @@ import java.util.stream.Collectors;
 public class CppTranslator {
 
     private Cpp cpp;
+    private final ForkJoinPool pool;
+
+    /**
+     * <p> 前回の翻訳結果から再利用しているクラスの集合 </p>
+     *
+     * <p>
+     * 前回の翻訳結果と共有しているため、汎化関係を結ぶ際に変更しないようにします。
+     * </p>
+     */
+    private final Set<Class> reusedClasses = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * <p> 全てのクラスを逐次に翻訳する翻訳者を生成します </p>
+     */
+    public CppTranslator() {
+        this(null);
+    }
+
+    /**
+     * <p> クラスごとの翻訳に用いる {@link ForkJoinPool} を指定して翻訳者を生成します </p>
+     *
+     * <p>
+     * クラスごとの翻訳は {@code pool} 上で並列に行い、汎化関係は全てのクラスを翻訳した後で結びます。
+     * 翻訳したクラスの順番はクラス図のパッケージにおける順番と同じです。
+     * </p>
+     *
+     * @param pool クラスごとの翻訳に用いるプール <br> {@code null} の場合は逐次に翻訳します。
+     */
+    public CppTranslator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
 
     /**
      * <p> クラス図のパッケージからCppに翻訳します </p>
@@ -27,12 +65,47 @@ public class CppTranslator {
      */
     public Cpp translate(Package classPackage) {
         cpp = new Cpp();
+        cpp.setClasses(ParallelClassMapper.map(pool, classPackage.getClasses(), this::createCppClass));
+
+        searchGeneralizationClass(classPackage.getClasses());
+
+        return cpp;
+    }
+
+    /**
+     * <p> クラス図のパッケージの内、変更したクラスのみをCppに翻訳し直します </p>
+     *
+     * <p>
+     * {@code changeSet} で翻訳し直す必要がないと判定したクラスは、 {@code previousCpp} から同じ名前のクラスをそのまま再利用します。
+     * {@code previousCpp} に存在しないクラスや、同じ名前で2つ目以降のクラスは翻訳し直します。
+     * 再利用するクラスは {@code previousCpp} と共有するため変更しません。
+     * 継承クラス名が変わるクラスは翻訳し直し、汎化関係は翻訳し直したクラスについてのみ結びます。
+     * </p>
+     *
+     * @param classPackage クラス図のクラスリスト
+     * @param previousCpp 前回 {@code classPackage} の変更前のパッケージから翻訳したCpp
+     * @param changeSet    前回の翻訳以降に変更したクラスの集合
+     * @return Cppソースコード
+     */
+    public Cpp translate(Package classPackage, Cpp previousCpp, ClassChangeSet changeSet) {
+        cpp = new Cpp();
+        Set<String> reusedClassNames = new HashSet<>();
+        // 前回の翻訳結果やクラス図のパッケージは他のスレッドからも読むため、どちらも読むだけで探索する
+        Map<String, Class> previousClasses = new HashMap<>();
+        for (Class previousClass : previousCpp.getClasses()) previousClasses.putIfAbsent(previousClass.getName(), previousClass);
+        Set<String> classNames = new HashSet<>();
+        for (io.github.morichan.retuss.language.uml.Class cc : classPackage.getClasses()) classNames.add(cc.getName());
 
         for (io.github.morichan.retuss.language.uml.Class cc : classPackage.getClasses()) {
-            cpp.addClass(createCppClass(cc));
+            Class reusedClass = null;
+            if (!changeSet.isAffected(cc) && reusedClassNames.add(cc.getName())) reusedClass = previousClasses.get(cc.getName());
+            if (reusedClass != null && !Objects.equals(reusedClass.getExtendsClassName(), searchGeneralizationClassName(classNames, cc))) reusedClass = null;
+            if (reusedClass != null) reusedClasses.add(reusedClass);
+            cpp.addClass(reusedClass != null ? reusedClass : createCppClass(cc));
         }
 
         searchGeneralizationClass(classPackage.getClasses());
+        reusedClasses.clear();
 
         return cpp;
     }
@@ -139,14 +212,28 @@ public class CppTranslator {
      */
     private void searchGeneralizationClass(List<io.github.morichan.retuss.language.uml.Class> classClasses) {
         for (int i = 0; i < classClasses.size(); i++) {
+            if (reusedClasses.contains(cpp.getClasses().get(i))) continue;
             if (classClasses.get(i).getGeneralizationClass() != null) {
-                int finalI = i;
-                List<Class> oneGeneralizationCppClass =
-                        cpp.getClasses().stream().filter(
-                                jc -> jc.getName().equals(classClasses.get(finalI).getGeneralizationClass().getName())
-                        ).collect(Collectors.toList());
-                cpp.getClasses().get(finalI).setExtendsClass(oneGeneralizationCppClass.get(0));
+                Class oneGeneralizationCppClass = cpp.findClass(classClasses.get(i).getGeneralizationClass().getName());
+                if (oneGeneralizationCppClass != null) cpp.getClasses().get(i).setExtendsClass(oneGeneralizationCppClass);
             }
         }
     }
+
+    /**
+     * <p> クラス図のクラスを翻訳した場合の継承クラス名を探索します </p>
+     *
+     * <p>
+     * {@link #searchGeneralizationClass(List)} と同様に、汎化関係にあるクラスがパッケージ内に存在する場合のみ継承クラスとします。
+     * </p>
+     *
+     * @param classNames クラス図のパッケージに含むクラス名の集合
+     * @param classClass クラス図のクラス
+     * @return 継承クラス名 <br> 継承クラスが存在しない場合は {@code null}
+     */
+    private String searchGeneralizationClassName(Set<String> classNames, io.github.morichan.retuss.language.uml.Class classClass) {
+        if (classClass.getGeneralizationClass() == null) return null;
+        String generalizationClassName = classClass.getGeneralizationClass().getName();
+        return classNames.contains(generalizationClassName) ? generalizationClassName : null;
+    }
 }
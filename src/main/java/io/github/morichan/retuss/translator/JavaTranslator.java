@@ -13,10 +13,17 @@ import io.github.morichan.retuss.window.diagram.sequence.Interaction;
 import io.github.morichan.retuss.window.diagram.sequence.MessageOccurrenceSpecification;
 import io.github.morichan.retuss.window.diagram.sequence.MessageType;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * <p> Java翻訳者クラス </p>
@@ -24,6 +31,37 @@ import java.util.stream.Collectors;
 public class JavaTranslator {
 
     private Java java;
+    private final ForkJoinPool pool;
+
+    /**
+     * <p> 前回の翻訳結果から再利用しているクラスの集合 </p>
+     *
+     * <p>
+     * 前回の翻訳結果と共有しているため、汎化関係を結ぶ際に変更しないようにします。
+     * </p>
+     */
+    private final Set<Class> reusedClasses = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * <p> 全てのクラスを逐次に翻訳する翻訳者を生成します </p>
+     */
+    public JavaTranslator() {
+        this(null);
+    }
+
+    /**
+     * <p> クラスごとの翻訳に用いる {@link ForkJoinPool} を指定して翻訳者を生成します </p>
+     *
+     * <p>
+     * クラスごとの翻訳は {@code pool} 上で並列に行い、汎化関係は全てのクラスを翻訳した後で結びます。
+     * 翻訳したクラスの順番はクラス図のパッケージにおける順番と同じです。
+     * </p>
+     *
+     * @param pool クラスごとの翻訳に用いるプール <br> {@code null} の場合は逐次に翻訳します。
+     */
+    public JavaTranslator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
 
     /**
      * <p> クラス図のパッケージからJavaに翻訳します </p>
@@ -33,12 +71,47 @@ public class JavaTranslator {
      */
     public Java translate(Package classPackage) {
         java = new Java();
+        java.setClasses(ParallelClassMapper.map(pool, classPackage.getClasses(), this::createJavaClass));
+
+        searchGeneralizationClass(classPackage.getClasses());
+
+        return java;
+    }
+
+    /**
+     * <p> クラス図のパッケージの内、変更したクラスのみをJavaに翻訳し直します </p>
+     *
+     * <p>
+     * {@code changeSet} で翻訳し直す必要がないと判定したクラスは、 {@code previousJava} から同じ名前のクラスをそのまま再利用します。
+     * {@code previousJava} に存在しないクラスや、同じ名前で2つ目以降のクラスは翻訳し直します。
+     * 再利用するクラスは {@code previousJava} と共有するため変更しません。
+     * 継承クラス名が変わるクラスは翻訳し直し、汎化関係は翻訳し直したクラスについてのみ結びます。
+     * </p>
+     *
+     * @param classPackage クラス図のクラスリスト
+     * @param previousJava 前回 {@code classPackage} の変更前のパッケージから翻訳したJava
+     * @param changeSet    前回の翻訳以降に変更したクラスの集合
+     * @return Javaソースコード
+     */
+    public Java translate(Package classPackage, Java previousJava, ClassChangeSet changeSet) {
+        java = new Java();
+        Set<String> reusedClassNames = new HashSet<>();
+        // 前回の翻訳結果やクラス図のパッケージは他のスレッドからも読むため、どちらも読むだけで探索する
+        Map<String, Class> previousClasses = new HashMap<>();
+        for (Class previousClass : previousJava.getClasses()) previousClasses.putIfAbsent(previousClass.getName(), previousClass);
+        Set<String> classNames = new HashSet<>();
+        for (io.github.morichan.retuss.language.uml.Class cc : classPackage.getClasses()) classNames.add(cc.getName());
 
         for (io.github.morichan.retuss.language.uml.Class cc : classPackage.getClasses()) {
-            java.addClass(createJavaClass(cc));
+            Class reusedClass = null;
+            if (!changeSet.isAffected(cc) && reusedClassNames.add(cc.getName())) reusedClass = previousClasses.get(cc.getName());
+            if (reusedClass != null && !Objects.equals(reusedClass.getExtendsClassName(), searchGeneralizationClassName(classNames, cc))) reusedClass = null;
+            if (reusedClass != null) reusedClasses.add(reusedClass);
+            java.addClass(reusedClass != null ? reusedClass : createJavaClass(cc));
         }
 
         searchGeneralizationClass(classPackage.getClasses());
+        reusedClasses.clear();
 
         return java;
     }
@@ -176,8 +249,8 @@ public class JavaTranslator {
      * <p>
      *     まず、クラスAを見ると、クラスBが汎化関係にあることが {@code classClasses} からわかります。
      *     そこで、クラスBという名前と一致する {@link #java} 内におけるクラスBを抽出します
-     *     （これを {@code java.getClasses.stream().filter(...).collection(Collectors.toList())} によるラムダ式で表現しています）。
-     *     名前が一致するクラスBは唯一のはずですから、そのまま {@code oneGeneralizationJavaClass} リストに存在する0番目の要素を抽出し、
+     *     （これを {@link Java#findClass(String)} によるクラス名の索引からの探索で表現しています）。
+     *     名前が一致するクラスBは唯一のはずですから、そのまま抽出したクラスBを、
      *     {@link #java} のクラスAの継承クラスに格納します。
      *     参照渡しのため、{@code java.A.extends == java.B} です。
      * </p>
@@ -197,7 +270,7 @@ public class JavaTranslator {
      * <p>
      *     次に、クラスBを見ると、クラスCが汎化関係にあることが {@code classClasses} からわかります。
      *     そこで、クラスCという名前と一致する {@link #java} 内におけるクラスCを抽出します（同上）。
-     *     名前が一致するクラスCもやはり唯一のはずですから、そのまま {@code oneGeneralizationJavaClass} リストに存在する0番目の要素を抽出し、
+     *     名前が一致するクラスCもやはり唯一のはずですから、そのまま抽出したクラスCを、
      *     {@link #java} のクラスBの継承クラスに格納します。
      *     参照渡しのため、 {@code java.B.extends == java.C} です。
      * </p>
@@ -233,20 +306,36 @@ public class JavaTranslator {
      * <p>
      *     これにより、どのクラスから見ても継承関係がわかるような構造になりました。
      *     この手法は、どのクラスがどのような順序で格納していたとしても上手く処理できます。
+     *     また、クラスの抽出は索引から行うため、汎化関係の数に比例する時間で処理できます。
      * </p>
      *
      * @param classClasses クラス図のクラスのリスト
      */
     private void searchGeneralizationClass(List<io.github.morichan.retuss.language.uml.Class> classClasses) {
         for (int i = 0; i < classClasses.size(); i++) {
+            if (reusedClasses.contains(java.getClasses().get(i))) continue;
             if (classClasses.get(i).getGeneralizationClass() != null) {
-                int finalI = i;
-                List<io.github.morichan.retuss.language.java.Class> oneGeneralizationJavaClass =
-                        java.getClasses().stream().filter(
-                                jc -> jc.getName().equals(classClasses.get(finalI).getGeneralizationClass().getName())
-                        ).collect(Collectors.toList());
-                java.getClasses().get(finalI).setExtendsClass(oneGeneralizationJavaClass.get(0));
+                io.github.morichan.retuss.language.java.Class oneGeneralizationJavaClass =
+                        java.findClass(classClasses.get(i).getGeneralizationClass().getName());
+                if (oneGeneralizationJavaClass != null) java.getClasses().get(i).setExtendsClass(oneGeneralizationJavaClass);
             }
         }
     }
+
+    /**
+     * <p> クラス図のクラスを翻訳した場合の継承クラス名を探索します </p>
+     *
+     * <p>
+     * {@link #searchGeneralizationClass(List)} と同様に、汎化関係にあるクラスがパッケージ内に存在する場合のみ継承クラスとします。
+     * </p>
+     *
+     * @param classNames クラス図のパッケージに含むクラス名の集合
+     * @param classClass クラス図のクラス
+     * @return 継承クラス名 <br> 継承クラスが存在しない場合は {@code null}
+     */
+    private String searchGeneralizationClassName(Set<String> classNames, io.github.morichan.retuss.language.uml.Class classClass) {
+        if (classClass.getGeneralizationClass() == null) return null;
+        String generalizationClassName = classClass.getGeneralizationClass().getName();
+        return classNames.contains(generalizationClassName) ? generalizationClassName : null;
+    }
 }
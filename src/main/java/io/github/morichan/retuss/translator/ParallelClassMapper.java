@@ -0,0 +1,55 @@
+package io.github.morichan.retuss.translator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * <p> クラスごとの翻訳を {@link ForkJoinPool} 上で並列に行うクラス </p>
+ *
+ * <p>
+ * 各翻訳者クラスにおけるクラス単位の翻訳は他のクラスに依存しないため、クラスごとに並列に翻訳できます。
+ * 翻訳結果は入力したクラスの順番で返すため、並列に翻訳しても逐次に翻訳した場合と同じ順番になります。
+ * 汎化関係やメッセージの解決などのクラス間を結ぶ処理は、全てのクラスを翻訳した後で逐次に行ってください。
+ * </p>
+ *
+ * <p>
+ * クラスの数が {@link #parallelThreshold} 未満の場合は、スレッドを切り替える費用の方が大きいため逐次に翻訳します。
+ * </p>
+ */
+final class ParallelClassMapper {
+
+    /**
+     * <p> 並列に翻訳するクラスの数の下限 </p>
+     */
+    static final int parallelThreshold = 32;
+
+    private ParallelClassMapper() {
+    }
+
+    /**
+     * <p> 全てのクラスを翻訳します </p>
+     *
+     * <p>
+     * 翻訳中に投げた非検査例外は、そのまま呼出し元に投げます。
+     * </p>
+     *
+     * @param pool    翻訳に用いるプール <br> {@code null} の場合は逐次に翻訳します。
+     * @param classes 翻訳するクラスのリスト
+     * @param mapper  1つのクラスを翻訳する関数
+     * @param <T>     翻訳元のクラス
+     * @param <R>     翻訳先のクラス
+     * @return 翻訳したクラスのリスト <br> {@code classes} と同じ順番
+     */
+    static <T, R> List<R> map(ForkJoinPool pool, List<T> classes, Function<T, R> mapper) {
+        if (pool == null || classes.size() < parallelThreshold) {
+            List<R> mapped = new ArrayList<>(classes.size());
+            for (T languageClass : classes) mapped.add(mapper.apply(languageClass));
+            return mapped;
+        }
+
+        return pool.submit(() -> classes.parallelStream().map(mapper).collect(Collectors.toList())).join();
+    }
+}
@@ -0,0 +1,190 @@
+package io.github.morichan.retuss.translator;
+
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.window.diagram.AttributeGraphic;
+import io.github.morichan.retuss.window.diagram.OperationGraphic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p> 翻訳中のクラス図のパッケージにおける名前の索引クラス </p>
+ *
+ * <p>
+ * 翻訳の度にパッケージから1回だけ作り、クラス名からクラス、クラス名と操作名（と引数の数）から操作、クラスと属性名から属性の型、クラスと型名から属性名を引けるようにします。
+ * メッセージごとに全てのクラスと全ての操作を調べる必要がなくなるため、相互参照の解決はメッセージの数に比例する時間で済みます。
+ * </p>
+ *
+ * <p>
+ * 同じ名前が複数ある場合は、パッケージにおける順番（宣言した順番）で最初のものを返します。
+ * 索引を作った後にパッケージを変更しても索引には反映しません。
+ * </p>
+ */
+class SymbolTable {
+
+    /**
+     * <p> 引数の数を問わずに操作を探索する場合に指定する値 </p>
+     */
+    static final int ANY_ARITY = -1;
+
+    /**
+     * <p> 索引に登録した操作と、その操作を持つクラスの組 </p>
+     */
+    static class OperationSymbol {
+        private final Class owner;
+        private final OperationGraphic operationGraphic;
+        private final int arity;
+
+        private OperationSymbol(Class owner, OperationGraphic operationGraphic, int arity) {
+            this.owner = owner;
+            this.operationGraphic = operationGraphic;
+            this.arity = arity;
+        }
+
+        /**
+         * <p> 操作を持つクラスを取得します。 </p>
+         *
+         * @return 操作を持つクラス
+         */
+        Class getOwner() {
+            return owner;
+        }
+
+        /**
+         * <p> 操作を取得します。 </p>
+         *
+         * @return 操作
+         */
+        OperationGraphic getOperationGraphic() {
+            return operationGraphic;
+        }
+    }
+
+    private final Map<String, Class> classes = new HashMap<>();
+    private final Map<String, Map<String, List<OperationSymbol>>> operations = new HashMap<>();
+    private final Map<String, List<OperationSymbol>> operationsByName = new HashMap<>();
+    private final Map<Class, Map<String, String>> attributeTypes = new IdentityHashMap<>();
+    private final Map<Class, Map<String, String>> attributeNamesByType = new IdentityHashMap<>();
+
+    /**
+     * <p> パッケージの全てのクラスから索引を作ります。 </p>
+     *
+     * @param umlPackage クラス図のパッケージ
+     */
+    SymbolTable(Package umlPackage) {
+        for (Class umlClass : umlPackage.getClasses()) {
+            classes.putIfAbsent(umlClass.getName(), umlClass);
+
+            Map<String, List<OperationSymbol>> classOperations = operations.computeIfAbsent(umlClass.getName(), name -> new HashMap<>());
+            for (OperationGraphic og : umlClass.getOperationGraphics()) {
+                String operationName = og.getOperation().getName().getNameText();
+                OperationSymbol symbol = new OperationSymbol(umlClass, og, countParameters(og));
+                classOperations.computeIfAbsent(operationName, name -> new ArrayList<>()).add(symbol);
+                operationsByName.computeIfAbsent(operationName, name -> new ArrayList<>()).add(symbol);
+            }
+
+            Map<String, String> types = new HashMap<>();
+            Map<String, String> names = new HashMap<>();
+            for (AttributeGraphic ag : umlClass.getAttributeGraphics()) {
+                try {
+                    String attributeName = ag.getAttribute().getName().getNameText();
+                    String typeName = ag.getAttribute().getType().getName().getNameText();
+                    types.putIfAbsent(attributeName, typeName);
+                    names.putIfAbsent(typeName, attributeName);
+                } catch (IllegalStateException e) {
+                    // 型を持たない属性は索引に登録しない
+                }
+            }
+            attributeTypes.put(umlClass, types);
+            attributeNamesByType.put(umlClass, names);
+        }
+    }
+
+    /**
+     * <p> クラス名からクラスを探索します。 </p>
+     *
+     * @param className クラス名
+     * @return クラス <br> 存在しない場合は {@code null} を返します。
+     */
+    Class searchClass(String className) {
+        return classes.get(className);
+    }
+
+    /**
+     * <p> クラスが持つ操作を探索します。 </p>
+     *
+     * <p>
+     * 同じ名前のクラスが複数ある場合は、それら全てのクラスの操作から探索します。
+     * 引数の数が一致する操作が無い場合は、引数の数を問わずに最初に宣言した操作を返します。
+     * </p>
+     *
+     * @param className     クラス名
+     * @param operationName 操作名
+     * @param arity         引数の数 <br> {@link #ANY_ARITY} の場合は引数の数を問いません。
+     * @return 操作とその操作を持つクラスの組 <br> 存在しない場合は {@code null} を返します。
+     */
+    OperationSymbol searchOperation(String className, String operationName, int arity) {
+        Map<String, List<OperationSymbol>> classOperations = operations.get(className);
+        if (classOperations == null) return null;
+        return select(classOperations.getOrDefault(operationName, Collections.emptyList()), null, arity);
+    }
+
+    /**
+     * <p> 任意のクラス以外のクラスが持つ操作を、パッケージにおける順番で探索します。 </p>
+     *
+     * @param excludedClassName 探索しないクラス名
+     * @param operationName     操作名
+     * @param arity             引数の数 <br> {@link #ANY_ARITY} の場合は引数の数を問いません。
+     * @return 操作とその操作を持つクラスの組 <br> 存在しない場合は {@code null} を返します。
+     */
+    OperationSymbol searchOperationExcept(String excludedClassName, String operationName, int arity) {
+        return select(operationsByName.getOrDefault(operationName, Collections.emptyList()), excludedClassName, arity);
+    }
+
+    /**
+     * <p> クラスが持つ属性の型名を探索します。 </p>
+     *
+     * @param umlClass      クラス
+     * @param attributeName 属性名
+     * @return 型名 <br> 存在しない場合は {@code null} を返します。
+     */
+    String searchAttributeType(Class umlClass, String attributeName) {
+        Map<String, String> types = attributeTypes.get(umlClass);
+        return types != null ? types.get(attributeName) : null;
+    }
+
+    /**
+     * <p> クラスが持つ属性の内、任意の型の最初の属性の名前を探索します。 </p>
+     *
+     * @param umlClass クラス
+     * @param typeName 型名
+     * @return 属性名 <br> 存在しない場合は {@code null} を返します。
+     */
+    String searchAttributeName(Class umlClass, String typeName) {
+        Map<String, String> names = attributeNamesByType.get(umlClass);
+        return names != null ? names.get(typeName) : null;
+    }
+
+    private OperationSymbol select(List<OperationSymbol> symbols, String excludedClassName, int arity) {
+        OperationSymbol first = null;
+        for (OperationSymbol symbol : symbols) {
+            if (excludedClassName != null && excludedClassName.equals(symbol.owner.getName())) continue;
+            if (arity == ANY_ARITY || symbol.arity == arity) return symbol;
+            if (first == null) first = symbol;
+        }
+        return first;
+    }
+
+    private int countParameters(OperationGraphic og) {
+        try {
+            return og.getOperation().getParameters().size();
+        } catch (IllegalStateException e) {
+            return 0;
+        }
+    }
+}
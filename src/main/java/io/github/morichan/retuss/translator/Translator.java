@@ -4,38 +4,268 @@ import io.github.morichan.retuss.language.java.Java;
 import io.github.morichan.retuss.language.cpp.Cpp;
 import io.github.morichan.retuss.language.uml.Package;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
 /**
  * <p> 翻訳者クラス </p>
+ *
+ * <p>
+ * クラス図から各言語への翻訳は、同期的に翻訳する {@link #translate(Package)} の他に、
+ * JavaとC++を別々のスレッドで同時に翻訳する {@link #translateAsync(Package, ClassChangeSet)} を用いることができます。
+ * 非同期の翻訳は呼び出した順番に言語ごとに直列につなぐため、差分のみを翻訳する場合も前回の翻訳結果を基にします。
+ * </p>
  */
 public class Translator {
 
+    /**
+     * <p> 非同期に翻訳した各言語の翻訳結果の組 </p>
+     */
+    public static class Translation {
+        private final CompletableFuture<Java> java;
+        private final CompletableFuture<Cpp> cpp;
+
+        private Translation(CompletableFuture<Java> java, CompletableFuture<Cpp> cpp) {
+            this.java = java;
+            this.cpp = cpp;
+        }
+
+        /**
+         * <p> Javaの翻訳結果を取得します </p>
+         *
+         * @return Javaへの翻訳が完了すると完了するフューチャ
+         */
+        public CompletableFuture<Java> getJava() {
+            return java;
+        }
+
+        /**
+         * <p> C++の翻訳結果を取得します </p>
+         *
+         * @return C++への翻訳が完了すると完了するフューチャ
+         */
+        public CompletableFuture<Cpp> getCpp() {
+            return cpp;
+        }
+    }
+
     private Package classDiagramPackage = new Package();
 
     private Java java = new Java();
     private Cpp cpp = new Cpp();
 
-    public Package getPackage() {
+    /**
+     * <p> {@link #java} と {@link #cpp} がクラス図から翻訳した結果か否か </p>
+     *
+     * <p>
+     * コードからクラス図に翻訳した後は、 {@link #java} と {@link #cpp} がクラス図と対応していない可能性があるため、差分のみを翻訳し直せません。
+     * </p>
+     */
+    private boolean isTranslatedFromPackage = false;
+    private final ForkJoinPool pool;
+
+    /**
+     * <p> 翻訳を依頼した回数 </p>
+     *
+     * <p>
+     * 非同期の翻訳が完了した時点でより新しい翻訳を依頼していた場合は、その翻訳結果を {@link #java} と {@link #cpp} に反映しません。
+     * </p>
+     */
+    private long generation = 0;
+    private CompletableFuture<Java> javaFuture = CompletableFuture.completedFuture(java);
+    private CompletableFuture<Cpp> cppFuture = CompletableFuture.completedFuture(cpp);
+
+    /**
+     * <p> 全てのクラスを逐次に翻訳する翻訳者を生成します </p>
+     */
+    public Translator() {
+        this(null);
+    }
+
+    /**
+     * <p> クラスごとの翻訳に用いる {@link ForkJoinPool} を指定して翻訳者を生成します </p>
+     *
+     * <p>
+     * 各言語の翻訳者に {@code pool} を渡し、クラスごとの翻訳を並列に行います。
+     * クラス間を結ぶ処理は全てのクラスを翻訳した後で行うため、翻訳結果は逐次に翻訳した場合と同じです。
+     * </p>
+     *
+     * @param pool クラスごとの翻訳に用いるプール <br> {@code null} の場合は逐次に翻訳します。
+     */
+    public Translator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public synchronized Package getPackage() {
         return classDiagramPackage;
     }
 
-    public Java getJava() {
+    public synchronized Java getJava() {
         return java;
     }
-    public Cpp getCpp() {
+    public synchronized Cpp getCpp() {
         return cpp;
     }
 
     /**
      * <p> クラス図を基に各言語へ翻訳します </p>
      *
+     * <p>
+     * プールを指定した翻訳者の場合は、C++への翻訳をプール上で行いながら呼出し元のスレッドでJavaへ翻訳し、両方の完了を待ちます。
+     * </p>
+     *
      * @param classDiagramPackage クラス図のパッケージ
      */
     public void translate(Package classDiagramPackage) {
-        JavaTranslator javaTranslator = new JavaTranslator();
-        CppTranslator cppTranslator = new CppTranslator();
+        JavaTranslator javaTranslator = new JavaTranslator(pool);
+        CppTranslator cppTranslator = new CppTranslator(pool);
+
+        translateConcurrently(() -> javaTranslator.translate(classDiagramPackage), () -> cppTranslator.translate(classDiagramPackage));
+    }
+
+    /**
+     * <p> クラス図の内、変更したクラスのみを各言語へ翻訳し直します </p>
+     *
+     * <p>
+     * 変更していないクラスは前回翻訳した各言語のクラスをそのまま再利用するため、翻訳にかかる時間は変更したクラスの数に比例します。
+     * 前回の翻訳がクラス図からの翻訳ではない場合や、全てのクラスを変更したものとして扱う場合は {@link #translate(Package)} と同じく全てのクラスを翻訳します。
+     * </p>
+     *
+     * @param classDiagramPackage クラス図のパッケージ
+     * @param changeSet           前回の翻訳以降に変更したクラスの集合 <br> {@code null} の場合は全てのクラスを翻訳します。
+     */
+    public void translate(Package classDiagramPackage, ClassChangeSet changeSet) {
+        CompletableFuture<Java> previousJava;
+        CompletableFuture<Cpp> previousCpp;
+        synchronized (this) {
+            if (!isTranslatedFromPackage || changeSet == null || changeSet.isAllChanged()) previousJava = null;
+            else previousJava = javaFuture;
+            previousCpp = cppFuture;
+        }
+        if (!isCompletedNormally(previousJava) || !isCompletedNormally(previousCpp)) {
+            translate(classDiagramPackage);
+            return;
+        }
+
+        JavaTranslator javaTranslator = new JavaTranslator(pool);
+        CppTranslator cppTranslator = new CppTranslator(pool);
+
+        translateConcurrently(() -> javaTranslator.translate(classDiagramPackage, previousJava.join(), changeSet),
+                () -> cppTranslator.translate(classDiagramPackage, previousCpp.join(), changeSet));
+    }
+
+    /**
+     * <p> クラス図を基にJavaとC++へ非同期に翻訳します </p>
+     *
+     * <p>
+     * JavaとC++への翻訳はクラス図を読むだけのため、それぞれ別のスレッドで同時に翻訳します。
+     * 翻訳はコンストラクタで指定したプール上で行い、プールを指定していない場合は共通の {@link ForkJoinPool} 上で行います。
+     * 呼出し元のスレッド（JavaFXアプリケーションスレッドなど）はフューチャを受け取るとすぐに戻るため、翻訳を待ちません。
+     * </p>
+     *
+     * <p>
+     * 言語ごとに前回依頼した翻訳の完了を待ってから翻訳するため、差分のみを翻訳する場合も前回の翻訳結果を基にします。
+     * 前回の翻訳が失敗していた場合は全てのクラスを翻訳します。
+     * 翻訳結果は、完了した時点でより新しい翻訳を依頼していなければ {@link #getJava()} と {@link #getCpp()} にも反映します。
+     * </p>
+     *
+     * <p>
+     * 翻訳中にクラス図のパッケージを変更しないでください。
+     * 翻訳中も変更しうるパッケージの場合は、変更しない複製を生成する {@link #translateAsync(Supplier, ClassChangeSet)} を用いてください。
+     * </p>
+     *
+     * @param classDiagramPackage クラス図のパッケージ
+     * @param changeSet           前回の翻訳以降に変更したクラスの集合 <br> {@code null} の場合は全てのクラスを翻訳します。
+     * @return 各言語の翻訳結果の組
+     */
+    public Translation translateAsync(Package classDiagramPackage, ClassChangeSet changeSet) {
+        return translateAsync(() -> classDiagramPackage, changeSet);
+    }
+
+    /**
+     * <p> クラス図のパッケージを生成してからJavaとC++へ非同期に翻訳します </p>
+     *
+     * <p>
+     * {@code classDiagramPackage} は翻訳と同じプール上で1回だけ呼び出し、生成したパッケージをJavaとC++の翻訳で共有します。
+     * 呼出し元のスレッドで編集し続けるパッケージを翻訳する場合は、呼出し元のスレッドでパッケージを書き出しておき、
+     * {@code classDiagramPackage} でそこから読み込んだ複製を返すことで、編集中のパッケージを他のスレッドから読まないようにできます。
+     * パッケージの生成に失敗した場合は、両方の言語の翻訳結果のフューチャが例外で完了します。
+     * </p>
+     *
+     * <p>
+     * その他は {@link #translateAsync(Package, ClassChangeSet)} と同じです。
+     * </p>
+     *
+     * @param classDiagramPackage クラス図のパッケージを生成する処理
+     * @param changeSet           前回の翻訳以降に変更したクラスの集合 <br> {@code null} の場合は全てのクラスを翻訳します。
+     * @return 各言語の翻訳結果の組
+     */
+    public synchronized Translation translateAsync(Supplier<Package> classDiagramPackage, ClassChangeSet changeSet) {
+        boolean isIncremental = isTranslatedFromPackage && changeSet != null && !changeSet.isAllChanged();
+        long translationGeneration = ++generation;
+        Executor executor = pool != null ? pool : ForkJoinPool.commonPool();
+        CompletableFuture<Package> translatingPackage = CompletableFuture.supplyAsync(classDiagramPackage, executor);
+
+        javaFuture = javaFuture.handle((previousJava, error) -> error == null ? previousJava : null)
+                .thenCombineAsync(translatingPackage, (previousJava, umlPackage) -> {
+                    JavaTranslator javaTranslator = new JavaTranslator(pool);
+                    if (isIncremental && previousJava != null) return javaTranslator.translate(umlPackage, previousJava, changeSet);
+                    else return javaTranslator.translate(umlPackage);
+                }, executor).thenApply(translatedJava -> {
+                    reflect(translatedJava, null, translationGeneration);
+                    return translatedJava;
+                });
+        cppFuture = cppFuture.handle((previousCpp, error) -> error == null ? previousCpp : null)
+                .thenCombineAsync(translatingPackage, (previousCpp, umlPackage) -> {
+                    CppTranslator cppTranslator = new CppTranslator(pool);
+                    if (isIncremental && previousCpp != null) return cppTranslator.translate(umlPackage, previousCpp, changeSet);
+                    else return cppTranslator.translate(umlPackage);
+                }, executor).thenApply(translatedCpp -> {
+                    reflect(null, translatedCpp, translationGeneration);
+                    return translatedCpp;
+                });
+        isTranslatedFromPackage = true;
+
+        return new Translation(javaFuture, cppFuture);
+    }
+
+    private void translateConcurrently(Supplier<Java> javaTranslation, Supplier<Cpp> cppTranslation) {
+        if (pool == null) {
+            reflect(javaTranslation.get(), cppTranslation.get());
+            return;
+        }
+
+        CompletableFuture<Cpp> translatingCpp = CompletableFuture.supplyAsync(cppTranslation, pool);
+        Java translatedJava = javaTranslation.get();
+        try {
+            reflect(translatedJava, translatingCpp.join());
+        } catch (CompletionException e) {
+            // 逐次に翻訳した場合と同じ例外を呼出し元に投げる
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private boolean isCompletedNormally(CompletableFuture<?> future) {
+        return future != null && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    private synchronized void reflect(Java translatedJava, Cpp translatedCpp) {
+        generation++;
+        java = translatedJava;
+        cpp = translatedCpp;
+        javaFuture = CompletableFuture.completedFuture(java);
+        cppFuture = CompletableFuture.completedFuture(cpp);
+        isTranslatedFromPackage = true;
+    }
 
-        java = javaTranslator.translate(classDiagramPackage);
-        cpp = cppTranslator.translate(classDiagramPackage);
+    private synchronized void reflect(Java translatedJava, Cpp translatedCpp, long translationGeneration) {
+        if (translationGeneration != generation) return;
+        if (translatedJava != null) java = translatedJava;
+        if (translatedCpp != null) cpp = translatedCpp;
     }
 
     /**
@@ -44,9 +274,13 @@ public class Translator {
      * @param java Javaソースコード
      */
     public void translate(Java java) {
-        UMLTranslator umlTranslator = new UMLTranslator();
+        UMLTranslator umlTranslator = new UMLTranslator(pool);
 
-        classDiagramPackage = umlTranslator.translate(java);
+        Package translatedPackage = umlTranslator.translate(java);
+        synchronized (this) {
+            classDiagramPackage = translatedPackage;
+            isTranslatedFromPackage = false;
+        }
     }
 
     /**
@@ -55,8 +289,12 @@ public class Translator {
      * @param cpp cppソースコード
      */
     public void translate(Cpp cpp) {
-        UMLTranslator umlTranslator = new UMLTranslator();
+        UMLTranslator umlTranslator = new UMLTranslator(pool);
 
-        classDiagramPackage = umlTranslator.translate(cpp);
+        Package translatedPackage = umlTranslator.translate(cpp);
+        synchronized (this) {
+            classDiagramPackage = translatedPackage;
+            isTranslatedFromPackage = false;
+        }
     }
 }
@@ -30,14 +30,41 @@ import io.github.morichan.retuss.window.diagram.sequence.MessageType;
 import java.lang.invoke.MethodType;
 import java.util.List;
 import java.util.StringJoiner;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * <p> UML翻訳者クラス </p>
+ *
+ * <p>
+ * 汎化関係やメッセージが呼び出す操作といった相互参照は、翻訳の度にパッケージから作る {@link SymbolTable} で名前から引いて解決します。
+ * </p>
  */
 public class UMLTranslator {
 
     private Package classPackage;
+    private SymbolTable symbolTable;
+    private final ForkJoinPool pool;
+
+    /**
+     * <p> 全てのクラスを逐次に翻訳する翻訳者を生成します </p>
+     */
+    public UMLTranslator() {
+        this(null);
+    }
+
+    /**
+     * <p> クラスごとの翻訳に用いる {@link ForkJoinPool} を指定して翻訳者を生成します </p>
+     *
+     * <p>
+     * クラスごとの翻訳は {@code pool} 上で並列に行い、汎化関係とメッセージの解決は全てのクラスを翻訳した後で逐次に行います。
+     * 翻訳したクラスの順番はコードにおけるクラスの順番と同じです。
+     * </p>
+     *
+     * @param pool クラスごとの翻訳に用いるプール <br> {@code null} の場合は逐次に翻訳します。
+     */
+    public UMLTranslator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
 
     /**
      * <p> Javaからクラス図のパッケージに翻訳します </p>
@@ -47,10 +74,8 @@ public class UMLTranslator {
      */
     public Package translate(Java java) {
         classPackage = new Package();
-
-        for (io.github.morichan.retuss.language.java.Class javaClass : java.getClasses()) {
-            classPackage.addClass(createUmlClass(javaClass));
-        }
+        classPackage.setClasses(ParallelClassMapper.map(pool, java.getClasses(), this::createUmlClass));
+        symbolTable = new SymbolTable(classPackage);
 
         searchGeneralizationClass(java.getClasses());
         searchMethod(classPackage);
@@ -67,10 +92,8 @@ public class UMLTranslator {
     public Package translate(Cpp cpp) {
       //  List<Boolean> flagOperationImplementations = classPackage.getClasses().get(0).getFlagOperationsImplementations();
         classPackage = new Package();
-
-        for (io.github.morichan.retuss.language.cpp.Class cppClass : cpp.getClasses()) {
-            classPackage.addClass(createClass(cppClass));
-        }
+        classPackage.setClasses(ParallelClassMapper.map(pool, cpp.getClasses(), this::createClass));
+        symbolTable = new SymbolTable(classPackage);
 
         searchGeneralizationClass_Cpp(cpp.getClasses());
 
@@ -148,57 +171,104 @@ public class UMLTranslator {
         return sb.toString();
     }
 
+    /**
+     * <p> 全ての操作のメッセージが呼び出す操作を探索し、呼び出す操作のメッセージに置き換えます </p>
+     *
+     * <p>
+     * 呼び出す操作は {@link SymbolTable} から操作名と引数の数で引くため、メッセージ1つあたりの探索はクラスや操作の数に依存しません。
+     * 他クラスの操作の場合は、呼び出し先のクラスの操作を優先し、存在しなければ自クラス以外で最初に宣言した同じ名前の操作を用います。
+     * </p>
+     *
+     * @param umlPackage クラス図のパッケージ
+     */
     private void searchMethod(Package umlPackage) {
         for (Class umlClass : umlPackage.getClasses()) {
             for (OperationGraphic og : umlClass.getOperationGraphics()) {
-                toSearchNextMessage: for (int i = 0; i < og.getInteraction().getMessage().getMessages().size(); i++) {
-                    MessageOccurrenceSpecification message = og.getInteraction().getMessage().getMessages().get(i);
+                List<MessageOccurrenceSpecification> messages = og.getInteraction().getMessage().getMessages();
+                for (int i = 0; i < messages.size(); i++) {
+                    MessageOccurrenceSpecification message = messages.get(i);
                     if (message.getMessageType() != MessageType.Method) continue;
 
-                    if (umlClass.getName().equals(searchClass(message.getType().getName(), message, message.getLifeline()).getName())) {
+                    String operationName = extractOperationName(message.getName());
+                    int arity = countArguments(message.getName());
+                    Class calledClass = searchClass(message.getType().getName(), message, message.getLifeline());
+
+                    if (umlClass.getName().equals(calledClass.getName())) {
                         // 自クラス内のメソッド
-                        for (Class sourceUmlClass : umlPackage.getClasses()) {
-                            if (!umlClass.getName().equals(sourceUmlClass.getName())) continue;
-                            for (OperationGraphic sourceOg : sourceUmlClass.getOperationGraphics()) {
-                                MessageOccurrenceSpecification sourceMessage = sourceOg.getInteraction().getMessage();
-
-                                if (sourceMessage.getName().contains(message.getName() + "(")) {
-                                    sourceMessage.setMessageType(MessageType.Method);
-                                    og.getInteraction().getMessage().getMessages().set(i, sourceMessage);
-                                    continue toSearchNextMessage;
-                                }
-                            }
-                        }
+                        SymbolTable.OperationSymbol symbol = symbolTable.searchOperation(umlClass.getName(), operationName, arity);
+                        if (symbol == null) continue;
+
+                        MessageOccurrenceSpecification sourceMessage = symbol.getOperationGraphic().getInteraction().getMessage();
+                        sourceMessage.setMessageType(MessageType.Method);
+                        messages.set(i, sourceMessage);
 
                     } else {
                         // 他クラス内のメソッド
-                        for (Class sourceUmlClass : umlPackage.getClasses()) {
-                            if (umlClass.getName().equals(sourceUmlClass.getName())) continue;
-                            for (OperationGraphic sourceOg : sourceUmlClass.getOperationGraphics()) {
-                                MessageOccurrenceSpecification sourceMessage = sourceOg.getInteraction().getMessage();
-
-                                if (sourceMessage.getName().contains(message.getName() + "(")) {
-                                    String instance = "";
-
-                                    for (AttributeGraphic ag : umlClass.getAttributeGraphics()) {
-                                        if (sourceUmlClass.getName().equals(ag.getAttribute().getType().getName().getNameText())) {
-                                            instance = ag.getAttribute().getName().getNameText();
-                                            break;
-                                        }
-                                    }
-
-                                    og.getInteraction().getMessage().putInstance(i, instance);
-                                    og.getInteraction().getMessage().getMessages().set(i, sourceMessage);
-                                    continue toSearchNextMessage;
-                                }
-                            }
-                        }
+                        SymbolTable.OperationSymbol symbol = symbolTable.searchOperation(calledClass.getName(), operationName, arity);
+                        if (symbol == null) symbol = symbolTable.searchOperationExcept(umlClass.getName(), operationName, arity);
+                        if (symbol == null) continue;
+
+                        String instance = symbolTable.searchAttributeName(umlClass, symbol.getOwner().getName());
+                        og.getInteraction().getMessage().putInstance(i, instance != null ? instance : "");
+                        messages.set(i, symbol.getOperationGraphic().getInteraction().getMessage());
                     }
                 }
             }
         }
     }
 
+    /**
+     * <p> メッセージ名から操作名を取り出します </p>
+     *
+     * @param messageName メッセージ名 <br> {@code print} や {@code print(x, y)} の形式
+     * @return 操作名
+     */
+    private String extractOperationName(String messageName) {
+        int index = messageName.indexOf('(');
+        return index < 0 ? messageName.trim() : messageName.substring(0, index).trim();
+    }
+
+    /**
+     * <p> メッセージ名から引数の数を数えます </p>
+     *
+     * <p>
+     * 括弧の中の入れ子になっていないカンマを数えます。
+     * 入れ子は丸括弧、角括弧、波括弧のみで数え、文字列と文字のリテラル内のカンマは数えません。
+     * {@code <} と {@code >} は比較演算子やラムダ式の矢印にも用いるため、型引数の括弧としては扱いません。
+     * </p>
+     *
+     * @param messageName メッセージ名
+     * @return 引数の数 <br> 括弧を含まない場合は {@link SymbolTable#ANY_ARITY} を返します。
+     */
+    private int countArguments(String messageName) {
+        int begin = messageName.indexOf('(');
+        int end = messageName.lastIndexOf(')');
+        if (begin < 0 || end < begin) return SymbolTable.ANY_ARITY;
+
+        String arguments = messageName.substring(begin + 1, end);
+        if (arguments.trim().isEmpty()) return 0;
+
+        int count = 1;
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < arguments.length(); i++) {
+            char c = arguments.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') i++;
+                else if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     private Visibility convert(AccessModifier accessModifier) {
         if (accessModifier == AccessModifier.Public) {
             return Visibility.Public;
@@ -223,15 +293,10 @@ public class UMLTranslator {
     private void searchGeneralizationClass(List<io.github.morichan.retuss.language.java.Class> javaClasses) {
         for (int i = 0; i < javaClasses.size(); i++) {
             if (javaClasses.get(i).getExtendsClassName() != null) {
-                int finalI = i;
-                List<io.github.morichan.retuss.language.uml.Class> oneExtendsClass =
-                        classPackage.getClasses().stream().filter(
-                                cp -> cp.getName().equals(javaClasses.get(finalI).getExtendsClassName())
-                        ).collect(Collectors.toList());
-                try {
-                    io.github.morichan.retuss.language.uml.Class oneClass = oneExtendsClass.get(0);
-                    classPackage.getClasses().get(finalI).setGeneralizationClass(oneClass);
-                } catch (IndexOutOfBoundsException e) {
+                io.github.morichan.retuss.language.uml.Class oneClass = symbolTable.searchClass(javaClasses.get(i).getExtendsClassName());
+                if (oneClass != null) {
+                    classPackage.getClasses().get(i).setGeneralizationClass(oneClass);
+                } else {
                     System.out.println("This is Set Error because same class wasn't had, so don't set.");
                 }
             }
@@ -326,14 +391,9 @@ public class UMLTranslator {
 
     private Class searchClass(String instance, MessageOccurrenceSpecification owner, Lifeline lifeline) {
         Class sourceClass = searchPreviousDeclaredFieldType(instance, owner, lifeline);
+        Class umlClass = symbolTable.searchClass(sourceClass.getName());
 
-        for (Class umlClass : classPackage.getClasses()) {
-            if (umlClass.getName().equals(sourceClass.getName())) {
-                return umlClass;
-            }
-        }
-
-        return lifeline.getUmlClass();
+        return umlClass != null ? umlClass : lifeline.getUmlClass();
     }
 
     private Class searchPreviousDeclaredFieldType(BlockStatement statement, MessageOccurrenceSpecification owner, Lifeline lifeline) {
@@ -353,9 +413,8 @@ public class UMLTranslator {
             if (message.getName().equals(instance))
                 return message.getType();
 
-        for (AttributeGraphic ag : lifeline.getUmlClass().getAttributeGraphics())
-            if (ag.getAttribute().getName().getNameText().equals(instance))
-                return new Class(ag.getAttribute().getType().getName().getNameText());
+        String typeName = symbolTable.searchAttributeType(lifeline.getUmlClass(), instance);
+        if (typeName != null) return new Class(typeName);
 
         return new Class("NotKnownType");
     }
@@ -372,15 +431,10 @@ public class UMLTranslator {
     private void searchGeneralizationClass_Cpp(List<io.github.morichan.retuss.language.cpp.Class> cppClasses) {
         for (int i = 0; i < cppClasses.size(); i++) {
             if (cppClasses.get(i).getExtendsClassName() != null) {
-                int finalI = i;
-                List<io.github.morichan.retuss.language.uml.Class> oneExtendsClass =
-                        classPackage.getClasses().stream().filter(
-                                cp -> cp.getName().equals(cppClasses.get(finalI).getExtendsClassName())
-                        ).collect(Collectors.toList());
-                try {
-                    io.github.morichan.retuss.language.uml.Class oneClass = oneExtendsClass.get(0);
-                    classPackage.getClasses().get(finalI).setGeneralizationClass(oneClass);
-                } catch (IndexOutOfBoundsException e) {
+                io.github.morichan.retuss.language.uml.Class oneClass = symbolTable.searchClass(cppClasses.get(i).getExtendsClassName());
+                if (oneClass != null) {
+                    classPackage.getClasses().get(i).setGeneralizationClass(oneClass);
+                } else {
                     System.out.println("This is Set Error because same class wasn't had, so don't set.");
                 }
             }
@@ -2,15 +2,22 @@ package io.github.morichan.retuss.window;
 
 import io.github.morichan.retuss.language.uml.Package;
 import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.translator.ClassChangeSet;
 import io.github.morichan.retuss.window.diagram.*;
+import io.github.morichan.retuss.window.utility.OrthogonalEdgeRouter;
+import io.github.morichan.retuss.window.utility.SpatialGridIndex;
+import io.github.morichan.retuss.window.utility.TiledCanvas;
 import io.github.morichan.retuss.window.utility.UtilityJavaFXComponent;
 import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Button;
 import javafx.scene.paint.Color;
 
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 /**
@@ -19,12 +26,78 @@ import java.util.regex.Pattern;
  * <p>
  * このクラスは、クラス図を描画する際にキャンバスの操作などを行うクラスです。
  * </p>
+ *
+ * <p>
+ * マウス操作ごとの当たり判定を全てのノードに対して行わないように、描画済みのノードの外接矩形を {@link SpatialGridIndex} で管理します。
+ * 外接矩形はノードの位置や大きさが変わった時（ {@link NodeDiagram#setOnBoundsChanged(Runnable)} で通知を受けた時）に更新し、ノードを削除した時に取り除きます。
+ * </p>
+ *
+ * <p>
+ * ノードを移動した場合は、移動前後のノードとそのノードに接続している関係が掛かる領域を再描画が必要な領域として記録します。
+ * {@link #reDrawDamagedRegions()} はその領域だけを消去し、領域に掛かるノードと関係だけを描画し直します。
+ * ノードや関係の追加や削除といった構造の変化の場合は {@link #allReDrawCanvas()} で全てを描画し直してください。
+ * </p>
+ *
+ * <p>
+ * 1枚のキャンバスに収まらない大きな図の場合は、 {@link #setTiledCanvas(TiledCanvas)} で表示しているタイルのみに描画するように切り替えられます。
+ * </p>
+ *
+ * <p>
+ * {@link #setZoom(double)} で拡大縮小して描画できます。
+ * ノードや関係の座標は拡大率に関わらず図の座標のままであり、キャンバスの座標は図の座標に拡大率を掛けた値になります。
+ * 縮小するほど {@link LevelOfDetail} で詳細度を下げ、読めない文字を描画しないようにします。
+ * </p>
+ *
+ * <p>
+ * {@link #setOrthogonalEdgeRoutingEnabled(boolean)} で、関係をノードを避ける縦と横の線分のみで描画できます。
+ * 経路は関係ごとに {@link EdgeDiagram} に記憶し、ノードを移動した場合は影響を受ける関係の経路のみを探索し直します。
+ * </p>
+ *
+ * <p>
+ * 描画は {@link Package} インスタンスを変更しません。
+ * ノードや関係を編集するメソッドはパッケージが古くなったことを記録するだけで、 {@link #getPackage()} を呼び出した時に必要な場合のみ整形し直します。
+ * </p>
  */
 public class ClassDiagramDrawer {
     private GraphicsContext gc;
     private List<NodeDiagram> nodes = new ArrayList<>();
+    private SpatialGridIndex nodeIndex = new SpatialGridIndex();
+    private Map<NodeDiagram, Integer> nodeNumbers = new IdentityHashMap<>();
+    private List<Rectangle2D> damagedRegions = new ArrayList<>();
+
+    /**
+     * <p> 幅や高さを持たないノード（ノートなど）を描画する領域として見積もる大きさの半分 </p>
+     */
+    private final double minNodeHalfWidth = 100.0;
+    private final double minNodeHalfHeight = 30.0;
+    private final double damageMargin = 2.0;
     private EdgeDiagram relations = new EdgeDiagram();
     private Package umlPackage = new Package();
+    private boolean isPackageChanged = false;
+
+    /**
+     * <p> 前回 {@link #pollClassChangeSet()} で取り出して以降に変更したクラスの集合 </p>
+     *
+     * <p>
+     * 生成直後はコードと対応していないため、全てのクラスを変更したものとして扱います。
+     * </p>
+     */
+    private ClassChangeSet classChangeSet = ClassChangeSet.all();
+    private boolean isNodeImageCacheEnabled = false;
+    private TiledCanvas tiledCanvas = null;
+    private double zoom = 1.0;
+    private OrthogonalEdgeRouter edgeRouter = null;
+
+    /**
+     * <p> 関係の経路を探索する際に、関係元と関係先の周りで障害物として考慮するノードの範囲 </p>
+     */
+    private final double routingAreaMargin = 200.0;
+
+    /**
+     * <p> 詳細度を {@link LevelOfDetail#NameOnly} に下げる拡大率の閾値 </p>
+     */
+    private final double nameOnlyZoomThreshold = 0.6;
+    private final double outlineZoomThreshold = 0.3;
 
     private int currentNodeNumber = -1;
 
@@ -53,17 +126,37 @@ public class ClassDiagramDrawer {
      * <p> パッケージインスタンスを抽出します </p>
      *
      * <p>
-     * 正確には {@link #allReDrawCanvas()} メソッド、およびその内部で呼び出している {@link #allReDrawNode()} メソッドないで整形しています。
+     * 前回の整形以降にノードや関係を編集していた場合のみ、 {@link #buildPackage()} で整形し直します。
+     * 編集していなければ前回と同じインスタンスを返します。
      * </p>
      *
      * @return パッケージインスタンス
      */
     public Package getPackage() {
+        if (isPackageChanged) buildPackage();
         return umlPackage;
     }
 
     public void setUmlPackage(Package umlPackage) {
         this.umlPackage = umlPackage;
+        isPackageChanged = false;
+        classChangeSet.markAllChanged();
+    }
+
+    /**
+     * <p> 前回取り出して以降に変更したクラスの集合を取り出します </p>
+     *
+     * <p>
+     * 取り出した後は何も変更していない状態に戻します。
+     * ノードの削除や関係の全削除のように、どのクラスに影響するか特定しづらい編集をしていた場合は、全てのクラスを変更したものとして扱う集合を返します。
+     * </p>
+     *
+     * @return 変更したクラスの集合
+     */
+    public ClassChangeSet pollClassChangeSet() {
+        ClassChangeSet changeSet = classChangeSet;
+        classChangeSet = new ClassChangeSet();
+        return changeSet;
     }
 
     /**
@@ -87,6 +180,89 @@ public class ClassDiagramDrawer {
         drawDiagramCanvasEdge();
     }
 
+    /**
+     * <p> ノードの描画結果を画像として記憶して使い回すか否かを設定します </p>
+     *
+     * <p>
+     * 描画済みのノードとこれから追加するノードの全てに {@link NodeDiagram#setImageCacheEnabled(boolean)} で設定します。
+     * </p>
+     *
+     * @param isNodeImageCacheEnabled ノードの描画結果を画像として記憶するか否かの真偽値
+     */
+    public void setNodeImageCacheEnabled(boolean isNodeImageCacheEnabled) {
+        this.isNodeImageCacheEnabled = isNodeImageCacheEnabled;
+        for (NodeDiagram node : nodes) node.setImageCacheEnabled(isNodeImageCacheEnabledWithZoom());
+    }
+
+    /**
+     * <p> クラス図を描画する拡大率を設定します </p>
+     *
+     * <p>
+     * 拡大率に応じた {@link LevelOfDetail} を全てのノードと関係に設定します。
+     * 拡大率が0.6未満の場合はクラス名のみ、0.3未満の場合は枠のみを描画し、関係の内容は {@link LevelOfDetail#Full} の場合のみ描画します。
+     * 拡大した場合はノードの画像が粗くなるため、ノードの描画結果を画像として記憶しません。
+     * キャンバスの大きさは変更しないため、呼出し側で図の大きさに拡大率を掛けた大きさにしてから {@link #allReDrawCanvas()} を呼び出してください。
+     * </p>
+     *
+     * @param zoom 拡大率 <br> 0以下の場合は {@link IllegalArgumentException} を投げます。
+     */
+    public void setZoom(double zoom) {
+        if (!(zoom > 0.0)) throw new IllegalArgumentException();
+        this.zoom = zoom;
+        LevelOfDetail levelOfDetail = getLevelOfDetail();
+        relations.setLevelOfDetail(levelOfDetail);
+        for (NodeDiagram node : nodes) {
+            node.setLevelOfDetail(levelOfDetail);
+            node.setImageCacheEnabled(isNodeImageCacheEnabledWithZoom());
+        }
+    }
+
+    /**
+     * <p> クラス図を描画する拡大率を取得します </p>
+     *
+     * @return 拡大率
+     */
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * <p> 現在の拡大率で描画する詳細度を取得します </p>
+     *
+     * @return 詳細度
+     */
+    public LevelOfDetail getLevelOfDetail() {
+        if (zoom < outlineZoomThreshold) return LevelOfDetail.Outline;
+        else if (zoom < nameOnlyZoomThreshold) return LevelOfDetail.NameOnly;
+        else return LevelOfDetail.Full;
+    }
+
+    /**
+     * <p> 関係をノードを避ける縦と横の線分のみで描画するか否かを設定します </p>
+     *
+     * <p>
+     * 有効にすると、 {@link OrthogonalEdgeRouter} で探索した経路を関係ごとに記憶して描画に使い回します。
+     * 経路を探索し直すのは、関係元か関係先のノードの位置や大きさが変わった関係と、移動したノードの移動前後の矩形に経路が掛かる関係のみです。
+     * 無効にすると全ての経路を削除し、関係元と関係先を直線で結びます。
+     * いずれの場合も、呼出し側で {@link #allReDrawCanvas()} を呼び出してください。
+     * </p>
+     *
+     * @param isEnabled 関係をノードを避けて描画するか否かの真偽値
+     */
+    public void setOrthogonalEdgeRoutingEnabled(boolean isEnabled) {
+        edgeRouter = isEnabled ? new OrthogonalEdgeRouter() : null;
+        relations.clearEdgeRoutes();
+    }
+
+    /**
+     * <p> 関係をノードを避ける縦と横の線分のみで描画するか否かを取得します </p>
+     *
+     * @return 関係をノードを避けて描画するか否かの真偽値
+     */
+    public boolean isOrthogonalEdgeRoutingEnabled() {
+        return edgeRouter != null;
+    }
+
     /**
      * クラス図キャンバスにおいて操作しているマウスの位置を受け取る。
      *
@@ -139,76 +315,407 @@ public class ClassDiagramDrawer {
      *
      * <p>
      * 上書きするのを防ぐために、最初にキャンバスをまっさらにします。
-     * 同時に {@link Package} インスタンスを整形します。
+     * {@link Package} インスタンスは変更しません。
      * </p>
      */
     public void allReDrawCanvas() {
-        gc.clearRect(0.0, 0.0, gc.getCanvas().getWidth(), gc.getCanvas().getHeight());
-
-        umlPackage = new Package();
+        damagedRegions.clear();
+        if (tiledCanvas != null) {
+            for (NodeDiagram node : nodes) node.layout();
+            if (edgeRouter != null) {
+                for (int i = 0; i < relations.getCompositionsCount(); i++) {
+                    if (!isEdgeRouteUpToDate(i)) routeEdge(i);
+                }
+            }
+            tiledCanvas.repaintAll();
+            return;
+        }
 
+        gc.clearRect(0.0, 0.0, gc.getCanvas().getWidth(), gc.getCanvas().getHeight());
+        gc.save();
+        gc.scale(zoom, zoom);
         drawDiagramCanvasEdge();
         allReDrawNode();
         allReDrawEdge();
+        gc.restore();
     }
 
     /**
      * <p> クラス図キャンバスにおける全てのノードを描画します </p>
-     *
-     * <p>
-     * 同時に {@link io.github.morichan.retuss.language.uml.Class} インスタンスを整形し、 {@link #umlPackage} 変数に格納します。
-     * </p>
      */
     public void allReDrawNode() {
-        for (int i = 0; i < nodes.size(); i++) {
-            drawNode(i);
-            if (nodes.get(i) instanceof ClassNodeDiagram)
-                umlPackage.addClass(((ClassNodeDiagram) nodes.get(i)).extractClass());
-        }
+        for (int i = 0; i < nodes.size(); i++) drawNode(i);
     }
 
     /**
      * クラス図キャンバスにおける全てのエッジ（関係）を描画する。
      */
     public void allReDrawEdge() {
+        for (int i = 0; i < relations.getCompositionsCount(); i++) drawEdge(i);
+    }
+
+    /**
+     * <p> ノードと関係から {@link Package} インスタンスを整形し、 {@link #umlPackage} 変数に格納します </p>
+     *
+     * <p>
+     * クラスはクラス名の一致で探さずに、ノードごとに整形した {@link Class} インスタンスをノード番号で参照します。
+     * 関係の数を E とすると、関係の解決は O(E) です。
+     * </p>
+     */
+    private void buildPackage() {
+        umlPackage = new Package();
+        isPackageChanged = false;
+
+        Class[] classes = new Class[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i) instanceof ClassNodeDiagram) {
+                classes[i] = ((ClassNodeDiagram) nodes.get(i)).extractClass();
+                umlPackage.addClass(classes[i]);
+            }
+        }
+
         for (int i = 0; i < relations.getCompositionsCount(); i++) {
             int relationId = nodes.get(relations.getRelationId(ContentType.Composition, i)).getNodeId();
             int relationSourceId = nodes.get(relations.getRelationSourceId(ContentType.Composition, i)).getNodeId();
-            double relationWidth = nodes.get(relationId).getWidth();
-            double relationHeight = nodes.get(relationId).getHeight();
-            double relationSourceWidth = nodes.get(relationSourceId).getWidth();
-            double relationSourceHeight = nodes.get(relationSourceId).getHeight();
-
-            relations.setRelationPoint(ContentType.Composition, i, nodes.get(relationId).getPoint());
-            relations.setRelationSourcePoint(ContentType.Composition, i, nodes.get(relationSourceId).getPoint());
-            relations.draw(relationWidth, relationHeight, relationSourceWidth, relationSourceHeight, i);
+            Class extendingClass = classes[relationSourceId];
+            if (extendingClass == null) continue;
+
             if (relations.getContentType(i) == ContentType.Generalization) {
-                Class extendingClass = new Class();
-                Class extendedClass = new Class();
-                for (Class umlClass : umlPackage.getClasses()) {
-                    if (umlClass.getName().equals(nodes.get(relationSourceId).getNodeText())) {
-                        extendingClass = umlClass;
-                        break;
-                    }
-                }
-                for (Class umlClass : umlPackage.getClasses()) {
-                    if (umlClass.getName().equals(nodes.get(relationId).getNodeText())) {
-                        extendedClass = umlClass;
-                        break;
-                    }
-                }
-                extendingClass.setGeneralizationClass(extendedClass);
+                extendingClass.setGeneralizationClass(classes[relationId] != null ? classes[relationId] : new Class());
             } else if (relations.getContentType(i) == ContentType.Composition) {
-                for (Class umlClass : umlPackage.getClasses()) {
-                    if (umlClass.getName().equals(nodes.get(relationSourceId).getNodeText()) && (umlClass.extractRelations() == null || umlClass.extractRelations().size() == 0)) {
-                        umlClass.setRelations(((ClassNodeDiagram) nodes.get(relationSourceId)).extractRelations());
-                        break;
-                    }
-                }
+                if (extendingClass.extractRelations() == null || extendingClass.extractRelations().size() == 0)
+                    extendingClass.setRelations(((ClassNodeDiagram) nodes.get(relationSourceId)).extractRelations());
+            }
+        }
+    }
+
+    /**
+     * <p> 再描画が必要な領域のみを描画し直します </p>
+     *
+     * <p>
+     * 記録した全ての領域を囲む矩形を消去し、その矩形に掛かるノードと関係のみを {@link #allReDrawCanvas()} と同じ順番で描画します。
+     * 描画は矩形で切り抜くため、矩形の外側は変化しません。
+     * {@link Package} インスタンスは整形しません。
+     * </p>
+     */
+    public void reDrawDamagedRegions() {
+        if (damagedRegions.isEmpty()) return;
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (Rectangle2D region : damagedRegions) {
+            minX = Math.min(minX, region.getMinX());
+            minY = Math.min(minY, region.getMinY());
+            maxX = Math.max(maxX, region.getMaxX());
+            maxY = Math.max(maxY, region.getMaxY());
+        }
+        damagedRegions.clear();
+        Rectangle2D damagedRegion = new Rectangle2D(minX, minY, maxX - minX, maxY - minY);
+
+        if (tiledCanvas != null) tiledCanvas.repaint(toSurfaceRegion(damagedRegion));
+        else drawRegion(damagedRegion);
+    }
+
+    /**
+     * <p> クラス図キャンバスをタイルに分割して描画するように設定します </p>
+     *
+     * <p>
+     * 設定後は、 {@link #allReDrawCanvas()} と {@link #reDrawDamagedRegions()} は表示しているタイルのみを描画し直します。
+     * 図全体の大きさはキャンバスではなく {@link TiledCanvas#getContentWidth()} と {@link TiledCanvas#getContentHeight()} になります。
+     * </p>
+     *
+     * @param tiledCanvas タイルに分割したキャンバス <br> {@code null} の場合は {@link #setGraphicsContext(GraphicsContext)} で受け取ったキャンバスに描画します。
+     */
+    public void setTiledCanvas(TiledCanvas tiledCanvas) {
+        this.tiledCanvas = tiledCanvas;
+        if (tiledCanvas != null) tiledCanvas.setPainter(this::drawTile);
+    }
+
+    /**
+     * <p> クラス図全体の幅を取得します </p>
+     *
+     * @return タイルに分割している場合は図全体の幅、そうでない場合はキャンバスの幅を拡大率で割った図の座標における幅
+     */
+    public double getDiagramWidth() {
+        return (tiledCanvas != null ? tiledCanvas.getContentWidth() : gc.getCanvas().getWidth()) / zoom;
+    }
+
+    /**
+     * <p> クラス図全体の高さを取得します </p>
+     *
+     * @return タイルに分割している場合は図全体の高さ、そうでない場合はキャンバスの高さを拡大率で割った図の座標における高さ
+     */
+    public double getDiagramHeight() {
+        return (tiledCanvas != null ? tiledCanvas.getContentHeight() : gc.getCanvas().getHeight()) / zoom;
+    }
+
+    /**
+     * 任意の領域を消去し、その領域に掛かるノードと関係のみを {@link #allReDrawCanvas()} と同じ順番で描画する。
+     * 描画は領域で切り抜くため、領域の外側は変化しない。
+     *
+     * @param region 図の座標における描画し直す領域
+     */
+    private void drawRegion(Rectangle2D region) {
+        gc.save();
+        gc.scale(zoom, zoom);
+        gc.beginPath();
+        gc.rect(region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight());
+        gc.clip();
+        gc.clearRect(region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight());
+
+        drawDiagramCanvasEdge();
+        for (int number : nodeIndex.search(region.getMinX(), region.getMinY(), region.getMaxX(), region.getMaxY())) drawNode(number);
+        for (int i = 0; i < relations.getCompositionsCount(); i++) {
+            if (relations.calculateEdgeBounds(i).intersects(region)) drawEdge(i);
+        }
+
+        gc.restore();
+    }
+
+    /**
+     * タイルのグラフィックスコンテキストに差し替えて、タイルの任意の領域を描画する。
+     *
+     * @param tileGraphicsContext 図全体の座標で描画できるように平行移動済みのタイルのグラフィックスコンテキスト
+     * @param region              キャンバスの座標における描画する領域
+     */
+    private void drawTile(GraphicsContext tileGraphicsContext, Rectangle2D region) {
+        GraphicsContext canvasGraphicsContext = gc;
+        useGraphicsContext(tileGraphicsContext);
+        try {
+            drawRegion(new Rectangle2D(region.getMinX() / zoom, region.getMinY() / zoom, region.getWidth() / zoom, region.getHeight() / zoom));
+        } finally {
+            useGraphicsContext(canvasGraphicsContext);
+        }
+    }
+
+    /**
+     * 図の座標における領域をキャンバスの座標における領域に変換する。
+     *
+     * @param region 図の座標における領域
+     * @return キャンバスの座標における領域
+     */
+    private Rectangle2D toSurfaceRegion(Rectangle2D region) {
+        return new Rectangle2D(region.getMinX() * zoom, region.getMinY() * zoom, region.getWidth() * zoom, region.getHeight() * zoom);
+    }
+
+    /**
+     * 拡大していない場合のみノードの描画結果を画像として記憶するか否かを判断する。
+     *
+     * @return ノードの描画結果を画像として記憶するか否かの真偽値
+     */
+    private boolean isNodeImageCacheEnabledWithZoom() {
+        return isNodeImageCacheEnabled && zoom <= 1.0;
+    }
+
+    /**
+     * ノードと関係が描画するグラフィックスコンテキストを差し替える。
+     * ノードのグラフィックスコンテキストは全てのノードで共有している。
+     *
+     * @param graphicsContext 差し替えるグラフィックスコンテキスト
+     */
+    private void useGraphicsContext(GraphicsContext graphicsContext) {
+        gc = graphicsContext;
+        relations.setGraphicsContext(graphicsContext);
+        if (!nodes.isEmpty()) nodes.get(0).setGraphicsContext(graphicsContext);
+    }
+
+    /**
+     * <p> 再描画が必要な領域を取得します </p>
+     *
+     * <p>
+     * テストコードで主に用いる。
+     * </p>
+     *
+     * @return 領域のリスト <br> 要素数0の可能性あり
+     */
+    List<Rectangle2D> getDamagedRegions() {
+        return damagedRegions;
+    }
+
+    /**
+     * 任意の番号の関係を、関係先と関係元のノードの現在のポイントに合わせて描画する。
+     *
+     * @param number 関係の番号
+     */
+    private void drawEdge(int number) {
+        updateEdgePoints(number);
+        if (edgeRouter != null && !isEdgeRouteUpToDate(number)) routeEdge(number);
+
+        int relationId = nodes.get(relations.getRelationId(ContentType.Composition, number)).getNodeId();
+        int relationSourceId = nodes.get(relations.getRelationSourceId(ContentType.Composition, number)).getNodeId();
+        double relationWidth = nodes.get(relationId).getWidth();
+        double relationHeight = nodes.get(relationId).getHeight();
+        double relationSourceWidth = nodes.get(relationSourceId).getWidth();
+        double relationSourceHeight = nodes.get(relationSourceId).getHeight();
+
+        relations.draw(relationWidth, relationHeight, relationSourceWidth, relationSourceHeight, number);
+    }
+
+    /**
+     * 任意の番号の関係のポイントを、関係先と関係元のノードの現在のポイントに合わせる。
+     *
+     * @param number 関係の番号
+     */
+    private void updateEdgePoints(int number) {
+        int relationId = nodes.get(relations.getRelationId(ContentType.Composition, number)).getNodeId();
+        int relationSourceId = nodes.get(relations.getRelationSourceId(ContentType.Composition, number)).getNodeId();
+
+        relations.setRelationPoint(ContentType.Composition, number, nodes.get(relationId).getPoint());
+        relations.setRelationSourcePoint(ContentType.Composition, number, nodes.get(relationSourceId).getPoint());
+    }
+
+    /**
+     * <p> 任意のノードとそのノードに接続している関係を描画する領域を、再描画が必要な領域として記録します </p>
+     *
+     * <p>
+     * 関係のポイントはノードの現在のポイントに合わせてから記録します。
+     * </p>
+     *
+     * @param number 任意のノード番号
+     */
+    private void addDamagedRegions(int number) {
+        NodeDiagram node = nodes.get(number);
+        Point2D point = node.getPoint();
+        double halfWidth = Math.max(node.getWidth() / 2, minNodeHalfWidth) + damageMargin;
+        double halfHeight = Math.max(node.getHeight() / 2, minNodeHalfHeight) + damageMargin;
+        damagedRegions.add(new Rectangle2D(point.getX() - halfWidth, point.getY() - halfHeight, halfWidth * 2, halfHeight * 2));
+
+        for (int i = 0; i < relations.getCompositionsCount(); i++) {
+            if (isConnectedEdge(i, number)) {
+                updateEdgePoints(i);
+                damagedRegions.add(relations.calculateEdgeBounds(i));
             }
         }
     }
 
+    /**
+     * <p> 任意の番号の関係が任意のノードに接続しているか否かを判定します </p>
+     *
+     * <p>
+     * 関係は関係元と関係先をノードの番号で保持しているため、ノードの番号同士で比較します。
+     * 再描画する領域の記録と経路の探索し直しで同じ判定を用います。
+     * </p>
+     *
+     * @param relationNumber 関係の番号
+     * @param nodeNumber     ノードの番号
+     * @return 関係元もしくは関係先が任意のノードの場合は {@code true}
+     */
+    private boolean isConnectedEdge(int relationNumber, int nodeNumber) {
+        return relations.getRelationId(ContentType.Composition, relationNumber) == nodeNumber
+                || relations.getRelationSourceId(ContentType.Composition, relationNumber) == nodeNumber;
+    }
+
+    /**
+     * <p> 移動したノードの影響を受ける関係のみ経路を探索し直し、変更前後の経路を描画する領域を再描画が必要な領域として記録します </p>
+     *
+     * <p>
+     * 影響を受ける関係とは、移動したノードに接続している関係と、経路の線分が移動前後のノードの矩形に掛かる関係です。
+     * </p>
+     *
+     * @param number       移動したノードの番号
+     * @param beforeBounds 移動前のノードの矩形
+     * @param afterBounds  移動後のノードの矩形
+     */
+    private void reRouteEdges(int number, Rectangle2D beforeBounds, Rectangle2D afterBounds) {
+        for (int i = 0; i < relations.getCompositionsCount(); i++) {
+            boolean isConnected = isConnectedEdge(i, number);
+            List<Point2D> route = relations.getEdgeRoute(i);
+            if (!isConnected && (route == null || !(isRouteCrossing(route, beforeBounds) || isRouteCrossing(route, afterBounds)))) continue;
+
+            damagedRegions.add(relations.calculateEdgeBounds(i));
+            routeEdge(i);
+            damagedRegions.add(relations.calculateEdgeBounds(i));
+        }
+    }
+
+    /**
+     * <p> 関係元と関係先の周りのノードを障害物として、任意の番号の関係の経路を探索して設定します </p>
+     *
+     * <p>
+     * 障害物は {@link SpatialGridIndex} で関係元と関係先を囲む矩形の周りに掛かると分かったノードのみです。
+     * </p>
+     *
+     * @param number 関係の番号
+     */
+    private void routeEdge(int number) {
+        updateEdgePoints(number);
+        int relationNumber = relations.getRelationId(ContentType.Composition, number);
+        int relationSourceNumber = relations.getRelationSourceId(ContentType.Composition, number);
+        if (nodes.get(relationNumber).getPoint() == null || nodes.get(relationSourceNumber).getPoint() == null) {
+            relations.setEdgeRoute(number, null);
+            return;
+        }
+
+        Rectangle2D target = calculateNodeBounds(relationNumber);
+        Rectangle2D source = calculateNodeBounds(relationSourceNumber);
+        double minX = Math.min(source.getMinX(), target.getMinX()) - routingAreaMargin;
+        double minY = Math.min(source.getMinY(), target.getMinY()) - routingAreaMargin;
+        double maxX = Math.max(source.getMaxX(), target.getMaxX()) + routingAreaMargin;
+        double maxY = Math.max(source.getMaxY(), target.getMaxY()) + routingAreaMargin;
+
+        List<Rectangle2D> obstacles = new ArrayList<>();
+        for (int obstacleNumber : nodeIndex.search(minX, minY, maxX, maxY)) {
+            if (obstacleNumber == relationNumber || obstacleNumber == relationSourceNumber) continue;
+            obstacles.add(calculateNodeBounds(obstacleNumber));
+        }
+        relations.setEdgeRoute(number, edgeRouter.route(source, target, obstacles));
+    }
+
+    /**
+     * 任意の番号の関係の経路が、関係元と関係先のノードの現在の矩形の辺から始まって辺で終わっている場合は真を返す。
+     * ノードの位置や大きさが変わると偽になるため、経路を探索し直すか否かの判断に用いる。
+     *
+     * @param number 関係の番号
+     * @return 経路が最新か否かの真偽値 経路を設定していない場合は偽
+     */
+    private boolean isEdgeRouteUpToDate(int number) {
+        List<Point2D> route = relations.getEdgeRoute(number);
+        if (route == null) return false;
+
+        int relationNumber = relations.getRelationId(ContentType.Composition, number);
+        int relationSourceNumber = relations.getRelationSourceId(ContentType.Composition, number);
+        if (nodes.get(relationNumber).getPoint() == null || nodes.get(relationSourceNumber).getPoint() == null) return false;
+
+        return isOnBoundary(calculateNodeBounds(relationSourceNumber), route.get(0))
+                && isOnBoundary(calculateNodeBounds(relationNumber), route.get(route.size() - 1));
+    }
+
+    /**
+     * 経路探索に用いる任意のノードの矩形を計算する。
+     * 幅や高さを持たないノード（ノートなど）は {@link #minNodeHalfWidth} と {@link #minNodeHalfHeight} から見積もる。
+     *
+     * @param number ノードの番号
+     * @return ノードの矩形
+     */
+    private Rectangle2D calculateNodeBounds(int number) {
+        NodeDiagram node = nodes.get(number);
+        Point2D point = node.getPoint();
+        double halfWidth = node.getWidth() > 0.0 ? node.getWidth() / 2 : minNodeHalfWidth;
+        double halfHeight = node.getHeight() > 0.0 ? node.getHeight() / 2 : minNodeHalfHeight;
+        return new Rectangle2D(point.getX() - halfWidth, point.getY() - halfHeight, halfWidth * 2, halfHeight * 2);
+    }
+
+    private boolean isOnBoundary(Rectangle2D bounds, Point2D point) {
+        double epsilon = 1.0e-6;
+        if (point.getX() < bounds.getMinX() - epsilon || bounds.getMaxX() + epsilon < point.getX()) return false;
+        if (point.getY() < bounds.getMinY() - epsilon || bounds.getMaxY() + epsilon < point.getY()) return false;
+        return Math.abs(point.getX() - bounds.getMinX()) < epsilon || Math.abs(point.getX() - bounds.getMaxX()) < epsilon
+                || Math.abs(point.getY() - bounds.getMinY()) < epsilon || Math.abs(point.getY() - bounds.getMaxY()) < epsilon;
+    }
+
+    private boolean isRouteCrossing(List<Point2D> route, Rectangle2D bounds) {
+        for (int i = 0; i + 1 < route.size(); i++) {
+            double minX = Math.min(route.get(i).getX(), route.get(i + 1).getX());
+            double maxX = Math.max(route.get(i).getX(), route.get(i + 1).getX());
+            double minY = Math.min(route.get(i).getY(), route.get(i + 1).getY());
+            double maxY = Math.max(route.get(i).getY(), route.get(i + 1).getY());
+            if (minX < bounds.getMaxX() && bounds.getMinX() < maxX && minY < bounds.getMaxY() && bounds.getMinY() < maxY) return true;
+        }
+        return false;
+    }
+
     /**
      * クラス図キャンバスにおけるノードの初期化を行う。
      *
@@ -221,6 +728,9 @@ public class ClassDiagramDrawer {
         nodes.get(number).setMouseCoordinates(operationalPoint.getX(), operationalPoint.getY());
         nodes.get(number).createNodeText(ContentType.Title, nodeText);
         nodes.get(number).setChosen(false);
+        relations.clearEdgeRoutes();
+        classChangeSet.addClass(nodeText);
+        isPackageChanged = true;
     }
 
     /**
@@ -322,6 +832,8 @@ public class ClassDiagramDrawer {
      */
     public void setDrawnNodeContentBoolean(int nodeNumber, ContentType parent, ContentType child, int contentNumber, boolean isChecked) {
         nodes.get(nodeNumber).setNodeContentBoolean(parent, child, contentNumber, isChecked);
+        classChangeSet.editClass(nodes.get(nodeNumber).getNodeText());
+        isPackageChanged = true;
     }
 
 
@@ -351,6 +863,8 @@ public class ClassDiagramDrawer {
     public void addDrawnNodeText(int number, ContentType type, String text) {
         if (text.length() <= 0) return;
         nodes.get(number).createNodeText(type, text);
+        classChangeSet.editClass(nodes.get(number).getNodeText());
+        isPackageChanged = true;
     }
 
     /**
@@ -367,6 +881,9 @@ public class ClassDiagramDrawer {
         if (beforeChangedNodeName.equals(text)) return;
         nodes.get(nodeNumber).changeNodeText(type, contentNumber, text);
         changeDrawnEdgeToChangedRelationSourceNode(beforeChangedNodeName, type);
+        if (type == ContentType.Title) classChangeSet.renameClass(beforeChangedNodeName, nodes.get(nodeNumber).getNodeText());
+        else classChangeSet.editClass(beforeChangedNodeName);
+        isPackageChanged = true;
     }
 
     private void changeDrawnEdgeToChangedRelationSourceNode(String before, ContentType type) {
@@ -376,6 +893,7 @@ public class ClassDiagramDrawer {
                 List<String> relation = node.getNodeContents(ContentType.Composition);
                 for (int i = 0; i < relation.size(); i++) {
                     if (p.matcher(relation.get(i)).find()) {
+                        classChangeSet.editClass(node.getNodeText());
                         node.createNodeText(ContentType.Attribute, relation.get(i));
                         node.deleteNodeText(type, i);
                         relation.remove(i);
@@ -388,12 +906,20 @@ public class ClassDiagramDrawer {
 
     /**
      * 描画済みの任意のノードにおける座標位置を変更する。
+     * 関係をノードを避けて描画している場合は、移動の影響を受ける関係の経路のみを探索し直す。
      *
      * @param nodeNumber 描画済みの任意のノード番号
      * @param point      変更先の座標
      */
     public void moveTo(int nodeNumber, Point2D point) {
+        Rectangle2D beforeBounds = edgeRouter != null && nodes.get(nodeNumber).getPoint() != null ? calculateNodeBounds(nodeNumber) : null;
+        addDamagedRegions(nodeNumber);
         nodes.get(nodeNumber).moveTo(checkPointFromCanvas(point));
+        if (beforeBounds != null) {
+            updateNodeIndex(nodeNumber);
+            reRouteEdges(nodeNumber, beforeBounds, calculateNodeBounds(nodeNumber));
+        }
+        addDamagedRegions(nodeNumber);
     }
 
     /**
@@ -403,7 +929,11 @@ public class ClassDiagramDrawer {
      */
     public void deleteDrawnNode(int number) {
         String beforeChangedNodeName = nodes.get(number).getNodeText();
-        nodes.remove(number);
+        NodeDiagram deletedNode = nodes.remove(number);
+        deletedNode.setOnBoundsChanged(null);
+        nodeNumbers.remove(deletedNode);
+        for (int i = number; i < nodes.size(); i++) nodeNumbers.put(nodes.get(i), i);
+        nodeIndex.removeAndShift(number);
         changeDrawnEdgeToChangedRelationSourceNode(beforeChangedNodeName, ContentType.Title);
         for (int i = 0; i < relations.getCompositionsCount(); i++) {
             if (relations.getRelationId(ContentType.Composition, i) == number) {
@@ -411,6 +941,10 @@ public class ClassDiagramDrawer {
                 i--;
             }
         }
+        relations.clearEdgeRoutes();
+        // 削除したノード以降のノード番号がずれて関係の参照先が変わりうるため、全てのクラスを翻訳し直す
+        classChangeSet.markAllChanged();
+        isPackageChanged = true;
     }
 
     /**
@@ -422,6 +956,8 @@ public class ClassDiagramDrawer {
      */
     public void deleteDrawnNodeText(int nodeNumber, ContentType type, int contentNumber) {
         nodes.get(nodeNumber).deleteNodeText(type, contentNumber);
+        classChangeSet.editClass(nodes.get(nodeNumber).getNodeText());
+        isPackageChanged = true;
     }
 
     /**
@@ -432,6 +968,8 @@ public class ClassDiagramDrawer {
      */
     public void deleteAllDrawnNodeText(int nodeNumber, ContentType type) {
         nodes.get(nodeNumber).deleteAllNodeText(type);
+        classChangeSet.editClass(nodes.get(nodeNumber).getNodeText());
+        isPackageChanged = true;
     }
 
     /**
@@ -444,17 +982,33 @@ public class ClassDiagramDrawer {
 
         if (button.getText().equals("Class")) {
             ClassNodeDiagram classNodeDiagram = new ClassNodeDiagram();
-            nodes.add(classNodeDiagram);
+            addNode(classNodeDiagram);
             currentNodeNumber = nodes.size() - 1;
             setupDrawnNode(currentNodeNumber);
         } else if (button.getText().equals("Note")) {
             NoteNodeDiagram noteNodeDiagram = new NoteNodeDiagram();
-            nodes.add(noteNodeDiagram);
+            addNode(noteNodeDiagram);
             currentNodeNumber = nodes.size() - 1;
             setupDrawnNode(currentNodeNumber);
         }
     }
 
+    /**
+     * ノードリストにノードを追加し、位置や大きさが変わった際に外接矩形を更新するように設定する。
+     *
+     * @param node 追加するノード
+     */
+    private void addNode(NodeDiagram node) {
+        nodes.add(node);
+        nodeNumbers.put(node, nodes.size() - 1);
+        node.setImageCacheEnabled(isNodeImageCacheEnabledWithZoom());
+        node.setLevelOfDetail(getLevelOfDetail());
+        node.setOnBoundsChanged(() -> {
+            Integer number = nodeNumbers.get(node);
+            if (number != null) updateNodeIndex(number);
+        });
+    }
+
     /**
      * <p>
      * 追加するエッジの初期化を行う。
@@ -491,6 +1045,8 @@ public class ClassDiagramDrawer {
             relations.setRelationSourcePoint(ContentType.Generalization, relations.getCompositionsCount() - 1, nodes.get(fromNodeId).getPoint());
             relations.deleteGeneralizationFromSameRelationSourceNode(fromNodeId);
         }
+        classChangeSet.editClass(nodes.get(fromNodeId).getNodeText());
+        isPackageChanged = true;
     }
 
     /**
@@ -523,6 +1079,8 @@ public class ClassDiagramDrawer {
             relations.setRelationSourcePoint(ContentType.Generalization, relations.getCompositionsCount() - 1, nodes.get(fromId).getPoint());
             relations.deleteGeneralizationFromSameRelationSourceNode(fromId);
         }
+        classChangeSet.editClass(nodes.get(fromId).getNodeText());
+        isPackageChanged = true;
     }
 
     public void createDrawnEdge(ContentType type, String contentName, String fromName, String toName) {
@@ -565,19 +1123,8 @@ public class ClassDiagramDrawer {
      * @return キャンバス上の任意のポイントに任意の図を描画済みか否かの真偽値
      */
     public boolean isAlreadyDrawnAnyDiagram(double mouseX, double mouseY) {
-
-        for (NodeDiagram nodeDiagram : nodes) {
-            if (nodeDiagram.isAlreadyDrawnNode(mouseX, mouseY)) {
-                return true;
-            }
-        }
-        for (int i = 0; i < relations.getCompositionsCount(); i++) {
-            if (relations.isAlreadyDrawnAnyEdge(ContentType.Composition, i, new Point2D(mouseX, mouseY))) {
-                return true;
-            }
-        }
-
-        return false;
+        if (searchNodeNumber(mouseX, mouseY) > -1) return true;
+        return relations.searchCurrentRelationNumber(new Point2D(mouseX, mouseY)) > -1;
     }
 
     /**
@@ -612,6 +1159,8 @@ public class ClassDiagramDrawer {
         int fromId = relations.getRelationSourceId(ContentType.Composition, relationIndex);
         int toId = relations.getRelationId(ContentType.Composition, relationIndex);
         nodes.get(fromId).changeNodeText(ContentType.Composition, id, content + " : " + nodes.get(toId).getNodeText());
+        classChangeSet.editClass(nodes.get(fromId).getNodeText());
+        isPackageChanged = true;
     }
 
     /**
@@ -624,7 +1173,12 @@ public class ClassDiagramDrawer {
      * @param mouseY キャンバス上の任意のポイントのY軸
      */
     public void deleteDrawnEdge(double mouseX, double mouseY) {
+        int relationIndex = relations.searchCurrentRelationNumber(new Point2D(mouseX, mouseY));
+        int sourceId = relationIndex > -1 ? relations.getRelationSourceId(ContentType.Composition, relationIndex) : -1;
+        if (0 <= sourceId && sourceId < nodes.size()) classChangeSet.editClass(nodes.get(sourceId).getNodeText());
+        else classChangeSet.markAllChanged();
         relations.deleteCurrentRelation(new Point2D(mouseX, mouseY));
+        isPackageChanged = true;
     }
 
     private int searchRelation(Point2D relationPoint) {
@@ -641,11 +1195,43 @@ public class ClassDiagramDrawer {
         return -1;
     }
 
+    /**
+     * <p> ノートを除いたクラスのノード番号のリストを取得します </p>
+     *
+     * @return クラスのノード番号のリスト
+     */
+    public List<Integer> getClassNodeNumbers() {
+        List<Integer> classNodeNumbers = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            if (!(nodes.get(i) instanceof NoteNodeDiagram)) classNodeNumbers.add(i);
+        }
+        return classNodeNumbers;
+    }
+
+    /**
+     * <p> 全ての関係における関係元と関係先のノード番号の組を取得します </p>
+     *
+     * <p>
+     * 自動配置などでバックグラウンドスレッドに渡すために、JavaFXアプリケーションスレッドで複製しておくことを想定しています。
+     * </p>
+     *
+     * @return {関係元のノード番号, 関係先のノード番号} の配列のリスト
+     */
+    public List<int[]> getRelationNodeNumbers() {
+        List<int[]> relationNodeNumbers = new ArrayList<>();
+        for (int i = 0; i < relations.getCompositionsCount(); i++) {
+            relationNodeNumbers.add(new int[]{relations.getRelationSourceId(ContentType.Composition, i), relations.getRelationId(ContentType.Composition, i)});
+        }
+        return relationNodeNumbers;
+    }
+
     public void clearAllRelations() {
         relations.deleteEdge();
         for (NodeDiagram node : nodes) {
             node.deleteAllNodeText(ContentType.Composition);
         }
+        classChangeSet.markAllChanged();
+        isPackageChanged = true;
     }
 
     /**
@@ -661,18 +1247,11 @@ public class ClassDiagramDrawer {
     public ContentType searchDrawnAnyDiagramType(double mouseX, double mouseY) {
         ContentType type = ContentType.Undefined;
 
-        for (NodeDiagram nodeDiagram : nodes) {
-            if (nodeDiagram.isAlreadyDrawnNode(mouseX, mouseY)) {
-                type = nodeDiagram.getNodeType();
-                break;
-            }
-        }
-        for (int i = 0; i < relations.getCompositionsCount(); i++) {
-            if (relations.isAlreadyDrawnAnyEdge(ContentType.Composition, i, new Point2D(mouseX, mouseY))) {
-                type = relations.getContentType(i);
-                break;
-            }
-        }
+        int nodeNumber = searchNodeNumber(mouseX, mouseY);
+        if (nodeNumber > -1) type = nodes.get(nodeNumber).getNodeType();
+
+        int relationNumber = relations.searchCurrentRelationNumber(new Point2D(mouseX, mouseY));
+        if (relationNumber > -1) type = relations.getContentType(relationNumber);
 
         return type;
     }
@@ -770,25 +1349,62 @@ public class ClassDiagramDrawer {
     public int getNodeDiagramId(double mouseX, double mouseY) {
         int act = -1;
 
-        // 重なっているノードの内1番上に描画しているノードはnodesリストの1番後半に存在するため、1番上に描画しているノードを取るためには尻尾から見なければならない。
-        for (int i = nodes.size() - 1; i >= 0; i--) {
-            if (nodes.get(i).isAlreadyDrawnNode(mouseX, mouseY)) {
-                act = nodes.get(i).getNodeId();
-                currentNodeNumber = i;
-                break;
-            }
+        int number = searchNodeNumber(mouseX, mouseY);
+        if (number > -1) {
+            act = nodes.get(number).getNodeId();
+            currentNodeNumber = number;
         }
 
         return act;
     }
 
+    /**
+     * <p>
+     * キャンバス上の任意のポイントに描画済みのノードの番号を探索する。
+     * {@link SpatialGridIndex} で外接矩形が任意のポイントを含むと分かったノードのみを調べる。
+     * </p>
+     *
+     * @param mouseX キャンバス上の任意のポイントのX軸
+     * @param mouseY キャンバス上の任意のポイントのY軸
+     * @return 一番上に描画しているノードの番号 <br> 描画していなかった場合は {@code -1} を返す。
+     */
+    private int searchNodeNumber(double mouseX, double mouseY) {
+        int[] candidates = nodeIndex.search(mouseX, mouseY);
+
+        // 重なっているノードの内1番上に描画しているノードはnodesリストの1番後半に存在するため、1番上に描画しているノードを取るためには尻尾から見なければならない。
+        for (int i = candidates.length - 1; i >= 0; i--) {
+            if (nodes.get(candidates[i]).isAlreadyDrawnNode(mouseX, mouseY)) return candidates[i];
+        }
+
+        return -1;
+    }
+
+    /**
+     * <p>
+     * 任意のノードの外接矩形を {@link SpatialGridIndex} に登録し直す。
+     * ノードの位置や大きさが変わった際に呼び出す。
+     * 幅や高さを持たないノードも部分的な再描画の対象とするため、外接矩形は最小でも {@link #minNodeHalfWidth} および {@link #minNodeHalfHeight} の2倍の大きさとする。
+     * </p>
+     *
+     * @param number 任意のノード番号
+     */
+    private void updateNodeIndex(int number) {
+        NodeDiagram node = nodes.get(number);
+        Point2D point = node.getPoint();
+        if (point == null) return;
+
+        double halfWidth = Math.max(node.getWidth() / 2, minNodeHalfWidth);
+        double halfHeight = Math.max(node.getHeight() / 2, minNodeHalfHeight);
+        nodeIndex.put(number, point.getX() - halfWidth, point.getY() - halfHeight, point.getX() + halfWidth, point.getY() + halfHeight);
+    }
+
     /**
      * クラス図キャンバスの縁を描画する。
      */
     private void drawDiagramCanvasEdge() {
         double space = 5.0;
-        double width = gc.getCanvas().getWidth();
-        double height = gc.getCanvas().getHeight();
+        double width = getDiagramWidth();
+        double height = getDiagramHeight();
         gc.setStroke(Color.BLACK);
         gc.strokeRect(space, space, width - space * 2, height - space * 2);
     }
@@ -840,10 +1456,10 @@ public class ClassDiagramDrawer {
         if (mouse.getX() < minClassWidth) setPointX = 10.0 + (100.0 / 2);
         if (mouse.getY() < minClassHeight) setPointY = 10.0 + (80.0 / 2);
 
-        if (mouse.getX() > gc.getCanvas().getWidth() - minClassWidth)
-            setPointX = gc.getCanvas().getWidth() - minClassWidth;
-        if (mouse.getY() > gc.getCanvas().getHeight() - minClassHeight)
-            setPointY = gc.getCanvas().getHeight() - minClassHeight;
+        if (mouse.getX() > getDiagramWidth() - minClassWidth)
+            setPointX = getDiagramWidth() - minClassWidth;
+        if (mouse.getY() > getDiagramHeight() - minClassHeight)
+            setPointY = getDiagramHeight() - minClassHeight;
 
         return new Point2D(setPointX, setPointY);
     }
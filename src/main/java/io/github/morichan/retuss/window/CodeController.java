@@ -5,15 +5,38 @@ import io.github.morichan.retuss.language.java.Java;
 import io.github.morichan.retuss.language.uml.Package;
 import io.github.morichan.retuss.listener.CppLanguage;
 import io.github.morichan.retuss.listener.JavaLanguage;
+import io.github.morichan.retuss.project.Project;
+import io.github.morichan.retuss.project.ProjectReader;
+import io.github.morichan.retuss.project.ProjectWriter;
+import io.github.morichan.retuss.translator.ClassChangeSet;
 import io.github.morichan.retuss.translator.Language;
 import io.github.morichan.retuss.translator.Translator;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.scene.layout.AnchorPane;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
 import org.fxmisc.richtext.CodeArea;
 import org.fxmisc.richtext.LineNumberFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 /**
  * <p> RETUSSコードウィンドウの動作管理クラス </p>
  *
@@ -30,12 +53,24 @@ public class CodeController {
     private Java java = new Java();
     private Cpp cpp = new Cpp();
     private Package umlPackage = new Package();
-    private Translator translator = new Translator();
+    private Translator translator = new Translator(ForkJoinPool.commonPool());
     private JavaLanguage javaLanguage = new JavaLanguage();
     private CppLanguage cppLanguage = new CppLanguage();
+    private CodeParsePipeline codeParsePipeline = new CodeParsePipeline(this::reflectParsedPackage);
 
     private int createdClassCount = 0;
 
+    /**
+     * <p> コードタブの更新を依頼した回数 </p>
+     *
+     * <p>
+     * 非同期の翻訳が完了した時点でより新しい更新を依頼していた場合は、その翻訳結果をコードタブに反映しません。
+     * JavaFXアプリケーションスレッドでのみ読み書きします。
+     * </p>
+     */
+    private long codeTabsGeneration = 0;
+    private long alertedGeneration = 0;
+
     @FXML
     private void initialize() {
         codeTabPane.getTabs().add(createLanguageTab(Language.Java));
@@ -60,6 +95,7 @@ public class CodeController {
 //        }
 
         translator.translate(umlPackage);
+        codeTabsGeneration++;
         java = translator.getJava();
         cpp = translator.getCpp();
         setCodeTabs(java);
@@ -67,11 +103,120 @@ public class CodeController {
         this.umlPackage = umlPackage;
     }
 
+    /**
+     * <p> クラス図の内、変更したクラスのみをコードに翻訳し直してコードタブに反映します </p>
+     *
+     * <p>
+     * 変更していないクラスは前回翻訳したクラスを再利用するため、そのクラスのコードタブは作り直さずにそのまま残します。
+     * </p>
+     *
+     * <p>
+     * 翻訳は {@link Translator#translateAsync(Supplier, ClassChangeSet)} でJavaとC++を同時に別のスレッドで行い、
+     * このメソッドは翻訳の完了を待たずに戻ります。
+     * クラス図のパッケージはクラス図キャンバスのノードと属性や操作を共有しており、翻訳中も編集しうるため、 {@link #detach(Package)} で切り離した複製を翻訳します。
+     * 各言語のタブは、その言語の翻訳が完了した時点でJavaFXアプリケーションスレッド上で更新します。
+     * 翻訳中に次の更新を依頼した場合は、古い翻訳結果はタブに反映しません。
+     * 翻訳に失敗した場合は、タブを前回の内容のまま残してダイアログで知らせます。
+     * </p>
+     *
+     * @param umlPackage クラス図のパッケージ
+     * @param changeSet  前回の翻訳以降に変更したクラスの集合 <br> {@code null} の場合は全てのクラスを翻訳します。
+     */
+    public void createCodeTabs(Package umlPackage, ClassChangeSet changeSet) {
+        long requestedGeneration = ++codeTabsGeneration;
+        Translator.Translation translation = translator.translateAsync(detach(umlPackage), changeSet);
+
+        translation.getJava().whenCompleteAsync((translatedJava, error) -> {
+            if (requestedGeneration != codeTabsGeneration) return;
+            if (error != null) {
+                alertTranslationError(requestedGeneration, error);
+                return;
+            }
+            java = translatedJava;
+            setCodeTabs(java);
+        }, Platform::runLater);
+        translation.getCpp().whenCompleteAsync((translatedCpp, error) -> {
+            if (requestedGeneration != codeTabsGeneration) return;
+            if (error != null) {
+                alertTranslationError(requestedGeneration, error);
+                return;
+            }
+            cpp = translatedCpp;
+            setCodeTabs(cpp);
+        }, Platform::runLater);
+
+        this.umlPackage = umlPackage;
+    }
+
+    /**
+     * <p> クラス図のパッケージを、元のパッケージと何も共有しない複製に切り離します </p>
+     *
+     * <p>
+     * 呼び出した時点のパッケージをプロジェクトファイルの形式で書き出し、返した処理を呼び出すとそこから読み込んだ複製を返します。
+     * 書き出しは呼出し元のスレッド（JavaFXアプリケーションスレッド）で行い、時間の掛かる読み込みは返した処理を呼び出したスレッドで行います。
+     * そのため、書き出した後に元のパッケージを編集しても複製には影響しません。
+     * </p>
+     *
+     * <p>
+     * テストコードで主に用います。
+     * </p>
+     *
+     * @param umlPackage クラス図のパッケージ
+     * @return 呼び出す度に新しい複製を返す処理
+     */
+    static Supplier<Package> detach(Package umlPackage) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            new ProjectWriter().write(new Project(umlPackage), outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] snapshot = outputStream.toByteArray();
+
+        return () -> {
+            try {
+                return new ProjectReader().read(new ByteArrayInputStream(snapshot)).getPackage();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * <p> クラス図からコードへの翻訳に失敗したことをダイアログで知らせます </p>
+     *
+     * <p>
+     * JavaとC++の両方の翻訳に失敗した場合も、1回の更新につき1回だけ知らせます。
+     * </p>
+     *
+     * @param requestedGeneration 失敗した更新を依頼した回数
+     * @param error               翻訳中に投げた例外
+     */
+    private void alertTranslationError(long requestedGeneration, Throwable error) {
+        if (alertedGeneration == requestedGeneration) return;
+        alertedGeneration = requestedGeneration;
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Alert alert = new Alert(Alert.AlertType.ERROR, "クラス図からコードを生成できませんでした\n" + cause, ButtonType.OK);
+        alert.setHeaderText("コードタブは前回の内容のままです");
+        alert.showAndWait();
+    }
+
     public Package getUmlPackage() {
         return umlPackage;
     }
 
     public void importCode(Language language, String code) {
+        importCode(language, CharStreams.fromString(code));
+    }
+
+    /**
+     * <p> 読み込んだファイルのコードを既存のクラスに追加します。 </p>
+     *
+     * @param language コードの言語
+     * @param code {@link io.github.morichan.retuss.listener.SourceFileLoader}などで生成したコードの文字ストリーム
+     */
+    public void importCode(Language language, CharStream code) {
         translator.translate(umlPackage);
 
         if (language == Language.Java) {
@@ -89,6 +234,63 @@ public class CodeController {
         java = translator.getJava();
         cpp = translator.getCpp();
 
+        codeTabsGeneration++;
+        setCodeTabs(java);
+        setCodeTabs(cpp);
+
+        this.umlPackage = translator.getPackage();
+    }
+
+    /**
+     * <p> プロジェクトから取り込んだ全てのJavaクラスを既存のクラスに追加します。 </p>
+     *
+     * <p>
+     * クラス図への翻訳は全てのクラスを追加した後に1回だけ行います。
+     * </p>
+     *
+     * @param importedJava プロジェクトから取り込んだJava
+     */
+    public void importProject(Java importedJava) {
+        translator.translate(umlPackage);
+
+        java = translator.getJava();
+        for (io.github.morichan.retuss.language.java.Class javaClass : importedJava.getClasses()) {
+            java.addClass(javaClass);
+        }
+        translator.translate(java);
+
+        java = translator.getJava();
+        cpp = translator.getCpp();
+
+        codeTabsGeneration++;
+        setCodeTabs(java);
+        setCodeTabs(cpp);
+
+        this.umlPackage = translator.getPackage();
+    }
+
+    /**
+     * <p> プロジェクトから取り込んだ全てのC++クラスを既存のクラスに追加します。 </p>
+     *
+     * <p>
+     * クラス図への翻訳は全てのクラスを追加した後に1回だけ行います。
+     * </p>
+     *
+     * @param importedCpp プロジェクトから取り込んだCpp
+     */
+    public void importProject(Cpp importedCpp) {
+        translator.translate(umlPackage);
+
+        cpp = translator.getCpp();
+        for (io.github.morichan.retuss.language.cpp.Class cppClass : importedCpp.getClasses()) {
+            cpp.addClass(cppClass);
+        }
+        translator.translate(cpp);
+
+        java = translator.getJava();
+        cpp = translator.getCpp();
+
+        codeTabsGeneration++;
         setCodeTabs(java);
         setCodeTabs(cpp);
 
@@ -127,24 +329,30 @@ public class CodeController {
     private Tab createCodeTab(io.github.morichan.retuss.language.java.Class javaClass) {
         CodeArea codeArea = new CodeArea();
         codeArea.setParagraphGraphicFactory(LineNumberFactory.get(codeArea));
-        codeArea.setOnKeyTyped(event -> convertCodeToUml(Language.Java));
+        codeArea.setOnKeyTyped(event -> requestConvertCodeToUml(Language.Java));
 
         if (javaClass != null) codeArea.replaceText(javaClass.toString());
 
-        if (javaClass == null) return createTab(codeArea, null);
-        else return createTab(codeArea, javaClass.getName());
+        Tab tab;
+        if (javaClass == null) tab = createTab(codeArea, null);
+        else tab = createTab(codeArea, javaClass.getName());
+        tab.setUserData(javaClass);
+        return tab;
     }
 
     private Tab createCodeTab(io.github.morichan.retuss.language.cpp.Class cppClass) {
         CodeArea codeArea = new CodeArea();
         codeArea.setParagraphGraphicFactory(LineNumberFactory.get(codeArea));
-        codeArea.setOnKeyTyped(event -> convertCodeToUml(Language.Cpp));
+        codeArea.setOnKeyTyped(event -> requestConvertCodeToUml(Language.Cpp));
 
         if (cppClass != null) codeArea.replaceText(cppClass.toString());
         // if (cppClass != null) codeArea.replaceText(cppClass.cppFile_toString());
 
-        if (cppClass == null) return createTab(codeArea, null);
-        else return createTab(codeArea, cppClass.getName());
+        Tab tab;
+        if (cppClass == null) tab = createTab(codeArea, null);
+        else tab = createTab(codeArea, cppClass.getName());
+        tab.setUserData(cppClass);
+        return tab;
     }
 
     private Tab createTab(CodeArea area, String title) {
@@ -163,6 +371,44 @@ public class CodeController {
         return codeTab;
     }
 
+    /**
+     * <p> コードからクラス図への変換を構文解析パイプラインに依頼します。 </p>
+     *
+     * <p>
+     * 各タブのコードの取得のみをFXスレッド上で行い、構文解析と翻訳は{@link CodeParsePipeline}に任せます。
+     * 連続したキー入力はまとめられ、最後の入力に対する解析結果のみがクラス図に反映されます。
+     * </p>
+     *
+     * @param language 変換するコードの言語
+     */
+    public void requestConvertCodeToUml(Language language) {
+        int languageNumber = language == Language.Java ? 0 : 1;
+        List<Tab> tabs = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+
+        for (int i = 0; i < ((TabPane) ((AnchorPane) codeTabPane.getTabs().get(languageNumber).getContent()).getChildren().get(0)).getTabs().size(); i++) {
+            tabs.add(getCodeTab(languageNumber, i));
+            codes.add(getCode(languageNumber, i));
+        }
+
+        codeParsePipeline.submit(language, tabs, codes);
+    }
+
+    /**
+     * <p> 構文解析パイプラインのデバウンス時間を設定します。 </p>
+     *
+     * @param debounceMillis デバウンス時間（ミリ秒）
+     */
+    public void setParseDebounceMillis(long debounceMillis) {
+        codeParsePipeline.setDebounceMillis(debounceMillis);
+    }
+
+    private void reflectParsedPackage(Package parsedPackage) {
+        umlPackage = parsedPackage;
+
+        mainController.writeUmlForCode(umlPackage);
+    }
+
     public void convertCodeToUml(Language language) {
         java = new Java();
         cpp = new Cpp();
@@ -170,14 +416,28 @@ public class CodeController {
         for (int i = 0; i < ((TabPane) ((AnchorPane) codeTabPane.getTabs().get(0).getContent()).getChildren().get(0)).getTabs().size(); i++) {
             try {
                 if (language == Language.Java) {
-                    javaLanguage.parseForClassDiagram(getCode(0, i));
-                    java.addClass(javaLanguage.getJava().getClasses().get(0));
+                    Tab tab = getCodeTab(0, i);
+                    String code = getCode(0, i);
+                    io.github.morichan.retuss.language.java.Class javaClass = codeParsePipeline.getJavaParseCache().get(tab, code);
+                    if (javaClass == null) {
+                        javaLanguage.parseForClassDiagram(code);
+                        javaClass = javaLanguage.getJava().getClasses().get(0);
+                        codeParsePipeline.getJavaParseCache().put(tab, code, javaClass);
+                    }
+                    java.addClass(javaClass);
                 } else {
-                    cppLanguage.parseForClassDiagram(getCode(1, i));
-//                    for (io.github.morichan.retuss.language.cpp.Class cppClass : cppLanguage.getCpp().getClasses()) {                     //複数クラスに対応中、今のところで来ていない
-//                        cpp.addClass(cppClass);
-//                    }
-                    cpp.addClass(cppLanguage.getCpp().getClasses().get(0));
+                    Tab tab = getCodeTab(1, i);
+                    String code = getCode(1, i);
+                    io.github.morichan.retuss.language.cpp.Class cppClass = codeParsePipeline.getCppParseCache().get(tab, code);
+                    if (cppClass == null) {
+                        cppLanguage.parseForClassDiagram(code);
+//                        for (io.github.morichan.retuss.language.cpp.Class cppClass : cppLanguage.getCpp().getClasses()) {                     //複数クラスに対応中、今のところで来ていない
+//                            cpp.addClass(cppClass);
+//                        }
+                        cppClass = cppLanguage.getCpp().getClasses().get(0);
+                        codeParsePipeline.getCppParseCache().put(tab, code, cppClass);
+                    }
+                    cpp.addClass(cppClass);
                 }
             } catch (NullPointerException e) {
                 System.out.println("This is Parse Error because JavaEvalListener object is null, but no problem.");
@@ -200,19 +460,57 @@ public class CodeController {
     }
 
     private void setCodeTabs(Java java) {
-        ((TabPane) ((AnchorPane) codeTabPane.getTabs().get(0).getContent()).getChildren().get(0)).getTabs().clear();
-        for (io.github.morichan.retuss.language.java.Class javaClass : java.getClasses()) {
-            Tab tab = createCodeTab(javaClass);
-            ((TabPane) ((AnchorPane) codeTabPane.getTabs().get(0).getContent()).getChildren().get(0)).getTabs().add(tab);
-        }
+        setCodeTabs(((TabPane) ((AnchorPane) codeTabPane.getTabs().get(0).getContent()).getChildren().get(0)).getTabs(),
+                java.getClasses(), io.github.morichan.retuss.language.java.Class::getName, this::createCodeTab);
     }
 
     private void setCodeTabs(Cpp cpp) {
-        ((TabPane) ((AnchorPane) codeTabPane.getTabs().get(1).getContent()).getChildren().get(0)).getTabs().clear();
-        for (io.github.morichan.retuss.language.cpp.Class cppClass : cpp.getClasses()) {
-            Tab tab = createCodeTab(cppClass);
-            ((TabPane) ((AnchorPane) codeTabPane.getTabs().get(1).getContent()).getChildren().get(0)).getTabs().add(tab);
+        setCodeTabs(((TabPane) ((AnchorPane) codeTabPane.getTabs().get(1).getContent()).getChildren().get(0)).getTabs(),
+                cpp.getClasses(), io.github.morichan.retuss.language.cpp.Class::getName, this::createCodeTab);
+    }
+
+    /**
+     * <p> 各クラスのコードタブを、変更したクラスのタブのみ更新します </p>
+     *
+     * <p>
+     * 各タブには表示しているクラスのインスタンスを {@link Tab#setUserData(Object)} で持たせています。
+     * 同じインスタンスを表示しているタブは何もせず、同じクラス名のタブはコードのみを書き換え、それ以外のクラスはタブを生成します。
+     * タブの並びが変わらない場合はタブのリストを変更しません。
+     * </p>
+     *
+     * <p>
+     * テストコードで主に用いるため、パッケージプライベートにしています。
+     * </p>
+     *
+     * @param tabs       言語のタブペインにおけるコードタブのリスト
+     * @param classes    言語のクラスのリスト
+     * @param nameOf     クラス名を取得する関数
+     * @param createTab  コードタブを生成する関数
+     * @param <T>        言語のクラス
+     */
+    static <T> void setCodeTabs(ObservableList<Tab> tabs, List<T> classes, Function<T, String> nameOf, Function<T, Tab> createTab) {
+        Map<String, Tab> reusableTabs = new HashMap<>();
+        for (Tab tab : tabs) reusableTabs.putIfAbsent(tab.getText(), tab);
+
+        List<Tab> updatedTabs = new ArrayList<>();
+        for (T languageClass : classes) {
+            Tab tab = nameOf.apply(languageClass) != null ? reusableTabs.remove(nameOf.apply(languageClass)) : null;
+            if (tab == null) {
+                tab = createTab.apply(languageClass);
+            } else if (tab.getUserData() != languageClass) {
+                CodeArea codeArea = (CodeArea) ((AnchorPane) tab.getContent()).getChildren().get(0);
+                String code = languageClass.toString();
+                if (!codeArea.getText().equals(code)) codeArea.replaceText(code);
+                tab.setUserData(languageClass);
+            }
+            updatedTabs.add(tab);
         }
+
+        if (!updatedTabs.equals(tabs)) tabs.setAll(updatedTabs);
+    }
+
+    private Tab getCodeTab(int languageNumber, int tabNumber) {
+        return ((TabPane) ((AnchorPane) codeTabPane.getTabs().get(languageNumber).getContent()).getChildren().get(0)).getTabs().get(tabNumber);
     }
 
     private String getCode(int languageNumber, int tabNumber) {
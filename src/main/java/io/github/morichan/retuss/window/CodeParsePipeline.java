@@ -0,0 +1,219 @@
+package io.github.morichan.retuss.window;
+
+import io.github.morichan.retuss.language.cpp.Cpp;
+import io.github.morichan.retuss.language.java.Java;
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.listener.CppLanguage;
+import io.github.morichan.retuss.listener.JavaLanguage;
+import io.github.morichan.retuss.listener.ParseResultCache;
+import io.github.morichan.retuss.translator.Language;
+import io.github.morichan.retuss.translator.Translator;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * <p> コード編集時の構文解析パイプラインクラス </p>
+ *
+ * <p>
+ * キー入力のたびにFXスレッド上で全タブを構文解析すると、クラス数に応じてUIが停止してしまいます。
+ * そこで、連続した編集をデバウンス時間の間まとめ、専用のスレッドで構文解析とクラス図への翻訳を行います。
+ * 新しいコードが投入された場合は、待機中および実行中の古い解析結果を破棄します。
+ * 最後に投入されたコードの解析結果である{@link Package}のみを、コールバック用のエグゼキュータ（既定では{@link Platform#runLater(Runnable)}）を通じて通知します。
+ * </p>
+ *
+ * <p>
+ * タブを表すキーと共にコードを投入した場合は、タブごとの構文解析結果を{@link ParseResultCache}に保持します。
+ * 内容が変更されていないタブは以前の結果を再利用するため、編集したタブのみを構文解析します。
+ * </p>
+ */
+public class CodeParsePipeline {
+
+    /**
+     * <p> デバウンス時間の既定値（ミリ秒） </p>
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+
+    private final ScheduledExecutorService parseExecutor;
+    private final Executor callbackExecutor;
+    private final Consumer<Package> onParsed;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final JavaLanguage javaLanguage = new JavaLanguage();
+    private final CppLanguage cppLanguage = new CppLanguage();
+    private final Translator translator = new Translator(ForkJoinPool.commonPool());
+    private final ParseResultCache<io.github.morichan.retuss.language.java.Class> javaParseCache = new ParseResultCache<>();
+    private final ParseResultCache<io.github.morichan.retuss.language.cpp.Class> cppParseCache = new ParseResultCache<>();
+
+    private long debounceMillis = DEFAULT_DEBOUNCE_MILLIS;
+    private ScheduledFuture<?> pendingParse;
+
+    /**
+     * <p> 解析結果をFXスレッドで通知するパイプラインを生成します。 </p>
+     *
+     * @param onParsed 解析結果のパッケージを受け取るコールバック
+     */
+    public CodeParsePipeline(Consumer<Package> onParsed) {
+        this(onParsed, Platform::runLater);
+    }
+
+    /**
+     * <p> 解析結果を指定したエグゼキュータで通知するパイプラインを生成します。 </p>
+     *
+     * <p>
+     * テストコードで主に用いる。
+     * </p>
+     *
+     * @param onParsed 解析結果のパッケージを受け取るコールバック
+     * @param callbackExecutor コールバックを実行するエグゼキュータ
+     */
+    CodeParsePipeline(Consumer<Package> onParsed, Executor callbackExecutor) {
+        this.onParsed = onParsed;
+        this.callbackExecutor = callbackExecutor;
+        parseExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "retuss-code-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * <p> デバウンス時間を設定します。 </p>
+     *
+     * <p>
+     * 負の値を設定した場合は無視します。
+     * </p>
+     *
+     * @param debounceMillis デバウンス時間（ミリ秒）
+     */
+    public void setDebounceMillis(long debounceMillis) {
+        if (debounceMillis < 0) return;
+        this.debounceMillis = debounceMillis;
+    }
+
+    public long getDebounceMillis() {
+        return debounceMillis;
+    }
+
+    public ParseResultCache<io.github.morichan.retuss.language.java.Class> getJavaParseCache() {
+        return javaParseCache;
+    }
+
+    public ParseResultCache<io.github.morichan.retuss.language.cpp.Class> getCppParseCache() {
+        return cppParseCache;
+    }
+
+    /**
+     * <p> 構文解析するコードを投入します。 </p>
+     *
+     * <p>
+     * タブを表すキーを持たないため、構文解析結果はキャッシュしません。
+     * </p>
+     *
+     * @param language コードの言語
+     * @param codes 各タブのコード
+     */
+    public void submit(Language language, List<String> codes) {
+        submit(language, null, codes);
+    }
+
+    /**
+     * <p> 構文解析するコードをタブを表すキーと共に投入します。 </p>
+     *
+     * <p>
+     * デバウンス時間内に再度投入された場合は、以前のコードを破棄して最後のコードのみを解析します。
+     * 解析中に新しいコードが投入された場合も、解析中の結果は通知しません。
+     * キーと内容が前回の構文解析時と同じコードは、キャッシュした結果を再利用します。
+     * </p>
+     *
+     * @param language コードの言語
+     * @param keys 各タブを表すキー <br> {@code null} の場合はキャッシュしない
+     * @param codes 各タブのコード
+     */
+    public synchronized void submit(Language language, List<?> keys, List<String> codes) {
+        long currentGeneration = generation.incrementAndGet();
+        List<?> keySnapshot = keys != null ? new ArrayList<>(keys) : null;
+        List<String> codeSnapshot = new ArrayList<>(codes);
+
+        if (pendingParse != null) pendingParse.cancel(false);
+        pendingParse = parseExecutor.schedule(() -> parse(currentGeneration, language, keySnapshot, codeSnapshot), debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * <p> パイプラインを停止します。 </p>
+     *
+     * <p>
+     * 待機中の解析は破棄し、以降の解析結果は通知しません。
+     * </p>
+     */
+    public void shutdown() {
+        generation.incrementAndGet();
+        parseExecutor.shutdownNow();
+    }
+
+    private void parse(long parseGeneration, Language language, List<?> keys, List<String> codes) {
+        Java java = new Java();
+        Cpp cpp = new Cpp();
+
+        for (int i = 0; i < codes.size(); i++) {
+            if (isStale(parseGeneration)) return;
+
+            Object key = keys != null && i < keys.size() ? keys.get(i) : null;
+            String code = codes.get(i);
+
+            try {
+                if (language == Language.Java) {
+                    io.github.morichan.retuss.language.java.Class javaClass = javaParseCache.get(key, code);
+                    if (javaClass == null) {
+                        javaLanguage.parseForClassDiagram(code);
+                        javaClass = javaLanguage.getJava().getClasses().get(0);
+                        javaParseCache.put(key, code, javaClass);
+                    }
+                    java.addClass(javaClass);
+                } else {
+                    io.github.morichan.retuss.language.cpp.Class cppClass = cppParseCache.get(key, code);
+                    if (cppClass == null) {
+                        cppLanguage.parseForClassDiagram(code);
+                        cppClass = cppLanguage.getCpp().getClasses().get(0);
+                        cppParseCache.put(key, code, cppClass);
+                    }
+                    cpp.addClass(cppClass);
+                }
+            } catch (NullPointerException e) {
+                System.out.println("This is Parse Error because EvalListener object is null, but no problem.");
+            } catch (IllegalArgumentException e) {
+                System.out.println("This is Parse Error because EvalListener object was set IllegalArgument, but no problem.");
+            } catch (IndexOutOfBoundsException e) {
+                System.out.println("This is Parse Error because EvalListener object was not found Class name, but no problem.");
+            }
+        }
+
+        if (isStale(parseGeneration)) return;
+
+        if (language == Language.Java) {
+            translator.translate(java);
+        } else {
+            translator.translate(cpp);
+        }
+        Package umlPackage = translator.getPackage();
+
+        if (isStale(parseGeneration)) return;
+
+        callbackExecutor.execute(() -> {
+            if (!isStale(parseGeneration)) onParsed.accept(umlPackage);
+        });
+    }
+
+    private boolean isStale(long parseGeneration) {
+        return generation.get() != parseGeneration;
+    }
+}
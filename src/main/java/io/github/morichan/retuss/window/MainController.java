@@ -1,12 +1,27 @@
 package io.github.morichan.retuss.window;
 
+import io.github.morichan.retuss.language.cpp.Cpp;
+import io.github.morichan.retuss.language.java.Java;
 import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.listener.CppProjectImporter;
+import io.github.morichan.retuss.listener.JavaProjectImporter;
+import io.github.morichan.retuss.listener.SourceFileLoader;
+import io.github.morichan.retuss.project.Project;
+import io.github.morichan.retuss.project.ProjectReader;
+import io.github.morichan.retuss.project.ProjectWriter;
 import io.github.morichan.retuss.translator.Language;
 import io.github.morichan.retuss.window.diagram.ContentType;
+import io.github.morichan.retuss.window.diagram.EdgeDiagram;
 import io.github.morichan.retuss.window.diagram.NodeDiagram;
+import io.github.morichan.retuss.window.diagram.NoteNodeDiagram;
 import io.github.morichan.retuss.window.diagram.RelationshipAttributeGraphic;
+import io.github.morichan.retuss.window.utility.ForceDirectedLayout;
+import io.github.morichan.retuss.window.utility.LayeredGraphLayout;
+import io.github.morichan.retuss.window.utility.TiledCanvas;
 import io.github.morichan.retuss.window.utility.UtilityJavaFXComponent;
 import io.github.morichan.retuss.language.uml.Package;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Point2D;
@@ -16,14 +31,21 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.*;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import org.antlr.v4.runtime.CharStream;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -73,6 +95,31 @@ public class MainController {
 
     private UtilityJavaFXComponent util = new UtilityJavaFXComponent();
     private ClassDiagramDrawer classDiagramDrawer = new ClassDiagramDrawer();
+    private TiledCanvas tiledCanvasInCD = null;
+
+    /**
+     * <p> クラス図を1枚のキャンバスで描画する大きさの上限 </p>
+     *
+     * <p>
+     * これを超える大きさのクラス図は {@link TiledCanvas} で描画します。
+     * </p>
+     */
+    private static final double maxSingleCanvasSizeInCD = 8192.0;
+
+    /**
+     * <p> クラス図の拡大率の下限と上限、およびマウスホイール1回分で拡大する割合 </p>
+     */
+    private static final double minZoomInCD = 0.1;
+    private static final double maxZoomInCD = 4.0;
+    private static final double zoomStepInCD = 1.25;
+
+    private LayeredGraphLayout layeredGraphLayout = new LayeredGraphLayout();
+    private ForceDirectedLayout forceDirectedLayout = new ForceDirectedLayout();
+
+    /**
+     * <p> 力学モデルによる自動配置をアニメーションとして表示する際に、途中の配置を描画する繰返しの間隔 </p>
+     */
+    private static final int layoutAnimationIntervalInCD = 5;
 
     private SequenceDiagramDrawer sequenceDiagramDrawer = new SequenceDiagramDrawer();
 
@@ -93,6 +140,8 @@ public class MainController {
         gc.getCanvas().setHeight(classDiagramScrollPane.getPrefHeight() - scrollBarBreadth);
         classDiagramDrawer = new ClassDiagramDrawer();
         classDiagramDrawer.setGraphicsContext(gc);
+        classDiagramDrawer.setNodeImageCacheEnabled(true);
+        classDiagramScrollPane.addEventFilter(ScrollEvent.SCROLL, this::scrolledInCD);
         classTree.setRoot(new TreeItem<>("Class"));
     }
 
@@ -114,6 +163,239 @@ public class MainController {
         }
     }
 
+    /**
+     * <p> ディレクトリ以下の全てのJavaファイルをインポートします </p>
+     *
+     * <p>
+     * 構文解析はFXスレッド外で並列に行い、完了後にFXスレッドでクラス図とコードに反映します。
+     * </p>
+     */
+    @FXML
+    private void importJavaProject() {
+        File directory = importDirectory(Language.Java);
+        if (directory == null) return;
+
+        JavaProjectImporter importer = new JavaProjectImporter();
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return importer.importProject(directory.toPath());
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((java, throwable) -> Platform.runLater(() -> {
+            if (throwable != null) {
+                alertImportError(throwable);
+                return;
+            }
+            importProjectCode(java);
+            alertSkippedFiles(importer.getSkippedFiles().size());
+        }));
+    }
+
+    /**
+     * <p> ディレクトリ以下の全てのC++ファイルをインポートします </p>
+     *
+     * <p>
+     * 構文解析はFXスレッド外で並列に行い、完了後にFXスレッドでクラス図とコードに反映します。
+     * ヘッダファイルのクラス宣言とソースファイルのメンバ関数定義は組み合わせて1つのクラスにします。
+     * </p>
+     */
+    @FXML
+    private void importCppProject() {
+        File directory = importDirectory(Language.Cpp);
+        if (directory == null) return;
+
+        CppProjectImporter importer = new CppProjectImporter();
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return importer.importProject(directory.toPath());
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((cpp, throwable) -> Platform.runLater(() -> {
+            if (throwable != null) {
+                alertImportError(throwable);
+                return;
+            }
+            importProjectCode(cpp);
+            alertSkippedFiles(importer.getSkippedFiles().size());
+        }));
+    }
+
+    /**
+     * <p> クラス図とシーケンス図、およびクラス図キャンバス上のノードの座標をプロジェクトファイルに保存します </p>
+     */
+    @FXML
+    private void saveProject() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("保存先のプロジェクトファイルを選択してください。");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("RETUSSプロジェクト", "*" + Project.EXTENSION));
+        fileChooser.setInitialDirectory(filePath);
+
+        File file = fileChooser.showSaveDialog(mainStage);
+        if (file == null) return;
+        filePath = new File(file.getParent());
+
+        try (OutputStream outputStream = Files.newOutputStream(file.toPath())) {
+            new ProjectWriter().write(createProject(), outputStream);
+        } catch (IOException e) {
+            e.printStackTrace();
+            Alert alert = new Alert(Alert.AlertType.ERROR, "プロジェクトを保存できませんでした", ButtonType.OK);
+            alert.showAndWait();
+        }
+    }
+
+    /**
+     * <p> プロジェクトファイルを開き、現在のクラス図を置き換えます </p>
+     *
+     * <p>
+     * ソースコードの構文解析は行わず、保存したクラス図からコードを生成します。
+     * </p>
+     */
+    @FXML
+    private void openProject() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("プロジェクトファイルを選択してください。");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("RETUSSプロジェクト", "*" + Project.EXTENSION));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("すべてのファイル", "*.*"));
+        fileChooser.setInitialDirectory(filePath);
+
+        File file = fileChooser.showOpenDialog(mainStage);
+        if (file == null) return;
+        filePath = new File(file.getParent());
+
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            openProject(new ProjectReader().read(inputStream));
+        } catch (IOException e) {
+            e.printStackTrace();
+            Alert alert = new Alert(Alert.AlertType.ERROR, "プロジェクトを開けませんでした", ButtonType.OK);
+            alert.showAndWait();
+        }
+    }
+
+    /**
+     * <p> 現在のクラス図とクラス図キャンバスの状態からプロジェクトを生成します </p>
+     *
+     * <p>
+     * テストコードで主に用いる。
+     * </p>
+     *
+     * @return プロジェクト
+     */
+    Project createProject() {
+        Package umlPackage = codeController != null ? codeController.getUmlPackage() : classDiagramDrawer.getPackage();
+        Project project = new Project(umlPackage);
+
+        for (NodeDiagram node : classDiagramDrawer.getNodes()) {
+            ContentType type = node instanceof NoteNodeDiagram ? ContentType.Note : ContentType.Class;
+            project.addNode(new Project.Node(type, node.getNodeText(), node.getPoint().getX(), node.getPoint().getY()));
+        }
+
+        EdgeDiagram edges = classDiagramDrawer.getEdgeDiagram();
+        for (int i = 0; i < edges.getCompositionsCount(); i++) {
+            project.addEdge(new Project.Edge(edges.getContentType(i), edges.getEdgeContentText(i),
+                    edges.getRelationSourceId(ContentType.Composition, i), edges.getRelationId(ContentType.Composition, i)));
+        }
+
+        return project;
+    }
+
+    /**
+     * <p> プロジェクトを基にクラス図キャンバスとコードを作り直します </p>
+     *
+     * <p>
+     * クラスのノードは保存した座標に、クラスの数より少ない場合は残りを {@link #addProjectNodes(List)} で格子状に配置します。
+     * {@link #writeUmlForCode(Package)} メソッドはi番目のノードをi番目のクラスとして扱うため、ノートのノードはクラスのノードの後に追加します。
+     * エッジはクラス図のパッケージが持つ汎化クラスと関係属性から作り直します。
+     * </p>
+     *
+     * @param project 開いたプロジェクト
+     */
+    void openProject(Project project) {
+        Package umlPackage = project.getPackage();
+
+        NodeDiagram.resetNodeCount();
+        double zoom = classDiagramDrawer.getZoom();
+        boolean isOrthogonalEdgeRoutingEnabled = classDiagramDrawer.isOrthogonalEdgeRoutingEnabled();
+        classDiagramDrawer = new ClassDiagramDrawer();
+        classDiagramDrawer.setGraphicsContext(classDiagramCanvas.getGraphicsContext2D());
+        classDiagramDrawer.setNodeImageCacheEnabled(true);
+        classDiagramDrawer.setTiledCanvas(tiledCanvasInCD);
+        classDiagramDrawer.setZoom(zoom);
+        classDiagramDrawer.setOrthogonalEdgeRoutingEnabled(isOrthogonalEdgeRoutingEnabled);
+
+        List<Project.Node> classNodes = new ArrayList<>();
+        List<Project.Node> noteNodes = new ArrayList<>();
+        for (Project.Node node : project.getNodes()) {
+            reserveClassDiagramArea(node.getX(), node.getY());
+            if (node.getType() == ContentType.Note) noteNodes.add(node);
+            else if (classNodes.size() < umlPackage.getClasses().size()) classNodes.add(node);
+        }
+
+        addSavedNodes(classNodes, classButtonInCD);
+        List<String> remainingClassNames = new ArrayList<>();
+        for (int i = classNodes.size(); i < umlPackage.getClasses().size(); i++) remainingClassNames.add(umlPackage.getClasses().get(i).getName());
+        if (!remainingClassNames.isEmpty()) addProjectNodes(remainingClassNames);
+        addSavedNodes(noteNodes, noteButtonInCD);
+        classDiagramDrawer.allReDrawCanvas();
+
+        convertUmlToCode(umlPackage);
+        writeUmlForCode(umlPackage);
+        buttonsInCD = util.bindAllButtonsFalseWithout(buttonsInCD, normalButtonInCD);
+    }
+
+    private void addSavedNodes(List<Project.Node> nodes, Button button) {
+        buttonsInCD = util.bindAllButtonsFalseWithout(buttonsInCD, button);
+        for (Project.Node node : nodes) {
+            classDiagramDrawer.setMouseCoordinates(node.getX(), node.getY());
+            classDiagramDrawer.setNodeText(node.getText());
+            classDiagramDrawer.addDrawnNode(buttonsInCD);
+        }
+    }
+
+    /**
+     * <p> クラス図のクラスを階層型に自動配置します </p>
+     *
+     * <p> メニューバーのLayoutメニューから呼び出します。 </p>
+     */
+    @FXML
+    private void layoutClassDiagramInLayers() {
+        layoutClassDiagram(-1);
+    }
+
+    /**
+     * <p> クラス図のクラスを力学モデルで自動配置します </p>
+     *
+     * <p> メニューバーのLayoutメニューから呼び出します。 </p>
+     */
+    @FXML
+    private void layoutClassDiagramByForce() {
+        layoutClassDiagramByForce(false);
+    }
+
+    /**
+     * <p> クラス図のクラスを力学モデルで自動配置し、配置が落ち着いていく様子を表示します </p>
+     *
+     * <p> メニューバーのLayoutメニューから呼び出します。 </p>
+     */
+    @FXML
+    private void animateClassDiagramLayoutByForce() {
+        layoutClassDiagramByForce(true);
+    }
+
+    /**
+     * <p> クラス図の関係をクラスを避ける縦と横の線分のみで描画するか否かを切り替えます </p>
+     *
+     * <p> メニューバーのLayoutメニューから呼び出します。 </p>
+     *
+     * @param event チェックメニューアイテムを選択したイベント
+     */
+    @FXML
+    private void switchOrthogonalEdgeRouting(ActionEvent event) {
+        classDiagramDrawer.setOrthogonalEdgeRoutingEnabled(((CheckMenuItem) event.getSource()).isSelected());
+        classDiagramDrawer.allReDrawCanvas();
+    }
+
     @FXML
     private void selectClassDiagramTab() {
         selectNormalInCD();
@@ -200,10 +482,12 @@ public class MainController {
      */
     @FXML
     private void clickedCanvasInCD(MouseEvent event) {
+        double mouseX = event.getX() / classDiagramDrawer.getZoom();
+        double mouseY = event.getY() / classDiagramDrawer.getZoom();
         if (event.getButton() == MouseButton.PRIMARY) {
-            clickedCanvasByPrimaryButtonInCD(event.getX(), event.getY());
+            clickedCanvasByPrimaryButtonInCD(mouseX, mouseY);
         } else if (event.getButton() == MouseButton.SECONDARY) {
-            clickedCanvasBySecondaryButtonInCD(event.getX(), event.getY());
+            clickedCanvasBySecondaryButtonInCD(mouseX, mouseY);
         }
 
         createClassTreeViewContents();
@@ -216,14 +500,31 @@ public class MainController {
      */
     @FXML
     private void draggedCanvasInCD(MouseEvent event) {
+        double mouseX = event.getX() / classDiagramDrawer.getZoom();
+        double mouseY = event.getY() / classDiagramDrawer.getZoom();
         if (util.searchSelectedButtonIn(buttonsInCD) == normalButtonInCD &&
-                classDiagramDrawer.isAlreadyDrawnAnyDiagram(event.getX(), event.getY())) {
-            classDiagramDrawer.setMouseCoordinates(event.getX(), event.getY());
-            classDiagramDrawer.moveTo(classDiagramDrawer.getNodeDiagramId(event.getX(), event.getY()), new Point2D(event.getX(), event.getY()));
-            classDiagramDrawer.allReDrawCanvas();
+                classDiagramDrawer.isAlreadyDrawnAnyDiagram(mouseX, mouseY)) {
+            classDiagramDrawer.setMouseCoordinates(mouseX, mouseY);
+            classDiagramDrawer.moveTo(classDiagramDrawer.getNodeDiagramId(mouseX, mouseY), new Point2D(mouseX, mouseY));
+            classDiagramDrawer.reDrawDamagedRegions();
         }
     }
 
+    /**
+     * <p> クラス図タブにおけるスクロール時のイベントフィルタ </p>
+     *
+     * <p>
+     * Ctrlキーを押しながらスクロールした場合のみクラス図を拡大縮小し、スクロールペインはスクロールしません。
+     * </p>
+     */
+    private void scrolledInCD(ScrollEvent event) {
+        if (!event.isControlDown() || event.getDeltaY() == 0.0) return;
+
+        double zoom = classDiagramDrawer.getZoom();
+        zoomClassDiagram(event.getDeltaY() > 0.0 ? zoom * zoomStepInCD : zoom / zoomStepInCD);
+        event.consume();
+    }
+
     //
     // シグナルハンドラここまで
     //
@@ -435,7 +736,7 @@ public class MainController {
         sequenceDiagramDrawer.draw();
     }
 
-    private String importFile(Language language) throws IOException {
+    private CharStream importFile(Language language) throws IOException {
         FileChooser fileChooser = new FileChooser();
 
         if (language == Language.Java) {
@@ -457,15 +758,10 @@ public class MainController {
         File file = fileChooser.showOpenDialog(mainStage);
         if(file == null) throw new IOException();
 
-        StringBuilder sb = new StringBuilder();
-        BufferedReader br = new BufferedReader(new FileReader(file));
-        String str;
-        while((str = br.readLine()) != null) {
-            sb.append(str);
-        }
+        CharStream code = new SourceFileLoader().load(file.toPath());
         filePath = new File(file.getParent());
 
-        return sb.toString();
+        return code;
     }
 
     public void createClass(String className) {
@@ -484,7 +780,7 @@ public class MainController {
         buttonsInCD = util.bindAllButtonsFalseWithout(buttonsInCD, normalButtonInCD);
     }
 
-    private void importCode(Language language, String code) {
+    private void importCode(Language language, CharStream code) {
         buttonsInCD = util.bindAllButtonsFalseWithout(buttonsInCD, classButtonInCD);
         classDiagramDrawer.setNodeText("ThisIsCurrentClassNameBecauseThisIsRewrittenInstantly");
         classDiagramDrawer.addDrawnNode(buttonsInCD);
@@ -494,6 +790,304 @@ public class MainController {
         convertUmlToCode(codeController.getUmlPackage());
         writeUmlForCode(codeController.getUmlPackage());
         buttonsInCD = util.bindAllButtonsFalseWithout(buttonsInCD, normalButtonInCD);
+        layoutClassDiagram(classDiagramDrawer.getNodes().size() - 1);
+    }
+
+    private File importDirectory(Language language) {
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        if (language == Language.Java) {
+            directoryChooser.setTitle("Javaプロジェクトのディレクトリを選択してください。");
+        } else if (language == Language.Cpp) {
+            directoryChooser.setTitle("C++プロジェクトのディレクトリを選択してください。");
+        }
+        directoryChooser.setInitialDirectory(filePath);
+
+        File directory = directoryChooser.showDialog(mainStage);
+        if (directory != null) filePath = directory;
+
+        return directory;
+    }
+
+    private void alertSkippedFiles(int skippedCount) {
+        if (skippedCount <= 0) return;
+
+        Alert alert = new Alert(Alert.AlertType.WARNING, skippedCount + "個のファイルを読み込めませんでした", ButtonType.OK);
+        alert.showAndWait();
+    }
+
+    private void alertImportError(Throwable error) {
+        error.printStackTrace();
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Alert alert = new Alert(Alert.AlertType.ERROR, "プロジェクトを取り込めませんでした\n" + cause, ButtonType.OK);
+        alert.showAndWait();
+    }
+
+    /**
+     * <p> プロジェクトから取り込んだ全てのJavaクラスをクラス図とコードに反映します </p>
+     *
+     * @param importedJava プロジェクトから取り込んだJava
+     */
+    private void importProjectCode(Java importedJava) {
+        if (importedJava.getClasses().size() <= 0) return;
+
+        List<String> classNames = new ArrayList<>();
+        for (io.github.morichan.retuss.language.java.Class javaClass : importedJava.getClasses()) classNames.add(javaClass.getName());
+
+        addProjectNodes(classNames);
+        codeController.importProject(importedJava);
+        convertUmlToCode(codeController.getUmlPackage());
+        writeUmlForCode(codeController.getUmlPackage());
+        buttonsInCD = util.bindAllButtonsFalseWithout(buttonsInCD, normalButtonInCD);
+        layoutClassDiagram(-1);
+    }
+
+    /**
+     * <p> プロジェクトから取り込んだ全てのC++クラスをクラス図とコードに反映します </p>
+     *
+     * @param importedCpp プロジェクトから取り込んだCpp
+     */
+    private void importProjectCode(Cpp importedCpp) {
+        if (importedCpp.getClasses().size() <= 0) return;
+
+        List<String> classNames = new ArrayList<>();
+        for (io.github.morichan.retuss.language.cpp.Class cppClass : importedCpp.getClasses()) classNames.add(cppClass.getName());
+
+        addProjectNodes(classNames);
+        codeController.importProject(importedCpp);
+        convertUmlToCode(codeController.getUmlPackage());
+        writeUmlForCode(codeController.getUmlPackage());
+        buttonsInCD = util.bindAllButtonsFalseWithout(buttonsInCD, normalButtonInCD);
+        layoutClassDiagram(-1);
+    }
+
+    /**
+     * <p> プロジェクトから取り込んだクラスの数だけノードを追加します </p>
+     *
+     * <p>
+     * 重ならないように格子状に配置します。
+     * ノードの名前や内容は {@link #writeUmlForCode(Package)} メソッドで書き換えます。
+     * </p>
+     *
+     * @param classNames 取り込んだクラス名のリスト
+     */
+    private void addProjectNodes(List<String> classNames) {
+        int columns = 5;
+        double intervalX = 250.0;
+        double intervalY = 200.0;
+        int existingCount = classDiagramDrawer.getNodes().size();
+        int lastPosition = existingCount + classNames.size() - 1;
+        reserveClassDiagramArea(50.0 + intervalX * Math.min(lastPosition, columns - 1), 50.0 + intervalY * (lastPosition / columns));
+
+        buttonsInCD = util.bindAllButtonsFalseWithout(buttonsInCD, classButtonInCD);
+        for (int i = 0; i < classNames.size(); i++) {
+            int position = existingCount + i;
+            classDiagramDrawer.setMouseCoordinates(50.0 + intervalX * (position % columns), 50.0 + intervalY * (position / columns));
+            classDiagramDrawer.setNodeText(classNames.get(i));
+            classDiagramDrawer.addDrawnNode(buttonsInCD);
+        }
+        classDiagramDrawer.allReDrawCanvas();
+    }
+
+    /**
+     * <p> クラス図のクラスを関係に沿って階層型に自動配置します </p>
+     *
+     * <p>
+     * 関係先（親クラスや部品クラス）が関係元より上になるように {@link LayeredGraphLayout} で配置します。
+     * ノードと関係の複製を取ってから配置をバックグラウンドスレッドで計算し、JavaFXアプリケーションスレッドで {@link ClassDiagramDrawer#moveTo(int, Point2D)} により反映します。
+     * 計算中にクラス図を開き直したりノードを追加または削除したりした場合は、計算結果を反映しません。
+     * ノートのノードは移動しません。
+     * </p>
+     *
+     * @param addedNodeNumber 追加した1つのクラスのノード番号 <br> 負の場合は全てのクラスを配置し直し、そうでない場合は他のクラスを動かさずにこのクラスのみを配置します。
+     */
+    private void layoutClassDiagram(int addedNodeNumber) {
+        ClassDiagramDrawer drawer = classDiagramDrawer;
+        int nodeCount = drawer.getNodes().size();
+        List<Integer> classNodeNumbers = drawer.getClassNodeNumbers();
+        List<int[]> edges = extractClassRelations(drawer, classNodeNumbers);
+
+        int addedIndex = addedNodeNumber >= 0 ? classNodeNumbers.indexOf(addedNodeNumber) : -1;
+        Point2D[] positions = new Point2D[classNodeNumbers.size()];
+        if (addedIndex >= 0) {
+            for (int i = 0; i < positions.length; i++) {
+                if (i != addedIndex) positions[i] = drawer.getNodes().get(classNodeNumbers.get(i)).getPoint();
+            }
+        }
+
+        CompletableFuture.supplyAsync(() -> {
+            if (addedIndex < 0) return layeredGraphLayout.layout(positions.length, edges);
+            positions[addedIndex] = layeredGraphLayout.place(addedIndex, edges, positions);
+            return positions;
+        }).whenComplete((points, throwable) -> Platform.runLater(() -> {
+            if (throwable != null) {
+                throwable.printStackTrace();
+                return;
+            }
+            if (drawer != classDiagramDrawer || drawer.getNodes().size() != nodeCount) return;
+            moveClassNodes(classNodeNumbers, points);
+        }));
+    }
+
+    /**
+     * <p> クラス図のクラスを力学モデルで自動配置します </p>
+     *
+     * <p>
+     * 現在の座標から始めて {@link ForceDirectedLayout} で配置するため、階層の無いコンポジションの多いクラス図に向いています。
+     * {@link #layoutClassDiagram(int)} と同様に、配置はバックグラウンドスレッドで計算し、計算中にクラス図を変更した場合は反映しません。
+     * アニメーションとして表示する場合は、{@link #layoutAnimationIntervalInCD} 回の繰返しごとの途中の配置を描画します。
+     * 前の途中の配置を描画し終わっていない場合は、描画が追いつかないためその途中の配置を捨てます。
+     * </p>
+     *
+     * @param isAnimated 途中の配置を描画するか否かの真偽値
+     */
+    private void layoutClassDiagramByForce(boolean isAnimated) {
+        ClassDiagramDrawer drawer = classDiagramDrawer;
+        int nodeCount = drawer.getNodes().size();
+        List<Integer> classNodeNumbers = drawer.getClassNodeNumbers();
+        List<int[]> edges = extractClassRelations(drawer, classNodeNumbers);
+        Point2D[] initial = new Point2D[classNodeNumbers.size()];
+        for (int i = 0; i < initial.length; i++) initial[i] = drawer.getNodes().get(classNodeNumbers.get(i)).getPoint();
+
+        AtomicBoolean isFrameDrawing = new AtomicBoolean(false);
+        int progressInterval = isAnimated ? layoutAnimationIntervalInCD : 0;
+        CompletableFuture.supplyAsync(() -> forceDirectedLayout.layout(initial.length, edges, initial, ForceDirectedLayout.DEFAULT_ITERATIONS, progressInterval, points -> {
+            if (!isFrameDrawing.compareAndSet(false, true)) return;
+            Platform.runLater(() -> {
+                if (drawer == classDiagramDrawer && drawer.getNodes().size() == nodeCount) moveClassNodes(classNodeNumbers, points);
+                isFrameDrawing.set(false);
+            });
+        })).whenComplete((points, throwable) -> Platform.runLater(() -> {
+            if (throwable != null) {
+                throwable.printStackTrace();
+                return;
+            }
+            if (drawer != classDiagramDrawer || drawer.getNodes().size() != nodeCount) return;
+            moveClassNodes(classNodeNumbers, points);
+        }));
+    }
+
+    /**
+     * <p> クラスのノード同士の関係を、クラスのノード番号のリストにおける添字の組に変換します </p>
+     *
+     * <p>
+     * ノートのノードとの関係や、存在しないノード番号を持つ関係は除きます。
+     * </p>
+     *
+     * @param drawer           関係を取得するクラス図描画インスタンス
+     * @param classNodeNumbers クラスのノード番号のリスト
+     * @return {関係元の添字, 関係先の添字} の配列のリスト
+     */
+    private List<int[]> extractClassRelations(ClassDiagramDrawer drawer, List<Integer> classNodeNumbers) {
+        int nodeCount = drawer.getNodes().size();
+        int[] classIndexes = new int[nodeCount];
+        Arrays.fill(classIndexes, -1);
+        for (int i = 0; i < classNodeNumbers.size(); i++) classIndexes[classNodeNumbers.get(i)] = i;
+
+        List<int[]> edges = new ArrayList<>();
+        for (int[] relation : drawer.getRelationNodeNumbers()) {
+            if (relation[0] < 0 || relation[0] >= nodeCount || relation[1] < 0 || relation[1] >= nodeCount) continue;
+            if (classIndexes[relation[0]] >= 0 && classIndexes[relation[1]] >= 0) edges.add(new int[]{classIndexes[relation[0]], classIndexes[relation[1]]});
+        }
+        return edges;
+    }
+
+    /**
+     * <p> 自動配置した座標にクラスのノードを移動し、全てを描画し直します </p>
+     *
+     * @param classNodeNumbers クラスのノード番号のリスト
+     * @param points           クラスのノード番号のリストの順番に並べた移動先の座標の配列
+     */
+    private void moveClassNodes(List<Integer> classNodeNumbers, Point2D[] points) {
+        double maxX = 0.0;
+        double maxY = 0.0;
+        for (Point2D point : points) {
+            maxX = Math.max(maxX, point.getX());
+            maxY = Math.max(maxY, point.getY());
+        }
+        reserveClassDiagramArea(maxX, maxY);
+
+        for (int i = 0; i < points.length; i++) classDiagramDrawer.moveTo(classNodeNumbers.get(i), points[i]);
+        classDiagramDrawer.allReDrawCanvas();
+    }
+
+    /**
+     * <p> 任意の座標にノードを配置できるようにクラス図の大きさを広げます </p>
+     *
+     * <p>
+     * ノードを配置する前に呼び出してください。
+     * 広げる方法は {@link #resizeClassDiagramSurface(double, double)} を参照してください。
+     * 既に十分な大きさの場合は何もしません。
+     * </p>
+     *
+     * @param x 配置するノードの中心点のX軸
+     * @param y 配置するノードの中心点のY軸
+     */
+    private void reserveClassDiagramArea(double x, double y) {
+        double margin = 100.0;
+        double width = Math.max(classDiagramDrawer.getDiagramWidth(), x + margin);
+        double height = Math.max(classDiagramDrawer.getDiagramHeight(), y + margin);
+        if (width <= classDiagramDrawer.getDiagramWidth() && height <= classDiagramDrawer.getDiagramHeight()) return;
+
+        resizeClassDiagramSurface(width, height);
+    }
+
+    /**
+     * <p> クラス図の拡大率を変更して描画し直します </p>
+     *
+     * <p>
+     * 拡大率は {@link #minZoomInCD} 以上 {@link #maxZoomInCD} 以下に収めます。
+     * 図の座標における大きさは変えずに、キャンバスの大きさを拡大率に合わせます。
+     * </p>
+     *
+     * @param zoom 拡大率
+     */
+    private void zoomClassDiagram(double zoom) {
+        double width = classDiagramDrawer.getDiagramWidth();
+        double height = classDiagramDrawer.getDiagramHeight();
+        classDiagramDrawer.setZoom(Math.max(minZoomInCD, Math.min(maxZoomInCD, zoom)));
+        resizeClassDiagramSurface(width, height);
+        classDiagramDrawer.allReDrawCanvas();
+    }
+
+    /**
+     * <p> 図の座標における大きさに拡大率を掛けた大きさにクラス図を描画する領域を変更します </p>
+     *
+     * <p>
+     * 変更した大きさが {@link #maxSingleCanvasSizeInCD} 以下の場合はキャンバスの大きさを変更し、超える場合は {@link #useTiledCanvasInCD()} でタイルに分割したキャンバスに切り替えます。
+     * 一度タイルに分割したキャンバスに切り替えた場合は、縮小しても1枚のキャンバスには戻しません。
+     * </p>
+     *
+     * @param width  図の座標における幅
+     * @param height 図の座標における高さ
+     */
+    private void resizeClassDiagramSurface(double width, double height) {
+        double surfaceWidth = width * classDiagramDrawer.getZoom();
+        double surfaceHeight = height * classDiagramDrawer.getZoom();
+
+        if (tiledCanvasInCD == null && surfaceWidth <= maxSingleCanvasSizeInCD && surfaceHeight <= maxSingleCanvasSizeInCD) {
+            classDiagramCanvas.setWidth(surfaceWidth);
+            classDiagramCanvas.setHeight(surfaceHeight);
+        } else {
+            if (tiledCanvasInCD == null) useTiledCanvasInCD();
+            tiledCanvasInCD.setContentSize(surfaceWidth, surfaceHeight);
+        }
+    }
+
+    /**
+     * <p> クラス図をタイルに分割したキャンバスで描画するように切り替えます </p>
+     *
+     * <p>
+     * スクロールペインの内容を {@link TiledCanvas} に差し替え、 {@link #classDiagramCanvas} と同じマウスイベントを設定します。
+     * </p>
+     */
+    private void useTiledCanvasInCD() {
+        tiledCanvasInCD = new TiledCanvas();
+        tiledCanvasInCD.setContentSize(classDiagramCanvas.getWidth(), classDiagramCanvas.getHeight());
+        tiledCanvasInCD.setOnMouseClicked(this::clickedCanvasInCD);
+        tiledCanvasInCD.setOnMouseDragged(this::draggedCanvasInCD);
+        classDiagramScrollPane.setContent(tiledCanvasInCD);
+        tiledCanvasInCD.bindViewport(classDiagramScrollPane);
+        classDiagramDrawer.setTiledCanvas(tiledCanvasInCD);
     }
 
     /**
@@ -511,10 +1105,14 @@ public class MainController {
 
     /**
      * <p> UMLをコードに変換してコードエリアに反映します </p>
+     *
+     * <p>
+     * 前回の変換以降にクラス図で変更したクラスのみを変換し直します。
+     * </p>
      */
     private void convertUmlToCode() {
         if (codeController == null) return;
-        codeController.createCodeTabs(classDiagramDrawer.getPackage());
+        codeController.createCodeTabs(classDiagramDrawer.getPackage(), classDiagramDrawer.pollClassChangeSet());
     }
 
     /**
@@ -1,5 +1,6 @@
 package io.github.morichan.retuss.window;
 
+import io.github.morichan.retuss.listener.ParserWarmUp;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -34,6 +35,9 @@ public class RetussWindow extends Application {
 
         String resourcesPath = "/";
 
+        // 起動直後のインポートが遅くならないように、パーサのDFAキャッシュを裏で満たしておく
+        new ParserWarmUp().start();
+
         FXMLLoader loader = new FXMLLoader(getClass().getResource(resourcesPath + mainFxmlFileName));
         Parent root = loader.load();
         mainStage.setTitle(mainTitle);
@@ -4,14 +4,13 @@ import io.github.morichan.fescue.feature.Attribute;
 import io.github.morichan.fescue.feature.Operation;
 import io.github.morichan.retuss.language.uml.Class;
 import io.github.morichan.retuss.window.ClassDiagramDrawer;
+import io.github.morichan.retuss.window.utility.TextMetricsCache;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.scene.paint.Color;
 import javafx.scene.text.*;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -22,7 +21,11 @@ import java.util.List;
  * </p>
  */
 public class ClassNodeDiagram extends NodeDiagram {
-    private Class umlClass = new Class();
+
+    /**
+     * <p> 全てのクラスで共有するテキストの幅とフォントのキャッシュ </p>
+     */
+    private static final TextMetricsCache textMetrics = new TextMetricsCache();
 
     private Point2D topLeftCorner = Point2D.ZERO;
     private Point2D bottomRightCorner = Point2D.ZERO;
@@ -45,17 +48,33 @@ public class ClassNodeDiagram extends NodeDiagram {
 
     private int operationNotVisibilityCount = 0;
 
+    private Font classNameFont;
+    private Font attributeFont;
+    private Font operationFont;
+    private Font abstractOperationFont;
+    private double maxWidth = 0.0;
+    private double attributeHeight = 0.0;
+    private double operationHeight = 0.0;
+    private double operationStartHeight = 0.0;
+
     /**
      * <p> クラスを抽出します </p>
      *
      * <p>
-     *     正確には、 {@link #draw()} メソッド内で抽出しています。
-     *     そのため、このメソッドは {@link #draw()} メソッド実行後に実行してください。
+     *     呼び出すたびに現在のクラス名、属性および操作から新しい {@link Class} インスタンスを整形します。
+     *     描画とは独立しているため、 {@link #draw()} メソッドを実行していなくても抽出できます。
      * </p>
      *
      * @return {@link Class} インスタンスに整形したクラス
      */
     public Class extractClass() {
+        Class umlClass = nodeText.isEmpty() ? new Class() : new Class(nodeText);
+        for (ClassDiagramGraphic attribute : attributes) {
+            umlClass.addAttribute(((AttributeGraphic) attribute).getAttribute());
+        }
+        for (ClassDiagramGraphic operation : operations) {
+            umlClass.addOperation((OperationGraphic) operation, ((OperationGraphic) operation).isAbstract());
+        }
         return umlClass;
     }
 
@@ -102,7 +121,7 @@ public class ClassNodeDiagram extends NodeDiagram {
     @Override
     public void moveTo(Point2D point) {
         currentPoint = point;
-        draw();
+        layout();
     }
 
     /**
@@ -112,6 +131,7 @@ public class ClassNodeDiagram extends NodeDiagram {
      */
     @Override
     public void setChosen(boolean isChosen) {
+        if (this.isChosen != isChosen) invalidateImage();
         this.isChosen = isChosen;
     }
 
@@ -138,6 +158,7 @@ public class ClassNodeDiagram extends NodeDiagram {
         } else {
             throw new IllegalArgumentException();
         }
+        invalidateImage();
     }
 
     /**
@@ -160,6 +181,7 @@ public class ClassNodeDiagram extends NodeDiagram {
         } else { // if (type == ContentType.Composition) {
             relations.get(number).setText(text);
         }
+        invalidateImage();
     }
 
     /**
@@ -181,6 +203,7 @@ public class ClassNodeDiagram extends NodeDiagram {
         } else { // if (type == ContentType.Composition) {
             relations.remove(number);
         }
+        invalidateImage();
     }
 
     /**
@@ -201,6 +224,7 @@ public class ClassNodeDiagram extends NodeDiagram {
         } else { // if (type == ContentType.Composition) {
             relations.clear();
         }
+        invalidateImage();
     }
 
     /**
@@ -282,6 +306,7 @@ public class ClassNodeDiagram extends NodeDiagram {
                 relations.get(contentNumber).setIndication(isChecked);
             }
         }
+        invalidateImage();
     }
 
     /**
@@ -320,7 +345,12 @@ public class ClassNodeDiagram extends NodeDiagram {
      * <p> クラス図キャンバスにおいてクラスを描画します </p>
      *
      * <p>
-     * 実際にクラス図キャンバスにおいて描画するのは {@link ClassNodeDiagram#drawGraphicsContext(Text, List, List, double, double, double, double, double)} で行います。
+     * 実際にクラス図キャンバスにおいて描画するのは {@link ClassNodeDiagram#drawGraphicsContext(Font, Font, Font, Font, double, double, double, double, double)} で行います。
+     * </p>
+     * <p>
+     * フォントとテキストの幅は {@link TextMetricsCache} から取得するため、内容が変わっていないクラスの再描画では {@link Text} インスタンスを生成しません。
+     * また、 {@link #setImageCacheEnabled(boolean)} で有効にしている場合は、内容や選択状態が変わるまで描画結果の画像を貼り付けるだけで描画します。
+     * 詳細度（ {@link #setLevelOfDetail(LevelOfDetail)} ）が {@link LevelOfDetail#Full} でない場合は、属性と操作を省略して描画します。
      * </p>
      * <p>
      * {@link NodeDiagram#gc} が存在しない場合は {@link NullPointerException} を返す。
@@ -329,6 +359,28 @@ public class ClassNodeDiagram extends NodeDiagram {
     public void draw() {
         if (nodeText.length() <= 0) return;
 
+        layout();
+
+        drawWithImageCache(topLeftCorner.getX(), topLeftCorner.getY(), width, height, () -> {
+            if (levelOfDetail == LevelOfDetail.Full)
+                drawGraphicsContext(classNameFont, attributeFont, operationFont, abstractOperationFont, maxWidth, defaultClassHeight, attributeHeight, operationHeight, operationStartHeight);
+            else
+                drawSimplifiedGraphicsContext();
+        });
+    }
+
+    /**
+     * <p> クラス図キャンバスにおいてクラスを描画せずに、クラスの位置や大きさのみを計算します </p>
+     *
+     * <p>
+     * 描画に用いるフォントや各箇所の高さも計算し、 {@link #draw()} で用いるために保持します。
+     * {@link NodeDiagram#gc} を用いないため、キャンバスに表示していないクラスでも計算できます。
+     * </p>
+     */
+    @Override
+    public void layout() {
+        if (nodeText.length() <= 0) return;
+
         boolean isAbstractClass = false;
         for (ClassDiagramGraphic operation : operations) {
             if (((OperationGraphic) operation).isAbstract()) {
@@ -337,55 +389,66 @@ public class ClassNodeDiagram extends NodeDiagram {
             }
         }
 
-        Text classNameText = new Text(nodeText);
-        if (isAbstractClass) classNameText.setFont(Font.font(diagramFont, FontWeight.BOLD, FontPosture.ITALIC, classNameFontSize));
-        else classNameText.setFont(Font.font(diagramFont, FontWeight.BOLD, classNameFontSize));
-        umlClass = new Class(nodeText);
+        classNameFont = textMetrics.getFont(diagramFont, FontWeight.BOLD, isAbstractClass ? FontPosture.ITALIC : FontPosture.REGULAR, classNameFontSize);
+        attributeFont = textMetrics.getFont(diagramFont, FontWeight.LIGHT, FontPosture.REGULAR, classAttributeFontSize);
+        operationFont = textMetrics.getFont(diagramFont, FontWeight.LIGHT, FontPosture.REGULAR, classOperationFontSize);
+        abstractOperationFont = textMetrics.getFont(diagramFont, FontWeight.LIGHT, FontPosture.ITALIC, classOperationFontSize);
 
-        List<Text> attributesText = new ArrayList<>();
-        for (ClassDiagramGraphic attribute : attributes) {
-            Text text = new Text(attribute.getText());
-            text.setFont(Font.font(diagramFont, FontWeight.LIGHT, classAttributeFontSize));
-            attributesText.add(text);
-            umlClass.addAttribute(((AttributeGraphic) attribute).getAttribute());
+        double[] attributeWidths = new double[attributes.size()];
+        for (int i = 0; i < attributes.size(); i++) {
+            attributeWidths[i] = textMetrics.getWidth(attributes.get(i).getText(), attributeFont);
         }
 
-        List<Text> operationsText = new ArrayList<>();
-        for (ClassDiagramGraphic operation : operations) {
-            Text text = new Text(operation.getText());
-            if (((OperationGraphic) operation).isAbstract()) {
-                text.setFont(Font.font(diagramFont, FontWeight.LIGHT, FontPosture.ITALIC, classOperationFontSize));
-            } else {
-                text.setFont(Font.font(diagramFont, FontWeight.LIGHT, classOperationFontSize));
-            }
-            operationsText.add(text);
-            umlClass.addOperation((OperationGraphic) operation, ((OperationGraphic) operation).isAbstract());
+        double[] operationWidths = new double[operations.size()];
+        for (int i = 0; i < operations.size(); i++) {
+            Font font = ((OperationGraphic) operations.get(i)).isAbstract() ? abstractOperationFont : operationFont;
+            operationWidths[i] = textMetrics.getWidth(operations.get(i).getText(), font);
         }
 
-        double maxWidth = calculateMaxWidth(classNameText, attributesText, operationsText);
-        double classHeight = defaultClassHeight;
-        double attributeHeight = calculateMaxAttributeHeight(attributes);
-        double operationHeight = calculateMaxOperationHeight(operations);
-        double operationStartHeight = calculateStartOperationHeight(attributes);
+        maxWidth = calculateMaxWidth(textMetrics.getWidth(nodeText, classNameFont), attributeWidths, operationWidths);
+        attributeHeight = calculateMaxAttributeHeight(attributes);
+        operationHeight = calculateMaxOperationHeight(operations);
+        operationStartHeight = calculateStartOperationHeight(attributes);
+
+        calculateWidthAndHeight(maxWidth, defaultClassHeight + attributeHeight + operationHeight);
+    }
+
+    /**
+     * <p> クラス図キャンバスにおいてクラスを詳細度を下げて描画します </p>
+     *
+     * <p>
+     * 大きさは {@link LevelOfDetail#Full} の場合と同じ枠を描画し、属性と操作の区切り線やテキストは描画しません。
+     * {@link LevelOfDetail#NameOnly} の場合はクラス名のみを {@link LevelOfDetail#Full} の場合と同じ位置に描画し、 {@link LevelOfDetail#Outline} の場合は枠のみを描画します。
+     * </p>
+     */
+    private void drawSimplifiedGraphicsContext() {
+        gc.setFill(Color.BEIGE);
+        gc.fillRect(topLeftCorner.getX(), topLeftCorner.getY(), width, height);
+        gc.setStroke(isChosen ? Color.RED : Color.BLACK);
+        gc.strokeRect(topLeftCorner.getX(), topLeftCorner.getY(), width, height);
 
-        calculateWidthAndHeight(maxWidth, classHeight + attributeHeight + operationHeight);
+        if (levelOfDetail != LevelOfDetail.NameOnly) return;
 
-        drawGraphicsContext(classNameText, attributesText, operationsText, maxWidth, classHeight, attributeHeight, operationHeight, operationStartHeight);
+        gc.setFill(Color.BLACK);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setFont(classNameFont);
+        gc.fillText(nodeText, currentPoint.getX(), topLeftCorner.getY() + defaultClassHeight / 2);
     }
 
     /**
      * <p> クラス図キャンバスにおいてクラスを描画します </p>
      *
-     * @param classNameText        クラス名のテキスト
-     * @param attributesText       クラス属性のテキストのリスト
-     * @param operationsText       クラス操作のテキストのリスト
+     * @param classNameFont         クラス名のフォント
+     * @param attributeFont         クラス属性のフォント
+     * @param operationFont         クラス操作のフォント
+     * @param abstractOperationFont 抽象操作のフォント
      * @param maxWidth             最大幅
      * @param classHeight          クラス名の高さ
      * @param attributeHeight      クラス属性の高さ
      * @param operationHeight      クラス操作の高さ
      * @param operationStartHeight クラス捜査を最初に描画する高さ
      */
-    private void drawGraphicsContext(Text classNameText, List<Text> attributesText, List<Text> operationsText, double maxWidth, double classHeight, double attributeHeight, double operationHeight, double operationStartHeight) {
+    private void drawGraphicsContext(Font classNameFont, Font attributeFont, Font operationFont, Font abstractOperationFont, double maxWidth, double classHeight, double attributeHeight, double operationHeight, double operationStartHeight) {
         gc.setFill(Color.BEIGE);
         gc.fillRect(topLeftCorner.getX(), topLeftCorner.getY(), maxWidth, classHeight + attributeHeight + operationHeight);
 
@@ -400,17 +463,17 @@ public class ClassNodeDiagram extends NodeDiagram {
 
         gc.setFill(Color.BLACK);
         gc.setTextAlign(TextAlignment.CENTER);
-        gc.setFont(classNameText.getFont());
-        gc.fillText(classNameText.getText(), currentPoint.getX(), topLeftCorner.getY() + classHeight / 2);
+        gc.setFont(classNameFont);
+        gc.fillText(nodeText, currentPoint.getX(), topLeftCorner.getY() + classHeight / 2);
 
-        if (attributesText.size() > 0) {
+        if (attributes.size() > 0) {
             gc.setTextAlign(TextAlignment.LEFT);
-            gc.setFont(attributesText.get(0).getFont());
+            gc.setFont(attributeFont);
             int notDrawAttributeCount = 0;
             boolean isExistedNoIndication = false;
-            for (int i = 0; i < attributesText.size(); i++) {
+            for (int i = 0; i < attributes.size(); i++) {
                 if (attributes.get(i).isIndicate()) {
-                    gc.fillText(attributesText.get(i).getText(),
+                    gc.fillText(attributes.get(i).getText(),
                             topLeftCorner.getX() + leftSpace, topLeftCorner.getY() + classHeight + 15.0 + (defaultAttributeHeight * (i - notDrawAttributeCount)));
                 } else {
                     notDrawAttributeCount++;
@@ -420,18 +483,18 @@ public class ClassNodeDiagram extends NodeDiagram {
             if (isExistedNoIndication) {
                 gc.setTextAlign(TextAlignment.CENTER);
                 gc.fillText("... " + attributeNotVisibilityCount + " more",
-                        currentPoint.getX(), topLeftCorner.getY() + classHeight + 15.0 + (defaultAttributeHeight * (attributesText.size() - attributeNotVisibilityCount)));
+                        currentPoint.getX(), topLeftCorner.getY() + classHeight + 15.0 + (defaultAttributeHeight * (attributes.size() - attributeNotVisibilityCount)));
             }
         }
 
-        if (operationsText.size() > 0) {
+        if (operations.size() > 0) {
             gc.setTextAlign(TextAlignment.LEFT);
             int notDrawOperationCount = 0;
             boolean isExistedNoIndication = false;
-            for (int i = 0; i < operationsText.size(); i++) {
-                gc.setFont(operationsText.get(i).getFont());
+            for (int i = 0; i < operations.size(); i++) {
+                gc.setFont(((OperationGraphic) operations.get(i)).isAbstract() ? abstractOperationFont : operationFont);
                 if (operations.get(i).isIndicate()) {
-                    gc.fillText(operationsText.get(i).getText(),
+                    gc.fillText(operations.get(i).getText(),
                             topLeftCorner.getX() + leftSpace, topLeftCorner.getY() + classHeight + 15.0 + (defaultOperationHeight * (i - notDrawOperationCount)) + operationStartHeight);
                 } else {
                     notDrawOperationCount++;
@@ -441,7 +504,7 @@ public class ClassNodeDiagram extends NodeDiagram {
             if (isExistedNoIndication) {
                 gc.setTextAlign(TextAlignment.CENTER);
                 gc.fillText("... " + operationNotVisibilityCount + " more",
-                        currentPoint.getX(), topLeftCorner.getY() + classHeight + 15.0 + (defaultOperationHeight * (operationsText.size() - operationNotVisibilityCount)) + operationStartHeight);
+                        currentPoint.getX(), topLeftCorner.getY() + classHeight + 15.0 + (defaultOperationHeight * (operations.size() - operationNotVisibilityCount)) + operationStartHeight);
             }
         }
     }
@@ -464,32 +527,37 @@ public class ClassNodeDiagram extends NodeDiagram {
      * @return 最大幅
      */
     public double calculateMaxWidth(Text text, List<Text> attributesText, List<Text> operationsText) {
-        double width = defaultWidth - classNameSpace;
+        double[] attributeWidths = new double[attributesText.size()];
+        for (int i = 0; i < attributesText.size(); i++) attributeWidths[i] = attributesText.get(i).getLayoutBounds().getWidth();
+        double[] operationWidths = new double[operationsText.size()];
+        for (int i = 0; i < operationsText.size(); i++) operationWidths[i] = operationsText.get(i).getLayoutBounds().getWidth();
+
+        return calculateMaxWidth(text.getLayoutBounds().getWidth(), attributeWidths, operationWidths);
+    }
 
-        List<Double> classAttributes = new ArrayList<>();
-        classAttributes.add(0.0);
-        for (int i = 0; i < attributesText.size(); i++) {
-            if (attributes.get(i).isIndicate())
-                classAttributes.add(attributesText.get(i).getLayoutBounds().getWidth());
+    /**
+     * <p> 測定済みのテキストの幅からクラス図キャンバスにおいて描画するクラスの最大幅を算出します </p>
+     *
+     * <p>
+     * 非表示のクラス属性とクラス操作の幅は考慮しません。
+     * </p>
+     *
+     * @param classNameWidth  クラス名の幅
+     * @param attributeWidths クラス属性の幅の配列
+     * @param operationWidths クラス操作の幅の配列
+     * @return 最大幅
+     */
+    private double calculateMaxWidth(double classNameWidth, double[] attributeWidths, double[] operationWidths) {
+        double maxTextWidth = classNameWidth;
+        for (int i = 0; i < attributeWidths.length; i++) {
+            if (attributes.get(i).isIndicate()) maxTextWidth = Math.max(maxTextWidth, attributeWidths[i]);
         }
-        List<Double> classOperations = new ArrayList<>();
-        classOperations.add(0.0);
-        for (int i = 0; i < operationsText.size(); i++) {
-            if (operations.get(i).isIndicate())
-                classOperations.add(operationsText.get(i).getLayoutBounds().getWidth());
+        for (int i = 0; i < operationWidths.length; i++) {
+            if (operations.get(i).isIndicate()) maxTextWidth = Math.max(maxTextWidth, operationWidths[i]);
         }
 
-        classAttributes.sort(Comparator.reverseOrder());
-        classOperations.sort(Comparator.reverseOrder());
-
-        List<Double> classWidth = Arrays.asList(text.getLayoutBounds().getWidth(), classAttributes.get(0), classOperations.get(0));
-
-        classWidth.sort(Comparator.reverseOrder());
-
-        if (width < classWidth.get(0)) width = classWidth.get(0) + classNameSpace;
-        else width = defaultWidth;
-
-        return width;
+        if (defaultWidth - classNameSpace < maxTextWidth) return maxTextWidth + classNameSpace;
+        else return defaultWidth;
     }
 
     /**
@@ -599,7 +667,7 @@ public class ClassNodeDiagram extends NodeDiagram {
      * <p> クラスの高さと幅を計算します </p>
      *
      * <p>
-     * 同時に、クラスの左上角のポイントとクラスの右下角のポイントを計算します。
+     * 同時に、クラスの左上角のポイントとクラスの右下角のポイントを計算し、 {@link #notifyBoundsChanged()} で通知します。
      * </p>
      *
      * @param maxWidth  クラスの最大幅
@@ -610,6 +678,7 @@ public class ClassNodeDiagram extends NodeDiagram {
         calculateBottomRightCorner(currentPoint, maxWidth, maxHeight);
         width = bottomRightCorner.subtract(topLeftCorner).getX();
         height = bottomRightCorner.subtract(topLeftCorner).getY();
+        notifyBoundsChanged();
     }
 
     /**
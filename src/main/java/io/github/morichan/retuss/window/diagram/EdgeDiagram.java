@@ -6,8 +6,10 @@ import io.github.morichan.fescue.feature.value.expression.OneIdentifier;
 import io.github.morichan.fescue.feature.visibility.Visibility;
 import io.github.morichan.retuss.window.ClassDiagramDrawer;
 import io.github.morichan.retuss.window.MainController;
+import io.github.morichan.retuss.window.utility.SpatialGridIndex;
 import io.github.morichan.retuss.window.utility.UtilityJavaFXComponent;
 import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
@@ -22,11 +24,25 @@ import java.util.regex.Pattern;
 
 /**
  * <p> クラス図に関するエッジクラス </p>
+ *
+ * <p>
+ * 当たり判定に用いる関係の四角形は関係の座標を設定した時に計算して保持し、その外接矩形を {@link SpatialGridIndex} に登録します。
+ * そのため、任意のポイントにおける関係の探索では全ての関係を調べる必要はありません。
+ * </p>
+ *
+ * <p>
+ * {@link #setEdgeRoute(int, List)} で経路を設定した関係は、関係元と関係先を直線ではなく経路の点を順に結ぶ折れ線で描画します。
+ * 経路は設定し直すか {@link #clearEdgeRoutes()} で削除するまで保持するため、ノードが動いていない限り計算し直す必要はありません。
+ * </p>
  */
 public class EdgeDiagram {
     GraphicsContext gc;
     private List<RelationshipAttributeGraphic> relations = new ArrayList<>();
+    private List<List<List<Point2D>>> edgePolygons = new ArrayList<>();
+    private List<List<Point2D>> edgeRoutes = new ArrayList<>();
+    private SpatialGridIndex edgeIndex = new SpatialGridIndex();
     private boolean hasRelationSourceNodeSelected = false;
+    private LevelOfDetail levelOfDetail = LevelOfDetail.Full;
     private UtilityJavaFXComponent util = new UtilityJavaFXComponent();
 
     /**
@@ -42,6 +58,19 @@ public class EdgeDiagram {
         this.gc = gc;
     }
 
+    /**
+     * <p> 関係を描画する詳細度を設定します </p>
+     *
+     * <p>
+     * {@link LevelOfDetail#Full} 以外の場合は、関係の内容のテキストを描画しません。
+     * </p>
+     *
+     * @param levelOfDetail 描画の詳細度
+     */
+    public void setLevelOfDetail(LevelOfDetail levelOfDetail) {
+        this.levelOfDetail = levelOfDetail;
+    }
+
     /**
      * <p> 関係を生成します </p>
      *
@@ -52,6 +81,9 @@ public class EdgeDiagram {
         if (text.length() > 0 || type == ContentType.Generalization) {
             relations.add(new RelationshipAttributeGraphic(text));
             relations.get(relations.size() - 1).setType(type);
+            edgePolygons.add(null);
+            edgeRoutes.add(null);
+            updateEdgeIndex(relations.size() - 1);
         }
     }
 
@@ -70,10 +102,13 @@ public class EdgeDiagram {
 
     public void deleteEdge() {
         relations.clear();
+        edgePolygons.clear();
+        edgeRoutes.clear();
+        edgeIndex.clear();
     }
 
     public void deleteEdge(int index) {
-        relations.remove(index);
+        removeRelation(index);
     }
 
     /**
@@ -83,7 +118,7 @@ public class EdgeDiagram {
      * @param number 削除する関係の番号 <br> ここにおける番号とは、生成した順番を表します。
      */
     public void deleteEdgeText(ContentType type, int number) {
-        relations.remove(number);
+        removeRelation(number);
     }
 
     /**
@@ -157,6 +192,7 @@ public class EdgeDiagram {
      */
     public void setRelationPoint(ContentType type, int number, Point2D point) {
         relations.get(number).setRelationPoint(point);
+        updateEdgeIndex(number);
     }
 
     /**
@@ -179,6 +215,7 @@ public class EdgeDiagram {
      */
     public void setRelationSourcePoint(ContentType type, int number, Point2D point) {
         relations.get(number).setRelationSourcePoint(point);
+        updateEdgeIndex(number);
     }
 
     /**
@@ -192,6 +229,43 @@ public class EdgeDiagram {
         return relations.get(number).getRelationSourcePoint();
     }
 
+    /**
+     * <p> 関係を描画する経路を設定します </p>
+     *
+     * <p>
+     * 経路は関係元の辺上の点から関係先の辺上の点までの、曲がる点を含む点のリストです。
+     * 当たり判定に用いる四角形も経路の線分ごとに計算し直します。
+     * </p>
+     *
+     * @param number 設定する関係の番号 ここにおける番号とは、生成した順番を表す。
+     * @param route  関係元から関係先までの経路の点のリスト <br> {@code null} または2点未満の場合は経路を削除し、関係元と関係先を直線で結びます。
+     */
+    public void setEdgeRoute(int number, List<Point2D> route) {
+        edgeRoutes.set(number, route != null && route.size() >= 2 ? new ArrayList<>(route) : null);
+        updateEdgeIndex(number);
+    }
+
+    /**
+     * <p> 関係を描画する経路を取得します </p>
+     *
+     * @param number 取得する関係の番号 ここにおける番号とは、生成した順番を表す。
+     * @return 関係元から関係先までの経路の点のリスト <br> 経路を設定していない場合は {@code null} を返します。
+     */
+    public List<Point2D> getEdgeRoute(int number) {
+        return edgeRoutes.get(number);
+    }
+
+    /**
+     * <p> 全ての関係の経路を削除し、関係元と関係先を直線で結ぶように戻します </p>
+     */
+    public void clearEdgeRoutes() {
+        for (int i = 0; i < edgeRoutes.size(); i++) {
+            if (edgeRoutes.get(i) == null) continue;
+            edgeRoutes.set(i, null);
+            updateEdgeIndex(i);
+        }
+    }
+
     /**
      * 関係の種類を取得する。
      *
@@ -258,7 +332,7 @@ public class EdgeDiagram {
         // 最後に設定した汎化関係は無視
         for (int i = 0; i < relations.size() - 1; i++) {
             if (relations.get(i).getType() == ContentType.Generalization && relations.get(i).getRelationSourceId() == id) {
-                relations.remove(i);
+                removeRelation(i);
                 i--;
             }
         }
@@ -289,17 +363,19 @@ public class EdgeDiagram {
      * クラス図キャンバスにおける任意のポイントに描画している関係の番号を探索する。
      * 重なって描画している箇所を設定した場合は、一番上（最後）に描画した関係の番号を返す。
      * ここにおける番号とは、生成した順番を表す。
+     * 調べるのは {@link SpatialGridIndex} で外接矩形が任意のポイントを含むと分かった関係のみである。
      *
      * @param mousePoint クラス図キャンバスにおける任意のポイント
      * @return 関係の番号
      */
     public int searchCurrentRelationNumber(Point2D mousePoint) {
         int number = -1;
+        int[] candidates = edgeIndex.search(mousePoint.getX(), mousePoint.getY());
 
         // 重なっているエッジの内1番上に描画しているエッジはcompositionsリストの1番後半に存在するため、1番上に描画しているエッジを取るためには尻尾から見なければならない。
-        for (int i = relations.size() - 1; i >= 0; i--) {
-            if (isAlreadyDrawnAnyEdge(relations.get(i).getType(), i, mousePoint)) {
-                number = i;
+        for (int i = candidates.length - 1; i >= 0; i--) {
+            if (isAlreadyDrawnAnyEdge(relations.get(candidates[i]).getType(), candidates[i], mousePoint)) {
+                number = candidates[i];
                 break;
             }
         }
@@ -317,11 +393,10 @@ public class EdgeDiagram {
      */
     public boolean isAlreadyDrawnAnyEdge(ContentType type, int number, Point2D mousePoint) {
         boolean isAlreadyDrawnAnyEdge = false;
-        Point2D relationPoint = relations.get(number).getRelationPoint();
-        Point2D relationSourcePoint = relations.get(number).getRelationSourcePoint();
 
-        List<Point2D> edgePolygon = createOneEdgeQuadrangleWithMargin(getRelationMarginLength(ContentType.Composition), relationPoint, relationSourcePoint);
-        if (util.isInsidePointFromPolygonUsingWNA(edgePolygon, mousePoint)) isAlreadyDrawnAnyEdge = true;
+        for (List<Point2D> edgePolygon : edgePolygons.get(number)) {
+            if (util.isInsidePointFromPolygonUsingWNA(edgePolygon, mousePoint)) isAlreadyDrawnAnyEdge = true;
+        }
 
         return isAlreadyDrawnAnyEdge;
     }
@@ -394,6 +469,7 @@ public class EdgeDiagram {
     /**
      * 任意の番号の関係を描画する。
      * 描画する前に、関係先と関係元のノードの幅および高さから、関係先および関係元と関係のぶつかる交点を取得する。
+     * 経路を設定している場合は交点を計算せずに、経路の点を順に結ぶ。
      *
      * @param relationWidth        関係先のノードの幅
      * @param relationHeight       関係先のノードの高さ
@@ -402,12 +478,17 @@ public class EdgeDiagram {
      * @param number               描画する関係の番号 ここにおける番号とは、生成した順番を表す。
      */
     public void draw(double relationWidth, double relationHeight, double relationSourceWidth, double relationSourceHeight, int number) {
+        if (edgeRoutes.get(number) != null) {
+            drawEdge(edgeRoutes.get(number), number);
+            return;
+        }
+
         Point2D relationPoint = getRelationPoint(ContentType.Composition, number);
         Point2D relationSourcePoint = getRelationSourcePoint(ContentType.Composition, number);
         Point2D relationIntersectPoint = calculateIntersectionPointLineAndEndNodeSide(relationSourcePoint, relationPoint, relationWidth, relationHeight);
         Point2D relationSourceIntersectPoint = calculateIntersectionPointLineAndEndNodeSide(relationPoint, relationSourcePoint, relationSourceWidth, relationSourceHeight);
 
-        drawEdge(relationIntersectPoint, relationSourceIntersectPoint, number);
+        drawEdge(Arrays.asList(relationSourceIntersectPoint, relationIntersectPoint), number);
     }
 
     /**
@@ -416,21 +497,22 @@ public class EdgeDiagram {
      * <p>
      * 描画する順番を次に示す。
      * <ol>
-     * <li> 関係の直線 </li>
+     * <li> 関係の直線（経路の場合は線分ごと） </li>
      * <li> 関係の先端 </li>
-     * <li> 関係の内容のテキスト </li>
+     * <li> 関係の内容のテキスト（詳細度が {@link LevelOfDetail#Full} の場合のみ） </li>
      * </ol>
      * </p>
      *
-     * @param relationIntersectPoint       関係先と関係のぶつかる交点
-     * @param relationSourceIntersectPoint 関係元と関係のぶつかる交点
-     * @param number                       描画する関係の番号 ここにおける番号とは、生成した順番を表す。
+     * @param points 関係元と関係のぶつかる交点から関係先と関係のぶつかる交点までの点のリスト
+     * @param number 描画する関係の番号 ここにおける番号とは、生成した順番を表す。
      */
-    private void drawEdge(Point2D relationIntersectPoint, Point2D relationSourceIntersectPoint, int number) {
+    private void drawEdge(List<Point2D> points, int number) {
         try {
-            drawLine(relationIntersectPoint, relationSourceIntersectPoint);
-            drawEdgeUmbrella(relationIntersectPoint, relationSourceIntersectPoint, number);
-            drawEdgeName(relationIntersectPoint, relationSourceIntersectPoint, number);
+            Point2D relationIntersectPoint = points.get(points.size() - 1);
+            Point2D beforeRelationIntersectPoint = points.get(points.size() - 2);
+            for (int i = 0; i + 1 < points.size(); i++) drawLine(points.get(i + 1), points.get(i));
+            drawEdgeUmbrella(points, number);
+            if (levelOfDetail == LevelOfDetail.Full) drawEdgeName(relationIntersectPoint, beforeRelationIntersectPoint, number);
         } catch (NullPointerException e) {
             // クラスとクラスの間が重なっている場合何もしない
         }
@@ -451,19 +533,23 @@ public class EdgeDiagram {
      * 任意の番号の関係の先端を描画する。
      * 関係の種類によって描画する先端の種類が変わる。
      * また、複数描画すること場合がある。
+     * 先端の向きは、関係先側は最後の線分、関係元側は最初の線分に合わせる。
      *
-     * @param relationIntersectPoint       関係先と関係のぶつかる交点
-     * @param relationSourceIntersectPoint 関係元と関係のぶつかる交点
-     * @param number                       描画する関係の番号 ここにおける番号とは、生成した順番を表す。
+     * @param points 関係元と関係のぶつかる交点から関係先と関係のぶつかる交点までの点のリスト
+     * @param number 描画する関係の番号 ここにおける番号とは、生成した順番を表す。
      */
-    private void drawEdgeUmbrella(Point2D relationIntersectPoint, Point2D relationSourceIntersectPoint, int number) {
+    private void drawEdgeUmbrella(List<Point2D> points, int number) {
         ContentType type = getContentType(number);
+        Point2D relationIntersectPoint = points.get(points.size() - 1);
+        Point2D beforeRelationIntersectPoint = points.get(points.size() - 2);
+        Point2D relationSourceIntersectPoint = points.get(0);
+        Point2D afterRelationSourceIntersectPoint = points.get(1);
 
         if (type == ContentType.Composition) {
-            drawEdgeNavigation(relationIntersectPoint, relationSourceIntersectPoint);
-            drawEdgeComposition(relationIntersectPoint, relationSourceIntersectPoint);
+            drawEdgeNavigation(relationIntersectPoint, beforeRelationIntersectPoint);
+            drawEdgeComposition(afterRelationSourceIntersectPoint, relationSourceIntersectPoint);
         } else if (type == ContentType.Generalization) {
-            drawEdgeGeneralization(relationIntersectPoint, relationSourceIntersectPoint);
+            drawEdgeGeneralization(relationIntersectPoint, beforeRelationIntersectPoint);
         }
     }
 
@@ -645,6 +731,90 @@ public class EdgeDiagram {
         return length * Math.sin(Math.toRadians(angle)) + actualY;
     }
 
+    /**
+     * <p> 任意の番号の関係を描画する領域を算出する。 </p>
+     *
+     * <p>
+     * 関係先と関係元のポイント（経路を設定している場合は経路の点も）を囲む矩形を、矢印や菱形の大きさと関係の内容のテキストの幅の分だけ広げた矩形である。
+     * テキストの幅は1文字あたりの幅から大きめに見積もるため、実際に描画する領域よりも広い。
+     * 部分的に再描画する際に用いる。
+     * </p>
+     *
+     * @param number 関係の番号 ここにおける番号とは、生成した順番を表す。
+     * @return 関係を描画する領域
+     */
+    public Rectangle2D calculateEdgeBounds(int number) {
+        Point2D relationPoint = relations.get(number).getRelationPoint();
+        Point2D relationSourcePoint = relations.get(number).getRelationSourcePoint();
+        double margin = 60.0;
+        double textWidth = relations.get(number).getText().length() * 10.0;
+
+        double minX = Math.min(relationPoint.getX(), relationSourcePoint.getX());
+        double minY = Math.min(relationPoint.getY(), relationSourcePoint.getY());
+        double maxX = Math.max(relationPoint.getX(), relationSourcePoint.getX());
+        double maxY = Math.max(relationPoint.getY(), relationSourcePoint.getY());
+        if (edgeRoutes.get(number) != null) {
+            for (Point2D point : edgeRoutes.get(number)) {
+                minX = Math.min(minX, point.getX());
+                minY = Math.min(minY, point.getY());
+                maxX = Math.max(maxX, point.getX());
+                maxY = Math.max(maxY, point.getY());
+            }
+        }
+        minX -= margin;
+        minY -= margin;
+        maxX += margin + textWidth;
+        maxY += margin;
+
+        return new Rectangle2D(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * 任意の番号の関係の四角形を計算し直し、その外接矩形を {@link SpatialGridIndex} に登録し直す。
+     * 経路を設定している場合は、経路の線分ごとに四角形を計算する。
+     *
+     * @param number 関係の番号 ここにおける番号とは、生成した順番を表す。
+     */
+    private void updateEdgeIndex(int number) {
+        RelationshipAttributeGraphic relation = relations.get(number);
+        List<List<Point2D>> polygons = new ArrayList<>();
+        List<Point2D> route = edgeRoutes.get(number);
+        if (route == null) {
+            polygons.add(createOneEdgeQuadrangleWithMargin(getRelationMarginLength(ContentType.Composition), relation.getRelationPoint(), relation.getRelationSourcePoint()));
+        } else {
+            for (int i = 0; i + 1 < route.size(); i++) {
+                polygons.add(createOneEdgeQuadrangleWithMargin(getRelationMarginLength(ContentType.Composition), route.get(i + 1), route.get(i)));
+            }
+        }
+        edgePolygons.set(number, polygons);
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (List<Point2D> edgePolygon : polygons) {
+            for (Point2D point : edgePolygon) {
+                minX = Math.min(minX, point.getX());
+                minY = Math.min(minY, point.getY());
+                maxX = Math.max(maxX, point.getX());
+                maxY = Math.max(maxY, point.getY());
+            }
+        }
+        edgeIndex.put(number, minX, minY, maxX, maxY);
+    }
+
+    /**
+     * 任意の番号の関係を削除し、 {@link SpatialGridIndex} における後ろの関係の番号を詰める。
+     *
+     * @param number 関係の番号 ここにおける番号とは、生成した順番を表す。
+     */
+    private void removeRelation(int number) {
+        relations.remove(number);
+        edgePolygons.remove(number);
+        edgeRoutes.remove(number);
+        edgeIndex.removeAndShift(number);
+    }
+
     /**
      * {@link #createOneEdgeQuadrangleWithMargin(double, Point2D, Point2D)} において、関係からの距離を取得する。
      *
@@ -0,0 +1,24 @@
+package io.github.morichan.retuss.window.diagram;
+
+/**
+ * <p> クラス図キャンバスにおける描画の詳細度の列挙型 </p>
+ *
+ * <p>
+ *     縮小して表示している場合に、読めない文字を描画しないように詳細度を下げます。
+ *     詳細度を下げてもノードの位置や大きさは変わらないため、当たり判定は変わりません。
+ * </p>
+ */
+public enum LevelOfDetail {
+    /**
+     * クラスの属性と操作、関係の内容のテキストを含む全てを描画する
+     */
+    Full,
+    /**
+     * クラスはクラス名のみ、関係は線と先端のみを描画する
+     */
+    NameOnly,
+    /**
+     * クラスは枠のみ、関係は線と先端のみを描画する
+     */
+    Outline
+}
@@ -3,7 +3,11 @@ package io.github.morichan.retuss.window.diagram;
 import io.github.morichan.retuss.window.ClassDiagramDrawer;
 import io.github.morichan.retuss.window.MainController;
 import javafx.geometry.Point2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
 
 import java.util.List;
 
@@ -19,10 +23,24 @@ abstract public class NodeDiagram {
     protected String nodeText = "";
     protected String diagramFont = "Consolas";
     protected boolean isChosen = false;
+    protected LevelOfDetail levelOfDetail = LevelOfDetail.Full;
 
     protected double width = 0.0;
     protected double height = 0.0;
 
+    private Runnable onBoundsChanged = null;
+
+    /**
+     * <p> 描画結果の画像の周囲に確保する余白 </p>
+     *
+     * <p>
+     * 外枠の線の太さの分だけ画像からはみ出さないようにしています。
+     * </p>
+     */
+    private static final double imagePadding = 2.0;
+    private boolean isImageCacheEnabled = false;
+    private WritableImage cachedImage = null;
+
     /**
      * <p> クラス図キャンバスにおける任意のポイントに、このノードを描画しているか否かの真偽値を取得します </p>
      *
@@ -144,6 +162,18 @@ abstract public class NodeDiagram {
      */
     abstract public void draw();
 
+    /**
+     * <p> クラス図キャンバスにおいてノードを描画せずに、位置や大きさのみを計算します </p>
+     *
+     * <p>
+     *     位置や大きさが変わった場合は {@link #notifyBoundsChanged()} で通知します。
+     *     大きさを持たないノードでは通知のみを行います。
+     * </p>
+     */
+    public void layout() {
+        notifyBoundsChanged();
+    }
+
     NodeDiagram() {
         nodeId = nodeCount;
         nodeCount++;
@@ -240,4 +270,127 @@ abstract public class NodeDiagram {
     public double getHeight() {
         return height;
     }
+
+    /**
+     * <p> ノードを描画する位置や大きさが変わった際に呼び出す処理を設定します </p>
+     *
+     * <p>
+     *     {@link ClassDiagramDrawer} が当たり判定に用いる外接矩形を更新するために設定します。
+     * </p>
+     *
+     * @param onBoundsChanged 呼び出す処理 <br> {@code null} の場合は何も呼び出しません。
+     */
+    public void setOnBoundsChanged(Runnable onBoundsChanged) {
+        this.onBoundsChanged = onBoundsChanged;
+    }
+
+    /**
+     * <p> ノードを描画する位置や大きさが変わったことを通知します </p>
+     */
+    protected void notifyBoundsChanged() {
+        if (onBoundsChanged != null) onBoundsChanged.run();
+    }
+
+    /**
+     * <p> 描画結果を画像として記憶して使い回すか否かを設定します </p>
+     *
+     * <p>
+     *     真の場合、ノードの内容や選択状態が変わるまでは、記憶した画像を {@link GraphicsContext#drawImage(javafx.scene.image.Image, double, double)} で貼り付けるだけで描画します。
+     *     画像は等倍で記憶するため、キャンバスを拡大して表示する場合は偽にしてください。
+     * </p>
+     *
+     * @param isImageCacheEnabled 描画結果を画像として記憶するか否かの真偽値
+     */
+    public void setImageCacheEnabled(boolean isImageCacheEnabled) {
+        this.isImageCacheEnabled = isImageCacheEnabled;
+        cachedImage = null;
+    }
+
+    /**
+     * <p> ノードを描画する詳細度を設定します </p>
+     *
+     * <p>
+     *     詳細度が変わった場合は、記憶している描画結果の画像を破棄します。
+     * </p>
+     *
+     * @param levelOfDetail 描画の詳細度
+     */
+    public void setLevelOfDetail(LevelOfDetail levelOfDetail) {
+        if (this.levelOfDetail != levelOfDetail) invalidateImage();
+        this.levelOfDetail = levelOfDetail;
+    }
+
+    /**
+     * <p> ノードを描画する詳細度を取得します </p>
+     *
+     * @return 描画の詳細度
+     */
+    public LevelOfDetail getLevelOfDetail() {
+        return levelOfDetail;
+    }
+
+    /**
+     * <p> 描画結果を画像として記憶しているか否かを取得します </p>
+     *
+     * <p>
+     *     テストコードで主に用います。
+     * </p>
+     *
+     * @return 描画結果の画像を記憶しているか否かの真偽値
+     */
+    boolean hasCachedImage() {
+        return cachedImage != null;
+    }
+
+    /**
+     * <p> 記憶している描画結果の画像を破棄します </p>
+     *
+     * <p>
+     *     ノードの内容や選択状態といった見た目が変わった場合に呼び出してください。
+     * </p>
+     */
+    protected void invalidateImage() {
+        cachedImage = null;
+    }
+
+    /**
+     * <p> 描画結果の画像を使い回してノードを描画します </p>
+     *
+     * <p>
+     *     画像を記憶していない場合は、キャンバスに表示しない別のキャンバスへ {@code painter} で描画し、その結果を画像として記憶します。
+     *     {@code painter} は {@link #gc} に絶対座標で描画する処理であり、別のキャンバスに描画する間は {@link #gc} を差し替えます。
+     *     画像は左上角からの相対位置で記憶するため、ノードを移動しても使い回せます。
+     *     {@link #setImageCacheEnabled(boolean)} が偽の場合は {@code painter} をそのまま実行します。
+     * </p>
+     *
+     * @param minX    ノードの左端のX軸
+     * @param minY    ノードの上端のY軸
+     * @param width   ノードの幅
+     * @param height  ノードの高さ
+     * @param painter ノードを描画する処理
+     */
+    protected void drawWithImageCache(double minX, double minY, double width, double height, Runnable painter) {
+        if (!isImageCacheEnabled || width <= 0.0 || height <= 0.0) {
+            painter.run();
+            return;
+        }
+
+        if (cachedImage == null) {
+            Canvas canvas = new Canvas(Math.ceil(width + imagePadding * 2), Math.ceil(height + imagePadding * 2));
+            GraphicsContext canvasGraphicsContext = gc;
+            gc = canvas.getGraphicsContext2D();
+            gc.translate(imagePadding - minX, imagePadding - minY);
+            try {
+                painter.run();
+            } finally {
+                gc = canvasGraphicsContext;
+            }
+
+            SnapshotParameters parameters = new SnapshotParameters();
+            parameters.setFill(Color.TRANSPARENT);
+            cachedImage = canvas.snapshot(parameters, null);
+        }
+
+        gc.drawImage(cachedImage, minX - imagePadding, minY - imagePadding);
+    }
 }
@@ -48,6 +48,7 @@ public class NoteNodeDiagram extends NodeDiagram {
     @Override
     public void draw() {
         gc.fillText("noteOfCD", currentPoint.getX(), currentPoint.getY());
+        notifyBoundsChanged();
     }
 
     @Override
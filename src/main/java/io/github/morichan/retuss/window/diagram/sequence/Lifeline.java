@@ -126,6 +126,10 @@ public class Lifeline {
         this.instance = instance;
     }
 
+    public String getInstance() {
+        return instance;
+    }
+
     public void calculatePoint() {
         lifelineNameText = instance == null
                 ? new Text(": " + umlClass.getName())
@@ -11,6 +11,7 @@ import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -76,6 +77,10 @@ public class MessageOccurrenceSpecification {
         return instanceMap.get(key);
     }
 
+    public Map<Integer, String> getInstances() {
+        return Collections.unmodifiableMap(instanceMap);
+    }
+
     public void setValue(String value) {
         this.value = value;
     }
@@ -0,0 +1,420 @@
+package io.github.morichan.retuss.window.utility;
+
+import javafx.geometry.Point2D;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * <p> 力学モデル（Fruchterman-Reingold法）によるノードの配置クラス </p>
+ *
+ * <p>
+ * 全てのノード同士に斥力を、辺で繋がったノード同士に引力を働かせ、力の釣り合う位置にノードを動かすことを繰り返します。
+ * 1回の繰返しごとに上限（温度）を下げながら移動するため、繰返しを重ねるほど配置が落ち着きます。
+ * 階層の無いコンポジションの多いクラス図を {@link LayeredGraphLayout} で配置すると層が深く横長になるため、その代わりに用います。
+ * </p>
+ *
+ * <p>
+ * 斥力はBarnes-Hut法で近似します。
+ * 繰返しごとに全てのノードを四分木に入れ、遠くのセル（セルの一辺をノードとセルの重心との距離で割った値が {@link #getTheta()} 未満のセル）はセルの重心に質量が集まっているとみなすため、
+ * 1回の繰返しはノードの数を {@code n} として {@code O(n log n)} で計算します。
+ * ノードの数が {@link #parallelThreshold} 以上の場合は、ノードごとの斥力を複数のスレッドで並列に計算します。
+ * </p>
+ *
+ * <p>
+ * 計算はノードの番号と辺のみで行い、JavaFXのノードには触れないため、JavaFXアプリケーションスレッド以外から呼び出せます。
+ * インスタンスは状態を持たないため、複数のスレッドから同時に呼び出しても構いません。
+ * </p>
+ */
+public class ForceDirectedLayout {
+
+    /**
+     * <p> 既定の辺で繋がったノード同士の理想的な距離 </p>
+     */
+    public static final double DEFAULT_EDGE_LENGTH = 250.0;
+
+    /**
+     * <p> 既定のBarnes-Hut法における近似の閾値 </p>
+     */
+    public static final double DEFAULT_THETA = 0.8;
+
+    /**
+     * <p> 既定の繰返しの回数 </p>
+     */
+    public static final int DEFAULT_ITERATIONS = 200;
+
+    /**
+     * <p> 配置する全てのノードの中心点の最小の座標 </p>
+     */
+    private static final double origin = 50.0;
+
+    /**
+     * <p> 斥力を並列に計算するノードの数の下限 </p>
+     */
+    private static final int parallelThreshold = 512;
+
+    /**
+     * <p> 四分木の深さの上限 </p>
+     *
+     * <p>
+     * 同じ座標のノードが複数ある場合でも分割が止まるように、これ以上深いセルには複数のノードをまとめて入れます。
+     * </p>
+     */
+    private static final int maxTreeDepth = 24;
+
+    /**
+     * <p> 全てのノードの重心に引き寄せる力の強さ </p>
+     *
+     * <p>
+     * 繋がっていないノードの集まり同士が斥力で際限なく離れないように、重心からの距離に比例する力で引き寄せます。
+     * </p>
+     */
+    private static final double gravity = 0.05;
+
+    /**
+     * <p> 引力に対する斥力の強さ </p>
+     *
+     * <p>
+     * Fruchterman-Reingold法のままの強さでは、ノードが多いと斥力の総和が大きくなり過ぎて辺が理想的な距離より長く伸びるため、弱めます。
+     * </p>
+     */
+    private static final double repulsionStrength = 0.2;
+
+    private final double edgeLength;
+    private final double theta;
+
+    /**
+     * <p> 既定の距離と閾値で配置するインスタンスを生成します。 </p>
+     */
+    public ForceDirectedLayout() {
+        this(DEFAULT_EDGE_LENGTH, DEFAULT_THETA);
+    }
+
+    /**
+     * <p> 距離と閾値を指定して配置するインスタンスを生成します。 </p>
+     *
+     * @param edgeLength 辺で繋がったノード同士の理想的な距離 <br> 0以下の場合は {@link IllegalArgumentException} を投げます。
+     * @param theta      Barnes-Hut法における近似の閾値 <br> 0の場合は近似せずに全てのノード同士の斥力を計算します。負の場合は {@link IllegalArgumentException} を投げます。
+     */
+    public ForceDirectedLayout(double edgeLength, double theta) {
+        if (!(edgeLength > 0.0) || !(theta >= 0.0)) throw new IllegalArgumentException();
+        this.edgeLength = edgeLength;
+        this.theta = theta;
+    }
+
+    /**
+     * <p> Barnes-Hut法における近似の閾値を取得します。 </p>
+     *
+     * @return 近似の閾値
+     */
+    public double getTheta() {
+        return theta;
+    }
+
+    /**
+     * <p> 全てのノードを既定の回数だけ繰り返して配置します。 </p>
+     *
+     * @param nodeCount ノードの数 <br> ノードの番号は0から {@code nodeCount - 1} までとします。
+     * @param edges     {関係元のノード番号, 関係先のノード番号} の辺のリスト
+     * @param initial   ノード番号ごとの初期の中心点の座標の配列 <br> {@code null} の場合や要素が {@code null} の場合は円周上に並べた座標から始めます。
+     * @return ノード番号ごとの中心点の座標の配列
+     */
+    public Point2D[] layout(int nodeCount, List<int[]> edges, Point2D[] initial) {
+        return layout(nodeCount, edges, initial, DEFAULT_ITERATIONS, 0, points -> {
+        });
+    }
+
+    /**
+     * <p> 全てのノードを配置し、途中の配置を一定の繰返しごとに通知します。 </p>
+     *
+     * <p>
+     * 途中の配置を描画し続けることで、ノードが落ち着いていく様子をアニメーションとして表示できます。
+     * 通知は計算しているスレッドから行うため、JavaFXのノードに反映する場合は {@link javafx.application.Platform#runLater(Runnable)} などを用いてください。
+     * 通知する配列は毎回新たに生成するため、受け取った側で保持しても構いません。
+     * </p>
+     *
+     * @param nodeCount        ノードの数 <br> ノードの番号は0から {@code nodeCount - 1} までとします。
+     * @param edges            {関係元のノード番号, 関係先のノード番号} の辺のリスト <br> 範囲外の番号を含む場合は {@link IllegalArgumentException} を投げます。
+     * @param initial          ノード番号ごとの初期の中心点の座標の配列 <br> {@code null} の場合や要素が {@code null} の場合は円周上に並べた座標から始めます。
+     * @param iterations       繰返しの回数 <br> 負の場合は {@link IllegalArgumentException} を投げます。
+     * @param progressInterval 途中の配置を通知する繰返しの間隔 <br> 0以下の場合は通知しません。
+     * @param progress         途中の配置を受け取る処理
+     * @return ノード番号ごとの中心点の座標の配列
+     */
+    public Point2D[] layout(int nodeCount, List<int[]> edges, Point2D[] initial, int iterations, int progressInterval, Consumer<Point2D[]> progress) {
+        if (iterations < 0) throw new IllegalArgumentException();
+        for (int[] edge : edges) {
+            if (edge[0] < 0 || edge[0] >= nodeCount || edge[1] < 0 || edge[1] >= nodeCount) throw new IllegalArgumentException();
+        }
+        if (nodeCount <= 0) return new Point2D[0];
+
+        double[] xs = new double[nodeCount];
+        double[] ys = new double[nodeCount];
+        initializePositions(nodeCount, initial, xs, ys);
+
+        double[] dxs = new double[nodeCount];
+        double[] dys = new double[nodeCount];
+        double initialTemperature = edgeLength * Math.sqrt(nodeCount) / 2;
+        QuadTree tree = new QuadTree(nodeCount);
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            tree.build(xs, ys);
+            if (nodeCount >= parallelThreshold) {
+                IntStream.range(0, nodeCount).parallel().forEach(node -> calculateRepulsion(tree, node, xs, ys, dxs, dys));
+            } else {
+                for (int node = 0; node < nodeCount; node++) calculateRepulsion(tree, node, xs, ys, dxs, dys);
+            }
+            calculateAttraction(edges, xs, ys, dxs, dys);
+            calculateGravity(xs, ys, dxs, dys);
+
+            double temperature = initialTemperature * (1.0 - (double) iteration / iterations);
+            for (int node = 0; node < nodeCount; node++) {
+                double length = Math.hypot(dxs[node], dys[node]);
+                if (length == 0.0) continue;
+                double movement = Math.min(length, temperature);
+                xs[node] += dxs[node] / length * movement;
+                ys[node] += dys[node] / length * movement;
+            }
+
+            if (progressInterval > 0 && (iteration + 1) % progressInterval == 0 && iteration + 1 < iterations) {
+                progress.accept(toPoints(xs, ys));
+            }
+        }
+
+        return toPoints(xs, ys);
+    }
+
+    /**
+     * 初期の座標を設定する。
+     * 同じ座標のノード同士には斥力の向きが定まらないため、ノード番号に応じてわずかにずらす。
+     */
+    private void initializePositions(int nodeCount, Point2D[] initial, double[] xs, double[] ys) {
+        double radius = edgeLength * Math.sqrt(nodeCount) / 2;
+        for (int node = 0; node < nodeCount; node++) {
+            if (initial != null && node < initial.length && initial[node] != null) {
+                double jitter = 1e-3 * edgeLength;
+                xs[node] = initial[node].getX() + jitter * Math.cos(node);
+                ys[node] = initial[node].getY() + jitter * Math.sin(node);
+            } else {
+                double angle = 2 * Math.PI * node / nodeCount;
+                xs[node] = radius * Math.cos(angle);
+                ys[node] = radius * Math.sin(angle);
+            }
+        }
+    }
+
+    /**
+     * 任意のノードに働く斥力（距離に反比例する大きさ）を、四分木を辿って計算する。
+     * 各ノードは自身の要素のみに書き込むため、複数のスレッドから異なるノードについて同時に呼び出せる。
+     */
+    private void calculateRepulsion(QuadTree tree, int node, double[] xs, double[] ys, double[] dxs, double[] dys) {
+        double repulsionConstant = repulsionStrength * edgeLength * edgeLength;
+        double squaredTheta = theta * theta;
+        double x = xs[node];
+        double y = ys[node];
+        double forceX = 0.0;
+        double forceY = 0.0;
+
+        int[] stack = new int[4 * maxTreeDepth + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int cell = stack[--top];
+            if (tree.masses[cell] == 0) continue;
+            if (tree.bodies[cell] == node && tree.masses[cell] == 1) continue;
+
+            double dx = x - tree.centerXs[cell];
+            double dy = y - tree.centerYs[cell];
+            double squaredDistance = dx * dx + dy * dy;
+            boolean isLeaf = tree.bodies[cell] != QuadTree.internal;
+            if (isLeaf || tree.sizes[cell] * tree.sizes[cell] < squaredTheta * squaredDistance) {
+                // 同じ座標に複数のノードをまとめたセルでは、自身を除いた分の斥力のみを受ける
+                int mass = isLeaf && tree.containsBody(cell, node) ? tree.masses[cell] - 1 : tree.masses[cell];
+                if (squaredDistance < 1e-9 || mass == 0) continue;
+                double strength = mass * repulsionConstant / squaredDistance;
+                forceX += dx * strength;
+                forceY += dy * strength;
+            } else {
+                for (int quadrant = 0; quadrant < 4; quadrant++) {
+                    int child = tree.children[cell * 4 + quadrant];
+                    if (child >= 0) stack[top++] = child;
+                }
+            }
+        }
+
+        dxs[node] = forceX;
+        dys[node] = forceY;
+    }
+
+    /**
+     * 辺で繋がったノード同士に働く引力（距離の2乗に比例する大きさ）を加える。
+     */
+    private void calculateAttraction(List<int[]> edges, double[] xs, double[] ys, double[] dxs, double[] dys) {
+        for (int[] edge : edges) {
+            int source = edge[0];
+            int target = edge[1];
+            if (source == target) continue;
+
+            double dx = xs[source] - xs[target];
+            double dy = ys[source] - ys[target];
+            double strength = Math.hypot(dx, dy) / edgeLength;
+            dxs[source] -= dx * strength;
+            dys[source] -= dy * strength;
+            dxs[target] += dx * strength;
+            dys[target] += dy * strength;
+        }
+    }
+
+    /**
+     * 全てのノードの重心に引き寄せる力を加える。
+     */
+    private void calculateGravity(double[] xs, double[] ys, double[] dxs, double[] dys) {
+        double centerX = Arrays.stream(xs).average().orElse(0.0);
+        double centerY = Arrays.stream(ys).average().orElse(0.0);
+        for (int node = 0; node < xs.length; node++) {
+            dxs[node] -= (xs[node] - centerX) * gravity;
+            dys[node] -= (ys[node] - centerY) * gravity;
+        }
+    }
+
+    private Point2D[] toPoints(double[] xs, double[] ys) {
+        double minX = Arrays.stream(xs).min().orElse(0.0);
+        double minY = Arrays.stream(ys).min().orElse(0.0);
+        Point2D[] points = new Point2D[xs.length];
+        for (int node = 0; node < xs.length; node++) points[node] = new Point2D(xs[node] - minX + origin, ys[node] - minY + origin);
+        return points;
+    }
+
+    /**
+     * 配列で表した四分木。
+     * セルの番号を添字とし、子のセルの番号は {@code children[セルの番号 * 4 + 象限]} に持つ。
+     * ノードを1つ以上持つ葉のセルは {@link #bodies} にそのノード番号を、子を持つセルは {@link #internal} を持つ。
+     * 繰返しごとに配列を使い回して作り直す。
+     */
+    private static class QuadTree {
+        private static final int empty = -1;
+        private static final int internal = -2;
+
+        private double[] minXs;
+        private double[] minYs;
+        private double[] sizes;
+        private double[] centerXs;
+        private double[] centerYs;
+        private int[] masses;
+        private int[] bodies;
+        private int[] children;
+        private int[] depths;
+        private int cellCount;
+
+        /**
+         * 深さの上限に達したセルにまとめたノードの連結リスト。
+         * {@code nextBodies[ノード番号]} に同じセルにまとめた次のノード番号を持つ。
+         */
+        private final int[] nextBodies;
+        private double[] xs;
+        private double[] ys;
+
+        private QuadTree(int nodeCount) {
+            allocate(Math.max(16, nodeCount * 2));
+            nextBodies = new int[nodeCount];
+        }
+
+        private void build(double[] xs, double[] ys) {
+            this.xs = xs;
+            this.ys = ys;
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (int node = 0; node < xs.length; node++) {
+                minX = Math.min(minX, xs[node]);
+                minY = Math.min(minY, ys[node]);
+                maxX = Math.max(maxX, xs[node]);
+                maxY = Math.max(maxY, ys[node]);
+            }
+
+            cellCount = 0;
+            createCell(minX, minY, Math.max(Math.max(maxX - minX, maxY - minY), 1.0) * (1.0 + 1e-9), 0);
+            Arrays.fill(nextBodies, empty);
+            for (int node = 0; node < xs.length; node++) insert(node);
+        }
+
+        private boolean containsBody(int cell, int node) {
+            for (int body = bodies[cell]; body != empty; body = nextBodies[body]) {
+                if (body == node) return true;
+            }
+            return false;
+        }
+
+        private void insert(int node) {
+            double x = xs[node];
+            double y = ys[node];
+            int cell = 0;
+            while (true) {
+                centerXs[cell] = (centerXs[cell] * masses[cell] + x) / (masses[cell] + 1);
+                centerYs[cell] = (centerYs[cell] * masses[cell] + y) / (masses[cell] + 1);
+                masses[cell]++;
+
+                if (bodies[cell] == empty && masses[cell] == 1) {
+                    bodies[cell] = node;
+                    return;
+                }
+                if (bodies[cell] != internal) {
+                    if (depths[cell] >= maxTreeDepth) {
+                        nextBodies[node] = bodies[cell];
+                        bodies[cell] = node;
+                        return;
+                    }
+                    int existing = bodies[cell];
+                    bodies[cell] = internal;
+                    int child = childFor(cell, xs[existing], ys[existing]);
+                    centerXs[child] = xs[existing];
+                    centerYs[child] = ys[existing];
+                    masses[child] = 1;
+                    bodies[child] = existing;
+                }
+                cell = childFor(cell, x, y);
+            }
+        }
+
+        private int childFor(int cell, double x, double y) {
+            double half = sizes[cell] / 2;
+            int quadrant = (x >= minXs[cell] + half ? 1 : 0) + (y >= minYs[cell] + half ? 2 : 0);
+            int child = children[cell * 4 + quadrant];
+            if (child < 0) {
+                child = createCell(minXs[cell] + (quadrant % 2) * half, minYs[cell] + (quadrant / 2) * half, half, depths[cell] + 1);
+                children[cell * 4 + quadrant] = child;
+            }
+            return child;
+        }
+
+        private int createCell(double minX, double minY, double size, int depth) {
+            if (cellCount >= masses.length) allocate(masses.length * 2);
+            int cell = cellCount++;
+            minXs[cell] = minX;
+            minYs[cell] = minY;
+            sizes[cell] = size;
+            centerXs[cell] = 0.0;
+            centerYs[cell] = 0.0;
+            masses[cell] = 0;
+            bodies[cell] = empty;
+            depths[cell] = depth;
+            Arrays.fill(children, cell * 4, cell * 4 + 4, empty);
+            return cell;
+        }
+
+        private void allocate(int capacity) {
+            minXs = minXs == null ? new double[capacity] : Arrays.copyOf(minXs, capacity);
+            minYs = minYs == null ? new double[capacity] : Arrays.copyOf(minYs, capacity);
+            sizes = sizes == null ? new double[capacity] : Arrays.copyOf(sizes, capacity);
+            centerXs = centerXs == null ? new double[capacity] : Arrays.copyOf(centerXs, capacity);
+            centerYs = centerYs == null ? new double[capacity] : Arrays.copyOf(centerYs, capacity);
+            masses = masses == null ? new int[capacity] : Arrays.copyOf(masses, capacity);
+            bodies = bodies == null ? new int[capacity] : Arrays.copyOf(bodies, capacity);
+            depths = depths == null ? new int[capacity] : Arrays.copyOf(depths, capacity);
+            children = children == null ? new int[capacity * 4] : Arrays.copyOf(children, capacity * 4);
+        }
+    }
+}
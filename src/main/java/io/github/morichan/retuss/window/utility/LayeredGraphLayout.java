@@ -0,0 +1,561 @@
+package io.github.morichan.retuss.window.utility;
+
+import javafx.geometry.Point2D;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p> 階層型グラフ描画（Sugiyamaフレームワーク）によるノードの配置クラス </p>
+ *
+ * <p>
+ * 関係元から関係先への有向辺を持つグラフにおいて、関係先（汎化の親クラスやコンポジションの部品クラス）が関係元より上の層になるように配置します。
+ * 次の順番で計算します。
+ * <ol>
+ * <li> 閉路の除去（深さ優先探索で見つけた後退辺を逆向きにする） </li>
+ * <li> 層の割当て（最長経路法） </li>
+ * <li> 2層以上を跨ぐ辺の分割（ダミーノードの挿入） </li>
+ * <li> 交差の削減（重心法による上下の掃引を繰り返し、辺の交差数が最も少ない並びを採用する） </li>
+ * <li> 座標の割当て（隣接する層のノードの平均の位置に寄せた後、重ならないように間隔を空ける） </li>
+ * </ol>
+ * 辺を1つも持たないノードは、層に割り当てたノードの下に格子状に並べます。
+ * </p>
+ *
+ * <p>
+ * 計算はノードの番号と辺のみで行い、JavaFXのノードには触れないため、JavaFXアプリケーションスレッド以外から呼び出せます。
+ * インスタンスは状態を持たないため、複数のスレッドから同時に呼び出しても構いません。
+ * </p>
+ */
+public class LayeredGraphLayout {
+
+    /**
+     * <p> 既定の同じ層におけるノードの中心点同士の間隔 </p>
+     */
+    public static final double DEFAULT_NODE_INTERVAL = 250.0;
+
+    /**
+     * <p> 既定の層同士の間隔 </p>
+     */
+    public static final double DEFAULT_LAYER_INTERVAL = 200.0;
+
+    /**
+     * <p> 配置する全てのノードの中心点の最小の座標 </p>
+     */
+    private static final double origin = 50.0;
+
+    /**
+     * <p> ノードの間隔に対するダミーノードの幅の割合 </p>
+     */
+    private static final double dummyWidthRatio = 0.2;
+
+    private static final int maxSweepCount = 24;
+    private static final int maxSweepCountWithoutImprovement = 4;
+    private static final int straighteningCount = 4;
+
+    /**
+     * <p> 交差の削減と座標の割当てにおいて、掃引の回数と頂点（ダミーノードを含む）の数の積の上限 </p>
+     *
+     * <p>
+     * 多くの層を跨ぐ辺が多いとダミーノードが非常に多くなるため、その場合は掃引の回数を減らして計算時間を抑えます。
+     * </p>
+     */
+    private static final long maxSweepWork = 2_000_000L;
+    private static final int minGridColumns = 5;
+
+    private final double nodeInterval;
+    private final double layerInterval;
+
+    /**
+     * <p> 既定の間隔で配置するインスタンスを生成します。 </p>
+     */
+    public LayeredGraphLayout() {
+        this(DEFAULT_NODE_INTERVAL, DEFAULT_LAYER_INTERVAL);
+    }
+
+    /**
+     * <p> 間隔を指定して配置するインスタンスを生成します。 </p>
+     *
+     * @param nodeInterval  同じ層におけるノードの中心点同士の間隔 <br> 0以下の場合は {@link IllegalArgumentException} を投げます。
+     * @param layerInterval 層同士の間隔 <br> 0以下の場合は {@link IllegalArgumentException} を投げます。
+     */
+    public LayeredGraphLayout(double nodeInterval, double layerInterval) {
+        if (!(nodeInterval > 0.0) || !(layerInterval > 0.0)) throw new IllegalArgumentException();
+        this.nodeInterval = nodeInterval;
+        this.layerInterval = layerInterval;
+    }
+
+    /**
+     * <p> 全てのノードを配置します。 </p>
+     *
+     * <p>
+     * 自己ループと重複した辺は無視します。
+     * </p>
+     *
+     * @param nodeCount ノードの数 <br> ノードの番号は0から {@code nodeCount - 1} までとします。
+     * @param edges     {関係元のノード番号, 関係先のノード番号} の辺のリスト <br> 範囲外の番号を含む場合は {@link IllegalArgumentException} を投げます。
+     * @return ノード番号ごとの中心点の座標の配列
+     */
+    public Point2D[] layout(int nodeCount, List<int[]> edges) {
+        Point2D[] points = new Point2D[nodeCount];
+        if (nodeCount <= 0) return points;
+
+        List<List<Integer>> targets = createAdjacency(nodeCount, edges);
+        removeCycles(targets);
+        List<List<Integer>> sources = reverse(targets);
+
+        int[] layers = assignLayers(targets, sources);
+        int layerCount = 0;
+        List<Integer> isolatedNodes = new ArrayList<>();
+        boolean[] isIsolated = new boolean[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            if (targets.get(node).isEmpty() && sources.get(node).isEmpty()) {
+                isolatedNodes.add(node);
+                isIsolated[node] = true;
+            } else {
+                layerCount = Math.max(layerCount, layers[node] + 1);
+            }
+        }
+
+        ProperGraph graph = new ProperGraph(nodeCount, layerCount, layers, isIsolated, targets);
+        graph.minimizeCrossings();
+        double[] xs = graph.assignCoordinates();
+
+        for (int layer = 0; layer < layerCount; layer++) {
+            for (int vertex : graph.order[layer]) {
+                if (vertex < nodeCount) points[vertex] = new Point2D(xs[vertex], origin + layer * layerInterval);
+            }
+        }
+
+        int columns = Math.max(minGridColumns, (int) Math.ceil(Math.sqrt(isolatedNodes.size())));
+        double gridTop = origin + layerCount * layerInterval;
+        for (int i = 0; i < isolatedNodes.size(); i++) {
+            points[isolatedNodes.get(i)] = new Point2D(origin + nodeInterval * (i % columns), gridTop + layerInterval * (i / columns));
+        }
+
+        return points;
+    }
+
+    /**
+     * <p> 配置済みのノードを動かさずに、1つのノードのみを配置します。 </p>
+     *
+     * <p>
+     * 1つのクラスを追加した際に全体を配置し直さないために用います。
+     * 配置済みの関係先がある場合はその最も下の層の1つ下に、関係元のみがある場合はその最も上の層の1つ上に配置し、
+     * 横方向は隣接するノードの平均の位置に最も近い、同じ層の他のノードと重ならない位置にします。
+     * 隣接するノードが配置済みでない場合は、最も下の層の空いている位置に配置します。
+     * </p>
+     *
+     * @param node      配置するノード番号
+     * @param edges     {関係元のノード番号, 関係先のノード番号} の辺のリスト
+     * @param positions ノード番号ごとの配置済みの中心点の座標の配列 <br> 配置していないノードは {@code null} とします。
+     * @return 配置するノードの中心点の座標
+     */
+    public Point2D place(int node, List<int[]> edges, Point2D[] positions) {
+        if (node < 0 || node >= positions.length) throw new IllegalArgumentException();
+
+        double belowTargetsY = Double.NEGATIVE_INFINITY;
+        double aboveSourcesY = Double.POSITIVE_INFINITY;
+        double sumX = 0.0;
+        int neighborCount = 0;
+        for (int[] edge : edges) {
+            int neighbor;
+            if (edge[0] == node) neighbor = edge[1];
+            else if (edge[1] == node) neighbor = edge[0];
+            else continue;
+            if (neighbor == node || neighbor < 0 || neighbor >= positions.length || positions[neighbor] == null) continue;
+
+            if (edge[0] == node) belowTargetsY = Math.max(belowTargetsY, positions[neighbor].getY() + layerInterval);
+            else aboveSourcesY = Math.min(aboveSourcesY, positions[neighbor].getY() - layerInterval);
+            sumX += positions[neighbor].getX();
+            neighborCount++;
+        }
+
+        double y;
+        double desiredX;
+        if (neighborCount > 0) {
+            y = belowTargetsY != Double.NEGATIVE_INFINITY ? belowTargetsY : Math.max(origin, aboveSourcesY);
+            desiredX = sumX / neighborCount;
+        } else {
+            y = origin;
+            for (Point2D position : positions) if (position != null) y = Math.max(y, position.getY());
+            desiredX = origin;
+        }
+
+        List<Double> rowXs = new ArrayList<>();
+        for (Point2D position : positions) {
+            if (position != null && Math.abs(position.getY() - y) < layerInterval / 2) rowXs.add(position.getX());
+        }
+        return new Point2D(findFreeX(desiredX, rowXs), y);
+    }
+
+    private double findFreeX(double desiredX, List<Double> rowXs) {
+        double[] sortedXs = new double[rowXs.size()];
+        for (int i = 0; i < sortedXs.length; i++) sortedXs[i] = rowXs.get(i);
+        Arrays.sort(sortedXs);
+
+        double bestX = Double.NaN;
+        List<Double> candidates = new ArrayList<>();
+        candidates.add(Math.max(origin, desiredX));
+        for (double x : sortedXs) {
+            candidates.add(x - nodeInterval);
+            candidates.add(x + nodeInterval);
+        }
+        for (double candidate : candidates) {
+            if (candidate < origin || !isFree(candidate, sortedXs)) continue;
+            if (Double.isNaN(bestX) || Math.abs(candidate - desiredX) < Math.abs(bestX - desiredX)) bestX = candidate;
+        }
+        return bestX;
+    }
+
+    private boolean isFree(double x, double[] sortedXs) {
+        int index = Arrays.binarySearch(sortedXs, x);
+        if (index >= 0) return false;
+        int insertion = -index - 1;
+        // 浮動小数点の誤差で隣のノードとちょうど間隔を空けた位置を除外しないように余裕を持たせる
+        double tolerance = 1e-6;
+        if (insertion > 0 && x - sortedXs[insertion - 1] < nodeInterval - tolerance) return false;
+        return insertion >= sortedXs.length || sortedXs[insertion] - x >= nodeInterval - tolerance;
+    }
+
+    private List<List<Integer>> createAdjacency(int nodeCount, List<int[]> edges) {
+        List<List<Integer>> targets = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) targets.add(new ArrayList<>());
+
+        Set<Long> added = new HashSet<>();
+        for (int[] edge : edges) {
+            int source = edge[0];
+            int target = edge[1];
+            if (source < 0 || source >= nodeCount || target < 0 || target >= nodeCount) throw new IllegalArgumentException();
+            if (source == target) continue;
+            if (added.add(((long) source << 32) | target)) targets.get(source).add(target);
+        }
+        return targets;
+    }
+
+    /**
+     * 深さ優先探索で見つけた後退辺を逆向きにし、閉路の無いグラフにする。
+     * ノードが多くてもスタックが溢れないように、再帰を用いずに探索する。
+     *
+     * @param targets ノード番号ごとの関係先のノード番号のリスト
+     */
+    private void removeCycles(List<List<Integer>> targets) {
+        int nodeCount = targets.size();
+        // 0は未訪問、1は探索中、2は探索済み
+        int[] states = new int[nodeCount];
+        List<int[]> backEdges = new ArrayList<>();
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (states[root] != 0) continue;
+
+            Deque<int[]> stack = new ArrayDeque<>();
+            stack.push(new int[]{root, 0});
+            states[root] = 1;
+            while (!stack.isEmpty()) {
+                int[] frame = stack.peek();
+                int node = frame[0];
+                if (frame[1] >= targets.get(node).size()) {
+                    states[node] = 2;
+                    stack.pop();
+                    continue;
+                }
+                int target = targets.get(node).get(frame[1]++);
+                if (states[target] == 0) {
+                    states[target] = 1;
+                    stack.push(new int[]{target, 0});
+                } else if (states[target] == 1) {
+                    backEdges.add(new int[]{node, target});
+                }
+            }
+        }
+
+        for (int[] backEdge : backEdges) {
+            targets.get(backEdge[0]).remove(Integer.valueOf(backEdge[1]));
+            if (!targets.get(backEdge[1]).contains(backEdge[0])) targets.get(backEdge[1]).add(backEdge[0]);
+        }
+    }
+
+    private List<List<Integer>> reverse(List<List<Integer>> targets) {
+        List<List<Integer>> sources = new ArrayList<>(targets.size());
+        for (int i = 0; i < targets.size(); i++) sources.add(new ArrayList<>());
+        for (int node = 0; node < targets.size(); node++) {
+            for (int target : targets.get(node)) sources.get(target).add(node);
+        }
+        return sources;
+    }
+
+    /**
+     * 最長経路法で層を割り当てる。
+     * 関係先を持たないノードを最も上の層（0）とし、関係元は全ての関係先より下の層にする。
+     *
+     * @param targets ノード番号ごとの関係先のノード番号のリスト
+     * @param sources ノード番号ごとの関係元のノード番号のリスト
+     * @return ノード番号ごとの層の番号
+     */
+    private int[] assignLayers(List<List<Integer>> targets, List<List<Integer>> sources) {
+        int nodeCount = targets.size();
+        int[] layers = new int[nodeCount];
+        int[] remainingTargets = new int[nodeCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        for (int node = 0; node < nodeCount; node++) {
+            remainingTargets[node] = targets.get(node).size();
+            if (remainingTargets[node] == 0) queue.add(node);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int source : sources.get(node)) {
+                layers[source] = Math.max(layers[source], layers[node] + 1);
+                if (--remainingTargets[source] == 0) queue.add(source);
+            }
+        }
+        return layers;
+    }
+
+    /**
+     * 隣接する層の間にのみ辺を持つように、ダミーノードを挿入したグラフ。
+     * ノード番号はそのまま頂点番号とし、ダミーノードにはノードの数以降の頂点番号を割り当てる。
+     * ダミーノードは数十万になり得るため、隣接リストは圧縮行形式の配列で持つ。
+     */
+    private class ProperGraph {
+        private final int nodeCount;
+        private final int[] layerOf;
+        private final int[][] order;
+        private final int[] upperStart;
+        private final int[] upperNeighbors;
+        private final int[] lowerStart;
+        private final int[] lowerNeighbors;
+        private final int[] positions;
+        private final long[] sortKeys;
+        private final int[] sortedVertices;
+
+        private ProperGraph(int nodeCount, int layerCount, int[] layers, boolean[] isIsolated, List<List<Integer>> targets) {
+            this.nodeCount = nodeCount;
+
+            int vertexCount = nodeCount;
+            int edgeCount = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                for (int target : targets.get(node)) {
+                    vertexCount += layers[node] - layers[target] - 1;
+                    edgeCount += layers[node] - layers[target];
+                }
+            }
+
+            layerOf = new int[vertexCount];
+            for (int node = 0; node < nodeCount; node++) layerOf[node] = isIsolated[node] ? -1 : layers[node];
+            int[] edgeUppers = new int[edgeCount];
+            int[] edgeLowers = new int[edgeCount];
+            int edge = 0;
+            int dummy = nodeCount;
+            for (int node = 0; node < nodeCount; node++) {
+                for (int target : targets.get(node)) {
+                    int previous = target;
+                    for (int layer = layers[target] + 1; layer < layers[node]; layer++) {
+                        layerOf[dummy] = layer;
+                        edgeUppers[edge] = previous;
+                        edgeLowers[edge++] = dummy;
+                        previous = dummy++;
+                    }
+                    edgeUppers[edge] = previous;
+                    edgeLowers[edge++] = node;
+                }
+            }
+
+            upperStart = new int[vertexCount + 1];
+            lowerStart = new int[vertexCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                upperStart[edgeLowers[i] + 1]++;
+                lowerStart[edgeUppers[i] + 1]++;
+            }
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                upperStart[vertex + 1] += upperStart[vertex];
+                lowerStart[vertex + 1] += lowerStart[vertex];
+            }
+            upperNeighbors = new int[edgeCount];
+            lowerNeighbors = new int[edgeCount];
+            int[] upperFilled = Arrays.copyOf(upperStart, vertexCount);
+            int[] lowerFilled = Arrays.copyOf(lowerStart, vertexCount);
+            for (int i = 0; i < edgeCount; i++) {
+                upperNeighbors[upperFilled[edgeLowers[i]]++] = edgeUppers[i];
+                lowerNeighbors[lowerFilled[edgeUppers[i]]++] = edgeLowers[i];
+            }
+
+            int[] layerSizes = new int[layerCount];
+            for (int vertex = 0; vertex < vertexCount; vertex++) if (layerOf[vertex] >= 0) layerSizes[layerOf[vertex]]++;
+            order = new int[layerCount][];
+            int maxLayerSize = 0;
+            for (int layer = 0; layer < layerCount; layer++) {
+                order[layer] = new int[layerSizes[layer]];
+                maxLayerSize = Math.max(maxLayerSize, layerSizes[layer]);
+                layerSizes[layer] = 0;
+            }
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                if (layerOf[vertex] >= 0) order[layerOf[vertex]][layerSizes[layerOf[vertex]]++] = vertex;
+            }
+
+            positions = new int[vertexCount];
+            sortKeys = new long[maxLayerSize];
+            sortedVertices = new int[maxLayerSize];
+        }
+
+        private void minimizeCrossings() {
+            updatePositions();
+            for (int layer = 1; layer < order.length; layer++) sortByBarycenter(layer, upperStart, upperNeighbors);
+
+            int[][] bestOrder = copyOrder();
+            long bestCrossings = countCrossings();
+            int sweepCountWithoutImprovement = 0;
+            int sweepCount = limitSweepCount(maxSweepCount);
+            for (int sweep = 0; sweep < sweepCount && bestCrossings > 0; sweep++) {
+                for (int layer = 1; layer < order.length; layer++) sortByBarycenter(layer, upperStart, upperNeighbors);
+                for (int layer = order.length - 2; layer >= 0; layer--) sortByBarycenter(layer, lowerStart, lowerNeighbors);
+
+                long crossings = countCrossings();
+                if (crossings < bestCrossings) {
+                    bestCrossings = crossings;
+                    bestOrder = copyOrder();
+                    sweepCountWithoutImprovement = 0;
+                } else if (++sweepCountWithoutImprovement >= maxSweepCountWithoutImprovement) {
+                    break;
+                }
+            }
+
+            for (int layer = 0; layer < order.length; layer++) System.arraycopy(bestOrder[layer], 0, order[layer], 0, order[layer].length);
+            updatePositions();
+        }
+
+        /**
+         * 隣接する層の頂点の位置の平均（重心）の順に並べ替える。
+         * 隣接する頂点が無い場合は現在の位置を重心とし、重心が等しい場合は現在の並び順を保つ。
+         * 重心を上位、現在の位置を下位のビットに詰めた整数を並べ替えることで、ボックス化を避ける。
+         */
+        private void sortByBarycenter(int layer, int[] start, int[] neighbors) {
+            int[] vertices = order[layer];
+            for (int i = 0; i < vertices.length; i++) {
+                int vertex = vertices[i];
+                float barycenter = i;
+                if (start[vertex] < start[vertex + 1]) {
+                    double sum = 0.0;
+                    for (int k = start[vertex]; k < start[vertex + 1]; k++) sum += positions[neighbors[k]];
+                    barycenter = (float) (sum / (start[vertex + 1] - start[vertex]));
+                }
+                sortKeys[i] = ((long) Float.floatToIntBits(barycenter) << 32) | i;
+            }
+            Arrays.sort(sortKeys, 0, vertices.length);
+            for (int i = 0; i < vertices.length; i++) sortedVertices[i] = vertices[(int) sortKeys[i]];
+            System.arraycopy(sortedVertices, 0, vertices, 0, vertices.length);
+            for (int i = 0; i < vertices.length; i++) positions[vertices[i]] = i;
+        }
+
+        /**
+         * 隣接する全ての層の間における辺の交差数を数える。
+         * 上の層の並び順に辺を並べた際の下の層の位置の転倒数を、Fenwick木で数える。
+         *
+         * @return 辺の交差数
+         */
+        private long countCrossings() {
+            long crossings = 0;
+            int[] lowerPositions = new int[0];
+            for (int layer = 0; layer + 1 < order.length; layer++) {
+                long[] tree = new long[order[layer + 1].length + 1];
+                long inserted = 0;
+                for (int upper : order[layer]) {
+                    int degree = lowerStart[upper + 1] - lowerStart[upper];
+                    if (lowerPositions.length < degree) lowerPositions = new int[degree];
+                    for (int i = 0; i < degree; i++) lowerPositions[i] = positions[lowerNeighbors[lowerStart[upper] + i]];
+                    Arrays.sort(lowerPositions, 0, degree);
+                    for (int i = 0; i < degree; i++) {
+                        long notGreater = 0;
+                        for (int j = lowerPositions[i] + 1; j > 0; j -= j & -j) notGreater += tree[j];
+                        crossings += inserted - notGreater;
+                        for (int j = lowerPositions[i] + 1; j < tree.length; j += j & -j) tree[j]++;
+                        inserted++;
+                    }
+                }
+            }
+            return crossings;
+        }
+
+        /**
+         * 各層の並び順を保ったまま、隣接する層のノードの平均の位置に寄せるように横方向の座標を割り当てる。
+         * 寄せた位置を左詰めと右詰めの両方で間隔を空けてから平均を取るため、並び順と間隔は必ず保たれる。
+         *
+         * @return 頂点番号ごとの横方向の座標
+         */
+        private double[] assignCoordinates() {
+            double[] xs = new double[layerOf.length];
+            for (int[] vertices : order) {
+                double x = 0.0;
+                for (int i = 0; i < vertices.length; i++) {
+                    if (i > 0) x += separation(vertices[i - 1], vertices[i]);
+                    xs[vertices[i]] = x;
+                }
+            }
+
+            double[] desired = new double[sortKeys.length];
+            double[] left = new double[sortKeys.length];
+            double[] right = new double[sortKeys.length];
+            int iterationCount = limitSweepCount(straighteningCount);
+            for (int iteration = 0; iteration < iterationCount; iteration++) {
+                for (int layer = 1; layer < order.length; layer++) straighten(order[layer], upperStart, upperNeighbors, xs, desired, left, right);
+                for (int layer = order.length - 2; layer >= 0; layer--) straighten(order[layer], lowerStart, lowerNeighbors, xs, desired, left, right);
+            }
+
+            double minX = Double.POSITIVE_INFINITY;
+            for (int vertex = 0; vertex < nodeCount; vertex++) if (layerOf[vertex] >= 0) minX = Math.min(minX, xs[vertex]);
+            if (minX == Double.POSITIVE_INFINITY) return xs;
+            for (int vertex = 0; vertex < xs.length; vertex++) xs[vertex] += origin - minX;
+            return xs;
+        }
+
+        private void straighten(int[] vertices, int[] start, int[] neighbors, double[] xs, double[] desired, double[] left, double[] right) {
+            int size = vertices.length;
+            if (size == 0) return;
+
+            for (int i = 0; i < size; i++) {
+                int vertex = vertices[i];
+                if (start[vertex] == start[vertex + 1]) {
+                    desired[i] = xs[vertex];
+                    continue;
+                }
+                double sum = 0.0;
+                for (int k = start[vertex]; k < start[vertex + 1]; k++) sum += xs[neighbors[k]];
+                desired[i] = sum / (start[vertex + 1] - start[vertex]);
+            }
+
+            left[0] = desired[0];
+            for (int i = 1; i < size; i++) left[i] = Math.max(desired[i], left[i - 1] + separation(vertices[i - 1], vertices[i]));
+            right[size - 1] = desired[size - 1];
+            for (int i = size - 2; i >= 0; i--) right[i] = Math.min(desired[i], right[i + 1] - separation(vertices[i], vertices[i + 1]));
+            for (int i = 0; i < size; i++) xs[vertices[i]] = (left[i] + right[i]) / 2;
+        }
+
+        private int limitSweepCount(int count) {
+            return (int) Math.max(1, Math.min(count, maxSweepWork / Math.max(1, layerOf.length)));
+        }
+
+        private double separation(int left, int right) {
+            return (width(left) + width(right)) / 2;
+        }
+
+        private double width(int vertex) {
+            return vertex < nodeCount ? nodeInterval : nodeInterval * dummyWidthRatio;
+        }
+
+        private void updatePositions() {
+            for (int[] vertices : order) {
+                for (int i = 0; i < vertices.length; i++) positions[vertices[i]] = i;
+            }
+        }
+
+        private int[][] copyOrder() {
+            int[][] copy = new int[order.length][];
+            for (int layer = 0; layer < order.length; layer++) copy[layer] = order[layer].clone();
+            return copy;
+        }
+    }
+}
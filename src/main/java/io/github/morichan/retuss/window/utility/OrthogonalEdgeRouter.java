@@ -0,0 +1,388 @@
+package io.github.morichan.retuss.window.utility;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p> ノードを避けて縦と横の線分のみで関係を結ぶ経路を探索するクラス </p>
+ *
+ * <p>
+ * 障害物となるノードの外接矩形を {@link #getMargin()} だけ広げ、その縁と関係元および関係先の中心を通る縦横の直線の交点を頂点とする直交可視グラフを作ります。
+ * 広げた矩形の内側を通る辺は取り除くため、グラフ上の経路はどのノードにも掛かりません。
+ * 経路はA*探索で求め、長さに加えて曲がる度に罰則を加えることで、なるべく曲がらない経路を選びます。
+ * </p>
+ *
+ * <p>
+ * 障害物の数を N とすると頂点の数は O(N^2) になるため、呼出し側で関係の周辺の障害物のみに絞り込んでください。
+ * 障害物の数が {@link #getMaxObstacles()} を超える場合や、関係元と関係先が重なっている場合は探索せずに直線の経路を返します。
+ * </p>
+ */
+public class OrthogonalEdgeRouter {
+
+    /**
+     * <p> 既定の障害物から経路までの距離 </p>
+     */
+    public static final double DEFAULT_MARGIN = 15.0;
+
+    /**
+     * <p> 既定の経路を探索する障害物の数の上限 </p>
+     */
+    public static final int DEFAULT_MAX_OBSTACLES = 80;
+
+    /**
+     * <p> 経路が1回曲がる度に長さに加える罰則 </p>
+     */
+    private static final double bendPenalty = 30.0;
+
+    private final double margin;
+    private final int maxObstacles;
+
+    /**
+     * <p> 既定の距離と障害物の数の上限で経路探索器を生成します。 </p>
+     */
+    public OrthogonalEdgeRouter() {
+        this(DEFAULT_MARGIN, DEFAULT_MAX_OBSTACLES);
+    }
+
+    /**
+     * <p> 障害物から経路までの距離と障害物の数の上限を指定して経路探索器を生成します。 </p>
+     *
+     * @param margin       障害物から経路までの距離 <br> 0未満の場合は {@link IllegalArgumentException} を投げます。
+     * @param maxObstacles 経路を探索する障害物の数の上限 <br> 0未満の場合は {@link IllegalArgumentException} を投げます。
+     */
+    public OrthogonalEdgeRouter(double margin, int maxObstacles) {
+        if (!(margin >= 0.0) || maxObstacles < 0) throw new IllegalArgumentException();
+        this.margin = margin;
+        this.maxObstacles = maxObstacles;
+    }
+
+    /**
+     * <p> 障害物から経路までの距離を取得します。 </p>
+     *
+     * @return 障害物から経路までの距離
+     */
+    public double getMargin() {
+        return margin;
+    }
+
+    /**
+     * <p> 経路を探索する障害物の数の上限を取得します。 </p>
+     *
+     * @return 障害物の数の上限
+     */
+    public int getMaxObstacles() {
+        return maxObstacles;
+    }
+
+    /**
+     * <p> 関係元から関係先までの障害物を避ける経路を探索します。 </p>
+     *
+     * <p>
+     * 経路の始点は関係元の矩形の辺上、終点は関係先の矩形の辺上にあり、その間の点は経路が曲がる点です。
+     * 関係元または関係先の中心を含む障害物は無視します。
+     * 経路が見つからない場合は、関係元と関係先の中心を結ぶ直線を矩形の辺で切り取った2点を返します。
+     * </p>
+     *
+     * @param source    関係元のノードの矩形
+     * @param target    関係先のノードの矩形
+     * @param obstacles 障害物となるノードの矩形のリスト <br> 関係元と関係先は含めなくても構いません。
+     * @return 関係元から関係先までの経路の点のリスト <br> 2点以上
+     */
+    public List<Point2D> route(Rectangle2D source, Rectangle2D target, List<Rectangle2D> obstacles) {
+        Point2D start = center(source);
+        Point2D goal = center(target);
+        if (source.intersects(target) || obstacles.size() > maxObstacles) return routeStraight(source, target);
+
+        List<double[]> boxes = new ArrayList<>();
+        for (Rectangle2D obstacle : obstacles) {
+            double[] box = {obstacle.getMinX() - margin, obstacle.getMinY() - margin, obstacle.getMaxX() + margin, obstacle.getMaxY() + margin};
+            if (isInside(box, start) || isInside(box, goal)) continue;
+            boxes.add(box);
+        }
+
+        double[] xs = collectCoordinates(boxes, 0, start.getX(), goal.getX(), source.getMinX(), source.getMaxX(), target.getMinX(), target.getMaxX());
+        double[] ys = collectCoordinates(boxes, 1, start.getY(), goal.getY(), source.getMinY(), source.getMaxY(), target.getMinY(), target.getMaxY());
+        int[] path = search(xs, ys, boxes, indexOf(xs, start.getX()), indexOf(ys, start.getY()), indexOf(xs, goal.getX()), indexOf(ys, goal.getY()));
+        if (path == null) return routeStraight(source, target);
+
+        List<Point2D> points = new ArrayList<>();
+        for (int i = 0; i < path.length; i++) {
+            boolean isBend = i == 0 || i == path.length - 1 || isBend(path[i - 1], path[i], path[i + 1], xs.length);
+            if (isBend) points.add(new Point2D(xs[path[i] % xs.length], ys[path[i] / xs.length]));
+        }
+
+        List<Point2D> clipped = clipEnd(clipStart(points, source), target);
+        return clipped.size() < 2 ? routeStraight(source, target) : clipped;
+    }
+
+    /**
+     * <p> 関係元と関係先の中心を結ぶ直線を、それぞれの矩形の辺で切り取った2点を返します。 </p>
+     *
+     * @param source 関係元のノードの矩形
+     * @param target 関係先のノードの矩形
+     * @return 関係元の辺上の点と関係先の辺上の点のリスト <br> 中心が一致する場合は中心を2つ返します。
+     */
+    public List<Point2D> routeStraight(Rectangle2D source, Rectangle2D target) {
+        Point2D start = center(source);
+        Point2D goal = center(target);
+        return Arrays.asList(calculateExitPoint(source, start, goal), calculateExitPoint(target, goal, start));
+    }
+
+    /**
+     * 直交可視グラフ上で経路をA*探索する。
+     * 状態は頂点と直前の移動の向き（0が横、1が縦）の組であり、向きが変わる移動には罰則を加える。
+     *
+     * @return 始点から終点までの頂点番号の配列 見つからない場合は {@code null}
+     */
+    private int[] search(double[] xs, double[] ys, List<double[]> boxes, int startColumn, int startRow, int goalColumn, int goalRow) {
+        int width = xs.length;
+        int height = ys.length;
+        int vertexCount = width * height;
+        boolean[] blockedVertex = new boolean[vertexCount];
+        boolean[] blockedRight = new boolean[vertexCount];
+        boolean[] blockedDown = new boolean[vertexCount];
+
+        for (double[] box : boxes) {
+            int minColumn = indexOf(xs, box[0]);
+            int maxColumn = indexOf(xs, box[2]);
+            int minRow = indexOf(ys, box[1]);
+            int maxRow = indexOf(ys, box[3]);
+            for (int row = minRow; row <= maxRow; row++) {
+                boolean isInnerRow = row > minRow && row < maxRow;
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    boolean isInnerColumn = column > minColumn && column < maxColumn;
+                    int vertex = row * width + column;
+                    if (isInnerRow && isInnerColumn) blockedVertex[vertex] = true;
+                    if (isInnerRow && column < maxColumn) blockedRight[vertex] = true;
+                    if (isInnerColumn && row < maxRow) blockedDown[vertex] = true;
+                }
+            }
+        }
+
+        int startVertex = startRow * width + startColumn;
+        int goalVertex = goalRow * width + goalColumn;
+        double goalX = xs[goalColumn];
+        double goalY = ys[goalRow];
+        double[] costs = new double[vertexCount * 2];
+        int[] parents = new int[vertexCount * 2];
+        boolean[] closed = new boolean[vertexCount * 2];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+
+        StateHeap heap = new StateHeap();
+        double startEstimate = Math.abs(xs[startColumn] - goalX) + Math.abs(ys[startRow] - goalY);
+        for (int direction = 0; direction < 2; direction++) {
+            costs[startVertex * 2 + direction] = 0.0;
+            heap.push(startEstimate, startVertex * 2 + direction);
+        }
+
+        int[] neighbors = new int[4];
+        while (!heap.isEmpty()) {
+            int state = heap.pop();
+            if (closed[state]) continue;
+            closed[state] = true;
+
+            int vertex = state / 2;
+            if (vertex == goalVertex) return reconstruct(parents, state);
+
+            int column = vertex % width;
+            int row = vertex / width;
+            int count = 0;
+            if (column + 1 < width && !blockedRight[vertex]) neighbors[count++] = vertex + 1;
+            if (column > 0 && !blockedRight[vertex - 1]) neighbors[count++] = vertex - 1;
+            if (row + 1 < height && !blockedDown[vertex]) neighbors[count++] = vertex + width;
+            if (row > 0 && !blockedDown[vertex - width]) neighbors[count++] = vertex - width;
+
+            for (int i = 0; i < count; i++) {
+                int next = neighbors[i];
+                if (blockedVertex[next]) continue;
+
+                int nextColumn = next % width;
+                int nextRow = next / width;
+                int direction = nextRow == row ? 0 : 1;
+                int nextState = next * 2 + direction;
+                if (closed[nextState]) continue;
+
+                double cost = costs[state] + Math.abs(xs[nextColumn] - xs[column]) + Math.abs(ys[nextRow] - ys[row]);
+                if (vertex != startVertex && direction != state % 2) cost += bendPenalty;
+                if (cost < costs[nextState]) {
+                    costs[nextState] = cost;
+                    parents[nextState] = state;
+                    heap.push(cost + Math.abs(xs[nextColumn] - goalX) + Math.abs(ys[nextRow] - goalY), nextState);
+                }
+            }
+        }
+        return null;
+    }
+
+    private int[] reconstruct(int[] parents, int goalState) {
+        int length = 0;
+        for (int state = goalState; state >= 0; state = parents[state]) length++;
+
+        int[] path = new int[length];
+        int state = goalState;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = state / 2;
+            state = parents[state];
+        }
+        return path;
+    }
+
+    private boolean isBend(int previous, int current, int next, int width) {
+        boolean isPreviousHorizontal = previous / width == current / width;
+        boolean isNextHorizontal = current / width == next / width;
+        return isPreviousHorizontal != isNextHorizontal;
+    }
+
+    /**
+     * 直交可視グラフの頂点を通す座標を、重複を除いて昇順に並べる。
+     *
+     * @param axis 0ならX軸、1ならY軸
+     */
+    private double[] collectCoordinates(List<double[]> boxes, int axis, double start, double goal, double sourceMin, double sourceMax, double targetMin, double targetMax) {
+        double[] coordinates = new double[boxes.size() * 2 + 7];
+        int count = 0;
+        coordinates[count++] = start;
+        coordinates[count++] = goal;
+        coordinates[count++] = (start + goal) / 2;
+        coordinates[count++] = sourceMin - margin;
+        coordinates[count++] = sourceMax + margin;
+        coordinates[count++] = targetMin - margin;
+        coordinates[count++] = targetMax + margin;
+        for (double[] box : boxes) {
+            coordinates[count++] = box[axis];
+            coordinates[count++] = box[axis + 2];
+        }
+        Arrays.sort(coordinates);
+
+        int unique = 0;
+        for (int i = 0; i < coordinates.length; i++) {
+            if (unique == 0 || coordinates[i] != coordinates[unique - 1]) coordinates[unique++] = coordinates[i];
+        }
+        return Arrays.copyOf(coordinates, unique);
+    }
+
+    private int indexOf(double[] coordinates, double value) {
+        return Arrays.binarySearch(coordinates, value);
+    }
+
+    /**
+     * 経路の始点を、関係元の矩形から出る辺上の点に置き換える。
+     */
+    private List<Point2D> clipStart(List<Point2D> points, Rectangle2D source) {
+        for (int i = 1; i < points.size(); i++) {
+            if (source.contains(points.get(i))) continue;
+
+            List<Point2D> clipped = new ArrayList<>();
+            clipped.add(calculateBoundaryPoint(source, points.get(i - 1), points.get(i)));
+            for (int j = i; j < points.size(); j++) addDistinct(clipped, points.get(j));
+            return clipped;
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 経路の終点を、関係先の矩形に入る辺上の点に置き換える。
+     */
+    private List<Point2D> clipEnd(List<Point2D> points, Rectangle2D target) {
+        for (int i = points.size() - 2; i >= 0; i--) {
+            if (target.contains(points.get(i))) continue;
+
+            List<Point2D> clipped = new ArrayList<>(points.subList(0, i + 1));
+            addDistinct(clipped, calculateBoundaryPoint(target, points.get(i + 1), points.get(i)));
+            return clipped;
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 矩形の内側の点から外側の点へ向かう縦または横の線分が、矩形の辺と交わる点を計算する。
+     */
+    private Point2D calculateBoundaryPoint(Rectangle2D rectangle, Point2D inside, Point2D outside) {
+        if (inside.getY() == outside.getY()) {
+            return new Point2D(outside.getX() > inside.getX() ? rectangle.getMaxX() : rectangle.getMinX(), inside.getY());
+        } else {
+            return new Point2D(inside.getX(), outside.getY() > inside.getY() ? rectangle.getMaxY() : rectangle.getMinY());
+        }
+    }
+
+    /**
+     * 矩形の中心から任意の点へ向かう直線が、矩形の辺と交わる点を計算する。
+     */
+    private Point2D calculateExitPoint(Rectangle2D rectangle, Point2D from, Point2D to) {
+        double dx = to.getX() - from.getX();
+        double dy = to.getY() - from.getY();
+        if (dx == 0.0 && dy == 0.0) return from;
+
+        double ratioX = dx != 0.0 ? rectangle.getWidth() / 2 / Math.abs(dx) : Double.POSITIVE_INFINITY;
+        double ratioY = dy != 0.0 ? rectangle.getHeight() / 2 / Math.abs(dy) : Double.POSITIVE_INFINITY;
+        double ratio = Math.min(Math.min(ratioX, ratioY), 1.0);
+        return new Point2D(from.getX() + dx * ratio, from.getY() + dy * ratio);
+    }
+
+    private void addDistinct(List<Point2D> points, Point2D point) {
+        if (points.isEmpty() || !points.get(points.size() - 1).equals(point)) points.add(point);
+    }
+
+    private boolean isInside(double[] box, Point2D point) {
+        return box[0] < point.getX() && point.getX() < box[2] && box[1] < point.getY() && point.getY() < box[3];
+    }
+
+    private Point2D center(Rectangle2D rectangle) {
+        return new Point2D(rectangle.getMinX() + rectangle.getWidth() / 2, rectangle.getMinY() + rectangle.getHeight() / 2);
+    }
+
+    /**
+     * A*探索で用いる、推定コストが最小の状態を取り出す二分ヒープ
+     */
+    private static class StateHeap {
+        private double[] keys = new double[64];
+        private int[] states = new int[64];
+        private int size = 0;
+
+        void push(double key, int state) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                states = Arrays.copyOf(states, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (keys[parent] <= key) break;
+                keys[i] = keys[parent];
+                states[i] = states[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            states[i] = state;
+        }
+
+        int pop() {
+            int top = states[0];
+            size--;
+            double key = keys[size];
+            int state = states[size];
+            int i = 0;
+            while (true) {
+                int child = i * 2 + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                if (key <= keys[child]) break;
+                keys[i] = keys[child];
+                states[i] = states[child];
+                i = child;
+            }
+            keys[i] = key;
+            states[i] = state;
+            return top;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package io.github.morichan.retuss.window.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * <p> 均一グリッドによる空間インデックスクラス </p>
+ *
+ * <p>
+ * キャンバスを一辺 {@link #getCellSize()} の正方形のセルに分割し、各セルに重なる要素の番号を保持します。
+ * 要素の番号はノードやエッジのリストにおける番号であり、外接矩形と共に登録します。
+ * ある点における当たり判定では、その点を含むセルに登録した要素のうち外接矩形が点を含むものだけを候補として返すため、
+ * 要素数に関わらずほぼ定数時間で候補を絞り込めます。
+ * </p>
+ *
+ * <p>
+ * 登録、移動および削除はその要素が重なるセルのみを更新します。
+ * ただし、リストから要素を削除すると後ろの要素の番号が1つずつずれるため、 {@link #removeAndShift(int)} では全ての番号を詰め直します。
+ * </p>
+ */
+public class SpatialGridIndex {
+
+    /**
+     * <p> 既定のセルの一辺の長さ </p>
+     *
+     * <p>
+     * 属性や操作を持たないクラスの大きさ（幅100、高さ80）程度にしています。
+     * </p>
+     */
+    public static final double DEFAULT_CELL_SIZE = 128.0;
+
+    private final double cellSize;
+    private final Map<Integer, double[]> bounds = new HashMap<>();
+    private final Map<Long, List<Integer>> cells = new HashMap<>();
+
+    /**
+     * <p> 既定のセルの大きさでインデックスを生成します。 </p>
+     */
+    public SpatialGridIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * <p> セルの大きさを指定してインデックスを生成します。 </p>
+     *
+     * @param cellSize セルの一辺の長さ <br> 0以下の場合は {@link IllegalArgumentException} を投げます。
+     */
+    public SpatialGridIndex(double cellSize) {
+        if (!(cellSize > 0.0)) throw new IllegalArgumentException();
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * <p> セルの一辺の長さを取得します。 </p>
+     *
+     * @return セルの一辺の長さ
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * <p> 要素の外接矩形を登録します。 </p>
+     *
+     * <p>
+     * 既に登録している番号の場合は、以前の外接矩形と置き換えます。
+     * 幅や高さが0以下の外接矩形（まだ描画していないノードなど）は当たり判定の対象にならないため、登録を削除します。
+     * </p>
+     *
+     * @param id 要素の番号
+     * @param minX 外接矩形の左端のX軸
+     * @param minY 外接矩形の上端のY軸
+     * @param maxX 外接矩形の右端のX軸
+     * @param maxY 外接矩形の下端のY軸
+     */
+    public void put(int id, double minX, double minY, double maxX, double maxY) {
+        remove(id);
+        if (!(minX < maxX && minY < maxY)) return;
+
+        double[] box = {minX, minY, maxX, maxY};
+        bounds.put(id, box);
+        forEachCell(box, key -> cells.computeIfAbsent(key, k -> new ArrayList<>()).add(id));
+    }
+
+    /**
+     * <p> 要素の登録を削除します。 </p>
+     *
+     * <p>
+     * 他の要素の番号は変更しません。
+     * </p>
+     *
+     * @param id 要素の番号 <br> 登録していない場合は何もしません。
+     */
+    public void remove(int id) {
+        double[] box = bounds.remove(id);
+        if (box == null) return;
+
+        forEachCell(box, key -> {
+            List<Integer> ids = cells.get(key);
+            ids.remove(Integer.valueOf(id));
+            if (ids.isEmpty()) cells.remove(key);
+        });
+    }
+
+    /**
+     * <p> 要素の登録を削除し、それより後ろの要素の番号を1つずつ詰めます。 </p>
+     *
+     * <p>
+     * リストから要素を削除した場合に用います。
+     * </p>
+     *
+     * @param id 削除した要素の番号
+     */
+    public void removeAndShift(int id) {
+        remove(id);
+
+        Map<Integer, double[]> shifted = new HashMap<>();
+        for (Map.Entry<Integer, double[]> entry : bounds.entrySet()) {
+            shifted.put(entry.getKey() > id ? entry.getKey() - 1 : entry.getKey(), entry.getValue());
+        }
+        bounds.clear();
+        bounds.putAll(shifted);
+
+        for (List<Integer> ids : cells.values()) {
+            for (int i = 0; i < ids.size(); i++) {
+                if (ids.get(i) > id) ids.set(i, ids.get(i) - 1);
+            }
+        }
+    }
+
+    /**
+     * <p> 全ての登録を削除します。 </p>
+     */
+    public void clear() {
+        bounds.clear();
+        cells.clear();
+    }
+
+    /**
+     * <p> 登録している要素の数を取得します。 </p>
+     *
+     * @return 要素の数
+     */
+    public int size() {
+        return bounds.size();
+    }
+
+    /**
+     * <p> 任意の点を外接矩形に含む要素の番号を取得します。 </p>
+     *
+     * <p>
+     * 外接矩形による判定のみを行うため、厳密な当たり判定は呼出し側で候補ごとに行ってください。
+     * </p>
+     *
+     * @param x 任意の点のX軸
+     * @param y 任意の点のY軸
+     * @return 要素の番号の昇順の配列 <br> 要素数0の可能性あり
+     */
+    public int[] search(double x, double y) {
+        List<Integer> ids = cells.get(key(cellIndex(x), cellIndex(y)));
+        if (ids == null) return new int[0];
+
+        int[] candidates = new int[ids.size()];
+        int count = 0;
+        for (int id : ids) {
+            double[] box = bounds.get(id);
+            if (box[0] <= x && x <= box[2] && box[1] <= y && y <= box[3]) candidates[count++] = id;
+        }
+
+        int[] result = Arrays.copyOf(candidates, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * <p> 任意の矩形と外接矩形が重なる要素の番号を取得します。 </p>
+     *
+     * <p>
+     * 部分的に再描画する際に、再描画する領域に掛かる要素を探すために用います。
+     * </p>
+     *
+     * @param minX 矩形の左端のX軸
+     * @param minY 矩形の上端のY軸
+     * @param maxX 矩形の右端のX軸
+     * @param maxY 矩形の下端のY軸
+     * @return 要素の番号の昇順の配列 <br> 要素数0の可能性あり
+     */
+    public int[] search(double minX, double minY, double maxX, double maxY) {
+        if (!(minX <= maxX && minY <= maxY)) return new int[0];
+
+        Set<Integer> candidates = new HashSet<>();
+        forEachCell(new double[]{minX, minY, maxX, maxY}, key -> {
+            List<Integer> ids = cells.get(key);
+            if (ids == null) return;
+            for (int id : ids) {
+                double[] box = bounds.get(id);
+                if (box[0] <= maxX && minX <= box[2] && box[1] <= maxY && minY <= box[3]) candidates.add(id);
+            }
+        });
+
+        int[] result = new int[candidates.size()];
+        int count = 0;
+        for (int id : candidates) result[count++] = id;
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void forEachCell(double[] box, LongConsumer consumer) {
+        int minCellX = cellIndex(box[0]);
+        int minCellY = cellIndex(box[1]);
+        int maxCellX = cellIndex(box[2]);
+        int maxCellY = cellIndex(box[3]);
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                consumer.accept(key(cellX, cellY));
+            }
+        }
+    }
+
+    private int cellIndex(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,202 @@
+package io.github.morichan.retuss.window.utility;
+
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * <p> テキストの幅を記憶するキャッシュクラス </p>
+ *
+ * <p>
+ * ノードの大きさを計算するためだけに、再描画のたびにテキストごとの {@link Text} インスタンスを生成して幅を測らないように、
+ * 文字列とフォントの組ごとに測った幅を記憶します。
+ * 記憶する組の数は {@link #getCapacity()} までであり、超えた場合は最も長く参照していない組から削除します（LRU）。
+ * </p>
+ *
+ * <p>
+ * フォントもファミリ、太さ、斜体および大きさの組ごとに1つの {@link Font} インスタンスを記憶して使い回します。
+ * JavaFXアプリケーションスレッドからのみ利用することを想定しているため、スレッドセーフではありません。
+ * </p>
+ */
+public class TextMetricsCache {
+
+    /**
+     * <p> 既定の記憶する組の数 </p>
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final int capacity;
+    private final Map<FontKey, Font> fonts = new HashMap<>();
+    private final Map<WidthKey, Double> widths;
+    private final ToDoubleBiFunction<String, Font> measurer;
+
+    /**
+     * <p> 既定の記憶する組の数でキャッシュを生成します。 </p>
+     */
+    public TextMetricsCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * <p> 記憶する組の数を指定してキャッシュを生成します。 </p>
+     *
+     * @param capacity 記憶する組の数 <br> 0以下の場合は {@link IllegalArgumentException} を投げます。
+     */
+    public TextMetricsCache(int capacity) {
+        this(capacity, measureWithText());
+    }
+
+    /**
+     * <p> 記憶する組の数とテキストの幅の測り方を指定してキャッシュを生成します。 </p>
+     *
+     * <p>
+     * テストコードで主に用いる。
+     * </p>
+     *
+     * @param capacity 記憶する組の数 <br> 0以下の場合は {@link IllegalArgumentException} を投げます。
+     * @param measurer テキストとフォントから幅を測る関数
+     */
+    TextMetricsCache(int capacity, ToDoubleBiFunction<String, Font> measurer) {
+        if (capacity <= 0) throw new IllegalArgumentException();
+        this.capacity = capacity;
+        this.measurer = measurer;
+        this.widths = new LinkedHashMap<WidthKey, Double>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<WidthKey, Double> eldest) {
+                return size() > TextMetricsCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * <p> 記憶する組の数を取得します。 </p>
+     *
+     * @return 記憶する組の数
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * <p> 現在記憶している幅の数を取得します。 </p>
+     *
+     * @return 幅の数
+     */
+    public int size() {
+        return widths.size();
+    }
+
+    /**
+     * <p> フォントを取得します。 </p>
+     *
+     * <p>
+     * 同じ組み合わせで取得した場合は同じインスタンスを返します。
+     * </p>
+     *
+     * @param family フォントファミリ
+     * @param weight フォントの太さ
+     * @param posture フォントの斜体 <br> {@code null} の場合は {@link FontPosture#REGULAR} として扱います。
+     * @param size フォントの大きさ
+     * @return フォント
+     */
+    public Font getFont(String family, FontWeight weight, FontPosture posture, double size) {
+        FontKey key = new FontKey(family, weight, posture == null ? FontPosture.REGULAR : posture, size);
+        return fonts.computeIfAbsent(key, k -> Font.font(k.family, k.weight, k.posture, k.size));
+    }
+
+    /**
+     * <p> 任意のフォントで描画した場合のテキストの幅を取得します。 </p>
+     *
+     * <p>
+     * {@link Text#getLayoutBounds()} の幅と同じ値を返します。
+     * 記憶していない組の場合のみ実際に測ります。
+     * </p>
+     *
+     * @param text テキスト
+     * @param font フォント
+     * @return テキストの幅
+     */
+    public double getWidth(String text, Font font) {
+        WidthKey key = new WidthKey(text, font);
+        Double width = widths.get(key);
+        if (width != null) return width;
+
+        width = measurer.applyAsDouble(text, font);
+        widths.put(key, width);
+        return width;
+    }
+
+    /**
+     * <p> 全ての記憶を削除します。 </p>
+     */
+    public void clear() {
+        fonts.clear();
+        widths.clear();
+    }
+
+    private static ToDoubleBiFunction<String, Font> measureWithText() {
+        Text text = new Text();
+        return (string, font) -> {
+            text.setFont(font);
+            text.setText(string);
+            return text.getLayoutBounds().getWidth();
+        };
+    }
+
+    private static class FontKey {
+        private final String family;
+        private final FontWeight weight;
+        private final FontPosture posture;
+        private final double size;
+
+        private FontKey(String family, FontWeight weight, FontPosture posture, double size) {
+            this.family = family;
+            this.weight = weight;
+            this.posture = posture;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof FontKey)) return false;
+            FontKey other = (FontKey) obj;
+            return Objects.equals(family, other.family) && weight == other.weight && posture == other.posture && Double.compare(size, other.size) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(family, weight, posture, size);
+        }
+    }
+
+    private static class WidthKey {
+        private final String text;
+        private final Font font;
+
+        private WidthKey(String text, Font font) {
+            this.text = text;
+            this.font = font;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof WidthKey)) return false;
+            WidthKey other = (WidthKey) obj;
+            return text.equals(other.text) && font.equals(other.font);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * text.hashCode() + font.hashCode();
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package io.github.morichan.retuss.window.utility;
+
+import javafx.beans.InvalidationListener;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * <p> 一定の大きさのタイルに分割したキャンバスクラス </p>
+ *
+ * <p>
+ * 1枚の {@link Canvas} では扱えない（8000ピクセル程度を超えると失敗したり遅くなったりする）大きさの図を描画するために、
+ * 図全体を一辺 {@link #getTileSize()} の正方形のタイルに分割します。
+ * タイルは表示領域（ {@link #setViewport(Rectangle2D)} ）に掛かるものだけを {@link Canvas} として生成して描画し、
+ * 表示領域から外れたタイルは破棄せずに使い回すため、図が大きくなってもメモリは表示領域の大きさ程度しか使いません。
+ * </p>
+ *
+ * <p>
+ * タイルへの描画は {@link TilePainter} に任せます。
+ * {@link TilePainter} に渡す {@link GraphicsContext} は図全体の座標で描画できるように平行移動済みであり、
+ * 描画する領域の消去も含めて {@link TilePainter} で行います。
+ * マウスイベントの座標もこのペインの座標、すなわち図全体の座標になります。
+ * </p>
+ */
+public class TiledCanvas extends Pane {
+
+    /**
+     * <p> 既定のタイルの一辺の長さ </p>
+     */
+    public static final double DEFAULT_TILE_SIZE = 512.0;
+
+    /**
+     * <p> 表示領域から外れたタイルを使い回すために保持する数の上限 </p>
+     */
+    private static final int maxPooledTiles = 16;
+
+    /**
+     * <p> タイルに描画する処理のインタフェース </p>
+     */
+    @FunctionalInterface
+    public interface TilePainter {
+
+        /**
+         * <p> タイルの任意の領域を描画します </p>
+         *
+         * @param gc     図全体の座標で描画できるように平行移動済みのタイルのグラフィックスコンテキスト
+         * @param region 描画する図全体の座標における領域
+         */
+        void paint(GraphicsContext gc, Rectangle2D region);
+    }
+
+    private final double tileSize;
+    private final Map<Long, Canvas> tiles = new HashMap<>();
+    private final Deque<Canvas> pooledTiles = new ArrayDeque<>();
+    private TilePainter painter = (gc, region) -> {
+    };
+    private double contentWidth = 0.0;
+    private double contentHeight = 0.0;
+    private Rectangle2D viewport = Rectangle2D.EMPTY;
+
+    /**
+     * <p> 既定のタイルの大きさでキャンバスを生成します。 </p>
+     */
+    public TiledCanvas() {
+        this(DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * <p> タイルの大きさを指定してキャンバスを生成します。 </p>
+     *
+     * @param tileSize タイルの一辺の長さ <br> 0以下の場合は {@link IllegalArgumentException} を投げます。
+     */
+    public TiledCanvas(double tileSize) {
+        if (!(tileSize > 0.0)) throw new IllegalArgumentException();
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * <p> タイルの一辺の長さを取得します。 </p>
+     *
+     * @return タイルの一辺の長さ
+     */
+    public double getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * <p> タイルに描画する処理を設定します。 </p>
+     *
+     * @param painter タイルに描画する処理
+     */
+    public void setPainter(TilePainter painter) {
+        this.painter = painter;
+    }
+
+    /**
+     * <p> 図全体の大きさを設定します。 </p>
+     *
+     * <p>
+     * このペインの大きさも同じ大きさにするため、 {@link ScrollPane} の内容にした場合は図全体をスクロールできます。
+     * </p>
+     *
+     * @param width  図全体の幅
+     * @param height 図全体の高さ
+     */
+    public void setContentSize(double width, double height) {
+        contentWidth = width;
+        contentHeight = height;
+        setMinSize(width, height);
+        setPrefSize(width, height);
+        setMaxSize(width, height);
+        updateTiles();
+    }
+
+    /**
+     * <p> 図全体の幅を取得します。 </p>
+     *
+     * @return 図全体の幅
+     */
+    public double getContentWidth() {
+        return contentWidth;
+    }
+
+    /**
+     * <p> 図全体の高さを取得します。 </p>
+     *
+     * @return 図全体の高さ
+     */
+    public double getContentHeight() {
+        return contentHeight;
+    }
+
+    /**
+     * <p> 表示領域を設定し、表示領域に掛かるタイルのみを用意します。 </p>
+     *
+     * <p>
+     * 新たに表示領域に掛かったタイルは描画し、外れたタイルは使い回すために取り除きます。
+     * </p>
+     *
+     * @param viewport 図全体の座標における表示領域
+     */
+    public void setViewport(Rectangle2D viewport) {
+        this.viewport = viewport;
+        updateTiles();
+    }
+
+    /**
+     * <p> 表示領域を取得します。 </p>
+     *
+     * @return 図全体の座標における表示領域
+     */
+    public Rectangle2D getViewport() {
+        return viewport;
+    }
+
+    /**
+     * <p> {@link ScrollPane} のスクロール位置と表示領域の大きさに合わせて、表示領域を更新し続けるように設定します。 </p>
+     *
+     * @param scrollPane このペインを内容に持つスクロールペイン
+     */
+    public void bindViewport(ScrollPane scrollPane) {
+        InvalidationListener listener = observable -> setViewport(calculateViewport(scrollPane));
+        scrollPane.viewportBoundsProperty().addListener(listener);
+        scrollPane.hvalueProperty().addListener(listener);
+        scrollPane.vvalueProperty().addListener(listener);
+        setViewport(calculateViewport(scrollPane));
+    }
+
+    /**
+     * <p> 表示しているタイルの内、任意の領域に掛かるタイルのみを描画し直します。 </p>
+     *
+     * @param region 図全体の座標における描画し直す領域
+     */
+    public void repaint(Rectangle2D region) {
+        for (Map.Entry<Long, Canvas> tile : tiles.entrySet()) {
+            Rectangle2D intersection = intersect(calculateTileBounds(tile.getKey()), region);
+            if (intersection != null) paintTile(tile.getValue(), intersection);
+        }
+    }
+
+    /**
+     * <p> 表示している全てのタイルを描画し直します。 </p>
+     */
+    public void repaintAll() {
+        for (Map.Entry<Long, Canvas> tile : tiles.entrySet()) {
+            Rectangle2D bounds = intersect(calculateTileBounds(tile.getKey()), new Rectangle2D(0.0, 0.0, contentWidth, contentHeight));
+            if (bounds != null) paintTile(tile.getValue(), bounds);
+        }
+    }
+
+    /**
+     * <p> 表示しているタイルの数を取得します。 </p>
+     *
+     * @return タイルの数
+     */
+    public int getTileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * <p> 使い回すために保持しているタイルの数を取得します。 </p>
+     *
+     * <p>
+     * テストコードで主に用いる。
+     * </p>
+     *
+     * @return 保持しているタイルの数
+     */
+    int getPooledTileCount() {
+        return pooledTiles.size();
+    }
+
+    private void updateTiles() {
+        Rectangle2D visible = intersect(viewport, new Rectangle2D(0.0, 0.0, contentWidth, contentHeight));
+
+        Iterator<Map.Entry<Long, Canvas>> iterator = tiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Canvas> tile = iterator.next();
+            if (visible == null || intersect(calculateTileBounds(tile.getKey()), visible) == null) {
+                getChildren().remove(tile.getValue());
+                if (pooledTiles.size() < maxPooledTiles) pooledTiles.push(tile.getValue());
+                iterator.remove();
+            }
+        }
+        if (visible == null) return;
+
+        int minColumn = (int) Math.floor(visible.getMinX() / tileSize);
+        int minRow = (int) Math.floor(visible.getMinY() / tileSize);
+        int maxColumn = (int) Math.ceil(visible.getMaxX() / tileSize) - 1;
+        int maxRow = (int) Math.ceil(visible.getMaxY() / tileSize) - 1;
+
+        for (int column = minColumn; column <= maxColumn; column++) {
+            for (int row = minRow; row <= maxRow; row++) {
+                long key = key(column, row);
+                if (tiles.containsKey(key)) continue;
+
+                Canvas tile = pooledTiles.isEmpty() ? new Canvas(tileSize, tileSize) : pooledTiles.pop();
+                tile.relocate(column * tileSize, row * tileSize);
+                getChildren().add(tile);
+                tiles.put(key, tile);
+
+                Rectangle2D bounds = intersect(calculateTileBounds(key), new Rectangle2D(0.0, 0.0, contentWidth, contentHeight));
+                if (bounds != null) paintTile(tile, bounds);
+            }
+        }
+    }
+
+    private void paintTile(Canvas tile, Rectangle2D region) {
+        GraphicsContext gc = tile.getGraphicsContext2D();
+        gc.save();
+        gc.translate(-tile.getLayoutX(), -tile.getLayoutY());
+        painter.paint(gc, region);
+        gc.restore();
+    }
+
+    private Rectangle2D calculateViewport(ScrollPane scrollPane) {
+        Bounds bounds = scrollPane.getViewportBounds();
+        double hRange = scrollPane.getHmax() - scrollPane.getHmin();
+        double vRange = scrollPane.getVmax() - scrollPane.getVmin();
+        double hRatio = hRange > 0.0 ? (scrollPane.getHvalue() - scrollPane.getHmin()) / hRange : 0.0;
+        double vRatio = vRange > 0.0 ? (scrollPane.getVvalue() - scrollPane.getVmin()) / vRange : 0.0;
+        double x = Math.max(0.0, contentWidth - bounds.getWidth()) * hRatio;
+        double y = Math.max(0.0, contentHeight - bounds.getHeight()) * vRatio;
+
+        return new Rectangle2D(x, y, bounds.getWidth(), bounds.getHeight());
+    }
+
+    private Rectangle2D calculateTileBounds(long key) {
+        int column = (int) (key >> 32);
+        int row = (int) key;
+        return new Rectangle2D(column * tileSize, row * tileSize, tileSize, tileSize);
+    }
+
+    private Rectangle2D intersect(Rectangle2D a, Rectangle2D b) {
+        double minX = Math.max(a.getMinX(), b.getMinX());
+        double minY = Math.max(a.getMinY(), b.getMinY());
+        double maxX = Math.min(a.getMaxX(), b.getMaxX());
+        double maxY = Math.min(a.getMaxY(), b.getMaxY());
+        if (!(minX < maxX && minY < maxY)) return null;
+        return new Rectangle2D(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    private long key(int column, int row) {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
+}
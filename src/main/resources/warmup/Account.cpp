@@ -0,0 +1,17 @@
+#include <vector>
+#include <string>
+
+class Account {
+public:
+    bool deposit(int amount) {}
+    int getBalance() {}
+
+protected:
+    void clear() {}
+
+private:
+    int balance;
+    std::string owner;
+    History* history;
+    std::vector<std::string> logs;
+};
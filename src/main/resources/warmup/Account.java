@@ -0,0 +1,29 @@
+class Account {
+    private static final int LIMIT = 100;
+    private int balance;
+    private String owner;
+    private History history = new History();
+    private java.util.List<String> logs = new java.util.ArrayList<>();
+
+    public boolean deposit(int amount) {
+        if (amount <= 0 || amount > LIMIT) {
+            return false;
+        }
+        int previous = balance;
+        balance = previous + amount;
+        history.record(owner, amount);
+        for (String log : logs) {
+            System.out.println(log);
+        }
+        return true;
+    }
+
+    protected int getBalance() {
+        return balance;
+    }
+
+    void clear() {
+        balance = 0;
+        logs.clear();
+    }
+}
@@ -0,0 +1,11 @@
+#include "Shape.cpp"
+
+class Circle : public Shape {
+public:
+    double area() {}
+    Point createPoint(int x, int y) {}
+
+private:
+    double radius;
+    Point center;
+};
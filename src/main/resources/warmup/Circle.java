@@ -0,0 +1,18 @@
+class Circle extends Shape {
+    private double radius = 1.0;
+    private Point center;
+
+    public Circle(double radius) {
+        this.radius = radius;
+    }
+
+    public double area() {
+        return Math.PI * radius * radius;
+    }
+
+    public Point createPoint(int x, int y) {
+        Point point = new Point(x, y);
+        center = point;
+        return point;
+    }
+}
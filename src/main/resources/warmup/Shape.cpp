@@ -0,0 +1,12 @@
+#include <string>
+
+class Shape {
+public:
+    virtual double area() {}
+    void setName(std::string name) {}
+    std::string getName() {}
+
+protected:
+    std::string name;
+    double origin[2];
+};
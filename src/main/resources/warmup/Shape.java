@@ -0,0 +1,21 @@
+abstract class Shape {
+    protected String name = "shape";
+    private double[] origin = new double[2];
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    abstract public double area();
+
+    public void move(double x, double y) {
+        double nextX = origin[0] + x;
+        double nextY = origin[1] + y;
+        origin[0] = nextX;
+        origin[1] = nextY;
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.morichan.retuss.batch;
+
+import io.github.morichan.retuss.translator.Language;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UmlExportTest {
+
+    UmlExport obj;
+    ByteArrayOutputStream out;
+    ByteArrayOutputStream err;
+    Path root;
+    Path output;
+
+    @BeforeEach
+    void setup() throws IOException {
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+        obj = new UmlExport(new PrintStream(out, true), new PrintStream(err, true));
+        root = Files.createTempDirectory("retuss-export");
+        output = root.resolve("out/model.uml");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) Files.delete(path);
+        }
+    }
+
+    void write(String relativePath, String code) throws IOException {
+        Path file = root.resolve("src").resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    List<String> readOutput() throws IOException {
+        return Files.readAllLines(output, StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    class Javaのソースコードの場合 {
+
+        @BeforeEach
+        void setup() throws IOException {
+            write("a/Shape.java", "abstract class Shape { abstract public double getArea(); }");
+            write("b/Circle.java", "class Circle extends Shape { private double radius; public double getArea() { return 0; } }");
+        }
+
+        @Test
+        void UMLモデルをファイルに出力する() throws IOException {
+            int actual = obj.run(new String[]{"--workers", "2", root.resolve("src").toString(), output.toString()});
+
+            assertThat(actual).isEqualTo(0);
+            assertThat(readOutput()).contains("class Shape", "class Circle extends Shape", "attribute - radius : double", "operation + getArea() : double");
+            assertThat(out.toString()).startsWith("Exported 2 classes (Java, 2 workers)");
+        }
+
+        @Test
+        void 言語をJavaと判定する() throws IOException {
+            assertThat(obj.detectLanguage(root)).isEqualTo(Language.Java);
+        }
+    }
+
+    @Nested
+    class Cppのソースコードの場合 {
+
+        @BeforeEach
+        void setup() throws IOException {
+            write("Shape.h", "class Shape { public: virtual double getArea() = 0; };");
+            write("Circle.h", "class Circle : public Shape { private: double radius; public: double getArea(); };");
+            write("Circle.cpp", "double Circle::getArea() { return radius; }");
+        }
+
+        @Test
+        void 言語を指定せずにUMLモデルをファイルに出力する() throws IOException {
+            int actual = obj.run(new String[]{root.resolve("src").toString(), output.toString()});
+
+            assertThat(actual).isEqualTo(0);
+            assertThat(readOutput()).contains("class Shape", "class Circle extends Shape", "attribute - radius : double");
+            assertThat(out.toString()).startsWith("Exported 2 classes (Cpp,");
+        }
+    }
+
+    @Nested
+    class 引数が不正な場合 {
+
+        @Test
+        void 出力ファイルがなければ2を返す() {
+            int actual = obj.run(new String[]{root.toString()});
+
+            assertThat(actual).isEqualTo(2);
+            assertThat(err.toString()).contains(UmlExport.USAGE);
+        }
+
+        @Test
+        void 並列数が正でなければ2を返す() {
+            int actual = obj.run(new String[]{"--workers", "0", root.toString(), output.toString()});
+
+            assertThat(actual).isEqualTo(2);
+        }
+
+        @Test
+        void 未知の言語ならば2を返す() {
+            int actual = obj.run(new String[]{"--language", "ruby", root.toString(), output.toString()});
+
+            assertThat(actual).isEqualTo(2);
+            assertThat(err.toString()).contains("Unknown language: ruby");
+        }
+
+        @Test
+        void ディレクトリが存在しなければ2を返す() {
+            int actual = obj.run(new String[]{root.resolve("nothing").toString(), output.toString()});
+
+            assertThat(actual).isEqualTo(2);
+        }
+    }
+}
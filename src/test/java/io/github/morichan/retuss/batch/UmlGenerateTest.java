@@ -0,0 +1,140 @@
+package io.github.morichan.retuss.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UmlGenerateTest {
+
+    UmlGenerate obj;
+    ByteArrayOutputStream out;
+    ByteArrayOutputStream err;
+    Path root;
+    Path model;
+    Path output;
+
+    @BeforeEach
+    void setup() throws IOException {
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+        obj = new UmlGenerate(new PrintStream(out, true), new PrintStream(err, true));
+        root = Files.createTempDirectory("retuss-generate");
+        model = root.resolve("model.uml");
+        output = root.resolve("out");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) Files.delete(path);
+        }
+    }
+
+    String read(String relativePath) throws IOException {
+        return new String(Files.readAllBytes(output.resolve(relativePath)), StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    class 正しいモデルの場合 {
+
+        @BeforeEach
+        void setup() throws IOException {
+            String text = "package main\n" +
+                    "class Shape\n" +
+                    "abstract operation + getArea() : double\n" +
+                    "class Circle extends Shape\n" +
+                    "attribute - radius : double\n" +
+                    "operation + getArea() : double\n";
+            Files.write(model, text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        void JavaとCppのファイルをクラスごとに出力する() throws IOException {
+            int actual = obj.run(new String[]{"--workers", "2", model.toString(), output.toString()});
+
+            assertThat(actual).isEqualTo(0);
+            assertThat(read("java/Circle.java")).contains("class Circle extends Shape", "private double radius;");
+            assertThat(read("java/Shape.java")).contains("abstract class Shape");
+            assertThat(read("cpp/Circle.h")).contains("class Circle : public Shape", "double radius;");
+            assertThat(read("cpp/Shape.h")).contains("class Shape");
+            assertThat(out.toString()).startsWith("Generated 4 files from 2 classes (2 workers)");
+        }
+
+        @Test
+        void 言語を指定するとその言語のみ出力する() {
+            int actual = obj.run(new String[]{"--language", "java", model.toString(), output.toString()});
+
+            assertThat(actual).isEqualTo(0);
+            assertThat(Files.exists(output.resolve("java/Circle.java"))).isTrue();
+            assertThat(Files.exists(output.resolve("cpp"))).isFalse();
+        }
+    }
+
+    @Nested
+    class 大量のクラスを持つ場合 {
+
+        @BeforeEach
+        void setup() throws IOException {
+            StringBuilder sb = new StringBuilder("package main\n");
+            for (int i = 0; i < 300; i++) {
+                sb.append("class Class").append(i).append("\n");
+                sb.append("attribute - number : int\n");
+                sb.append("operation + getNumber() : int\n");
+            }
+            Files.write(model, sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        void 全てのクラスを出力する() throws IOException {
+            int actual = obj.run(new String[]{"--workers", "4", model.toString(), output.toString()});
+
+            assertThat(actual).isEqualTo(0);
+            try (Stream<Path> files = Files.list(output.resolve("java"))) {
+                assertThat(files.count()).isEqualTo(300);
+            }
+            assertThat(read("cpp/Class299.h")).contains("class Class299");
+        }
+    }
+
+    @Nested
+    class 不正な場合 {
+
+        @Test
+        void モデルが解釈できなければ1を返す() throws IOException {
+            Files.write(model, "unknown\n".getBytes(StandardCharsets.UTF_8));
+
+            int actual = obj.run(new String[]{model.toString(), output.toString()});
+
+            assertThat(actual).isEqualTo(1);
+            assertThat(err.toString()).contains("Line 1");
+        }
+
+        @Test
+        void モデルが存在しなければ2を返す() {
+            int actual = obj.run(new String[]{model.toString(), output.toString()});
+
+            assertThat(actual).isEqualTo(2);
+        }
+
+        @Test
+        void 未知の言語ならば2を返す() {
+            int actual = obj.run(new String[]{"--language", "ruby", model.toString(), output.toString()});
+
+            assertThat(actual).isEqualTo(2);
+            assertThat(err.toString()).contains(UmlGenerate.USAGE);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.morichan.retuss.batch;
+
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.language.uml.Package;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UmlModelReaderTest {
+
+    UmlModelReader obj;
+
+    @BeforeEach
+    void setup() {
+        obj = new UmlModelReader();
+    }
+
+    @Nested
+    class 正しいモデルの場合 {
+
+        String model = "# RETUSS UML model 1\n" +
+                "package shapes\n" +
+                "\n" +
+                "class Circle extends Shape\n" +
+                "attribute - radius : double = 1.0\n" +
+                "relation - center : Point\n" +
+                "operation + getArea() : double\n" +
+                "operation + move(x : int, y : int) : void\n" +
+                "\n" +
+                "class Shape\n" +
+                "abstract operation + getArea() : double\n";
+
+        @Test
+        void パッケージ名とクラスを復元する() throws IOException {
+            Package actual = obj.read(new StringReader(model));
+
+            assertThat(actual.getName()).isEqualTo("shapes");
+            assertThat(actual.getClasses()).extracting(Class::getName).containsExactly("Circle", "Shape");
+        }
+
+        @Test
+        void 後に宣言した汎化クラスを解決する() throws IOException {
+            Package actual = obj.read(new StringReader(model));
+
+            assertThat(actual.getClasses().get(0).getGeneralizationClass()).isSameAs(actual.getClasses().get(1));
+        }
+
+        @Test
+        void 属性と関係属性と操作を復元する() throws IOException {
+            Class actual = obj.read(new StringReader(model)).getClasses().get(0);
+
+            assertThat(actual.extractAttributes().get(0).toString()).isEqualTo("- radius : double = 1.0");
+            assertThat(actual.extractRelations().get(0).toString()).isEqualTo("- center : Point");
+            assertThat(actual.extractOperations().get(1).toString()).isEqualTo("+ move(x : int, y : int) : void");
+        }
+
+        @Test
+        void 抽象操作を復元する() throws IOException {
+            Package actual = obj.read(new StringReader(model));
+
+            assertThat(actual.getClasses().get(0).getOperationGraphics().get(0).isAbstract()).isFalse();
+            assertThat(actual.getClasses().get(1).getOperationGraphics().get(0).isAbstract()).isTrue();
+        }
+
+        @Test
+        void 書き出すと同じテキストになる() throws IOException {
+            StringWriter writer = new StringWriter();
+
+            new UmlModelWriter().write(obj.read(new StringReader(model)), writer);
+
+            assertThat(writer.toString()).isEqualTo(model);
+        }
+    }
+
+    @Nested
+    class 存在しない汎化クラスを持つ場合 {
+
+        @Test
+        void 汎化クラス無しとする() throws IOException {
+            Package actual = obj.read(new StringReader("class Circle extends Nothing\n"));
+
+            assertThat(actual.getClasses().get(0).getGeneralizationClass()).isNull();
+        }
+    }
+
+    @Nested
+    class 不正なモデルの場合 {
+
+        @Test
+        void 未知の要素は行番号付きの例外を投げる() {
+            assertThatThrownBy(() -> obj.read(new StringReader("class Circle\nmethod area()\n")))
+                    .isInstanceOf(IOException.class).hasMessageStartingWith("Line 2");
+        }
+
+        @Test
+        void クラス宣言より前の属性は例外を投げる() {
+            assertThatThrownBy(() -> obj.read(new StringReader("attribute - radius : double\n")))
+                    .isInstanceOf(IOException.class).hasMessageStartingWith("Line 1");
+        }
+
+        @Test
+        void 解釈できない属性は例外を投げる() {
+            assertThatThrownBy(() -> obj.read(new StringReader("class Circle\nattribute - : double\n")))
+                    .isInstanceOf(IOException.class).hasMessageStartingWith("Line 2");
+        }
+    }
+}
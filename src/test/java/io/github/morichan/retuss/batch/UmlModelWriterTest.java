@@ -0,0 +1,91 @@
+package io.github.morichan.retuss.batch;
+
+import io.github.morichan.fescue.feature.Attribute;
+import io.github.morichan.fescue.feature.Operation;
+import io.github.morichan.fescue.feature.name.Name;
+import io.github.morichan.fescue.feature.type.Type;
+import io.github.morichan.fescue.feature.visibility.Visibility;
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.window.diagram.OperationGraphic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UmlModelWriterTest {
+
+    UmlModelWriter obj;
+    StringWriter writer;
+
+    @BeforeEach
+    void setup() {
+        obj = new UmlModelWriter();
+        writer = new StringWriter();
+    }
+
+    @Nested
+    class 空のパッケージの場合 {
+
+        @Test
+        void ヘッダとパッケージ名のみを出力する() throws IOException {
+            obj.write(new Package(), writer);
+
+            assertThat(writer.toString()).isEqualTo("# RETUSS UML model 1\npackage main\n");
+        }
+    }
+
+    @Nested
+    class クラスを持つパッケージの場合 {
+
+        Package umlPackage;
+
+        @BeforeEach
+        void setup() {
+            umlPackage = new Package("shapes");
+
+            Class shape = new Class("Shape");
+            Operation getArea = new Operation(new Name("getArea"));
+            getArea.setReturnType(new Type("double"));
+            getArea.setVisibility(Visibility.Public);
+            shape.addOperation(new OperationGraphic(getArea), true);
+
+            Class circle = new Class("Circle");
+            circle.setGeneralizationClass(shape);
+            Attribute radius = new Attribute(new Name("radius"));
+            radius.setType(new Type("double"));
+            radius.setVisibility(Visibility.Private);
+            circle.addAttribute(radius);
+            Attribute center = new Attribute(new Name("center"));
+            center.setType(new Type("Point"));
+            center.setVisibility(Visibility.Private);
+            circle.addRelation(center);
+            circle.addOperation(new OperationGraphic(getArea));
+
+            umlPackage.addClass(shape);
+            umlPackage.addClass(circle);
+        }
+
+        @Test
+        void クラスごとに属性と操作を出力する() throws IOException {
+            String expected = "# RETUSS UML model 1\n" +
+                    "package shapes\n" +
+                    "\n" +
+                    "class Shape\n" +
+                    "abstract operation + getArea() : double\n" +
+                    "\n" +
+                    "class Circle extends Shape\n" +
+                    "attribute - radius : double\n" +
+                    "relation - center : Point\n" +
+                    "operation + getArea() : double\n";
+
+            obj.write(umlPackage, writer);
+
+            assertThat(writer.toString()).isEqualTo(expected);
+        }
+    }
+}
@@ -70,6 +70,72 @@ class JavaTest {
 
             assertThat(actual).isEmpty();
         }
+
+        @Test
+        void 名前からクラスを探索する() {
+            Class expected = new Class("ClassName2");
+
+            obj.setClasses(Arrays.asList(new Class("ClassName1"), expected, new Class("ClassName3")));
+            Class actual = obj.findClass("ClassName2");
+
+            assertThat(actual).isSameAs(expected);
+        }
+
+        @Test
+        void 同じ名前のクラスが複数ある場合は最初に追加したクラスを返す() {
+            Class expected = new Class("ClassName");
+
+            obj.addClass(expected);
+            obj.addClass(new Class("ClassName"));
+            Class actual = obj.findClass("ClassName");
+
+            assertThat(actual).isSameAs(expected);
+        }
+
+        @Test
+        void 存在しない名前ではnullを返す() {
+            obj.addClass(new Class("ClassName"));
+
+            Class actual = obj.findClass("OtherClassName");
+
+            assertThat(actual).isNull();
+        }
+
+        @Test
+        void リセットした後はnullを返す() {
+            obj.addClass(new Class("ClassName"));
+
+            obj.emptyClasses();
+            Class actual = obj.findClass("ClassName");
+
+            assertThat(actual).isNull();
+        }
+
+        @Test
+        void 追加した後に名前を変更したクラスは同じ名前の次のクラスを返す() {
+            Class renamed = new Class("ClassName");
+            Class expected = new Class("ClassName");
+            obj.addClass(renamed);
+            obj.addClass(expected);
+
+            renamed.setName("RenamedClassName");
+            Class actual = obj.findClass("ClassName");
+
+            assertThat(actual).isSameAs(expected);
+        }
+
+        @Test
+        void 追加した後に名前を変更したクラスは変更後の名前で返す() {
+            Class expected = new Class("ClassName");
+            obj.addClass(expected);
+            obj.findClass("ClassName");
+
+            expected.setName("RenamedClassName");
+            Class actual = obj.findClass("RenamedClassName");
+
+            assertThat(actual).isSameAs(expected);
+            assertThat(obj.findClass("ClassName")).isNull();
+        }
     }
 
     @Nested
@@ -0,0 +1,68 @@
+package io.github.morichan.retuss.listener;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CppDefinitionListenerTest {
+
+    CppDefinitionListener obj;
+
+    void init(String code) {
+        obj = new CppDefinitionListener();
+        new ParseTreeWalker().walk(obj, CppLanguage.getParserPool().parse(CharStreams.fromString(code)).getTree());
+    }
+
+    @Nested
+    class クラス外でメンバ関数を定義した場合 {
+
+        @BeforeEach
+        void setup() {
+            init("void Account::deposit(int amount, int fee) { balance = amount; }");
+        }
+
+        @Test
+        void クラス名と関数名を抽出する() {
+            assertThat(obj.getDefinitions()).hasSize(1);
+            assertThat(obj.getDefinitions().get(0).getClassName()).isEqualTo("Account");
+            assertThat(obj.getDefinitions().get(0).getFunctionName()).isEqualTo("deposit");
+        }
+
+        @Test
+        void 引数の数を抽出する() {
+            assertThat(obj.getDefinitions().get(0).getArgumentCount()).isEqualTo(2);
+        }
+
+        @Test
+        void 実装を抽出する() {
+            assertThat(obj.getDefinitions().get(0).getFunctionbody()).isEqualTo("{balance=amount;}");
+        }
+    }
+
+    @Nested
+    class 名前空間で修飾した場合 {
+
+        @Test
+        void 最も内側のクラス名を抽出する() {
+            init("int bank::Account::getBalance() { return 0; }");
+
+            assertThat(obj.getDefinitions().get(0).getClassName()).isEqualTo("Account");
+            assertThat(obj.getDefinitions().get(0).getArgumentCount()).isZero();
+        }
+    }
+
+    @Nested
+    class クラス内でメンバ関数を定義した場合 {
+
+        @Test
+        void 抽出しない() {
+            init("class Account {public: void deposit(int amount) {}};");
+
+            assertThat(obj.getDefinitions()).isEmpty();
+        }
+    }
+}
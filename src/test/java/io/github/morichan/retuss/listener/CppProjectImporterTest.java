@@ -0,0 +1,107 @@
+package io.github.morichan.retuss.listener;
+
+import io.github.morichan.retuss.language.cpp.Class;
+import io.github.morichan.retuss.language.cpp.Cpp;
+import io.github.morichan.retuss.language.cpp.MemberFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CppProjectImporterTest {
+
+    CppProjectImporter obj;
+    Path root;
+
+    @BeforeEach
+    void setup() throws IOException {
+        obj = new CppProjectImporter(new ForkJoinPool(4));
+        root = Files.createTempDirectory("retuss-cpp-project");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) Files.delete(path);
+        }
+    }
+
+    void write(String relativePath, String code) throws IOException {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    MemberFunction findMemberFunction(Class cppClass, String name) {
+        return cppClass.getMemberFunctions().stream().filter(memberFunction -> name.equals(memberFunction.getName())).findFirst().orElse(null);
+    }
+
+    @Nested
+    class ヘッダファイルとソースファイルを持つ場合 {
+
+        @BeforeEach
+        void setup() throws IOException {
+            write("include/Account.h", "class Account {public: void deposit(int amount); int getBalance(); private: int balance;};");
+            write("src/Account.cpp", "#include \"Account.h\"\nvoid Account::deposit(int amount) { balance = balance + amount; }\nint Account::getBalance() { return balance; }\n");
+            write("include/Shape.hpp", "class Shape {public: void draw() {}};\nclass Circle : public Shape {public: void draw(); void draw(int scale);};");
+            write("src/Circle.cxx", "void Circle::draw(int scale) { }\nvoid Unknown::run() { }\n");
+            write("README.txt", "class NotCpp {};");
+        }
+
+        @Test
+        void 全てのクラスを1つのCppにまとめる() throws IOException {
+            Cpp actual = obj.importProject(root);
+
+            List<String> names = actual.getClasses().stream().map(Class::getName).collect(Collectors.toList());
+            assertThat(names).containsExactly("Account", "Shape", "Circle");
+        }
+
+        @Test
+        void クラス外で定義したメンバ関数の実装を宣言に設定する() throws IOException {
+            Cpp actual = obj.importProject(root);
+            MemberFunction deposit = findMemberFunction(actual.getClasses().get(0), "deposit");
+
+            assertThat(deposit.getFlagImplementation()).isTrue();
+            assertThat(deposit.getFunctionbody()).isEqualTo("{balance=balance+amount;}");
+            assertThat(findMemberFunction(actual.getClasses().get(0), "getBalance").getFlagImplementation()).isTrue();
+        }
+
+        @Test
+        void 引数の数が一致する宣言と組み合わせる() throws IOException {
+            Cpp actual = obj.importProject(root);
+            List<MemberFunction> draws = actual.getClasses().get(2).getMemberFunctions();
+
+            assertThat(draws.get(0).getFlagImplementation()).isFalse();
+            assertThat(draws.get(1).getFlagImplementation()).isTrue();
+        }
+
+        @Test
+        void 組み合わせられなかった定義を返す() throws IOException {
+            obj.importProject(root);
+
+            assertThat(obj.getUnpairedDefinitions()).extracting(CppDefinitionListener.Definition::toString).containsExactly("Unknown::run");
+        }
+
+        @Test
+        void ファイルごとの構文解析時間を返す() throws IOException {
+            obj.importProject(root);
+
+            assertThat(obj.getParseMillis()).hasSize(4);
+            assertThat(obj.getParseMillis().keySet()).containsExactly(
+                    root.resolve("include/Account.h"), root.resolve("include/Shape.hpp"), root.resolve("src/Account.cpp"), root.resolve("src/Circle.cxx"));
+            assertThat(obj.getParseMillis().values()).allMatch(millis -> millis >= 0);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.morichan.retuss.listener;
 
 import io.github.morichan.retuss.language.java.Java;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -50,6 +51,31 @@ class JavaLanguageTest {
 
             assertThat(actual).isEqualTo(expected);
         }
+
+        @Test
+        void SLLで構文解析を完了する() {
+            obj.parseForClassDiagram("class ClassName {}");
+            PredictionMode actual = obj.getLastPredictionMode();
+
+            assertThat(actual).isEqualTo(PredictionMode.SLL);
+        }
+    }
+
+    @Nested
+    class 誤ったソースコードの場合 {
+
+        @BeforeEach
+        void setup() {
+            obj = new JavaLanguage();
+        }
+
+        @Test
+        void LLで構文解析し直す() {
+            obj.parseForClassDiagram("class ClassName { int }");
+            PredictionMode actual = obj.getLastPredictionMode();
+
+            assertThat(actual).isEqualTo(PredictionMode.LL);
+        }
     }
 
     @Nested
@@ -0,0 +1,109 @@
+package io.github.morichan.retuss.listener;
+
+import io.github.morichan.retuss.language.java.Java;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JavaProjectImporterTest {
+
+    JavaProjectImporter obj;
+    Path root;
+
+    @BeforeEach
+    void setup() throws IOException {
+        obj = new JavaProjectImporter(new ForkJoinPool(4));
+        root = Files.createTempDirectory("retuss-java-project");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) Files.delete(path);
+        }
+    }
+
+    void write(String relativePath, String code) throws IOException {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nested
+    class 複数のJavaファイルを持つ場合 {
+
+        @BeforeEach
+        void setup() throws IOException {
+            write("b/Second.java", "class Second extends First {}");
+            write("a/First.java", "class First { private int number; }");
+            write("c/d/Third.java", "class Third { private First first; }");
+            write("README.md", "class NotJava {}");
+        }
+
+        @Test
+        void 全てのクラスをファイルパス順に持つJavaを返す() throws IOException {
+            Java actual = obj.importProject(root);
+
+            List<String> names = actual.getClasses().stream().map(io.github.morichan.retuss.language.java.Class::getName).collect(Collectors.toList());
+            assertThat(names).containsExactly("First", "Second", "Third");
+        }
+
+        @Test
+        void 継承先クラス名を保持する() throws IOException {
+            Java actual = obj.importProject(root);
+
+            assertThat(actual.getClasses().get(1).getExtendsClassName()).isEqualTo("First");
+        }
+
+        @Test
+        void 無視したファイルはない() throws IOException {
+            obj.importProject(root);
+
+            assertThat(obj.getSkippedFiles()).isEmpty();
+        }
+    }
+
+    @Nested
+    class 大量のJavaファイルを持つ場合 {
+
+        @Test
+        void 並列に構文解析しても全てのクラスを返す() throws IOException {
+            for (int i = 0; i < 100; i++) {
+                write(String.format("p%02d/Class%03d.java", i % 10, i), "class Class" + String.format("%03d", i) + " { private int value" + i + "; public void run() {} }");
+            }
+
+            Java actual = obj.importProject(root);
+
+            assertThat(actual.getClasses()).hasSize(100);
+            assertThat(actual.getClasses().get(0).getName()).isEqualTo("Class000");
+        }
+    }
+
+    @Nested
+    class 構文解析できないファイルを持つ場合 {
+
+        @Test
+        void そのファイルを無視する() throws IOException {
+            write("Valid.java", "class Valid {}");
+            write("Empty.java", "");
+
+            Java actual = obj.importProject(root);
+
+            assertThat(actual.getClasses()).hasSize(1);
+            assertThat(actual.getClasses().get(0).getName()).isEqualTo("Valid");
+        }
+    }
+}
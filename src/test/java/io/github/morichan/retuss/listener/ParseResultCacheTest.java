@@ -0,0 +1,113 @@
+package io.github.morichan.retuss.listener;
+
+import io.github.morichan.retuss.language.java.Class;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParseResultCacheTest {
+
+    ParseResultCache<Class> obj;
+
+    @BeforeEach
+    void setup() {
+        obj = new ParseResultCache<>();
+    }
+
+    @Nested
+    class 登録していない場合 {
+
+        @Test
+        void nullを返す() {
+            Class actual = obj.get(new Object(), "class ClassName {}");
+
+            assertThat(actual).isNull();
+        }
+
+        @Test
+        void エントリ数0を返す() {
+            int actual = obj.size();
+
+            assertThat(actual).isZero();
+        }
+    }
+
+    @Nested
+    class 登録した場合 {
+        Object key;
+        Class javaClass;
+
+        @BeforeEach
+        void setup() {
+            key = new Object();
+            javaClass = new Class("ClassName");
+            obj.put(key, "class ClassName {}", javaClass);
+        }
+
+        @Test
+        void 同じキーと内容ならば登録したクラスを返す() {
+            Class actual = obj.get(key, "class ClassName {}");
+
+            assertThat(actual).isSameAs(javaClass);
+        }
+
+        @Test
+        void 内容が変更されていればnullを返す() {
+            Class actual = obj.get(key, "class ClassName { int x; }");
+
+            assertThat(actual).isNull();
+        }
+
+        @Test
+        void 異なるキーならばnullを返す() {
+            Class actual = obj.get(new Object(), "class ClassName {}");
+
+            assertThat(actual).isNull();
+        }
+
+        @Test
+        void 同じキーで登録し直すと置き換える() {
+            Class expected = new Class("OtherName");
+
+            obj.put(key, "class OtherName {}", expected);
+
+            assertThat(obj.get(key, "class OtherName {}")).isSameAs(expected);
+            assertThat(obj.get(key, "class ClassName {}")).isNull();
+            assertThat(obj.size()).isEqualTo(1);
+        }
+
+        @Test
+        void 破棄するとnullを返す() {
+            obj.remove(key);
+
+            assertThat(obj.get(key, "class ClassName {}")).isNull();
+        }
+
+        @Test
+        void 全て破棄するとエントリ数0を返す() {
+            obj.clear();
+
+            assertThat(obj.size()).isZero();
+        }
+    }
+
+    @Nested
+    class nullを登録する場合 {
+
+        @Test
+        void キーがnullならば登録しない() {
+            obj.put(null, "class ClassName {}", new Class("ClassName"));
+
+            assertThat(obj.size()).isZero();
+        }
+
+        @Test
+        void 構文解析結果がnullならば登録しない() {
+            obj.put(new Object(), "class ClassName {}", null);
+
+            assertThat(obj.size()).isZero();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.morichan.retuss.listener;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParserDfaCacheTest {
+
+    @Nested
+    class 構文解析した場合 {
+
+        @BeforeEach
+        void setup() {
+            new JavaLanguage().parseForClassDiagram("class ClassName { private int number; public void print() {} }");
+        }
+
+        @Test
+        void 状態数が増える() {
+            int actual = ParserDfaCache.getStateCount(ParserDfaCache.Grammar.Java);
+
+            assertThat(actual).isPositive();
+        }
+
+        @Test
+        void 破棄すると状態数0を返す() {
+            ParserDfaCache.clear(ParserDfaCache.Grammar.Java);
+            int actual = ParserDfaCache.getStateCount(ParserDfaCache.Grammar.Java);
+
+            assertThat(actual).isZero();
+        }
+
+        @Test
+        void 破棄した後も構文解析できる() {
+            String expected = "ClassName";
+
+            ParserDfaCache.clearAll();
+            JavaLanguage javaLanguage = new JavaLanguage();
+            javaLanguage.parseForClassDiagram("class ClassName {}");
+
+            assertThat(javaLanguage.getJava().getClasses().get(0).getName()).isEqualTo(expected);
+        }
+    }
+
+    @Nested
+    class 全ての文法の状態数を取得する場合 {
+
+        @Test
+        void 文法ごとの状態数を返す() {
+            Map<ParserDfaCache.Grammar, Integer> actual = ParserDfaCache.snapshot();
+
+            assertThat(actual).containsOnlyKeys(ParserDfaCache.Grammar.values());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.morichan.retuss.listener;
+
+import io.github.morichan.retuss.parser.java.JavaLexer;
+import io.github.morichan.retuss.parser.java.JavaParser;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParserPoolTest {
+
+    ParserPool<JavaLexer, JavaParser> obj;
+
+    @BeforeEach
+    void setup() {
+        obj = new ParserPool<>(JavaLexer::new, JavaParser::new, JavaParser::compilationUnit, 2);
+    }
+
+    @Nested
+    class 正しいソースコードの場合 {
+
+        @Test
+        void SLLで構文解析する() {
+            ParserPool.Result actual = obj.parse(CharStreams.fromString("class ClassName { private int number; }"));
+
+            assertThat(actual.getPredictionMode()).isEqualTo(PredictionMode.SLL);
+            assertThat(obj.getSllCount()).isEqualTo(1);
+            assertThat(obj.getLlCount()).isZero();
+        }
+
+        @Test
+        void 構文木を返す() {
+            String expected = "classClassName{}<EOF>";
+
+            ParserPool.Result actual = obj.parse(CharStreams.fromString("class ClassName {}"));
+
+            assertThat(actual.getTree().getText()).isEqualTo(expected);
+        }
+
+        @Test
+        void 再利用しても異なるコードの構文木を返す() {
+            obj.parse(CharStreams.fromString("class First {}"));
+            ParserPool.Result actual = obj.parse(CharStreams.fromString("class Second {}"));
+
+            assertThat(actual.getTree().getText()).isEqualTo("classSecond{}<EOF>");
+            assertThat(obj.getIdleCount()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class 誤ったソースコードの場合 {
+
+        @Test
+        void LLで構文解析し直す() {
+            ParserPool.Result actual = obj.parse(CharStreams.fromString("class ClassName { int }"));
+
+            assertThat(actual.getPredictionMode()).isEqualTo(PredictionMode.LL);
+            assertThat(obj.getLlCount()).isEqualTo(1);
+        }
+
+        @Test
+        void 構文解析し直した後も再利用する() {
+            obj.parse(CharStreams.fromString("class ClassName { int }"));
+            ParserPool.Result actual = obj.parse(CharStreams.fromString("class ClassName {}"));
+
+            assertThat(actual.getPredictionMode()).isEqualTo(PredictionMode.SLL);
+            assertThat(actual.getTree().getText()).isEqualTo("classClassName{}<EOF>");
+            assertThat(obj.getIdleCount()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.morichan.retuss.listener;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParserWarmUpTest {
+
+    ParserWarmUp obj;
+
+    @BeforeEach
+    void setup() {
+        obj = new ParserWarmUp();
+    }
+
+    @Nested
+    class 開始前の場合 {
+
+        @Test
+        void 完了していない() {
+            assertThat(obj.isFinished()).isFalse();
+            assertThat(obj.getElapsedMillis()).isEqualTo(-1);
+        }
+    }
+
+    @Nested
+    class 開始した場合 {
+
+        @BeforeEach
+        void setup() throws InterruptedException {
+            ParserDfaCache.clearAll();
+            obj.start().join(60000);
+        }
+
+        @Test
+        void 完了する() {
+            assertThat(obj.isFinished()).isTrue();
+            assertThat(obj.getElapsedMillis()).isNotNegative();
+        }
+
+        @Test
+        void JavaとCppのDFAキャッシュを満たす() {
+            assertThat(ParserDfaCache.getStateCount(ParserDfaCache.Grammar.Java)).isPositive();
+            assertThat(ParserDfaCache.getStateCount(ParserDfaCache.Grammar.Cpp)).isPositive();
+        }
+
+        @Test
+        void 同梱したクラスを全て構文解析する() {
+            long expected = ParserWarmUp.javaCorpus.size() + ParserWarmUp.cppCorpus.size();
+            long before = countParses();
+
+            new ParserWarmUp().run();
+
+            assertThat(countParses() - before).isEqualTo(expected);
+        }
+
+        private long countParses() {
+            return JavaLanguage.getParserPool().getSllCount() + JavaLanguage.getParserPool().getLlCount()
+                    + CppLanguage.getParserPool().getSllCount() + CppLanguage.getParserPool().getLlCount();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.morichan.retuss.listener;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SourceFileLoaderTest {
+
+    SourceFileLoader obj;
+    Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        obj = new SourceFileLoader();
+        file = Files.createTempFile("retuss-source", ".java");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    String text(CharStream stream) {
+        return stream.getText(Interval.of(0, stream.size() - 1));
+    }
+
+    void write(byte[] bom, String code, Charset charset) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(bom);
+        bytes.write(code.getBytes(charset));
+        Files.write(file, bytes.toByteArray());
+    }
+
+    @Nested
+    class BOMを持つ場合 {
+
+        @Test
+        void UTF8のBOMを読み飛ばす() throws IOException {
+            String expected = "class クラス {}\n";
+            write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, expected, StandardCharsets.UTF_8);
+
+            CharStream actual = obj.load(file);
+
+            assertThat(text(actual)).isEqualTo(expected);
+            assertThat(obj.getLastCharset()).isEqualTo(StandardCharsets.UTF_8);
+        }
+
+        @Test
+        void UTF16LEとしてデコードする() throws IOException {
+            String expected = "class Name {}\n";
+            write(new byte[]{(byte) 0xFF, (byte) 0xFE}, expected, StandardCharsets.UTF_16LE);
+
+            CharStream actual = obj.load(file);
+
+            assertThat(text(actual)).isEqualTo(expected);
+            assertThat(obj.getLastCharset()).isEqualTo(StandardCharsets.UTF_16LE);
+        }
+
+        @Test
+        void UTF16BEを判定する() {
+            Charset actual = SourceFileLoader.detectBom(ByteBuffer.wrap(new byte[]{(byte) 0xFE, (byte) 0xFF, 0x00, 0x41}));
+
+            assertThat(actual).isEqualTo(StandardCharsets.UTF_16BE);
+        }
+    }
+
+    @Nested
+    class BOMを持たない場合 {
+
+        @Test
+        void BOMを判定しない() {
+            Charset actual = SourceFileLoader.detectBom(ByteBuffer.wrap("class".getBytes(StandardCharsets.US_ASCII)));
+
+            assertThat(actual).isNull();
+        }
+
+        @Test
+        void UTF8としてデコードする() throws IOException {
+            String expected = "// 日本語のコメント\nclass Name {}\n";
+            write(new byte[0], expected, StandardCharsets.UTF_8);
+
+            CharStream actual = obj.load(file);
+
+            assertThat(text(actual)).isEqualTo(expected);
+            assertThat(obj.getLastCharset()).isEqualTo(StandardCharsets.UTF_8);
+        }
+
+        @Test
+        void UTF8として不正ならばShiftJISとしてデコードする() throws IOException {
+            String expected = "// 日本語のコメント\nclass Name {}\n";
+            write(new byte[0], expected, Charset.forName("Windows-31J"));
+
+            CharStream actual = obj.load(file);
+
+            assertThat(text(actual)).isEqualTo(expected);
+            assertThat(obj.getLastCharset()).isEqualTo(Charset.forName("Windows-31J"));
+        }
+
+        @Test
+        void サロゲートペアを1文字として扱う() throws IOException {
+            write(new byte[0], "// 😀\n", StandardCharsets.UTF_8);
+
+            CharStream actual = obj.load(file);
+
+            assertThat(actual.size()).isEqualTo(5);
+        }
+    }
+
+    @Nested
+    class 大きなファイルの場合 {
+
+        @Test
+        void メモリマップして全ての行を読み込む() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            sb.append("class Large {\n");
+            for (int i = 0; sb.length() < SourceFileLoader.MAPPING_THRESHOLD * 2; i++) {
+                sb.append("    private int field").append(i).append("; // フィールド\n");
+            }
+            sb.append("}\n");
+            write(new byte[0], sb.toString(), StandardCharsets.UTF_8);
+
+            CharStream actual = obj.load(file);
+
+            assertThat(text(actual)).isEqualTo(sb.toString());
+        }
+
+        @Test
+        void 構文解析できる() throws IOException {
+            write(new byte[0], "class Name {\n    // コメントの後も改行を保持する\n    private int number;\n}\n", StandardCharsets.UTF_8);
+            JavaLanguage javaLanguage = new JavaLanguage();
+
+            javaLanguage.parseForClassDiagram(obj.load(file));
+
+            assertThat(javaLanguage.getJava().getClasses().get(0).getFields()).hasSize(1);
+        }
+    }
+}
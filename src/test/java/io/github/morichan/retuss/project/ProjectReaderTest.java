@@ -0,0 +1,239 @@
+package io.github.morichan.retuss.project;
+
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.listener.JavaLanguage;
+import io.github.morichan.retuss.translator.UMLTranslator;
+import io.github.morichan.retuss.window.diagram.ContentType;
+import io.github.morichan.retuss.window.diagram.sequence.MessageOccurrenceSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProjectReaderTest {
+
+    ProjectReader obj;
+
+    @BeforeEach
+    void setup() {
+        obj = new ProjectReader();
+    }
+
+    byte[] write(Project project) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ProjectWriter().write(project, out);
+        return out.toByteArray();
+    }
+
+    Project writeAndRead(Project project) throws IOException {
+        return obj.read(new ByteArrayInputStream(write(project)));
+    }
+
+    Package translate(String code) {
+        JavaLanguage javaLanguage = new JavaLanguage();
+        javaLanguage.parseForClassDiagram(code);
+        return new UMLTranslator().translate(javaLanguage.getJava());
+    }
+
+    @Nested
+    class クラス図を持つ場合 {
+
+        Project actual;
+
+        @BeforeEach
+        void setup() throws IOException {
+            Package umlPackage = translate("abstract class Shape { abstract public double getArea(); }\n" +
+                    "class Circle extends Shape { private double radius = 1.0; private Point center; public double getArea() { return radius; } }\n" +
+                    "class Point { private int x; protected int getX() { return x; } }");
+            umlPackage.setName("shapes");
+            umlPackage.getClasses().get(1).getAttributeGraphics().get(0).setIndication(false);
+
+            actual = writeAndRead(new Project(umlPackage));
+        }
+
+        @Test
+        void パッケージ名とクラス名を復元する() {
+            assertThat(actual.getPackage().getName()).isEqualTo("shapes");
+            assertThat(actual.getPackage().getClasses()).extracting(Class::getName).containsExactly("Shape", "Circle", "Point");
+        }
+
+        @Test
+        void 汎化クラスをパッケージ内のクラスとして復元する() {
+            assertThat(actual.getPackage().getClasses().get(1).getGeneralizationClass()).isSameAs(actual.getPackage().getClasses().get(0));
+        }
+
+        @Test
+        void 属性と操作を復元する() {
+            Class circle = actual.getPackage().getClasses().get(1);
+
+            assertThat(circle.getAttributeGraphics()).extracting(graphic -> graphic.getAttribute().toString()).containsExactly("- radius : double = 1.0", "- center : Point");
+            assertThat(circle.getOperationGraphics()).extracting(graphic -> graphic.getOperation().toString()).containsExactly("+ getArea() : double");
+        }
+
+        @Test
+        void 表示の有無と抽象操作を復元する() {
+            assertThat(actual.getPackage().getClasses().get(1).getAttributeGraphics().get(0).isIndicate()).isFalse();
+            assertThat(actual.getPackage().getClasses().get(2).getAttributeGraphics().get(0).isIndicate()).isTrue();
+            assertThat(actual.getPackage().getClasses().get(0).getOperationGraphics().get(0).isAbstract()).isTrue();
+            assertThat(actual.getPackage().getClasses().get(1).getOperationGraphics().get(0).isAbstract()).isFalse();
+        }
+
+        @Test
+        void 再び出力すると同じバイト列になる() throws IOException {
+            byte[] expected = write(actual);
+
+            assertThat(write(writeAndRead(actual))).isEqualTo(expected);
+        }
+    }
+
+    @Nested
+    class パッケージ外のクラスを参照する場合 {
+
+        Project actual;
+
+        @BeforeEach
+        void setup() throws IOException {
+            Class subClass = new Class("SubClass");
+            subClass.setGeneralizationClass(new Class("ExternalClass"));
+            Package umlPackage = new Package();
+            umlPackage.addClass(new Class("FirstClass"));
+            umlPackage.addClass(subClass);
+            umlPackage.addClass(subClass);
+
+            actual = writeAndRead(new Project(umlPackage));
+        }
+
+        @Test
+        void 汎化クラスをパッケージ外のクラスとして復元する() {
+            Class generalizationClass = actual.getPackage().getClasses().get(1).getGeneralizationClass();
+
+            assertThat(generalizationClass.getName()).isEqualTo("ExternalClass");
+            assertThat(actual.getPackage().getClasses()).doesNotContain(generalizationClass);
+        }
+
+        @Test
+        void 同じクラスを重複して持つ場合も全てのクラスを復元する() {
+            assertThat(actual.getPackage().getClasses()).extracting(Class::getName).containsExactly("FirstClass", "SubClass", "SubClass");
+            assertThat(actual.getPackage().getClasses().get(2).getGeneralizationClass().getName()).isEqualTo("ExternalClass");
+        }
+    }
+
+    @Nested
+    class シーケンス図を持つ場合 {
+
+        Class counter;
+
+        @BeforeEach
+        void setup() throws IOException {
+            Package umlPackage = translate("class Counter {\n" +
+                    "    private int count;\n" +
+                    "    public void increment() { int step = 1; count = count + step; reset(); }\n" +
+                    "    public void reset() { count = 0; reset(); }\n" +
+                    "}");
+
+            counter = writeAndRead(new Project(umlPackage)).getPackage().getClasses().get(0);
+        }
+
+        @Test
+        void メッセージの木を復元する() {
+            MessageOccurrenceSpecification root = counter.getOperationGraphics().get(0).getInteraction().getMessage();
+
+            assertThat(root.getLifeline().getUmlClass()).isSameAs(counter);
+            assertThat(root.getMessages()).hasSize(3);
+        }
+
+        @Test
+        void 共有したメッセージを同じインスタンスとして復元する() {
+            MessageOccurrenceSpecification increment = counter.getOperationGraphics().get(0).getInteraction().getMessage();
+            MessageOccurrenceSpecification reset = counter.getOperationGraphics().get(1).getInteraction().getMessage();
+
+            assertThat(increment.getMessages().get(2)).isSameAs(reset);
+        }
+
+        @Test
+        void 循環したメッセージを復元する() {
+            MessageOccurrenceSpecification reset = counter.getOperationGraphics().get(1).getInteraction().getMessage();
+
+            assertThat(reset.getMessages().get(1)).isSameAs(reset);
+        }
+    }
+
+    @Nested
+    class ノードとエッジを持つ場合 {
+
+        @Test
+        void 座標と関係を復元する() throws IOException {
+            Project project = new Project();
+            project.addNode(new Project.Node(ContentType.Class, "First", 60.5, 50.25));
+            project.addNode(new Project.Node(ContentType.Note, "memo", 300.0, 1200.0));
+            project.addEdge(new Project.Edge(ContentType.Composition, "- second", 0, 1));
+            project.addEdge(new Project.Edge(ContentType.Generalization, "", 1, 0));
+
+            Project actual = writeAndRead(project);
+
+            assertThat(actual.getNodes()).extracting(Project.Node::getType).containsExactly(ContentType.Class, ContentType.Note);
+            assertThat(actual.getNodes().get(0).getText()).isEqualTo("First");
+            assertThat(actual.getNodes().get(0).getX()).isEqualTo(60.5);
+            assertThat(actual.getNodes().get(1).getY()).isEqualTo(1200.0);
+            assertThat(actual.getEdges()).extracting(Project.Edge::getType).containsExactly(ContentType.Composition, ContentType.Generalization);
+            assertThat(actual.getEdges().get(0).getName()).isEqualTo("- second");
+            assertThat(actual.getEdges().get(0).getTargetIndex()).isEqualTo(1);
+            assertThat(actual.getEdges().get(1).getSourceIndex()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class 大量のクラスを持つ場合 {
+
+        @Test
+        void 全てのクラスを復元する() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                sb.append("class Class").append(i).append(" { private int number; private String name; ")
+                        .append("public int getNumber() { return number; } public void setNumber(int number) { this.number = number; } }\n");
+            }
+            Project project = new Project(translate(sb.toString()));
+            for (int i = 0; i < 1000; i++) project.addNode(new Project.Node(ContentType.Class, "Class" + i, i * 10.0, i * 20.0));
+
+            Project actual = writeAndRead(project);
+
+            assertThat(actual.getPackage().getClasses()).hasSize(1000);
+            assertThat(actual.getPackage().getClasses().get(999).getOperationGraphics()).hasSize(2);
+            assertThat(actual.getNodes().get(999).getY()).isEqualTo(19980.0);
+        }
+    }
+
+    @Nested
+    class 不正なファイルの場合 {
+
+        @Test
+        void マジックナンバーが異なれば例外を投げる() {
+            assertThatThrownBy(() -> obj.read(new ByteArrayInputStream("class A {}".getBytes())))
+                    .isInstanceOf(IOException.class).hasMessageContaining("not a RETUSS project");
+        }
+
+        @Test
+        void 新しいバージョンならば例外を投げる() {
+            byte[] bytes = {'R', 'T', 'S', 'P', ProjectWriter.VERSION + 1};
+
+            assertThatThrownBy(() -> obj.read(new ByteArrayInputStream(bytes)))
+                    .isInstanceOf(IOException.class).hasMessageContaining("not supported");
+        }
+
+        @Test
+        void 途中で途切れていれば例外を投げる() throws IOException {
+            byte[] bytes = write(new Project(translate("class A { private int a; }")));
+
+            assertThatThrownBy(() -> obj.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3))))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+}
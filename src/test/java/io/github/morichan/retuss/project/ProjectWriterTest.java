@@ -0,0 +1,101 @@
+package io.github.morichan.retuss.project;
+
+import io.github.morichan.fescue.feature.Attribute;
+import io.github.morichan.fescue.feature.name.Name;
+import io.github.morichan.fescue.feature.type.Type;
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.language.uml.Package;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectWriterTest {
+
+    ProjectWriter obj;
+    ByteArrayOutputStream out;
+
+    @BeforeEach
+    void setup() {
+        obj = new ProjectWriter();
+        out = new ByteArrayOutputStream();
+    }
+
+    @Nested
+    class 空のプロジェクトの場合 {
+
+        @Test
+        void マジックナンバーとバージョンから始まる() throws IOException {
+            obj.write(new Project(), out);
+
+            byte[] actual = out.toByteArray();
+
+            assertThat(Arrays.copyOf(actual, 5)).containsExactly('R', 'T', 'S', 'P', ProjectWriter.VERSION);
+        }
+
+        @Test
+        void パッケージ名のみを文字列表に持つ() throws IOException {
+            obj.write(new Project(), out);
+
+            // ヘッダ、文字列数、"main"の長さと本体、パッケージ名の参照、クラス数、ノード数、エッジ数
+            assertThat(out.toByteArray()).hasSize(5 + 1 + 1 + 4 + 1 + 1 + 1 + 1);
+        }
+    }
+
+    @Nested
+    class 同じ文字列を複数持つ場合 {
+
+        @Test
+        void 文字列表には1回だけ出力する() throws IOException {
+            Package umlPackage = new Package();
+            for (int i = 0; i < 100; i++) {
+                Class umlClass = new Class("Class" + i);
+                Attribute attribute = new Attribute(new Name("sameAttributeName"));
+                attribute.setType(new Type("int"));
+                umlClass.addAttribute(attribute);
+                umlPackage.addClass(umlClass);
+            }
+
+            obj.write(new Project(umlPackage), out);
+
+            String actual = new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+            assertThat(actual.indexOf("sameAttributeName")).isEqualTo(actual.lastIndexOf("sameAttributeName"));
+        }
+    }
+
+    @Nested
+    class 可変長整数の場合 {
+
+        int writeAndRead(int value, int expectedLength) throws IOException {
+            DataOutputStream data = new DataOutputStream(out);
+            ProjectWriter.writeVarInt(data, value);
+            data.flush();
+            assertThat(out.size()).isEqualTo(expectedLength);
+            return ProjectReader.readVarInt(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+        }
+
+        @Test
+        void 小さな値は1バイトで出力する() throws IOException {
+            assertThat(writeAndRead(127, 1)).isEqualTo(127);
+        }
+
+        @Test
+        void 大きな値は複数バイトで出力する() throws IOException {
+            assertThat(writeAndRead(300, 2)).isEqualTo(300);
+        }
+
+        @Test
+        void 最大値は5バイトで出力する() throws IOException {
+            assertThat(writeAndRead(Integer.MAX_VALUE, 5)).isEqualTo(Integer.MAX_VALUE);
+        }
+    }
+}
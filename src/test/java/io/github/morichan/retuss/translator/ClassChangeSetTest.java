@@ -0,0 +1,118 @@
+package io.github.morichan.retuss.translator;
+
+import io.github.morichan.fescue.feature.Attribute;
+import io.github.morichan.fescue.feature.Operation;
+import io.github.morichan.fescue.feature.name.Name;
+import io.github.morichan.fescue.feature.type.Type;
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.window.diagram.OperationGraphic;
+import io.github.morichan.retuss.window.diagram.sequence.Interaction;
+import io.github.morichan.retuss.window.diagram.sequence.MessageOccurrenceSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClassChangeSetTest {
+
+    ClassChangeSet obj;
+
+    @BeforeEach
+    void setup() {
+        obj = new ClassChangeSet();
+    }
+
+    @Test
+    void 生成直後は何も変更していない() {
+        assertThat(obj.isEmpty()).isTrue();
+        assertThat(obj.isAffected(new Class("ClassName"))).isFalse();
+    }
+
+    @Test
+    void 全てのクラスを変更した集合は全てのクラスを翻訳し直す() {
+        obj = ClassChangeSet.all();
+
+        assertThat(obj.isEmpty()).isFalse();
+        assertThat(obj.isAffected(new Class("ClassName"))).isTrue();
+    }
+
+    @Test
+    void 名前を変更したクラスは変更前を削除して変更後を追加したものとして扱う() {
+        obj.renameClass("BeforeClassName", "AfterClassName");
+
+        assertThat(obj.getRemovedClassNames()).containsOnly("BeforeClassName");
+        assertThat(obj.getChangedClassNames()).containsOnly("AfterClassName");
+    }
+
+    @Nested
+    class 他のクラスを参照するクラスについて {
+
+        Class car;
+
+        @BeforeEach
+        void setup() {
+            car = new Class("Car");
+            Attribute attribute = new Attribute(new Name("engine"));
+            attribute.setType(new Type("Engine"));
+            car.addAttribute(attribute);
+            MessageOccurrenceSpecification message = new MessageOccurrenceSpecification();
+            MessageOccurrenceSpecification calledMessage = new MessageOccurrenceSpecification();
+            calledMessage.setType(new Class("Tire"));
+            message.addMessage(calledMessage);
+            OperationGraphic operationGraphic = new OperationGraphic(new Operation(new Name("run")));
+            operationGraphic.setInteraction(new Interaction(message));
+            car.addOperation(operationGraphic);
+        }
+
+        @Test
+        void 属性の型のクラスを変更した場合は翻訳し直す() {
+            obj.editClass("Engine");
+
+            assertThat(obj.isAffected(car)).isTrue();
+        }
+
+        @Test
+        void メッセージの型のクラスを削除した場合は翻訳し直す() {
+            obj.removeClass("Tire");
+
+            assertThat(obj.isAffected(car)).isTrue();
+        }
+
+        @Test
+        void 参照していないクラスのみを変更した場合は翻訳し直さない() {
+            obj.editClass("Door");
+
+            assertThat(obj.isAffected(car)).isFalse();
+        }
+    }
+
+    @Nested
+    class 汎化関係にあるクラスについて {
+
+        Class superClass;
+        Class subClass;
+
+        @BeforeEach
+        void setup() {
+            superClass = new Class("SuperClass");
+            subClass = new Class("SubClass");
+            subClass.setGeneralizationClass(superClass);
+        }
+
+        @Test
+        void 継承クラスを削除した場合はサブクラスも翻訳し直す() {
+            obj.removeClass("SuperClass");
+
+            assertThat(obj.isAffected(subClass)).isTrue();
+        }
+
+        @Test
+        void サブクラスのみを変更した場合は継承クラスを翻訳し直さない() {
+            obj.editClass("SubClass");
+
+            assertThat(obj.isAffected(subClass)).isTrue();
+            assertThat(obj.isAffected(superClass)).isFalse();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.morichan.retuss.translator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelClassMapperTest {
+
+    ForkJoinPool pool;
+    List<Integer> classes;
+
+    @BeforeEach
+    void setup() {
+        pool = new ForkJoinPool(4);
+        classes = IntStream.range(0, ParallelClassMapper.parallelThreshold * 4).boxed().collect(Collectors.toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void 並列に翻訳しても入力した順番で返す() {
+        List<String> expected = classes.stream().map(number -> "Class" + number).collect(Collectors.toList());
+
+        List<String> actual = ParallelClassMapper.map(pool, classes, number -> "Class" + number);
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void プールがnullの場合は呼出し元のスレッドで翻訳する() {
+        Thread caller = Thread.currentThread();
+
+        List<Thread> actual = ParallelClassMapper.map(null, classes, number -> Thread.currentThread());
+
+        assertThat(actual).containsOnly(caller);
+    }
+
+    @Test
+    void 翻訳中に投げた例外をそのまま投げる() {
+        assertThatThrownBy(() -> ParallelClassMapper.map(pool, classes, number -> {
+            if (number == 50) throw new IllegalArgumentException("Class50");
+            return number;
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.morichan.retuss.translator;
+
+import io.github.morichan.fescue.feature.Attribute;
+import io.github.morichan.fescue.feature.Operation;
+import io.github.morichan.fescue.feature.name.Name;
+import io.github.morichan.fescue.feature.parameter.Parameter;
+import io.github.morichan.fescue.feature.type.Type;
+import io.github.morichan.retuss.language.uml.Class;
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.window.diagram.OperationGraphic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SymbolTableTest {
+
+    SymbolTable obj;
+    Class car;
+    Class tire;
+    Class duplicatedCar;
+
+    @BeforeEach
+    void setup() {
+        car = new Class("Car");
+        Attribute frontTire = new Attribute(new Name("front"));
+        frontTire.setType(new Type("Tire"));
+        Attribute rearTire = new Attribute(new Name("rear"));
+        rearTire.setType(new Type("Tire"));
+        car.addAttribute(frontTire);
+        car.addAttribute(rearTire);
+        car.addOperation(new OperationGraphic(new Operation(new Name("run"))));
+
+        tire = new Class("Tire");
+        Operation rotate = new Operation(new Name("rotate"));
+        tire.addOperation(new OperationGraphic(rotate));
+        Operation rotateWithSpeed = new Operation(new Name("rotate"));
+        Parameter speed = new Parameter(new Name("speed"));
+        speed.setType(new Type("int"));
+        rotateWithSpeed.addParameter(speed);
+        tire.addOperation(new OperationGraphic(rotateWithSpeed));
+
+        duplicatedCar = new Class("Car");
+        duplicatedCar.addOperation(new OperationGraphic(new Operation(new Name("stop"))));
+
+        Package umlPackage = new Package();
+        umlPackage.addClass(car);
+        umlPackage.addClass(tire);
+        umlPackage.addClass(duplicatedCar);
+        obj = new SymbolTable(umlPackage);
+    }
+
+    @Test
+    void 同じ名前のクラスが複数ある場合は最初のクラスを返す() {
+        assertThat(obj.searchClass("Car")).isSameAs(car);
+        assertThat(obj.searchClass("Engine")).isNull();
+    }
+
+    @Test
+    void 引数の数が一致する操作を返す() {
+        assertThat(obj.searchOperation("Tire", "rotate", 1).getOperationGraphic()).isSameAs(tire.getOperationGraphics().get(1));
+        assertThat(obj.searchOperation("Tire", "rotate", SymbolTable.ANY_ARITY).getOperationGraphic()).isSameAs(tire.getOperationGraphics().get(0));
+        assertThat(obj.searchOperation("Tire", "rotate", 3).getOperationGraphic()).isSameAs(tire.getOperationGraphics().get(0));
+    }
+
+    @Test
+    void 同じ名前のクラス全ての操作から探索する() {
+        assertThat(obj.searchOperation("Car", "stop", 0).getOwner()).isSameAs(duplicatedCar);
+        assertThat(obj.searchOperation("Car", "rotate", 0)).isNull();
+    }
+
+    @Test
+    void 任意のクラス以外から操作を探索する() {
+        assertThat(obj.searchOperationExcept("Car", "rotate", 0).getOwner()).isSameAs(tire);
+        assertThat(obj.searchOperationExcept("Car", "stop", 0)).isNull();
+    }
+
+    @Test
+    void 属性名から型名を型名から最初の属性名を返す() {
+        assertThat(obj.searchAttributeType(car, "rear")).isEqualTo("Tire");
+        assertThat(obj.searchAttributeName(car, "Tire")).isEqualTo("front");
+        assertThat(obj.searchAttributeName(duplicatedCar, "Tire")).isNull();
+    }
+}
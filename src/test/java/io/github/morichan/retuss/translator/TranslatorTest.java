@@ -6,16 +6,21 @@ import io.github.morichan.fescue.feature.name.Name;
 import io.github.morichan.fescue.feature.parameter.Parameter;
 import io.github.morichan.fescue.feature.value.DefaultValue;
 import io.github.morichan.fescue.feature.value.expression.OneIdentifier;
+import io.github.morichan.retuss.language.cpp.Cpp;
 import io.github.morichan.retuss.language.java.*;
 import io.github.morichan.retuss.language.uml.Package;
 import io.github.morichan.retuss.language.uml.Class;
 import io.github.morichan.retuss.window.diagram.OperationGraphic;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -69,6 +74,302 @@ class TranslatorTest {
         }
     }
 
+    @Nested
+    class クラス図の変更したクラスのみを翻訳し直す場合 {
+
+        Package classPackage;
+
+        @BeforeEach
+        void setup() {
+            obj = new Translator();
+            classPackage = new Package();
+            Class superClass = new Class("SuperClass");
+            Class subClass = new Class("SubClass");
+            subClass.setGeneralizationClass(superClass);
+            classPackage.addClass(superClass);
+            classPackage.addClass(subClass);
+            classPackage.addClass(new Class("OtherClass"));
+            obj.translate(classPackage);
+        }
+
+        @Test
+        void 変更していないクラスは前回翻訳したクラスを再利用する() {
+            Java before = obj.getJava();
+            Attribute attribute = new Attribute(new Name("number"));
+            attribute.setType(new io.github.morichan.fescue.feature.type.Type("int"));
+            classPackage.getClasses().get(2).addAttribute(attribute);
+            ClassChangeSet changeSet = new ClassChangeSet();
+            changeSet.editClass("OtherClass");
+
+            obj.translate(classPackage, changeSet);
+            Java actual = obj.getJava();
+
+            assertThat(actual.getClasses().get(0)).isSameAs(before.getClasses().get(0));
+            assertThat(actual.getClasses().get(1)).isSameAs(before.getClasses().get(1));
+            assertThat(actual.getClasses().get(2)).isNotSameAs(before.getClasses().get(2));
+            assertThat(actual.getClasses().get(2)).hasToString("class OtherClass {\n    private int number;\n}\n");
+        }
+
+        @Test
+        void 継承クラスの名前を変更した場合はサブクラスも翻訳し直す() {
+            Java before = obj.getJava();
+            classPackage.getClasses().get(0).setName("RenamedClass");
+            ClassChangeSet changeSet = new ClassChangeSet();
+            changeSet.renameClass("SuperClass", "RenamedClass");
+
+            obj.translate(classPackage, changeSet);
+            Java actual = obj.getJava();
+
+            assertThat(actual.getClasses().get(1)).isNotSameAs(before.getClasses().get(1));
+            assertThat(actual.getClasses().get(1).getExtendsClassName()).isEqualTo("RenamedClass");
+            assertThat(actual.getClasses().get(2)).isSameAs(before.getClasses().get(2));
+        }
+
+        @Test
+        void クラスを追加した場合は追加したクラスのみを翻訳する() {
+            Java before = obj.getJava();
+            classPackage.addClass(new Class("AddedClass"));
+            ClassChangeSet changeSet = new ClassChangeSet();
+            changeSet.addClass("AddedClass");
+
+            obj.translate(classPackage, changeSet);
+            Java actual = obj.getJava();
+
+            assertThat(actual.getClasses()).hasSize(4);
+            assertThat(actual.getClasses().subList(0, 3)).containsExactlyElementsOf(before.getClasses());
+            assertThat(actual.getClasses().get(3).getName()).isEqualTo("AddedClass");
+        }
+
+        @Test
+        void 属性の型のクラスを変更した場合はそのクラスを参照するクラスも翻訳し直す() {
+            Attribute attribute = new Attribute(new Name("superClass"));
+            attribute.setType(new io.github.morichan.fescue.feature.type.Type("SuperClass"));
+            classPackage.getClasses().get(2).addAttribute(attribute);
+            obj.translate(classPackage);
+            Java before = obj.getJava();
+            ClassChangeSet changeSet = new ClassChangeSet();
+            changeSet.editClass("SuperClass");
+
+            obj.translate(classPackage, changeSet);
+            Java actual = obj.getJava();
+
+            assertThat(actual.getClasses().get(0)).isNotSameAs(before.getClasses().get(0));
+            assertThat(actual.getClasses().get(2)).isNotSameAs(before.getClasses().get(2));
+        }
+
+        @Test
+        void 継承クラスのみを翻訳し直す場合はサブクラスを再利用し継承クラス名を変えない() {
+            Attribute attribute = new Attribute(new Name("otherClass"));
+            attribute.setType(new io.github.morichan.fescue.feature.type.Type("OtherClass"));
+            classPackage.getClasses().get(0).addAttribute(attribute);
+            obj.translate(classPackage);
+            Java before = obj.getJava();
+            String beforeSubClassCode = before.getClasses().get(1).toString();
+            ClassChangeSet changeSet = new ClassChangeSet();
+            changeSet.editClass("OtherClass");
+
+            obj.translate(classPackage, changeSet);
+            Java actual = obj.getJava();
+
+            assertThat(actual.getClasses().get(0)).isNotSameAs(before.getClasses().get(0));
+            assertThat(actual.getClasses().get(1)).isSameAs(before.getClasses().get(1));
+            assertThat(actual.getClasses().get(1).getExtendsClassName()).isEqualTo("SuperClass");
+            assertThat(before.getClasses().get(1)).hasToString(beforeSubClassCode);
+        }
+
+        @Test
+        void コードから翻訳した後は全てのクラスを翻訳し直す() {
+            Java before = obj.getJava();
+            obj.translate(before);
+
+            obj.translate(classPackage, new ClassChangeSet());
+            Java actual = obj.getJava();
+
+            for (int i = 0; i < actual.getClasses().size(); i++) assertThat(actual.getClasses().get(i)).isNotSameAs(before.getClasses().get(i));
+        }
+    }
+
+    @Nested
+    class クラスごとに並列に翻訳する場合 {
+
+        ForkJoinPool pool;
+        Package classPackage;
+
+        @BeforeEach
+        void setup() {
+            pool = new ForkJoinPool(4);
+            obj = new Translator(pool);
+            classPackage = new Package();
+            for (int i = 0; i < 200; i++) {
+                Class classClass = new Class("ClassName" + i);
+                Attribute attribute = new Attribute(new Name("number" + i));
+                attribute.setType(new io.github.morichan.fescue.feature.type.Type("int"));
+                classClass.addAttribute(attribute);
+                Operation operation = new Operation(new Name("calculate" + i));
+                operation.setReturnType(new io.github.morichan.fescue.feature.type.Type("double"));
+                classClass.addOperation(new OperationGraphic(operation));
+                if (i > 0) classClass.setGeneralizationClass(classPackage.getClasses().get(i - 1));
+                classPackage.addClass(classClass);
+            }
+        }
+
+        @AfterEach
+        void tearDown() {
+            pool.shutdown();
+        }
+
+        @Test
+        void 逐次に翻訳した場合と同じ順番で同じコードを返す() {
+            Translator sequential = new Translator();
+            sequential.translate(classPackage);
+
+            obj.translate(classPackage);
+
+            assertThat(obj.getJava().getClasses()).hasSize(200);
+            for (int i = 0; i < 200; i++) {
+                assertThat(obj.getJava().getClasses().get(i)).hasToString(sequential.getJava().getClasses().get(i).toString());
+                assertThat(obj.getCpp().getClasses().get(i)).hasToString(sequential.getCpp().getClasses().get(i).toString());
+            }
+            assertThat(obj.getJava().getClasses().get(199).getExtendsClassName()).isEqualTo("ClassName198");
+        }
+
+        @Test
+        void コードから逐次に翻訳した場合と同じ順番で同じクラス図を返す() {
+            obj.translate(classPackage);
+            Translator sequential = new Translator();
+            sequential.translate(obj.getJava());
+
+            obj.translate(obj.getJava());
+
+            assertThat(obj.getPackage().getClasses()).hasSize(200);
+            for (int i = 0; i < 200; i++) {
+                Class actual = obj.getPackage().getClasses().get(i);
+                Class expected = sequential.getPackage().getClasses().get(i);
+                assertThat(actual.getName()).isEqualTo(expected.getName());
+                assertThat(actual.extractAttributes().toString()).isEqualTo(expected.extractAttributes().toString());
+                assertThat(actual.extractOperations().toString()).isEqualTo(expected.extractOperations().toString());
+                if (i > 0) assertThat(actual.getGeneralizationClass()).isSameAs(obj.getPackage().getClasses().get(i - 1));
+            }
+        }
+    }
+
+    @Nested
+    class 非同期に翻訳する場合 {
+
+        Package classPackage;
+
+        @BeforeEach
+        void setup() {
+            obj = new Translator();
+            classPackage = new Package();
+            classPackage.addClass(new Class("FirstClass"));
+            classPackage.addClass(new Class("SecondClass"));
+        }
+
+        @Test
+        void JavaとCppの翻訳結果をそれぞれ返す() {
+            Translator sequential = new Translator();
+            sequential.translate(classPackage);
+
+            Translator.Translation translation = obj.translateAsync(classPackage, null);
+            Java actualJava = translation.getJava().join();
+            Cpp actualCpp = translation.getCpp().join();
+
+            assertThat(actualJava.getClasses()).extracting(Object::toString)
+                    .containsExactlyElementsOf(sequential.getJava().getClasses().stream().map(Object::toString).collect(Collectors.toList()));
+            assertThat(actualCpp.getClasses()).extracting(Object::toString)
+                    .containsExactlyElementsOf(sequential.getCpp().getClasses().stream().map(Object::toString).collect(Collectors.toList()));
+            assertThat(obj.getJava()).isSameAs(actualJava);
+            assertThat(obj.getCpp()).isSameAs(actualCpp);
+        }
+
+        @Test
+        void 続けて依頼した差分の翻訳は前回の翻訳結果を基にする() {
+            Java first = obj.translateAsync(classPackage, null).getJava().join();
+            Package changedPackage = new Package();
+            changedPackage.addClass(new Class("FirstClass"));
+            changedPackage.addClass(new Class("SecondClass"));
+            changedPackage.addClass(new Class("AddedClass"));
+            ClassChangeSet changeSet = new ClassChangeSet();
+            changeSet.addClass("AddedClass");
+
+            Translator.Translation translation = obj.translateAsync(changedPackage, changeSet);
+            Java actual = translation.getJava().join();
+
+            assertThat(actual.getClasses()).hasSize(3);
+            assertThat(actual.getClasses().subList(0, 2)).containsExactlyElementsOf(first.getClasses());
+            assertThat(translation.getCpp().join().getClasses()).hasSize(3);
+        }
+
+        @Test
+        void 汎化関係のクラスがパッケージ外にある場合もJavaとCppで同時に差分を翻訳できる() {
+            for (int i = 0; i < 100; i++) {
+                Class subClass = new Class("SubClass" + i);
+                subClass.setGeneralizationClass(new Class("ExternalClass"));
+                classPackage.addClass(subClass);
+            }
+            Java first = obj.translateAsync(classPackage, null).getJava().join();
+            ClassChangeSet changeSet = new ClassChangeSet();
+            changeSet.editClass("FirstClass");
+
+            Translator.Translation translation = obj.translateAsync(classPackage, changeSet);
+            Java actualJava = translation.getJava().join();
+            Cpp actualCpp = translation.getCpp().join();
+
+            assertThat(actualJava.getClasses()).hasSize(102);
+            assertThat(actualJava.getClasses().subList(1, 102)).containsExactlyElementsOf(first.getClasses().subList(1, 102));
+            assertThat(actualJava.getClasses()).extracting(io.github.morichan.retuss.language.java.Class::getExtendsClassName).containsOnlyNulls();
+            assertThat(actualCpp.getClasses()).hasSize(102);
+            assertThat(actualCpp.getClasses()).extracting(io.github.morichan.retuss.language.cpp.Class::getExtendsClassName).containsOnlyNulls();
+            assertThat(classPackage.findClass("ExternalClass")).isNull();
+            assertThat(classPackage.findClass("SubClass99")).isSameAs(classPackage.getClasses().get(101));
+        }
+
+        @Test
+        void パッケージを生成する処理は1回だけ呼び出してJavaとCppで共有する() {
+            AtomicInteger suppliedCount = new AtomicInteger();
+
+            Translator.Translation translation = obj.translateAsync(() -> {
+                suppliedCount.incrementAndGet();
+                return classPackage;
+            }, null);
+
+            assertThat(translation.getJava().join().getClasses()).hasSize(2);
+            assertThat(translation.getCpp().join().getClasses()).hasSize(2);
+            assertThat(suppliedCount.get()).isEqualTo(1);
+        }
+
+        @Test
+        void パッケージの生成に失敗した場合は両方の言語が失敗し次の翻訳は全てのクラスを翻訳する() {
+            Translator.Translation failed = obj.translateAsync(() -> {
+                throw new IllegalStateException();
+            }, null);
+            ClassChangeSet changeSet = new ClassChangeSet();
+            changeSet.editClass("FirstClass");
+
+            Translator.Translation translation = obj.translateAsync(classPackage, changeSet);
+
+            assertThat(translation.getJava().join().getClasses()).extracting(io.github.morichan.retuss.language.java.Class::getName).containsExactly("FirstClass", "SecondClass");
+            assertThat(translation.getCpp().join().getClasses()).extracting(io.github.morichan.retuss.language.cpp.Class::getName).containsExactly("FirstClass", "SecondClass");
+            assertThat(failed.getJava()).isCompletedExceptionally();
+            assertThat(failed.getCpp()).isCompletedExceptionally();
+        }
+
+        @Test
+        void 完了する前に同期的に翻訳した場合は古い翻訳結果を反映しない() {
+            Translator.Translation translation = obj.translateAsync(classPackage, null);
+            Package newerPackage = new Package();
+            newerPackage.addClass(new Class("NewerClass"));
+
+            obj.translate(newerPackage);
+            translation.getJava().join();
+            translation.getCpp().join();
+
+            assertThat(obj.getJava().getClasses()).extracting(io.github.morichan.retuss.language.java.Class::getName).containsExactly("NewerClass");
+            assertThat(obj.getCpp().getClasses()).extracting(io.github.morichan.retuss.language.cpp.Class::getName).containsExactly("NewerClass");
+        }
+    }
+
     @Nested
     class Javaからクラス図に変換する場合 {
 
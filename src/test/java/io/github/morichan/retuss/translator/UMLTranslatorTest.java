@@ -450,6 +450,80 @@ class UMLTranslatorTest {
 
                 assertThat(actual).isEqualToComparingFieldByFieldRecursively(expected);
             }
+
+            @Test
+            void 他クラスの操作を呼び出すメッセージをその操作のメッセージに置き換える() {
+                Java java = new Java();
+                io.github.morichan.retuss.language.java.Class car = new io.github.morichan.retuss.language.java.Class("Car");
+                io.github.morichan.retuss.language.java.Class tire = new io.github.morichan.retuss.language.java.Class("Tire");
+                car.addField(new Field(new Type("Tire"), "tire"));
+                Method run = new Method(new Type("void"), "run");
+                MethodBody body = new MethodBody();
+                body.addStatement(new Method(new Type("tire"), "rotate"));
+                run.setMethodBody(body);
+                car.addMethod(run);
+                Method rotate = new Method(new Type("void"), "rotate");
+                rotate.setMethodBody(new MethodBody());
+                tire.addMethod(rotate);
+                java.addClass(car);
+                java.addClass(tire);
+
+                Package actual = obj.translate(java);
+
+                MessageOccurrenceSpecification runMessage = actual.getClasses().get(0).getOperationGraphics().get(0).getInteraction().getMessage();
+                assertThat(runMessage.getMessages().get(0)).isSameAs(actual.getClasses().get(1).getOperationGraphics().get(0).getInteraction().getMessage());
+                assertThat(runMessage.getInstance(0)).isEqualTo("tire");
+            }
+
+            @Test
+            void 自クラスの操作を呼び出すメッセージは名前が完全に一致する操作に置き換える() {
+                Java java = new Java();
+                io.github.morichan.retuss.language.java.Class car = new io.github.morichan.retuss.language.java.Class("Car");
+                Method restart = new Method(new Type("void"), "restart");
+                restart.setMethodBody(new MethodBody());
+                Method start = new Method(new Type("void"), "start");
+                start.setMethodBody(new MethodBody());
+                Method run = new Method(new Type("void"), "run");
+                MethodBody body = new MethodBody();
+                body.addStatement(new Method(new Type("TmpType"), "start"));
+                run.setMethodBody(body);
+                car.addMethod(restart);
+                car.addMethod(start);
+                car.addMethod(run);
+                java.addClass(car);
+
+                Package actual = obj.translate(java);
+
+                MessageOccurrenceSpecification runMessage = actual.getClasses().get(0).getOperationGraphics().get(2).getInteraction().getMessage();
+                assertThat(runMessage.getMessages().get(0)).isSameAs(actual.getClasses().get(0).getOperationGraphics().get(1).getInteraction().getMessage());
+            }
+
+            @Test
+            void 比較やラムダ式を含む引数でも引数の数が一致するオーバーロードに置き換える() {
+                Java java = new Java();
+                io.github.morichan.retuss.language.java.Class car = new io.github.morichan.retuss.language.java.Class("Car");
+                Method checkOne = new Method(new Type("void"), "check", new Argument(new Type("boolean"), "isValid"));
+                checkOne.setMethodBody(new MethodBody());
+                Method checkTwo = new Method(new Type("void"), "check", new Argument(new Type("boolean"), "isValid"), new Argument(new Type("int"), "count"));
+                checkTwo.setMethodBody(new MethodBody());
+                Method run = new Method(new Type("void"), "run");
+                MethodBody body = new MethodBody();
+                body.addStatement(new Method(new Type("TmpType"), "check(a<b,c)"));
+                body.addStatement(new Method(new Type("TmpType"), "check(x->f(a,b))"));
+                body.addStatement(new Method(new Type("TmpType"), "check(\"a,b\",c>d)"));
+                run.setMethodBody(body);
+                car.addMethod(checkOne);
+                car.addMethod(checkTwo);
+                car.addMethod(run);
+                java.addClass(car);
+
+                Package actual = obj.translate(java);
+
+                MessageOccurrenceSpecification runMessage = actual.getClasses().get(0).getOperationGraphics().get(2).getInteraction().getMessage();
+                assertThat(runMessage.getMessages().get(0)).isSameAs(actual.getClasses().get(0).getOperationGraphics().get(1).getInteraction().getMessage());
+                assertThat(runMessage.getMessages().get(1)).isSameAs(actual.getClasses().get(0).getOperationGraphics().get(0).getInteraction().getMessage());
+                assertThat(runMessage.getMessages().get(2)).isSameAs(actual.getClasses().get(0).getOperationGraphics().get(1).getInteraction().getMessage());
+            }
         }
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import io.github.morichan.fescue.feature.type.Type;
 import io.github.morichan.fescue.feature.visibility.Visibility;
 import io.github.morichan.retuss.language.uml.Class;
 import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.translator.ClassChangeSet;
 import io.github.morichan.retuss.window.diagram.*;
 import io.github.morichan.retuss.window.utility.UtilityJavaFXComponent;
 import javafx.geometry.Point2D;
@@ -22,6 +23,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 class ClassDiagramDrawerTest {
@@ -973,6 +975,89 @@ class ClassDiagramDrawerTest {
             // Assert
             assertThat(cdd.getEdgeDiagram().getRelationPoint(ContentType.Composition, 0)).isEqualTo(expected);
         }
+
+        @Test
+        void 描画済み2つのクラスの内2つ目の位置を移動すると移動前後のクラスと関係の領域のみを再描画する() {
+            // Arrange
+            Point2D expected = new Point2D(100.0, 600.0);
+            createClasses(cdd, buttons, 0, "Test1", firstClass);
+            createClasses(cdd, buttons, 1, "Test2", secondClass);
+
+            cdd.hasWaitedCorrectDrawnDiagram(ContentType.Composition, firstClass.getX(), firstClass.getY());
+            cdd.setMouseCoordinates(firstClass);
+            cdd.hasWaitedCorrectDrawnDiagram(ContentType.Composition, secondClass.getX(), secondClass.getY());
+            cdd.addDrawnEdge(buttons, "- composition", secondClass.getX(), secondClass.getY());
+            cdd.allReDrawCanvas();
+
+            // Act
+            cdd.moveTo(1, expected);
+
+            // Assert
+            assertThat(cdd.getDamagedRegions()).hasSize(4);
+            assertThat(cdd.getDamagedRegions().get(0).contains(secondClass)).isTrue();
+            assertThat(cdd.getDamagedRegions().get(2).contains(expected)).isTrue();
+            assertThat(cdd.getDamagedRegions().get(0).contains(thirdClass)).isFalse();
+            assertThat(cdd.getEdgeDiagram().getRelationPoint(ContentType.Composition, 0)).isEqualTo(expected);
+
+            cdd.reDrawDamagedRegions();
+
+            assertThat(cdd.getDamagedRegions()).isEmpty();
+        }
+
+        @Test
+        void 縮小すると全てのノードの詳細度を下げて座標は変えない() {
+            createClasses(cdd, buttons, 0, "Test1", firstClass);
+            createClasses(cdd, buttons, 1, "Test2", secondClass);
+
+            cdd.setZoom(0.5);
+            cdd.allReDrawCanvas();
+
+            assertThat(cdd.getLevelOfDetail()).isEqualTo(LevelOfDetail.NameOnly);
+            assertThat(cdd.getNodes()).allMatch(node -> node.getLevelOfDetail() == LevelOfDetail.NameOnly);
+            assertThat(cdd.getNodes().get(1).getPoint()).isEqualTo(secondClass);
+
+            cdd.setZoom(0.2);
+
+            assertThat(cdd.getNodes()).allMatch(node -> node.getLevelOfDetail() == LevelOfDetail.Outline);
+        }
+
+        @Test
+        void 全ての関係の関係元と関係先のノード番号を取得する() {
+            cdd.hasWaitedCorrectDrawnDiagram(ContentType.Composition, firstClass.getX(), firstClass.getY());
+            cdd.setMouseCoordinates(firstClass);
+            cdd.hasWaitedCorrectDrawnDiagram(ContentType.Composition, secondClass.getX(), secondClass.getY());
+            cdd.addDrawnEdge(buttons, "- composition", secondClass.getX(), secondClass.getY());
+
+            assertThat(cdd.getClassNodeNumbers()).containsExactly(0, 1, 2);
+            assertThat(cdd.getRelationNodeNumbers()).hasSize(1);
+            assertThat(cdd.getRelationNodeNumbers().get(0)).containsExactly(0, 1);
+        }
+
+        @Test
+        void 拡大率が0以下ならば例外を投げる() {
+            assertThatThrownBy(() -> cdd.setZoom(0.0)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void 関係をクラスを避けて描画する場合は間に移動したクラスを避ける経路に変える() {
+            Point2D between = new Point2D(300.0, 400.0);
+            cdd.hasWaitedCorrectDrawnDiagram(ContentType.Composition, firstClass.getX(), firstClass.getY());
+            cdd.setMouseCoordinates(firstClass);
+            cdd.hasWaitedCorrectDrawnDiagram(ContentType.Composition, secondClass.getX(), secondClass.getY());
+            cdd.addDrawnEdge(buttons, "- composition", secondClass.getX(), secondClass.getY());
+            cdd.setOrthogonalEdgeRoutingEnabled(true);
+
+            cdd.moveTo(2, between);
+
+            assertThat(cdd.getEdgeDiagram().getEdgeRoute(0)).isNotNull();
+            assertThat(cdd.searchDrawnEdge(between.getX(), between.getY())).isNull();
+            assertThat(cdd.getDamagedRegions()).isNotEmpty();
+
+            cdd.setOrthogonalEdgeRoutingEnabled(false);
+
+            assertThat(cdd.getEdgeDiagram().getEdgeRoute(0)).isNull();
+            assertThat(cdd.searchDrawnEdge(between.getX(), between.getY())).isNotNull();
+        }
     }
 
     @Nested
@@ -1183,6 +1268,52 @@ class ClassDiagramDrawerTest {
                 assertThat(actual.getClasses().get(0)).isEqualToComparingFieldByFieldRecursively(expected);
             }
 
+            @Test
+            void 編集していなければ再描画してもインスタンスを整形し直さない() {
+                Package expected = cdd.getPackage();
+
+                cdd.allReDrawCanvas();
+                cdd.moveTo(cdd.getCurrentNodeNumber(), new Point2D(300.0, 400.0));
+                cdd.reDrawDamagedRegions();
+                Package actual = cdd.getPackage();
+
+                assertThat(actual).isSameAs(expected);
+            }
+
+            @Test
+            void 編集すると描画せずにインスタンスを整形し直す() {
+                Package before = cdd.getPackage();
+
+                cdd.addDrawnNodeText(cdd.getCurrentNodeNumber(), ContentType.Attribute, "attributeFromFirst");
+                Package actual = cdd.getPackage();
+
+                assertThat(actual).isNotSameAs(before);
+                assertThat(actual.getClasses().get(0).getAttributeGraphics()).hasSize(1);
+            }
+
+            @Test
+            void 前回取り出して以降に編集したクラスのみを変更したクラスとして取り出す() {
+                cdd.pollClassChangeSet();
+
+                cdd.addDrawnNodeText(cdd.getCurrentNodeNumber(), ContentType.Attribute, "attributeFromFirst");
+                ClassChangeSet actual = cdd.pollClassChangeSet();
+
+                assertThat(actual.isAllChanged()).isFalse();
+                assertThat(actual.getChangedClassNames()).containsOnly("FirstClassName");
+                assertThat(cdd.pollClassChangeSet().isEmpty()).isTrue();
+            }
+
+            @Test
+            void クラス名を変更すると変更前のクラスを削除して変更後のクラスを追加したものとして取り出す() {
+                cdd.pollClassChangeSet();
+
+                cdd.changeDrawnNodeText(cdd.getCurrentNodeNumber(), ContentType.Title, 0, "RenamedClassName");
+                ClassChangeSet actual = cdd.pollClassChangeSet();
+
+                assertThat(actual.getRemovedClassNames()).containsOnly("FirstClassName");
+                assertThat(actual.getChangedClassNames()).containsOnly("RenamedClassName");
+            }
+
             @Test
             void 操作を1つ持つインスタンスを抽出する() {
                 Class expected = new Class("FirstClassName");
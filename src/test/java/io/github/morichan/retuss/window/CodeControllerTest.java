@@ -1,7 +1,139 @@
 package io.github.morichan.retuss.window;
 
+import io.github.morichan.retuss.language.java.Class;
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.listener.JavaLanguage;
+import io.github.morichan.retuss.translator.Translator;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Tab;
+import javafx.scene.layout.AnchorPane;
+import org.fxmisc.richtext.CodeArea;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.testfx.framework.junit5.ApplicationTest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 class CodeControllerTest {
 
-}
\ No newline at end of file
+    @Nested
+    class クラス図のパッケージを切り離す場合 {
+
+        Package umlPackage;
+
+        @BeforeEach
+        void setup() {
+            JavaLanguage javaLanguage = new JavaLanguage();
+            javaLanguage.parseForClassDiagram("class Car { private Tire tire; public void run() { int speed = 10; tire.rotate(speed); } }\n" +
+                    "class Tire { public void rotate(int speed) { } }\n" +
+                    "class Truck extends Car { private int load; }");
+            Translator translator = new Translator();
+            translator.translate(javaLanguage.getJava());
+            umlPackage = translator.getPackage();
+        }
+
+        @Test
+        void 複製を翻訳すると元のパッケージを翻訳した場合と同じコードになる() {
+            Translator expected = new Translator();
+            expected.translate(umlPackage);
+            Translator actual = new Translator();
+
+            actual.translate(CodeController.detach(umlPackage).get());
+
+            assertThat(actual.getJava().getClasses()).extracting(Object::toString)
+                    .containsExactlyElementsOf(expected.getJava().getClasses().stream().map(Object::toString).collect(Collectors.toList()));
+            assertThat(actual.getCpp().getClasses()).extracting(Object::toString)
+                    .containsExactlyElementsOf(expected.getCpp().getClasses().stream().map(Object::toString).collect(Collectors.toList()));
+        }
+
+        @Test
+        void 切り離した後に元のパッケージを編集しても複製には反映しない() {
+            Supplier<Package> detached = CodeController.detach(umlPackage);
+
+            umlPackage.getClasses().get(0).setName("RenamedCar");
+            umlPackage.getClasses().get(1).emptyOperation();
+            Package actual = detached.get();
+
+            assertThat(actual.getClasses()).extracting(io.github.morichan.retuss.language.uml.Class::getName).containsExactly("Car", "Tire", "Truck");
+            assertThat(actual.getClasses().get(1).getOperationGraphics()).hasSize(1);
+            assertThat(actual.getClasses().get(2).getGeneralizationClass()).isSameAs(actual.getClasses().get(0));
+            assertThat(actual.getClasses().get(0)).isNotSameAs(umlPackage.getClasses().get(0));
+        }
+    }
+
+    @Nested
+    class コードタブを更新する場合 extends ApplicationTest {
+
+        ObservableList<Tab> tabs;
+        Class firstClass;
+        Class secondClass;
+        int createdTabCount;
+
+        @BeforeEach
+        void setup() {
+            tabs = FXCollections.observableArrayList();
+            firstClass = new Class("FirstClass");
+            secondClass = new Class("SecondClass");
+            createdTabCount = 0;
+            CodeController.setCodeTabs(tabs, Arrays.asList(firstClass, secondClass), Class::getName, this::createTab);
+        }
+
+        @Test
+        void 同じクラスのタブは作り直さない() {
+            List<Tab> before = Arrays.asList(tabs.get(0), tabs.get(1));
+
+            CodeController.setCodeTabs(tabs, Arrays.asList(firstClass, secondClass), Class::getName, this::createTab);
+
+            assertThat(tabs).containsExactlyElementsOf(before);
+            assertThat(createdTabCount).isEqualTo(2);
+        }
+
+        @Test
+        void 同じ名前で変更したクラスのタブはコードのみを書き換える() {
+            Tab before = tabs.get(1);
+            Class changedClass = new Class("SecondClass");
+            changedClass.setExtendsClass(firstClass);
+
+            CodeController.setCodeTabs(tabs, Arrays.asList(firstClass, changedClass), Class::getName, this::createTab);
+
+            assertThat(tabs.get(1)).isSameAs(before);
+            assertThat(tabs.get(1).getUserData()).isSameAs(changedClass);
+            assertThat(getCode(tabs.get(1))).isEqualTo(changedClass.toString());
+            assertThat(createdTabCount).isEqualTo(2);
+        }
+
+        @Test
+        void 追加したクラスのみタブを生成し削除したクラスのタブは取り除く() {
+            Tab before = tabs.get(0);
+            Class addedClass = new Class("AddedClass");
+
+            CodeController.setCodeTabs(tabs, Arrays.asList(firstClass, addedClass), Class::getName, this::createTab);
+
+            assertThat(tabs).hasSize(2);
+            assertThat(tabs.get(0)).isSameAs(before);
+            assertThat(tabs.get(1).getText()).isEqualTo("AddedClass");
+            assertThat(createdTabCount).isEqualTo(3);
+        }
+
+        private Tab createTab(Class javaClass) {
+            createdTabCount++;
+            CodeArea codeArea = new CodeArea();
+            codeArea.replaceText(javaClass.toString());
+            Tab tab = new Tab(javaClass.getName(), new AnchorPane(codeArea));
+            tab.setUserData(javaClass);
+            return tab;
+        }
+
+        private String getCode(Tab tab) {
+            return ((CodeArea) ((AnchorPane) tab.getContent()).getChildren().get(0)).getText();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.morichan.retuss.window;
+
+import io.github.morichan.retuss.language.uml.Package;
+import io.github.morichan.retuss.translator.Language;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CodeParsePipelineTest {
+
+    CodeParsePipeline obj;
+    List<Package> results;
+    CountDownLatch latch;
+
+    @BeforeEach
+    void setup() {
+        results = new CopyOnWriteArrayList<>();
+        latch = new CountDownLatch(1);
+        obj = new CodeParsePipeline(umlPackage -> {
+            results.add(umlPackage);
+            latch.countDown();
+        }, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        obj.shutdown();
+    }
+
+    @Nested
+    class デバウンス時間の場合 {
+
+        @Test
+        void 既定値を返す() {
+            long expected = CodeParsePipeline.DEFAULT_DEBOUNCE_MILLIS;
+
+            long actual = obj.getDebounceMillis();
+
+            assertThat(actual).isEqualTo(expected);
+        }
+
+        @Test
+        void 設定した値を返す() {
+            long expected = 50;
+
+            obj.setDebounceMillis(50);
+            long actual = obj.getDebounceMillis();
+
+            assertThat(actual).isEqualTo(expected);
+        }
+
+        @Test
+        void 負の値は無視する() {
+            long expected = CodeParsePipeline.DEFAULT_DEBOUNCE_MILLIS;
+
+            obj.setDebounceMillis(-1);
+            long actual = obj.getDebounceMillis();
+
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    @Nested
+    class Javaコードを投入した場合 {
+
+        @BeforeEach
+        void setup() {
+            obj.setDebounceMillis(50);
+        }
+
+        @Test
+        void クラス名を持つパッケージを通知する() throws InterruptedException {
+            obj.submit(Language.Java, Collections.singletonList("class ClassName {}"));
+
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(results).hasSize(1);
+            assertThat(results.get(0).getClasses()).hasSize(1);
+            assertThat(results.get(0).getClasses().get(0).getName()).isEqualTo("ClassName");
+        }
+
+        @Test
+        void 複数タブのクラスをまとめて通知する() throws InterruptedException {
+            obj.submit(Language.Java, Arrays.asList("class First {}", "class Second {}"));
+
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(results.get(0).getClasses()).hasSize(2);
+            assertThat(results.get(0).getClasses().get(1).getName()).isEqualTo("Second");
+        }
+
+        @Test
+        void 連続した投入は最後のコードのみ通知する() throws InterruptedException {
+            obj.setDebounceMillis(200);
+
+            obj.submit(Language.Java, Collections.singletonList("class A {}"));
+            obj.submit(Language.Java, Collections.singletonList("class AB {}"));
+            obj.submit(Language.Java, Collections.singletonList("class ABC {}"));
+
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(400);
+            assertThat(results).hasSize(1);
+            assertThat(results.get(0).getClasses().get(0).getName()).isEqualTo("ABC");
+        }
+
+        @Test
+        void 停止した後は通知しない() throws InterruptedException {
+            obj.submit(Language.Java, Collections.singletonList("class ClassName {}"));
+            obj.shutdown();
+
+            assertThat(latch.await(300, TimeUnit.MILLISECONDS)).isFalse();
+            assertThat(results).isEmpty();
+        }
+    }
+
+    @Nested
+    class タブを表すキーと共に投入した場合 {
+        Object firstTab;
+        Object secondTab;
+
+        @BeforeEach
+        void setup() {
+            obj.setDebounceMillis(0);
+            firstTab = new Object();
+            secondTab = new Object();
+        }
+
+        @Test
+        void 構文解析結果をキャッシュする() throws InterruptedException {
+            obj.submit(Language.Java, Arrays.asList(firstTab, secondTab), Arrays.asList("class First {}", "class Second {}"));
+
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(obj.getJavaParseCache().size()).isEqualTo(2);
+            assertThat(obj.getJavaParseCache().get(firstTab, "class First {}").getName()).isEqualTo("First");
+        }
+
+        @Test
+        void 変更していないタブは以前の構文解析結果を再利用する() throws InterruptedException {
+            obj.submit(Language.Java, Arrays.asList(firstTab, secondTab), Arrays.asList("class First {}", "class Second {}"));
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            io.github.morichan.retuss.language.java.Class expected = obj.getJavaParseCache().get(firstTab, "class First {}");
+
+            latch = new CountDownLatch(1);
+            obj.submit(Language.Java, Arrays.asList(firstTab, secondTab), Arrays.asList("class First {}", "class Edited {}"));
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(obj.getJavaParseCache().get(firstTab, "class First {}")).isSameAs(expected);
+            assertThat(obj.getJavaParseCache().get(secondTab, "class Second {}")).isNull();
+            assertThat(results.get(1).getClasses().get(1).getName()).isEqualTo("Edited");
+        }
+    }
+}
@@ -8,7 +8,9 @@ import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.text.Text;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.testfx.framework.junit5.ApplicationTest;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -17,7 +19,12 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 class ClassNodeDiagramTest {
 
@@ -690,6 +697,118 @@ class ClassNodeDiagramTest {
                 .isEqualToComparingFieldByFieldRecursively(expected.getOperationGraphics().get(0).getOperation());
     }
 
+    @Test
+    void 描画せずに属性を1つ持つクラスを返す() {
+        Class expected = new Class("ClassName");
+        expected.addAttribute(new Attribute(new Name("attribute")));
+
+        obj.createNodeText(ContentType.Title, "ClassName");
+        obj.createNodeText(ContentType.Attribute, "attribute");
+        Class actual = obj.extractClass();
+
+        assertThat(actual).isEqualToComparingFieldByFieldRecursively(expected);
+    }
+
+    @Test
+    void 描画結果の画像の記憶を有効にしていなければ直接描画する() {
+        GraphicsContext mocked = mock(GraphicsContext.class);
+        obj.setGraphicsContext(mocked);
+        obj.setMouseCoordinates(100.0, 200.0);
+        obj.createNodeText(ContentType.Title, "ClassName");
+
+        obj.draw();
+
+        verify(mocked).fillRect(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+        verify(mocked, never()).drawImage(any(), anyDouble(), anyDouble());
+        assertThat(obj.hasCachedImage()).isFalse();
+    }
+
+    @Nested
+    class 描画結果の画像の記憶を有効にしている場合 extends ApplicationTest {
+
+        GraphicsContext mocked;
+        int paintedCount;
+
+        @BeforeEach
+        void setup() {
+            mocked = mock(GraphicsContext.class);
+            obj.setGraphicsContext(mocked);
+            obj.setImageCacheEnabled(true);
+            obj.createNodeText(ContentType.Title, "ClassName");
+            obj.createNodeText(ContentType.Attribute, "- number : int");
+            obj.createNodeText(ContentType.Operation, "+ getNumber() : int");
+            paintedCount = 0;
+            drawWithImageCache();
+        }
+
+        @Test
+        void 二回目の描画では画像を貼り付けるだけで描画し直さない() {
+            drawWithImageCache();
+
+            assertThat(paintedCount).isEqualTo(1);
+            assertThat(obj.hasCachedImage()).isTrue();
+            verify(mocked, times(2)).drawImage(any(), anyDouble(), anyDouble());
+        }
+
+        @Test
+        void 内容を追加すると画像を破棄して描画し直す() {
+            obj.createNodeText(ContentType.Attribute, "- name : String");
+
+            assertThat(obj.hasCachedImage()).isFalse();
+            drawWithImageCache();
+            assertThat(paintedCount).isEqualTo(2);
+        }
+
+        @Test
+        void 内容を変更すると画像を破棄する() {
+            obj.changeNodeText(ContentType.Title, 0, "ChangedClassName");
+
+            assertThat(obj.hasCachedImage()).isFalse();
+        }
+
+        @Test
+        void 内容を削除すると画像を破棄する() {
+            obj.deleteNodeText(ContentType.Attribute, 0);
+
+            assertThat(obj.hasCachedImage()).isFalse();
+        }
+
+        @Test
+        void 内容を全て削除すると画像を破棄する() {
+            obj.deleteAllNodeText(ContentType.Operation);
+
+            assertThat(obj.hasCachedImage()).isFalse();
+        }
+
+        @Test
+        void 内容の表示の有無を変更すると画像を破棄する() {
+            obj.setNodeContentBoolean(ContentType.Attribute, ContentType.Indication, 0, false);
+
+            assertThat(obj.hasCachedImage()).isFalse();
+        }
+
+        @Test
+        void 選択状態を変更すると画像を破棄する() {
+            obj.setChosen(true);
+
+            assertThat(obj.hasCachedImage()).isFalse();
+        }
+
+        @Test
+        void 選択状態が変わらなければ画像を使い回す() {
+            obj.setChosen(false);
+
+            assertThat(obj.hasCachedImage()).isTrue();
+        }
+
+        private void drawWithImageCache() {
+            interact(() -> obj.drawWithImageCache(100.0, 200.0, 120.0, 80.0, () -> {
+                paintedCount++;
+                NodeDiagram.gc.fillRect(100.0, 200.0, 120.0, 80.0);
+            }));
+        }
+    }
+
     @Test
     void 生成時に設定できないタイプを設定しようとすると例外を投げる() {
         assertThatThrownBy(() -> obj.createNodeText(ContentType.Abstraction, "")).isInstanceOf(IllegalArgumentException.class);
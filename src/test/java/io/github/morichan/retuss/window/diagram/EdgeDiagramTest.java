@@ -1,6 +1,7 @@
 package io.github.morichan.retuss.window.diagram;
 
 import javafx.geometry.Point2D;
+import javafx.scene.canvas.GraphicsContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -11,6 +12,12 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 class EdgeDiagramTest {
 
@@ -570,4 +577,139 @@ class EdgeDiagramTest {
                     () -> assertThat(actual8).isEqualTo(225.0));
         }
     }
+
+    @Nested
+    class 関係を探索する場合 {
+
+        @BeforeEach
+        void setObj() {
+            obj = new EdgeDiagram();
+        }
+
+        @Test
+        void 関係先を移動すると移動前の位置では見つからない() {
+            obj.createEdgeText(ContentType.Composition, "- composition");
+            obj.setRelationPoint(ContentType.Composition, 0, new Point2D(300.0, 400.0));
+            obj.setRelationSourcePoint(ContentType.Composition, 0, new Point2D(100.0, 200.0));
+
+            obj.setRelationPoint(ContentType.Composition, 0, new Point2D(900.0, 200.0));
+
+            assertThat(obj.searchCurrentRelationNumber(new Point2D(200.0, 300.0))).isEqualTo(-1);
+            assertThat(obj.searchCurrentRelationNumber(new Point2D(500.0, 200.0))).isZero();
+        }
+
+        @Test
+        void 関係を削除すると後ろの関係の番号を詰めて返す() {
+            obj.createEdgeText(ContentType.Composition, "- first");
+            obj.setRelationPoint(ContentType.Composition, 0, new Point2D(300.0, 400.0));
+            obj.setRelationSourcePoint(ContentType.Composition, 0, new Point2D(100.0, 200.0));
+            obj.createEdgeText(ContentType.Composition, "- second");
+            obj.setRelationPoint(ContentType.Composition, 1, new Point2D(1300.0, 400.0));
+            obj.setRelationSourcePoint(ContentType.Composition, 1, new Point2D(1100.0, 200.0));
+
+            obj.deleteEdge(0);
+
+            assertThat(obj.searchCurrentRelationNumber(new Point2D(200.0, 300.0))).isEqualTo(-1);
+            assertThat(obj.searchCurrentRelationNumber(new Point2D(1200.0, 300.0))).isZero();
+        }
+
+        @Test
+        void 重なっている場合は後に生成した関係の番号を返す() {
+            for (int i = 0; i < 500; i++) {
+                obj.createEdgeText(ContentType.Composition, "- composition" + i);
+                obj.setRelationPoint(ContentType.Composition, i, new Point2D(300.0 + i * 100.0, 400.0));
+                obj.setRelationSourcePoint(ContentType.Composition, i, new Point2D(100.0 + i * 100.0, 200.0));
+            }
+            obj.createEdgeText(ContentType.Composition, "- overlapped");
+            obj.setRelationPoint(ContentType.Composition, 500, new Point2D(300.0, 400.0));
+            obj.setRelationSourcePoint(ContentType.Composition, 500, new Point2D(100.0, 200.0));
+
+            assertThat(obj.searchCurrentRelationNumber(new Point2D(200.0, 300.0))).isEqualTo(500);
+            assertThat(obj.searchCurrentRelation(new Point2D(20100.0, 300.0)).getText()).isEqualTo("- composition199");
+        }
+
+        @Test
+        void 座標を設定していない関係は見つからない() {
+            obj.createEdgeText(ContentType.Generalization, "");
+
+            assertThat(obj.searchCurrentRelationNumber(new Point2D(0.0, 0.0))).isEqualTo(-1);
+        }
+    }
+
+    @Nested
+    class 詳細度を下げて描画する場合 {
+
+        GraphicsContext mocked;
+
+        @BeforeEach
+        void setObj() {
+            obj = new EdgeDiagram();
+            mocked = mock(GraphicsContext.class);
+            obj.setGraphicsContext(mocked);
+            obj.createEdgeText(ContentType.Composition, "- composition");
+            obj.setRelationPoint(ContentType.Composition, 0, new Point2D(300.0, 400.0));
+            obj.setRelationSourcePoint(ContentType.Composition, 0, new Point2D(100.0, 200.0));
+        }
+
+        @Test
+        void クラス名のみの場合は線を描画して内容のテキストは描画しない() {
+            obj.setLevelOfDetail(LevelOfDetail.NameOnly);
+
+            obj.draw(100.0, 40.0, 100.0, 40.0, 0);
+
+            verify(mocked, times(3)).strokeLine(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+            verify(mocked, never()).fillText(anyString(), anyDouble(), anyDouble());
+        }
+
+        @Test
+        void 枠のみの場合も内容のテキストは描画しない() {
+            obj.setLevelOfDetail(LevelOfDetail.Outline);
+
+            obj.draw(100.0, 40.0, 100.0, 40.0, 0);
+
+            verify(mocked, never()).fillText(anyString(), anyDouble(), anyDouble());
+        }
+    }
+
+    @Nested
+    class 経路を設定した場合 {
+
+        GraphicsContext mocked;
+
+        @BeforeEach
+        void setObj() {
+            obj = new EdgeDiagram();
+            mocked = mock(GraphicsContext.class);
+            obj.setGraphicsContext(mocked);
+            obj.createEdgeText(ContentType.Composition, "- composition");
+            obj.setRelationPoint(ContentType.Composition, 0, new Point2D(300.0, 400.0));
+            obj.setRelationSourcePoint(ContentType.Composition, 0, new Point2D(100.0, 200.0));
+            obj.setEdgeRoute(0, Arrays.asList(new Point2D(100.0, 220.0), new Point2D(100.0, 400.0), new Point2D(250.0, 400.0)));
+        }
+
+        @Test
+        void 経路の線分ごとに描画する() {
+            obj.setLevelOfDetail(LevelOfDetail.NameOnly);
+
+            obj.draw(100.0, 40.0, 100.0, 40.0, 0);
+
+            verify(mocked).strokeLine(100.0, 220.0, 100.0, 400.0);
+            verify(mocked).strokeLine(100.0, 400.0, 250.0, 400.0);
+            verify(mocked, times(4)).strokeLine(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+        }
+
+        @Test
+        void 経路の線分上の関係を見つける() {
+            assertThat(obj.searchCurrentRelationNumber(new Point2D(100.0, 300.0))).isZero();
+            assertThat(obj.searchCurrentRelationNumber(new Point2D(200.0, 300.0))).isEqualTo(-1);
+        }
+
+        @Test
+        void 経路を削除すると直線に戻す() {
+            obj.clearEdgeRoutes();
+
+            assertThat(obj.getEdgeRoute(0)).isNull();
+            assertThat(obj.searchCurrentRelationNumber(new Point2D(200.0, 300.0))).isZero();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package io.github.morichan.retuss.window.utility;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class ForceDirectedLayoutTest {
+
+    ForceDirectedLayout obj;
+
+    @BeforeEach
+    void setup() {
+        obj = new ForceDirectedLayout();
+    }
+
+    @Test
+    void 理想的な距離が0以下ならば例外を投げる() {
+        assertThatThrownBy(() -> new ForceDirectedLayout(0.0, 0.8)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 近似の閾値が負ならば例外を投げる() {
+        assertThatThrownBy(() -> new ForceDirectedLayout(250.0, -0.1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 範囲外のノード番号を含む辺ならば例外を投げる() {
+        assertThatThrownBy(() -> obj.layout(2, Collections.singletonList(new int[]{0, 2}), null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Nested
+    class 全てのノードを配置する場合 {
+
+        @Test
+        void 辺で繋がったノード同士は繋がっていないノード同士より近くに配置する() {
+            Point2D[] actual = obj.layout(4, Arrays.asList(new int[]{0, 1}, new int[]{2, 3}), null);
+
+            assertThat(actual[0].distance(actual[1])).isLessThan(actual[0].distance(actual[2]));
+            assertThat(actual[2].distance(actual[3])).isLessThan(actual[1].distance(actual[3]));
+        }
+
+        @Test
+        void 最も左上のノードを原点からずらした位置に配置する() {
+            Point2D[] actual = obj.layout(5, Arrays.asList(new int[]{0, 1}, new int[]{1, 2}), null);
+
+            assertThat(Arrays.stream(actual).mapToDouble(Point2D::getX).min().getAsDouble()).isEqualTo(50.0);
+            assertThat(Arrays.stream(actual).mapToDouble(Point2D::getY).min().getAsDouble()).isEqualTo(50.0);
+        }
+
+        @Test
+        void 同じ座標から始めたノード同士も離して配置する() {
+            Point2D[] initial = {new Point2D(100.0, 100.0), new Point2D(100.0, 100.0), new Point2D(100.0, 100.0)};
+
+            Point2D[] actual = obj.layout(3, Collections.emptyList(), initial);
+
+            assertThat(actual[0].distance(actual[1])).isGreaterThan(50.0);
+            assertThat(actual[1].distance(actual[2])).isGreaterThan(50.0);
+        }
+
+        @Test
+        void 途中の配置を一定の繰返しごとに通知する() {
+            List<Point2D[]> notified = new ArrayList<>();
+
+            Point2D[] actual = obj.layout(3, Collections.singletonList(new int[]{0, 1}), null, 20, 5, notified::add);
+
+            assertThat(notified).hasSize(3);
+            assertThat(notified.get(0)).hasSize(3).isNotSameAs(actual);
+        }
+
+        @Test
+        void 数千のノードでも短時間で配置する() {
+            Random random = new Random(0);
+            int nodeCount = 3000;
+            List<int[]> edges = new ArrayList<>();
+            for (int i = 1; i < nodeCount; i++) edges.add(new int[]{i, random.nextInt(i)});
+
+            Point2D[] actual = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> obj.layout(nodeCount, edges, null));
+
+            assertThat(actual).hasSize(nodeCount).doesNotContainNull();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.morichan.retuss.window.utility;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class LayeredGraphLayoutTest {
+
+    LayeredGraphLayout obj;
+
+    @BeforeEach
+    void setup() {
+        obj = new LayeredGraphLayout(250.0, 200.0);
+    }
+
+    @Test
+    void 間隔が0以下ならば例外を投げる() {
+        assertThatThrownBy(() -> new LayeredGraphLayout(0.0, 200.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 範囲外のノード番号を含む辺ならば例外を投げる() {
+        assertThatThrownBy(() -> obj.layout(2, Collections.singletonList(new int[]{0, 2}))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Nested
+    class 全てのノードを配置する場合 {
+
+        @Test
+        void 関係先を関係元より上の層に配置する() {
+            Point2D[] actual = obj.layout(3, Arrays.asList(new int[]{0, 1}, new int[]{1, 2}));
+
+            assertThat(actual[2].getY()).isEqualTo(50.0);
+            assertThat(actual[1].getY()).isEqualTo(250.0);
+            assertThat(actual[0].getY()).isEqualTo(450.0);
+        }
+
+        @Test
+        void 閉路があっても全てのノードを異なる層に配置する() {
+            Point2D[] actual = obj.layout(3, Arrays.asList(new int[]{0, 1}, new int[]{1, 2}, new int[]{2, 0}));
+
+            assertThat(Arrays.stream(actual).mapToDouble(Point2D::getY).distinct().count()).isEqualTo(3);
+        }
+
+        @Test
+        void 辺が交差しないように並べ替える() {
+            Point2D[] actual = obj.layout(4, Arrays.asList(new int[]{2, 1}, new int[]{3, 0}));
+
+            assertThat(actual[0].getX()).isLessThan(actual[1].getX());
+            assertThat(actual[3].getX()).isLessThan(actual[2].getX());
+        }
+
+        @Test
+        void 同じ層のノードは間隔を空けて配置する() {
+            List<int[]> edges = new ArrayList<>();
+            for (int i = 1; i < 10; i++) edges.add(new int[]{i, 0});
+
+            Point2D[] actual = obj.layout(10, edges);
+
+            double[] xs = Arrays.stream(actual, 1, 10).mapToDouble(Point2D::getX).sorted().toArray();
+            for (int i = 1; i < xs.length; i++) assertThat(xs[i] - xs[i - 1]).isGreaterThanOrEqualTo(250.0 - 1e-6);
+            assertThat(actual[0].getX()).isCloseTo((xs[0] + xs[8]) / 2, within(1e-6));
+        }
+
+        @Test
+        void 辺を持たないノードは層の下に格子状に並べる() {
+            Point2D[] actual = obj.layout(8, Collections.singletonList(new int[]{0, 1}));
+
+            assertThat(actual[2]).isEqualTo(new Point2D(50.0, 450.0));
+            assertThat(actual[7]).isEqualTo(new Point2D(50.0, 650.0));
+        }
+
+        @Test
+        void 数千のノードでも短時間で配置する() {
+            Random random = new Random(0);
+            int nodeCount = 3000;
+            List<int[]> edges = new ArrayList<>();
+            for (int i = 1; i < nodeCount; i++) edges.add(new int[]{i, random.nextInt(i)});
+            for (int i = 0; i < nodeCount; i++) edges.add(new int[]{random.nextInt(nodeCount), random.nextInt(nodeCount)});
+
+            Point2D[] actual = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> obj.layout(nodeCount, edges));
+
+            assertThat(actual).doesNotContainNull();
+        }
+    }
+
+    @Nested
+    class ノードを1つ追加する場合 {
+
+        Point2D[] positions;
+
+        @BeforeEach
+        void setup() {
+            positions = new Point2D[]{new Point2D(300.0, 50.0), new Point2D(300.0, 250.0), null};
+        }
+
+        @Test
+        void 関係先の1つ下の層に重ならないように配置する() {
+            Point2D actual = obj.place(2, Arrays.asList(new int[]{1, 0}, new int[]{2, 0}), positions);
+
+            assertThat(actual.getY()).isEqualTo(250.0);
+            assertThat(Math.abs(actual.getX() - 300.0)).isGreaterThanOrEqualTo(250.0);
+        }
+
+        @Test
+        void 関係元のみがある場合は関係元の1つ上の層に配置する() {
+            positions[0] = new Point2D(300.0, 450.0);
+
+            Point2D actual = obj.place(2, Collections.singletonList(new int[]{0, 2}), positions);
+
+            assertThat(actual).isEqualTo(new Point2D(50.0, 250.0));
+        }
+
+        @Test
+        void 配置済みのノードは動かさない() {
+            obj.place(2, Collections.singletonList(new int[]{2, 1}), positions);
+
+            assertThat(positions[0]).isEqualTo(new Point2D(300.0, 50.0));
+            assertThat(positions[1]).isEqualTo(new Point2D(300.0, 250.0));
+        }
+    }
+}
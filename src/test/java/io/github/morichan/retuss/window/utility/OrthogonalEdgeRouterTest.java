@@ -0,0 +1,146 @@
+package io.github.morichan.retuss.window.utility;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrthogonalEdgeRouterTest {
+
+    OrthogonalEdgeRouter obj;
+    Rectangle2D source;
+    Rectangle2D target;
+
+    @BeforeEach
+    void setup() {
+        obj = new OrthogonalEdgeRouter();
+        source = new Rectangle2D(0.0, 0.0, 100.0, 80.0);
+        target = new Rectangle2D(400.0, 0.0, 100.0, 80.0);
+    }
+
+    @Test
+    void 距離が負ならば例外を投げる() {
+        assertThatThrownBy(() -> new OrthogonalEdgeRouter(-1.0, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 障害物が無ければ関係元と関係先の辺を直線で結ぶ() {
+        List<Point2D> actual = obj.route(source, target, Collections.emptyList());
+
+        assertThat(actual).containsExactly(new Point2D(100.0, 40.0), new Point2D(400.0, 40.0));
+    }
+
+    @Test
+    void 斜めに離れている場合は縦と横の線分のみで結ぶ() {
+        target = new Rectangle2D(400.0, 300.0, 100.0, 80.0);
+
+        List<Point2D> actual = obj.route(source, target, Collections.emptyList());
+
+        assertThat(actual.size()).isBetween(3, 4);
+        assertOrthogonal(actual);
+        assertThat(isOnBoundary(source, actual.get(0))).isTrue();
+        assertThat(isOnBoundary(target, actual.get(actual.size() - 1))).isTrue();
+    }
+
+    @Nested
+    class 間に障害物が存在する場合 {
+
+        Rectangle2D obstacle;
+
+        @BeforeEach
+        void setup() {
+            obstacle = new Rectangle2D(200.0, -20.0, 100.0, 120.0);
+        }
+
+        @Test
+        void 障害物を避けて曲がる() {
+            List<Point2D> actual = obj.route(source, target, Collections.singletonList(obstacle));
+
+            assertThat(actual.size()).isGreaterThan(2);
+            assertOrthogonal(actual);
+            for (int i = 0; i + 1 < actual.size(); i++) assertThat(intersects(obstacle, actual.get(i), actual.get(i + 1))).isFalse();
+            assertThat(isOnBoundary(source, actual.get(0))).isTrue();
+            assertThat(isOnBoundary(target, actual.get(actual.size() - 1))).isTrue();
+        }
+
+        @Test
+        void 障害物から距離を空ける() {
+            List<Point2D> actual = obj.route(source, target, Collections.singletonList(obstacle));
+
+            Rectangle2D expanded = new Rectangle2D(obstacle.getMinX() - obj.getMargin() + 1.0, obstacle.getMinY() - obj.getMargin() + 1.0,
+                    obstacle.getWidth() + obj.getMargin() * 2 - 2.0, obstacle.getHeight() + obj.getMargin() * 2 - 2.0);
+            for (int i = 0; i + 1 < actual.size(); i++) assertThat(intersects(expanded, actual.get(i), actual.get(i + 1))).isFalse();
+        }
+
+        @Test
+        void 障害物の数が上限を超える場合は直線で結ぶ() {
+            obj = new OrthogonalEdgeRouter(OrthogonalEdgeRouter.DEFAULT_MARGIN, 0);
+
+            List<Point2D> actual = obj.route(source, target, Collections.singletonList(obstacle));
+
+            assertThat(actual).containsExactly(new Point2D(100.0, 40.0), new Point2D(400.0, 40.0));
+        }
+    }
+
+    @Test
+    void 関係元と関係先が重なっている場合は直線で結ぶ() {
+        target = new Rectangle2D(50.0, 40.0, 100.0, 80.0);
+
+        List<Point2D> actual = obj.route(source, target, Collections.emptyList());
+
+        assertThat(actual).hasSize(2);
+    }
+
+    @Test
+    void 多くの障害物の間でも経路を探索する() {
+        List<Rectangle2D> obstacles = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                if (i == 0 && j == 0 || i == 7 && j == 7) continue;
+                obstacles.add(new Rectangle2D(i * 200.0, j * 150.0, 100.0, 80.0));
+            }
+        }
+        target = new Rectangle2D(1400.0, 1050.0, 100.0, 80.0);
+
+        List<Point2D> actual = obj.route(source, target, obstacles);
+
+        assertOrthogonal(actual);
+        for (Rectangle2D obstacle : obstacles) {
+            for (int i = 0; i + 1 < actual.size(); i++) assertThat(intersects(obstacle, actual.get(i), actual.get(i + 1))).isFalse();
+        }
+        assertThat(actual.get(actual.size() - 1)).isIn(Arrays.asList(new Point2D(1400.0, 1090.0), new Point2D(1450.0, 1050.0)));
+    }
+
+    private void assertOrthogonal(List<Point2D> points) {
+        for (int i = 0; i + 1 < points.size(); i++) {
+            Point2D a = points.get(i);
+            Point2D b = points.get(i + 1);
+            assertThat(a.getX() == b.getX() || a.getY() == b.getY()).isTrue();
+        }
+    }
+
+    private boolean isOnBoundary(Rectangle2D rectangle, Point2D point) {
+        boolean isOnVerticalSide = (point.getX() == rectangle.getMinX() || point.getX() == rectangle.getMaxX())
+                && rectangle.getMinY() <= point.getY() && point.getY() <= rectangle.getMaxY();
+        boolean isOnHorizontalSide = (point.getY() == rectangle.getMinY() || point.getY() == rectangle.getMaxY())
+                && rectangle.getMinX() <= point.getX() && point.getX() <= rectangle.getMaxX();
+        return isOnVerticalSide || isOnHorizontalSide;
+    }
+
+    private boolean intersects(Rectangle2D rectangle, Point2D a, Point2D b) {
+        double minX = Math.min(a.getX(), b.getX());
+        double maxX = Math.max(a.getX(), b.getX());
+        double minY = Math.min(a.getY(), b.getY());
+        double maxY = Math.max(a.getY(), b.getY());
+        return minX < rectangle.getMaxX() && rectangle.getMinX() < maxX && minY < rectangle.getMaxY() && rectangle.getMinY() < maxY;
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.morichan.retuss.window.utility;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpatialGridIndexTest {
+
+    SpatialGridIndex obj;
+
+    @BeforeEach
+    void setup() {
+        obj = new SpatialGridIndex(100.0);
+    }
+
+    @Test
+    void セルの大きさが0以下ならば例外を投げる() {
+        assertThatThrownBy(() -> new SpatialGridIndex(0.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Nested
+    class 要素を登録した場合 {
+
+        @BeforeEach
+        void setup() {
+            obj.put(0, 10.0, 10.0, 60.0, 50.0);
+            obj.put(1, 40.0, 30.0, 250.0, 130.0);
+            obj.put(2, -80.0, -80.0, -20.0, -20.0);
+        }
+
+        @Test
+        void 外接矩形が点を含む要素を昇順で返す() {
+            assertThat(obj.search(50.0, 40.0)).containsExactly(0, 1);
+            assertThat(obj.search(200.0, 120.0)).containsExactly(1);
+            assertThat(obj.search(-50.0, -50.0)).containsExactly(2);
+        }
+
+        @Test
+        void 同じセルでも外接矩形が点を含まない要素は返さない() {
+            assertThat(obj.search(90.0, 90.0)).containsExactly(1);
+            assertThat(obj.search(5.0, 5.0)).isEmpty();
+        }
+
+        @Test
+        void 矩形と外接矩形が重なる要素を昇順で返す() {
+            assertThat(obj.search(0.0, 0.0, 45.0, 35.0)).containsExactly(0, 1);
+            assertThat(obj.search(-100.0, -100.0, 0.0, 0.0)).containsExactly(2);
+            assertThat(obj.search(300.0, 300.0, 400.0, 400.0)).isEmpty();
+        }
+
+        @Test
+        void 再登録すると以前の外接矩形を置き換える() {
+            obj.put(0, 510.0, 510.0, 560.0, 550.0);
+
+            assertThat(obj.search(20.0, 20.0)).isEmpty();
+            assertThat(obj.search(520.0, 520.0)).containsExactly(0);
+            assertThat(obj.size()).isEqualTo(3);
+        }
+
+        @Test
+        void 幅が0の外接矩形を登録すると登録を削除する() {
+            obj.put(0, 10.0, 10.0, 10.0, 50.0);
+
+            assertThat(obj.search(20.0, 20.0)).isEmpty();
+            assertThat(obj.size()).isEqualTo(2);
+        }
+
+        @Test
+        void 削除すると返さない() {
+            obj.remove(1);
+
+            assertThat(obj.search(50.0, 40.0)).containsExactly(0);
+            assertThat(obj.search(200.0, 120.0)).isEmpty();
+        }
+
+        @Test
+        void 削除して詰めると後ろの要素の番号を1つ減らす() {
+            obj.removeAndShift(0);
+
+            assertThat(obj.search(50.0, 40.0)).containsExactly(0);
+            assertThat(obj.search(-50.0, -50.0)).containsExactly(1);
+            assertThat(obj.size()).isEqualTo(2);
+        }
+
+        @Test
+        void 全て削除すると何も返さない() {
+            obj.clear();
+
+            assertThat(obj.search(50.0, 40.0)).isEmpty();
+            assertThat(obj.size()).isZero();
+        }
+    }
+
+    @Nested
+    class 大量の要素を登録した場合 {
+
+        @Test
+        void 格子状に並べた要素から1つだけを返す() {
+            for (int i = 0; i < 500; i++) {
+                double x = (i % 25) * 150.0;
+                double y = (i / 25) * 120.0;
+                obj.put(i, x, y, x + 100.0, y + 80.0);
+            }
+
+            assertThat(obj.search(24 * 150.0 + 50.0, 19 * 120.0 + 40.0)).containsExactly(499);
+            assertThat(obj.search(120.0, 40.0)).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.morichan.retuss.window.utility;
+
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+import javafx.scene.text.FontWeight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextMetricsCacheTest {
+
+    TextMetricsCache obj;
+    int measuredCount;
+
+    @BeforeEach
+    void setup() {
+        measuredCount = 0;
+        obj = new TextMetricsCache(2, (text, font) -> {
+            measuredCount++;
+            return text.length() * font.getSize();
+        });
+    }
+
+    @Test
+    void 記憶する組の数が0以下ならば例外を投げる() {
+        assertThatThrownBy(() -> new TextMetricsCache(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Nested
+    class フォントを取得する場合 {
+
+        @Test
+        void 同じ組み合わせならば同じインスタンスを返す() {
+            Font expected = obj.getFont("Consolas", FontWeight.LIGHT, FontPosture.ITALIC, 15);
+
+            assertThat(obj.getFont("Consolas", FontWeight.LIGHT, FontPosture.ITALIC, 15)).isSameAs(expected);
+        }
+
+        @Test
+        void 斜体がnullならば斜体なしと同じインスタンスを返す() {
+            Font expected = obj.getFont("Consolas", FontWeight.BOLD, FontPosture.REGULAR, 20);
+
+            assertThat(obj.getFont("Consolas", FontWeight.BOLD, null, 20)).isSameAs(expected);
+        }
+
+        @Test
+        void 大きさが異なれば別のインスタンスを返す() {
+            Font small = obj.getFont("Consolas", FontWeight.LIGHT, FontPosture.REGULAR, 15);
+
+            assertThat(obj.getFont("Consolas", FontWeight.LIGHT, FontPosture.REGULAR, 20)).isNotSameAs(small);
+        }
+    }
+
+    @Nested
+    class 幅を取得する場合 {
+
+        Font font;
+
+        @BeforeEach
+        void setup() {
+            font = obj.getFont("Consolas", FontWeight.LIGHT, FontPosture.REGULAR, 15);
+        }
+
+        @Test
+        void 測った幅を返す() {
+            assertThat(obj.getWidth("first", font)).isEqualTo(75.0);
+        }
+
+        @Test
+        void 同じ組は1回だけ測る() {
+            obj.getWidth("first", font);
+            obj.getWidth("first", font);
+
+            assertThat(measuredCount).isEqualTo(1);
+            assertThat(obj.size()).isEqualTo(1);
+        }
+
+        @Test
+        void フォントが異なれば別の組として測る() {
+            obj.getWidth("first", font);
+            obj.getWidth("first", obj.getFont("Consolas", FontWeight.LIGHT, FontPosture.ITALIC, 15));
+
+            assertThat(measuredCount).isEqualTo(2);
+        }
+
+        @Test
+        void 記憶する組の数を超えると最も長く参照していない組を削除する() {
+            obj.getWidth("first", font);
+            obj.getWidth("second", font);
+            obj.getWidth("first", font);
+            obj.getWidth("third", font);
+            obj.getWidth("first", font);
+
+            assertThat(obj.size()).isEqualTo(2);
+            assertThat(measuredCount).isEqualTo(3);
+        }
+
+        @Test
+        void 全ての記憶を削除する() {
+            obj.getWidth("first", font);
+
+            obj.clear();
+
+            assertThat(obj.size()).isZero();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.morichan.retuss.window.utility;
+
+import javafx.geometry.Rectangle2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TiledCanvasTest {
+
+    TiledCanvas obj;
+    List<Rectangle2D> paintedRegions;
+
+    @BeforeEach
+    void setup() {
+        obj = new TiledCanvas(500.0);
+        paintedRegions = new ArrayList<>();
+        obj.setPainter((gc, region) -> paintedRegions.add(region));
+    }
+
+    @Test
+    void タイルの大きさが0以下ならば例外を投げる() {
+        assertThatThrownBy(() -> new TiledCanvas(0.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 表示領域を設定していなければタイルを用意しない() {
+        obj.setContentSize(20000.0, 20000.0);
+
+        assertThat(obj.getTileCount()).isZero();
+        assertThat(obj.getPrefWidth()).isEqualTo(20000.0);
+    }
+
+    @Nested
+    class 大きな図の一部を表示している場合 {
+
+        @BeforeEach
+        void setup() {
+            obj.setContentSize(20000.0, 20000.0);
+            obj.setViewport(new Rectangle2D(250.0, 0.0, 800.0, 600.0));
+        }
+
+        @Test
+        void 表示領域に掛かるタイルのみを用意して描画する() {
+            assertThat(obj.getTileCount()).isEqualTo(6);
+            assertThat(paintedRegions).hasSize(6).contains(new Rectangle2D(1000.0, 500.0, 500.0, 500.0));
+        }
+
+        @Test
+        void スクロールすると外れたタイルを使い回す() {
+            obj.setViewport(new Rectangle2D(10250.0, 10000.0, 800.0, 600.0));
+
+            assertThat(obj.getTileCount()).isEqualTo(6);
+            assertThat(obj.getChildren()).hasSize(6);
+            assertThat(obj.getPooledTileCount()).isZero();
+        }
+
+        @Test
+        void 少しだけスクロールすると新たに掛かったタイルのみを描画する() {
+            paintedRegions.clear();
+
+            obj.setViewport(new Rectangle2D(250.0, 450.0, 800.0, 600.0));
+
+            assertThat(obj.getTileCount()).isEqualTo(9);
+            assertThat(paintedRegions).hasSize(3);
+        }
+
+        @Test
+        void 任意の領域に掛かるタイルのみを描画し直す() {
+            paintedRegions.clear();
+
+            obj.repaint(new Rectangle2D(450.0, 450.0, 100.0, 100.0));
+
+            assertThat(paintedRegions).hasSize(4).contains(new Rectangle2D(500.0, 500.0, 50.0, 50.0));
+        }
+
+        @Test
+        void 表示領域外の領域は描画し直さない() {
+            paintedRegions.clear();
+
+            obj.repaint(new Rectangle2D(5000.0, 5000.0, 100.0, 100.0));
+
+            assertThat(paintedRegions).isEmpty();
+        }
+    }
+
+    @Test
+    void 図の端のタイルは図の内側のみを描画する() {
+        obj.setContentSize(700.0, 700.0);
+        obj.setViewport(new Rectangle2D(0.0, 0.0, 1000.0, 1000.0));
+
+        assertThat(obj.getTileCount()).isEqualTo(4);
+        assertThat(paintedRegions).contains(new Rectangle2D(500.0, 500.0, 200.0, 200.0));
+    }
+}